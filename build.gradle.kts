@@ -6,6 +6,7 @@ plugins {
     `maven-publish`
 
     alias(libs.plugins.nyx)
+    alias(libs.plugins.jmh)
     alias(libs.plugins.axion.release)
 }
 
@@ -95,12 +96,49 @@ dependencies {
     testImplementation(libs.bundles.junit)
 }
 
+jmh {
+    warmupIterations = 3
+    iterations = 5
+    fork = 1
+    profilers.add("gc")
+    providers.gradleProperty("jmh.includes").orNull?.let { includes.add(it) }
+
+    jvmArgsAppend.add("--add-modules=jdk.incubator.vector")
+
+    resultFormat = "JSON"
+    resultsFile = layout.buildDirectory.file("reports/jmh/results.json")
+}
+
+// Only the Vectorized* kernels use the incubator module, and they are only loaded reflectively. They get their own compile task, so
+// javac's "using incubating module(s)" warning, which no -Xlint option suppresses on 21, is only printed when they change.
+val vectorKernels = "**/Vectorized*"
+
+val compileVectorKernels by tasks.registering(JavaCompile::class) {
+    source = sourceSets.main.get().java.matching { include(vectorKernels) }.asFileTree
+    classpath = sourceSets.main.get().compileClasspath + files(tasks.compileJava)
+    destinationDirectory = layout.buildDirectory.dir("classes/java/vectorKernels")
+    options.compilerArgs.addAll(listOf("--add-modules", "jdk.incubator.vector"))
+}
+
+sourceSets.main {
+    output.dir(mapOf("builtBy" to compileVectorKernels), compileVectorKernels.flatMap { it.destinationDirectory })
+}
+
 tasks {
     withType<JavaCompile>().configureEach {
         options.isFork = true
         options.isIncremental = true
     }
 
+    compileJava {
+        exclude(vectorKernels)
+    }
+
+    withType<Javadoc>().configureEach {
+        // package-private, and javadoc would warn about the incubator module
+        exclude("**/Vectorized*")
+    }
+
     withType<Test>().configureEach {
         useJUnitPlatform()
 
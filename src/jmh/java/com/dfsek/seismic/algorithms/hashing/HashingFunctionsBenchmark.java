@@ -0,0 +1,74 @@
+package com.dfsek.seismic.algorithms.hashing;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+
+
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class HashingFunctionsBenchmark {
+    private static final int SAMPLES = 1024;
+
+    private final long[] values = new long[SAMPLES];
+    private final int[] primed = new int[SAMPLES * 3];
+
+    private String string;
+
+    @Setup(Level.Trial)
+    public void setup() {
+        SplittableRandom random = new SplittableRandom(1337);
+        for(int i = 0; i < SAMPLES; i++) {
+            values[i] = random.nextLong();
+        }
+        for(int i = 0; i < primed.length; i++) {
+            primed[i] = random.nextInt();
+        }
+        string = "minecraft:overworld/biomes/mountains";
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(SAMPLES)
+    public long murmur64() {
+        long sum = 0;
+        for(long value : values) {
+            sum += HashingFunctions.murmur64(value);
+        }
+        return sum;
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(SAMPLES)
+    public int hashPrimeCoords2D() {
+        int sum = 0;
+        for(int i = 0; i < SAMPLES; i++) {
+            sum += HashingFunctions.hashPrimeCoords(1337, primed[i * 3], primed[i * 3 + 1]);
+        }
+        return sum;
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(SAMPLES)
+    public int hashPrimeCoords3D() {
+        int sum = 0;
+        for(int i = 0; i < SAMPLES; i++) {
+            sum += HashingFunctions.hashPrimeCoords(1337, primed[i * 3], primed[i * 3 + 1], primed[i * 3 + 2]);
+        }
+        return sum;
+    }
+
+    @Benchmark
+    public long hashString() {
+        return HashingFunctions.hashString(string);
+    }
+}
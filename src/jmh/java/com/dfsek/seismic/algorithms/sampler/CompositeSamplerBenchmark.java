@@ -0,0 +1,98 @@
+package com.dfsek.seismic.algorithms.sampler;
+
+import com.dfsek.seismic.algorithms.sampler.arithmetic.AdditionSampler;
+import com.dfsek.seismic.algorithms.sampler.arithmetic.DivisionSampler;
+import com.dfsek.seismic.algorithms.sampler.arithmetic.MaxSampler;
+import com.dfsek.seismic.algorithms.sampler.arithmetic.MinSampler;
+import com.dfsek.seismic.algorithms.sampler.arithmetic.MultiplicationSampler;
+import com.dfsek.seismic.algorithms.sampler.arithmetic.SubtractionSampler;
+import com.dfsek.seismic.algorithms.sampler.noise.NoiseSamplers;
+import com.dfsek.seismic.algorithms.sampler.noise.PseudoErosionSampler;
+import com.dfsek.seismic.algorithms.sampler.noise.fractal.BrownianMotionSampler;
+import com.dfsek.seismic.algorithms.sampler.normalizer.ClampNormalizer;
+import com.dfsek.seismic.algorithms.sampler.normalizer.LinearMapNormalizer;
+import com.dfsek.seismic.algorithms.sampler.normalizer.LinearNormalizer;
+import com.dfsek.seismic.algorithms.sampler.normalizer.NormalNormalizer;
+import com.dfsek.seismic.algorithms.sampler.normalizer.PosterizationNormalizer;
+import com.dfsek.seismic.algorithms.sampler.normalizer.ProbabilityNormalizer;
+import com.dfsek.seismic.algorithms.sampler.normalizer.ScaleNormalizer;
+import com.dfsek.seismic.type.CubicSpline;
+import com.dfsek.seismic.type.sampler.Sampler;
+import org.openjdk.jmh.annotations.Param;
+
+import java.awt.image.BufferedImage;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.SplittableRandom;
+
+
+/**
+ * Benchmarks every sampler that wraps other samplers, with OpenSimplex2 noise as input.
+ */
+public class CompositeSamplerBenchmark extends SamplerBenchmark {
+    @Param({
+        "Addition", "Subtraction", "Multiplication", "Division", "Min", "Max",
+        "ClampNormalizer", "LinearMapNormalizer", "LinearNormalizer", "NormalNormalizer", "PosterizationNormalizer",
+        "ProbabilityNormalizer", "ScaleNormalizer",
+        "CubicSpline", "DomainWarped", "Kernel", "LinearHeightmap", "Translate", "Image",
+        "ImageNearest", "ImageBilinear", "ImageBicubic", "PseudoErosion"
+    })
+    public String composite;
+
+    private static CubicSpline spline(int points) {
+        List<CubicSpline.Point> list = new ArrayList<>();
+        for(int i = 0; i < points; i++) {
+            double from = -1 + 2.0 * i / (points - 1);
+            list.add(new CubicSpline.Point(from, from * from * from, 3 * from * from));
+        }
+        return new CubicSpline(list);
+    }
+
+    private static BufferedImage image() {
+        BufferedImage image = new BufferedImage(1024, 1024, BufferedImage.TYPE_INT_ARGB);
+        SplittableRandom random = new SplittableRandom(SEED);
+        for(int x = 0; x < image.getWidth(); x++) {
+            for(int y = 0; y < image.getHeight(); y++) {
+                image.setRGB(x, y, random.nextInt());
+            }
+        }
+        return image;
+    }
+
+    @Override
+    protected Sampler createSampler() {
+        Sampler input = NoiseSamplers.noise("OpenSimplex2");
+        Sampler other = NoiseSamplers.noise("OpenSimplex2S");
+        return switch(composite) {
+            case "Addition" -> new AdditionSampler(input, other);
+            case "Subtraction" -> new SubtractionSampler(input, other);
+            case "Multiplication" -> new MultiplicationSampler(input, other);
+            case "Division" -> new DivisionSampler(input, other);
+            case "Min" -> new MinSampler(input, other);
+            case "Max" -> new MaxSampler(input, other);
+            case "ClampNormalizer" -> new ClampNormalizer(input, -0.5, 0.5);
+            case "LinearMapNormalizer" -> new LinearMapNormalizer(input, -1, 1, 0, 64);
+            case "LinearNormalizer" -> new LinearNormalizer(input, -0.8, 0.8);
+            case "NormalNormalizer" -> new NormalNormalizer(input, 4096, 0, 0.3);
+            case "PosterizationNormalizer" -> new PosterizationNormalizer(input, 8);
+            case "ProbabilityNormalizer" -> new ProbabilityNormalizer(input);
+            case "ScaleNormalizer" -> new ScaleNormalizer(input, 64);
+            case "CubicSpline" -> new CubicSplineSampler(input, spline(16));
+            case "DomainWarped" -> new DomainWarpedSampler(input, NoiseSamplers.fractal("BrownianMotion", other), 20);
+            case "Kernel" -> new KernelSampler(new double[][]{
+                { 1 / 16.0, 2 / 16.0, 1 / 16.0 },
+                { 2 / 16.0, 4 / 16.0, 2 / 16.0 },
+                { 1 / 16.0, 2 / 16.0, 1 / 16.0 }
+            }, input);
+            case "LinearHeightmap" -> new LinearHeightmapSampler(input, 64, 64);
+            case "Translate" -> new TranslateSampler(input, 100, 0, -100);
+            case "Image" -> new ImageSampler(image(), ImageSampler.Channel.GRAYSCALE, 1);
+            case "ImageNearest" -> new ImageSampler(image(), ImageSampler.Channel.GRAYSCALE, 1, ImageSampler.Filter.NEAREST);
+            case "ImageBilinear" -> new ImageSampler(image(), ImageSampler.Channel.GRAYSCALE, 1, ImageSampler.Filter.BILINEAR);
+            case "ImageBicubic" -> new ImageSampler(image(), ImageSampler.Channel.GRAYSCALE, 1, ImageSampler.Filter.BICUBIC);
+            case "PseudoErosion" -> new PseudoErosionSampler(4, 0.5, 2, 1, 0.5, 0.3, 0.04,
+                new BrownianMotionSampler(NoiseSamplers.noise("OpenSimplex2")), true, 0.2, 0.05, 1, true);
+            default -> throw new IllegalArgumentException("Unknown composite sampler: " + composite);
+        };
+    }
+}
@@ -0,0 +1,91 @@
+package com.dfsek.seismic.algorithms.sampler;
+
+import com.dfsek.seismic.algorithms.sampler.noise.NoiseSamplers;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+
+
+/**
+ * Benchmarks filling a tile with {@link KernelSampler} over fractal noise, pointwise and in region mode. The Gaussian kernels are
+ * separable, the random kernels are convolved directly, or through the Fourier transform when large. Times are per tile.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class KernelGridBenchmark {
+    @Param({ "16", "64" })
+    public int size;
+
+    @Param({ "Gaussian3", "Gaussian9", "Random9", "Random25" })
+    public String kernel;
+
+    private double[] out;
+
+    private KernelSampler pointwise;
+    private KernelSampler region;
+
+    private static double[][] gaussian(int width) {
+        double[] row = new double[width];
+        double sum = 0;
+        for(int i = 0; i < width; i++) {
+            double offset = (i - (width - 1) / 2.0) / (width / 4.0);
+            row[i] = Math.exp(-offset * offset / 2);
+            sum += row[i];
+        }
+        double[][] kernel = new double[width][width];
+        for(int kx = 0; kx < width; kx++) {
+            for(int ky = 0; ky < width; ky++) {
+                kernel[kx][ky] = row[kx] * row[ky] / (sum * sum);
+            }
+        }
+        return kernel;
+    }
+
+    private static double[][] random(int width) {
+        SplittableRandom random = new SplittableRandom(SamplerBenchmark.SEED);
+        double[][] kernel = new double[width][width];
+        for(double[] row : kernel) {
+            for(int ky = 0; ky < width; ky++) {
+                row[ky] = random.nextDouble(-1, 1) / (width * width);
+            }
+        }
+        return kernel;
+    }
+
+    @Setup(Level.Trial)
+    public void setup() {
+        out = new double[size * size];
+        double[][] weights = switch(kernel) {
+            case "Gaussian3" -> gaussian(3);
+            case "Gaussian9" -> gaussian(9);
+            case "Random9" -> random(9);
+            case "Random25" -> random(25);
+            default -> throw new IllegalArgumentException("Unknown kernel: " + kernel);
+        };
+        pointwise = new KernelSampler(weights, NoiseSamplers.fractal("BrownianMotion", NoiseSamplers.noise("OpenSimplex2")));
+        region = new KernelSampler(weights, NoiseSamplers.fractal("BrownianMotion", NoiseSamplers.noise("OpenSimplex2")));
+        region.setRegionMode(true);
+    }
+
+    @Benchmark
+    public double[] pointwise() {
+        pointwise.getSampleGrid(SamplerBenchmark.SEED, out, 1024, -512, 1, 1, size, size);
+        return out;
+    }
+
+    @Benchmark
+    public double[] region() {
+        region.getSampleGrid(SamplerBenchmark.SEED, out, 1024, -512, 1, 1, size, size);
+        return out;
+    }
+}
@@ -0,0 +1,74 @@
+package com.dfsek.seismic.algorithms.sampler;
+
+import com.dfsek.seismic.type.sampler.Sampler;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+
+
+/**
+ * Base benchmark sampling a {@link Sampler} at a fixed set of pseudo-random coordinates.
+ * <p>
+ * Every invocation evaluates {@value #SAMPLES} coordinates, and results are reported per sample.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public abstract class SamplerBenchmark {
+    public static final int SAMPLES = 1024;
+
+    /**
+     * Coordinates are spread over this many blocks in every direction from the origin.
+     */
+    public static final double SPREAD = 10000;
+
+    public static final long SEED = 1337;
+
+    protected final double[] xs = new double[SAMPLES];
+    protected final double[] ys = new double[SAMPLES];
+    protected final double[] zs = new double[SAMPLES];
+
+    protected Sampler sampler;
+
+    @Setup(Level.Trial)
+    public void setup() {
+        SplittableRandom random = new SplittableRandom(SEED);
+        for(int i = 0; i < SAMPLES; i++) {
+            xs[i] = random.nextDouble(-SPREAD, SPREAD);
+            ys[i] = random.nextDouble(-64, 320);
+            zs[i] = random.nextDouble(-SPREAD, SPREAD);
+        }
+        sampler = createSampler();
+    }
+
+    protected abstract Sampler createSampler();
+
+    @Benchmark
+    @OperationsPerInvocation(SAMPLES)
+    public double sample2D() {
+        double sum = 0;
+        for(int i = 0; i < SAMPLES; i++) {
+            sum += sampler.getSample(SEED, xs[i], zs[i]);
+        }
+        return sum;
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(SAMPLES)
+    public double sample3D() {
+        double sum = 0;
+        for(int i = 0; i < SAMPLES; i++) {
+            sum += sampler.getSample(SEED, xs[i], ys[i], zs[i]);
+        }
+        return sum;
+    }
+}
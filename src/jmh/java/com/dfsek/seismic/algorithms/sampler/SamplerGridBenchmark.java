@@ -0,0 +1,71 @@
+package com.dfsek.seismic.algorithms.sampler;
+
+import com.dfsek.seismic.algorithms.sampler.noise.NoiseSamplers;
+import com.dfsek.seismic.type.sampler.Sampler;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.util.concurrent.TimeUnit;
+
+
+/**
+ * Benchmarks filling a 16x16x16 chunk section, sample by sample and through the grid API.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class SamplerGridBenchmark {
+    private static final int SIZE = 16;
+    private static final int VOLUME = SIZE * SIZE * SIZE;
+
+    @Param({ "OpenSimplex2", "OpenSimplex2S", "Simplex", "Perlin", "Value", "ValueCubic", "Cellular", "WhiteNoise" })
+    public String noise;
+
+    @Param({ "None", "BrownianMotion" })
+    public String fractal;
+
+    private final double[] out = new double[VOLUME];
+
+    private Sampler sampler;
+
+    @Setup(Level.Trial)
+    public void setup() {
+        sampler = NoiseSamplers.fractal(fractal, NoiseSamplers.noise(noise));
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(VOLUME)
+    public double[] pointwise3D() {
+        int index = 0;
+        for(int x = 0; x < SIZE; x++) {
+            for(int y = 0; y < SIZE; y++) {
+                for(int z = 0; z < SIZE; z++) {
+                    out[index++] = sampler.getSample(SamplerBenchmark.SEED, x + 1024.0, y + 64.0, z - 512.0);
+                }
+            }
+        }
+        return out;
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(VOLUME)
+    public double[] grid3D() {
+        sampler.getSampleGrid(SamplerBenchmark.SEED, out, 1024, 64, -512, 1, 1, 1, SIZE, SIZE, SIZE);
+        return out;
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(SIZE * SIZE)
+    public double[] grid2D() {
+        sampler.getSampleGrid(SamplerBenchmark.SEED, out, 1024, -512, 1, 1, SIZE, SIZE);
+        return out;
+    }
+}
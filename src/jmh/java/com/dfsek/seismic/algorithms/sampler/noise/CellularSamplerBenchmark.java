@@ -0,0 +1,30 @@
+package com.dfsek.seismic.algorithms.sampler.noise;
+
+import com.dfsek.seismic.algorithms.sampler.SamplerBenchmark;
+import com.dfsek.seismic.type.DistanceFunction;
+import com.dfsek.seismic.type.sampler.Sampler;
+import org.openjdk.jmh.annotations.Param;
+
+
+/**
+ * Benchmarks {@link CellularSampler} under every combination of return type and distance function.
+ */
+public class CellularSamplerBenchmark extends SamplerBenchmark {
+    @Param({
+        "CellValue", "Distance", "Distance2", "Distance2Add", "Distance2Sub", "Distance2Mul", "Distance2Div", "NoiseLookup",
+        "LocalNoiseLookup", "Distance3", "Distance3Add", "Distance3Sub", "Distance3Mul", "Distance3Div", "Angle"
+    })
+    public String returnType;
+
+    @Param({ "Euclidean", "EuclideanSq", "Manhattan", "Hybrid" })
+    public String distanceFunction;
+
+    @Override
+    protected Sampler createSampler() {
+        CellularSampler cellular = new CellularSampler();
+        cellular.setFrequency(NoiseSamplers.FREQUENCY);
+        cellular.setReturnType(CellularSampler.ReturnType.valueOf(returnType));
+        cellular.setDistanceFunction(DistanceFunction.valueOf(distanceFunction));
+        return cellular;
+    }
+}
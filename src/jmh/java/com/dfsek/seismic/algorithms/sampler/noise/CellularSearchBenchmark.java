@@ -0,0 +1,80 @@
+package com.dfsek.seismic.algorithms.sampler.noise;
+
+import com.dfsek.seismic.algorithms.sampler.SamplerBenchmark;
+import com.dfsek.seismic.type.DistanceFunction;
+import com.dfsek.seismic.type.sampler.Sampler;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Setup;
+
+
+/**
+ * Compares the pruned neighbour search of {@link CellularSampler} against one that visits every neighbouring cell.
+ * <p>
+ * Setup fails if the two disagree on any sample, so every reported result is for identical output.
+ */
+public class CellularSearchBenchmark extends SamplerBenchmark {
+    @Param({ "CellValue", "Distance", "Distance2Div", "Distance3" })
+    public String returnType;
+
+    @Param({ "EuclideanSq", "Manhattan", "Hybrid" })
+    public String distanceFunction;
+
+    @Param({ "0.5", "1.0" })
+    public double jitter;
+
+    private ExhaustiveCellularSampler exhaustive;
+
+    @Override
+    @Setup(Level.Trial)
+    public void setup() {
+        super.setup();
+        exhaustive = new ExhaustiveCellularSampler(DistanceFunction.valueOf(distanceFunction),
+            CellularSampler.ReturnType.valueOf(returnType), jitter);
+        exhaustive.setFrequency(NoiseSamplers.FREQUENCY);
+
+        for(int i = 0; i < SAMPLES; i++) {
+            CellularSearchBenchmark.verify(sampler.getSample(SEED, xs[i], zs[i]), exhaustive.getSample(SEED, xs[i], zs[i]));
+            CellularSearchBenchmark.verify(sampler.getSample(SEED, xs[i], ys[i], zs[i]),
+                exhaustive.getSample(SEED, xs[i], ys[i], zs[i]));
+        }
+    }
+
+    private static void verify(double pruned, double reference) {
+        if(Double.compare(pruned, reference) != 0) {
+            throw new IllegalStateException("Pruned search returned " + pruned + " where the exhaustive search returned " + reference);
+        }
+    }
+
+    @Override
+    protected Sampler createSampler() {
+        CellularSampler cellular = new CellularSampler();
+        cellular.setFrequency(NoiseSamplers.FREQUENCY);
+        cellular.setReturnType(CellularSampler.ReturnType.valueOf(returnType));
+        cellular.setDistanceFunction(DistanceFunction.valueOf(distanceFunction));
+        cellular.setJitterModifier(jitter);
+        return cellular;
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(SAMPLES)
+    public double exhaustive2D() {
+        double sum = 0;
+        for(int i = 0; i < SAMPLES; i++) {
+            sum += exhaustive.getSample(SEED, xs[i], zs[i]);
+        }
+        return sum;
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(SAMPLES)
+    public double exhaustive3D() {
+        double sum = 0;
+        for(int i = 0; i < SAMPLES; i++) {
+            sum += exhaustive.getSample(SEED, xs[i], ys[i], zs[i]);
+        }
+        return sum;
+    }
+}
@@ -0,0 +1,79 @@
+package com.dfsek.seismic.algorithms.sampler.noise;
+
+import com.dfsek.seismic.algorithms.sampler.SamplerBenchmark;
+import com.dfsek.seismic.algorithms.sampler.arithmetic.AdditionSampler;
+import com.dfsek.seismic.algorithms.sampler.arithmetic.MultiplicationSampler;
+import com.dfsek.seismic.type.sampler.DerivativeSampler;
+import com.dfsek.seismic.type.sampler.Sampler;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.Param;
+
+
+/**
+ * Benchmarks derivative sampling, through both the allocating and the caller-supplied buffer overloads.
+ */
+public class DerivativeSamplerBenchmark extends SamplerBenchmark {
+    @Param({ "OpenSimplex2", "OpenSimplex2S", "BrownianMotion", "Addition", "Multiplication" })
+    public String derivative;
+
+    private final double[] buffer = new double[4];
+
+    private DerivativeSampler derivativeSampler;
+
+    @Override
+    protected Sampler createSampler() {
+        derivativeSampler = switch(derivative) {
+            case "OpenSimplex2", "OpenSimplex2S" -> (DerivativeSampler) NoiseSamplers.noise(derivative);
+            case "BrownianMotion" -> (DerivativeSampler) NoiseSamplers.fractal(derivative, NoiseSamplers.noise("OpenSimplex2"));
+            case "Addition" -> new AdditionSampler(NoiseSamplers.noise("OpenSimplex2"), NoiseSamplers.noise("OpenSimplex2S"));
+            case "Multiplication" -> new MultiplicationSampler(NoiseSamplers.noise("OpenSimplex2"), NoiseSamplers.noise("OpenSimplex2S"));
+            default -> throw new IllegalArgumentException("Unknown derivative sampler: " + derivative);
+        };
+        return derivativeSampler;
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(SAMPLES)
+    public double derivative2D() {
+        double sum = 0;
+        for(int i = 0; i < SAMPLES; i++) {
+            double[] sample = derivativeSampler.getSampleDerivative(SEED, xs[i], zs[i]);
+            sum += sample[0] + sample[1] + sample[2];
+        }
+        return sum;
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(SAMPLES)
+    public double derivative3D() {
+        double sum = 0;
+        for(int i = 0; i < SAMPLES; i++) {
+            double[] sample = derivativeSampler.getSampleDerivative(SEED, xs[i], ys[i], zs[i]);
+            sum += sample[0] + sample[1] + sample[2] + sample[3];
+        }
+        return sum;
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(SAMPLES)
+    public double derivativeBuffer2D() {
+        double sum = 0;
+        for(int i = 0; i < SAMPLES; i++) {
+            derivativeSampler.getSampleDerivative(SEED, buffer, 0, xs[i], zs[i]);
+            sum += buffer[0] + buffer[1] + buffer[2];
+        }
+        return sum;
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(SAMPLES)
+    public double derivativeBuffer3D() {
+        double sum = 0;
+        for(int i = 0; i < SAMPLES; i++) {
+            derivativeSampler.getSampleDerivative(SEED, buffer, 0, xs[i], ys[i], zs[i]);
+            sum += buffer[0] + buffer[1] + buffer[2] + buffer[3];
+        }
+        return sum;
+    }
+}
@@ -0,0 +1,25 @@
+package com.dfsek.seismic.algorithms.sampler.noise;
+
+import com.dfsek.seismic.algorithms.sampler.SamplerBenchmark;
+import com.dfsek.seismic.type.sampler.Sampler;
+import org.openjdk.jmh.annotations.Param;
+
+
+/**
+ * Benchmarks every noise sampler, both on its own and wrapped in each fractal sampler.
+ */
+public class NoiseSamplerBenchmark extends SamplerBenchmark {
+    @Param({
+        "OpenSimplex2", "OpenSimplex2S", "Simplex", "Perlin", "Value", "ValueCubic", "Cellular", "Gabor", "GaborFast",
+        "WhiteNoise", "PositiveWhiteNoise", "Gaussian", "GaussianFast", "Constant", "Distance"
+    })
+    public String noise;
+
+    @Param({ "None", "BrownianMotion", "Ridged", "PingPong" })
+    public String fractal;
+
+    @Override
+    protected Sampler createSampler() {
+        return NoiseSamplers.fractal(fractal, NoiseSamplers.noise(noise));
+    }
+}
@@ -0,0 +1,81 @@
+package com.dfsek.seismic.algorithms.sampler.noise;
+
+import com.dfsek.seismic.algorithms.sampler.noise.fractal.BrownianMotionSampler;
+import com.dfsek.seismic.algorithms.sampler.noise.fractal.FractalNoiseFunction;
+import com.dfsek.seismic.algorithms.sampler.noise.fractal.PingPongSampler;
+import com.dfsek.seismic.algorithms.sampler.noise.fractal.RidgedFractalSampler;
+import com.dfsek.seismic.algorithms.sampler.noise.random.GaussianNoiseSampler;
+import com.dfsek.seismic.algorithms.sampler.noise.random.PositiveWhiteNoiseSampler;
+import com.dfsek.seismic.algorithms.sampler.noise.random.WhiteNoiseSampler;
+import com.dfsek.seismic.algorithms.sampler.noise.simplex.OpenSimplex2SSampler;
+import com.dfsek.seismic.algorithms.sampler.noise.simplex.OpenSimplex2Sampler;
+import com.dfsek.seismic.algorithms.sampler.noise.simplex.PerlinSampler;
+import com.dfsek.seismic.algorithms.sampler.noise.simplex.SimplexSampler;
+import com.dfsek.seismic.algorithms.sampler.noise.value.ValueCubicSampler;
+import com.dfsek.seismic.algorithms.sampler.noise.value.ValueSampler;
+import com.dfsek.seismic.type.DistanceFunction;
+import com.dfsek.seismic.type.sampler.Sampler;
+
+
+/**
+ * Constructs the samplers under benchmark by name, configured with realistic world generation settings.
+ */
+public final class NoiseSamplers {
+    /**
+     * Frequency used by base noise samplers, a feature size of roughly 50 blocks.
+     */
+    public static final double FREQUENCY = 0.02;
+
+    public static final int OCTAVES = 6;
+
+    private NoiseSamplers() {
+    }
+
+    public static NoiseFunction noise(String name) {
+        NoiseFunction noise = switch(name) {
+            case "OpenSimplex2" -> new OpenSimplex2Sampler();
+            case "OpenSimplex2S" -> new OpenSimplex2SSampler();
+            case "Simplex" -> new SimplexSampler();
+            case "Perlin" -> new PerlinSampler();
+            case "Value" -> new ValueSampler();
+            case "ValueCubic" -> new ValueCubicSampler();
+            case "Cellular" -> new CellularSampler();
+            case "Gabor" -> new GaborNoiseSampler();
+            case "GaborFast" -> {
+                GaborNoiseSampler gabor = new GaborNoiseSampler();
+                gabor.setFastMode(true);
+                yield gabor;
+            }
+            case "WhiteNoise" -> new WhiteNoiseSampler();
+            case "PositiveWhiteNoise" -> new PositiveWhiteNoiseSampler();
+            case "Gaussian" -> new GaussianNoiseSampler();
+            case "GaussianFast" -> {
+                GaussianNoiseSampler gaussian = new GaussianNoiseSampler();
+                gaussian.setFastMode(true);
+                yield gaussian;
+            }
+            case "Constant" -> new ConstantSampler(0.5);
+            case "Distance" -> new DistanceSampler(DistanceFunction.Euclidean, 0, 0, 0, true, 1000);
+            default -> throw new IllegalArgumentException("Unknown noise sampler: " + name);
+        };
+        if(!(noise instanceof DistanceSampler)) {
+            noise.setFrequency(FREQUENCY);
+        }
+        return noise;
+    }
+
+    public static Sampler fractal(String name, Sampler input) {
+        FractalNoiseFunction fractal = switch(name) {
+            case "None" -> null;
+            case "BrownianMotion" -> new BrownianMotionSampler(input);
+            case "Ridged" -> new RidgedFractalSampler(input);
+            case "PingPong" -> new PingPongSampler(input);
+            default -> throw new IllegalArgumentException("Unknown fractal sampler: " + name);
+        };
+        if(fractal == null) {
+            return input;
+        }
+        fractal.setOctaves(OCTAVES);
+        return fractal;
+    }
+}
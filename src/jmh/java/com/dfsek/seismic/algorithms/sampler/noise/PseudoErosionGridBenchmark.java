@@ -0,0 +1,59 @@
+package com.dfsek.seismic.algorithms.sampler.noise;
+
+import com.dfsek.seismic.algorithms.sampler.SamplerBenchmark;
+import com.dfsek.seismic.algorithms.sampler.noise.fractal.BrownianMotionSampler;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.util.concurrent.TimeUnit;
+
+
+/**
+ * Benchmarks filling a tile of terrain columns with {@link PseudoErosionSampler}, sample by sample and through the grid API. Times
+ * are per tile.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class PseudoErosionGridBenchmark {
+    @Param({ "16", "64" })
+    public int size;
+
+    @Param({ "2", "6" })
+    public int octaves;
+
+    private double[] out;
+
+    private PseudoErosionSampler sampler;
+
+    @Setup(Level.Trial)
+    public void setup() {
+        out = new double[size * size];
+        sampler = new PseudoErosionSampler(octaves, 0.5, 2, 1, 0.5, 0.3, 0.04,
+            new BrownianMotionSampler(NoiseSamplers.noise("OpenSimplex2")), true, 0.2, 0.05, 1, true);
+    }
+
+    @Benchmark
+    public double[] pointwise() {
+        int index = 0;
+        for(int x = 0; x < size; x++) {
+            for(int z = 0; z < size; z++) {
+                out[index++] = sampler.getSample(SamplerBenchmark.SEED, x + 1024.0, z - 512.0);
+            }
+        }
+        return out;
+    }
+
+    @Benchmark
+    public double[] grid() {
+        sampler.getSampleGrid(SamplerBenchmark.SEED, out, 1024, -512, 1, 1, size, size);
+        return out;
+    }
+}
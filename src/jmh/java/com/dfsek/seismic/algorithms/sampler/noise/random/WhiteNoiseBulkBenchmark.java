@@ -0,0 +1,53 @@
+package com.dfsek.seismic.algorithms.sampler.noise.random;
+
+import com.dfsek.seismic.algorithms.sampler.SamplerBenchmark;
+import com.dfsek.seismic.type.sampler.Sampler;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+
+
+/**
+ * Compares the bulk methods of {@link WhiteNoiseSampler} against calling their scalar counterparts in a loop.
+ */
+public class WhiteNoiseBulkBenchmark extends SamplerBenchmark {
+    private final long[] bits = new long[SAMPLES];
+    private final double[] noise = new double[SAMPLES];
+
+    @Override
+    protected Sampler createSampler() {
+        return new WhiteNoiseSampler();
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(SAMPLES)
+    public long[] scalarBits() {
+        for(int i = 0; i < SAMPLES; i++) {
+            bits[i] = WhiteNoiseSampler.randomBits(SEED, xs[i], zs[i]);
+        }
+        return bits;
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(SAMPLES)
+    public long[] bulkBits() {
+        WhiteNoiseSampler.randomBits(SEED, xs, zs, bits, SAMPLES);
+        return bits;
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(SAMPLES)
+    public double[] scalarSequence() {
+        WhiteNoiseSampler white = (WhiteNoiseSampler) sampler;
+        for(int i = 0; i < SAMPLES; i++) {
+            noise[i] = white.getNoiseRaw(SEED + i);
+        }
+        return noise;
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(SAMPLES)
+    public double[] bulkSequence() {
+        ((WhiteNoiseSampler) sampler).getNoiseRaw(SEED, noise, SAMPLES);
+        return noise;
+    }
+}
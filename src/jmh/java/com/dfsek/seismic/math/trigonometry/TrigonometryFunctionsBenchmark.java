@@ -0,0 +1,85 @@
+package com.dfsek.seismic.math.trigonometry;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+
+
+/**
+ * Benchmarks the lookup table trigonometry functions against {@link Math}.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class TrigonometryFunctionsBenchmark {
+    private static final int SAMPLES = 1024;
+
+    private final double[] angles = new double[SAMPLES];
+
+    @Setup(Level.Trial)
+    public void setup() {
+        SplittableRandom random = new SplittableRandom(1337);
+        for(int i = 0; i < SAMPLES; i++) {
+            angles[i] = random.nextDouble(-TrigonometryConstants.TAU * 4, TrigonometryConstants.TAU * 4);
+        }
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(SAMPLES)
+    public double sin() {
+        double sum = 0;
+        for(double angle : angles) {
+            sum += TrigonometryFunctions.sin(angle);
+        }
+        return sum;
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(SAMPLES)
+    public double cos() {
+        double sum = 0;
+        for(double angle : angles) {
+            sum += TrigonometryFunctions.cos(angle);
+        }
+        return sum;
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(SAMPLES)
+    public double tan() {
+        double sum = 0;
+        for(double angle : angles) {
+            sum += TrigonometryFunctions.tan(angle);
+        }
+        return sum;
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(SAMPLES)
+    public double mathSin() {
+        double sum = 0;
+        for(double angle : angles) {
+            sum += Math.sin(angle);
+        }
+        return sum;
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(SAMPLES)
+    public double mathCos() {
+        double sum = 0;
+        for(double angle : angles) {
+            sum += Math.cos(angle);
+        }
+        return sum;
+    }
+}
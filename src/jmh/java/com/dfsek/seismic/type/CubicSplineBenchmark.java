@@ -0,0 +1,56 @@
+package com.dfsek.seismic.type;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+
+
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class CubicSplineBenchmark {
+    private static final int SAMPLES = 1024;
+
+    @Param({ "5", "15", "30" })
+    public int points;
+
+    private final double[] inputs = new double[SAMPLES];
+
+    private CubicSpline spline;
+
+    @Setup(Level.Trial)
+    public void setup() {
+        SplittableRandom random = new SplittableRandom(1337);
+        List<CubicSpline.Point> list = new ArrayList<>();
+        for(int i = 0; i < points; i++) {
+            list.add(new CubicSpline.Point(-1 + 2.0 * i / (points - 1), random.nextDouble(-1, 1), random.nextDouble(-2, 2)));
+        }
+        spline = new CubicSpline(list);
+        for(int i = 0; i < SAMPLES; i++) {
+            // Include some inputs outside the spline's range, as noise often overshoots
+            inputs[i] = random.nextDouble(-1.1, 1.1);
+        }
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(SAMPLES)
+    public double apply() {
+        double sum = 0;
+        for(double input : inputs) {
+            sum += spline.apply(input);
+        }
+        return sum;
+    }
+}
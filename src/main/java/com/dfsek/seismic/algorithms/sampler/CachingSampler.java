@@ -0,0 +1,274 @@
+package com.dfsek.seismic.algorithms.sampler;
+
+
+import com.dfsek.seismic.algorithms.hashing.HashingFunctions;
+import com.dfsek.seismic.type.sampler.Sampler;
+
+import java.util.concurrent.atomic.LongAdder;
+
+
+/**
+ * Memoises the samples of another sampler, for trees where the same node is read several times at the same coordinates.
+ * <p>
+ * Samples are stored in a fixed-size open-addressing table keyed on the seed and the raw bits of the coordinates, so lookups do not
+ * allocate. Each key may only occupy one of 8 consecutive slots; when all of them are taken, one is evicted using
+ * the CLOCK (second chance) policy, so recently read samples survive over ones that were never read again.
+ * <p>
+ * In {@link Mode#THREAD_LOCAL} mode every thread gets its own table of the full capacity, which needs no synchronisation but holds on
+ * to one table per thread that has used the sampler. In {@link Mode#STRIPED} mode the capacity is split over a fixed number of tables
+ * shared by all threads, each guarded by its own lock. There are fewer stripes for small capacities, so that each still gets at least 8
+ * slots. The wrapped sampler is never called while a lock is held.
+ * <p>
+ * Every table is rounded up to a power of two of at least 8 slots, so a cache may hold up to twice its capacity, or 8 samples if its
+ * capacity is smaller.
+ * <p>
+ * Grids are passed straight to the bulk methods of the wrapped sampler, and are neither looked up in nor stored in the cache.
+ * <p>
+ * The wrapped sampler must be deterministic, otherwise cached samples will differ from fresh ones.
+ */
+public class CachingSampler implements Sampler {
+    private static final int PROBE_LENGTH = 8;
+    private static final byte EMPTY = 0;
+    private static final byte KEY_2D = 1;
+    private static final byte KEY_3D = 2;
+    private static final byte KEY_MASK = 3;
+    private static final byte REFERENCED = 4;
+
+    private final Sampler sampler;
+    private final Mode mode;
+    private final int capacity;
+    private final ThreadLocal<Table> localTable;
+    private final Table[] stripes;
+    private final int stripeMask;
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+
+    public CachingSampler(Sampler sampler, int capacity) {
+        this(sampler, capacity, Mode.THREAD_LOCAL);
+    }
+
+    public CachingSampler(Sampler sampler, int capacity, Mode mode) {
+        if(capacity < 1) {
+            throw new IllegalArgumentException("Capacity must be positive, got " + capacity);
+        }
+        this.sampler = sampler;
+        this.mode = mode;
+        this.capacity = capacity;
+
+        if(mode == Mode.STRIPED) {
+            int stripeCount = Math.min(CachingSampler.powerOfTwoAtLeast(Runtime.getRuntime().availableProcessors() * 4),
+                Math.max(1, Integer.highestOneBit(capacity / PROBE_LENGTH)));
+            int stripeCapacity = capacity / stripeCount;
+            this.stripes = new Table[stripeCount];
+            for(int i = 0; i < stripeCount; i++) {
+                stripes[i] = new Table(stripeCapacity);
+            }
+            this.stripeMask = stripeCount - 1;
+            this.localTable = null;
+        } else {
+            this.stripes = null;
+            this.stripeMask = 0;
+            this.localTable = ThreadLocal.withInitial(() -> new Table(capacity));
+        }
+    }
+
+    private static int powerOfTwoAtLeast(int value) {
+        return value <= 1 ? 1 : Integer.highestOneBit(value - 1) << 1;
+    }
+
+    private static long hash(long seed, long xBits, long yBits, long zBits, byte kind) {
+        long h = seed;
+        h = h * 0x9E3779B97F4A7C15L + xBits;
+        h = h * 0x9E3779B97F4A7C15L + yBits;
+        h = h * 0x9E3779B97F4A7C15L + zBits + kind;
+        return HashingFunctions.murmur64(h);
+    }
+
+    public Sampler getSampler() {
+        return sampler;
+    }
+
+    public Mode getMode() {
+        return mode;
+    }
+
+    public int getCapacity() {
+        return capacity;
+    }
+
+    /**
+     * @return the number of samples that were served from the cache.
+     */
+    public long getHits() {
+        return hits.sum();
+    }
+
+    /**
+     * @return the number of samples that had to be computed by the wrapped sampler.
+     */
+    public long getMisses() {
+        return misses.sum();
+    }
+
+    /**
+     * @return the fraction of samples served from the cache, or {@code 0} if nothing has been sampled.
+     */
+    public double getHitRate() {
+        long hitCount = hits.sum();
+        long total = hitCount + misses.sum();
+        return total == 0 ? 0 : (double) hitCount / total;
+    }
+
+    /**
+     * Resets the hit and miss counters. Cached samples are kept.
+     */
+    public void resetStatistics() {
+        hits.reset();
+        misses.reset();
+    }
+
+    @Override
+    public double getSample(long seed, double x, double y) {
+        return sample(seed, x, y, 0, KEY_2D);
+    }
+
+    @Override
+    public double getSample(long seed, double x, double y, double z) {
+        return sample(seed, x, y, z, KEY_3D);
+    }
+
+    @Override
+    public void getSampleGrid(long seed, double[] out, double x, double y, double stepX, double stepY, int sizeX, int sizeY) {
+        sampler.getSampleGrid(seed, out, x, y, stepX, stepY, sizeX, sizeY);
+    }
+
+    @Override
+    public void getSampleGrid(long seed, double[] out, double x, double y, double z, double stepX, double stepY, double stepZ,
+                              int sizeX, int sizeY, int sizeZ) {
+        sampler.getSampleGrid(seed, out, x, y, z, stepX, stepY, stepZ, sizeX, sizeY, sizeZ);
+    }
+
+    private double sample(long seed, double x, double y, double z, byte kind) {
+        long xBits = Double.doubleToRawLongBits(x);
+        long yBits = Double.doubleToRawLongBits(y);
+        long zBits = Double.doubleToRawLongBits(z);
+        long hash = CachingSampler.hash(seed, xBits, yBits, zBits, kind);
+
+        if(stripes == null) {
+            Table table = localTable.get();
+            int slot = table.find(hash, seed, xBits, yBits, zBits, kind);
+            if(slot >= 0) {
+                hits.increment();
+                return table.values[slot];
+            }
+            misses.increment();
+            double value = compute(seed, x, y, z, kind);
+            table.put(hash, seed, xBits, yBits, zBits, kind, value);
+            return value;
+        }
+
+        // High bits pick the stripe so they stay independent of the slot, which uses the low bits.
+        Table table = stripes[(int) (hash >>> 40) & stripeMask];
+        synchronized(table) {
+            int slot = table.find(hash, seed, xBits, yBits, zBits, kind);
+            if(slot >= 0) {
+                hits.increment();
+                return table.values[slot];
+            }
+        }
+        misses.increment();
+        double value = compute(seed, x, y, z, kind);
+        synchronized(table) {
+            // Another thread may have inserted the same key while the lock was released.
+            if(table.find(hash, seed, xBits, yBits, zBits, kind) < 0) {
+                table.put(hash, seed, xBits, yBits, zBits, kind, value);
+            }
+        }
+        return value;
+    }
+
+    private double compute(long seed, double x, double y, double z, byte kind) {
+        return kind == KEY_2D ? sampler.getSample(seed, x, y) : sampler.getSample(seed, x, y, z);
+    }
+
+    public enum Mode {
+        /**
+         * One unsynchronised table per thread.
+         */
+        THREAD_LOCAL,
+        /**
+         * A fixed number of shared tables, each guarded by its own lock.
+         */
+        STRIPED
+    }
+
+
+    private static final class Table {
+        private final int mask;
+        private final long[] seeds;
+        private final long[] xs;
+        private final long[] ys;
+        private final long[] zs;
+        private final double[] values;
+        private final byte[] states;
+
+        private Table(int capacity) {
+            int size = CachingSampler.powerOfTwoAtLeast(Math.max(capacity, PROBE_LENGTH));
+            this.mask = size - 1;
+            this.seeds = new long[size];
+            this.xs = new long[size];
+            this.ys = new long[size];
+            this.zs = new long[size];
+            this.values = new double[size];
+            this.states = new byte[size];
+        }
+
+        private int find(long hash, long seed, long xBits, long yBits, long zBits, byte kind) {
+            int home = (int) hash;
+            for(int i = 0; i < PROBE_LENGTH; i++) {
+                int slot = (home + i) & mask;
+                byte state = states[slot];
+                if(state == EMPTY) {
+                    // Slots are only ever replaced, never emptied, so nothing was inserted past this one.
+                    return -1;
+                }
+                if((state & KEY_MASK) == kind && seeds[slot] == seed && xs[slot] == xBits && ys[slot] == yBits && zs[slot] == zBits) {
+                    states[slot] = (byte) (state | REFERENCED);
+                    return slot;
+                }
+            }
+            return -1;
+        }
+
+        private void put(long hash, long seed, long xBits, long yBits, long zBits, byte kind, double value) {
+            int home = (int) hash;
+            int victim = -1;
+            for(int i = 0; i < PROBE_LENGTH; i++) {
+                int slot = (home + i) & mask;
+                if(states[slot] == EMPTY) {
+                    victim = slot;
+                    break;
+                }
+            }
+            if(victim < 0) {
+                victim = home & mask;
+                for(int i = 0; i < PROBE_LENGTH; i++) {
+                    int slot = (home + i) & mask;
+                    byte state = states[slot];
+                    if((state & REFERENCED) == 0) {
+                        victim = slot;
+                        break;
+                    }
+                    // Second chance: the entry survives this pass, but not the next one unless it is read again.
+                    states[slot] = (byte) (state & KEY_MASK);
+                }
+            }
+            seeds[victim] = seed;
+            xs[victim] = xBits;
+            ys[victim] = yBits;
+            zs[victim] = zBits;
+            values[victim] = value;
+            states[victim] = kind;
+        }
+    }
+}
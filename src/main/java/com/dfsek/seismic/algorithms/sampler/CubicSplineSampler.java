@@ -14,6 +14,14 @@ public class CubicSplineSampler implements Sampler {
         this.spline = spline;
     }
 
+    public Sampler getSampler() {
+        return sampler;
+    }
+
+    public CubicSpline getSpline() {
+        return spline;
+    }
+
     @Override
     public double getSample(long seed, double x, double y) {
         return spline.apply(sampler.getSample(seed, x, y));
@@ -23,4 +31,17 @@ public class CubicSplineSampler implements Sampler {
     public double getSample(long seed, double x, double y, double z) {
         return spline.apply(sampler.getSample(seed, x, y, z));
     }
+
+    @Override
+    public void getSampleGrid(long seed, double[] out, double x, double y, double stepX, double stepY, int sizeX, int sizeY) {
+        sampler.getSampleGrid(seed, out, x, y, stepX, stepY, sizeX, sizeY);
+        spline.apply(out, out, sizeX * sizeY);
+    }
+
+    @Override
+    public void getSampleGrid(long seed, double[] out, double x, double y, double z, double stepX, double stepY, double stepZ,
+                              int sizeX, int sizeY, int sizeZ) {
+        sampler.getSampleGrid(seed, out, x, y, z, stepX, stepY, stepZ, sizeX, sizeY, sizeZ);
+        spline.apply(out, out, sizeX * sizeY * sizeZ);
+    }
 }
@@ -9,12 +9,20 @@ package com.dfsek.seismic.algorithms.sampler;
 
 
 import com.dfsek.seismic.type.sampler.Sampler;
+import com.dfsek.seismic.type.sampler.VectorSampler;
 
 
+/**
+ * Samples a function at coordinates offset by a warp sampler, with each axis offset by the warp at its own seed.
+ * <p>
+ * If the warp is a {@link VectorSampler}, every axis is evaluated in one call, sharing whatever work the warp does not repeat per
+ * seed. The result is identical either way.
+ */
 public class DomainWarpedSampler implements Sampler {
     private final Sampler function;
     private final Sampler warp;
     private final double amplitude;
+    private final ThreadLocal<double[]> offsetBuffer = ThreadLocal.withInitial(() -> new double[3]);
 
     public DomainWarpedSampler(Sampler function, Sampler warp, double amplitude) {
         this.function = function;
@@ -22,8 +30,25 @@ public class DomainWarpedSampler implements Sampler {
         this.amplitude = amplitude;
     }
 
+    public Sampler getFunction() {
+        return function;
+    }
+
+    public Sampler getWarp() {
+        return warp;
+    }
+
+    public double getAmplitude() {
+        return amplitude;
+    }
+
     @Override
     public double getSample(long seed, double x, double y) {
+        if(warp instanceof VectorSampler vector) {
+            double[] offsets = offsetBuffer.get();
+            vector.getSamples(seed + 1, offsets, 0, 2, x, y);
+            return function.getSample(seed, x + offsets[0] * amplitude, y + offsets[1] * amplitude);
+        }
         return function.getSample(seed++,
             x + warp.getSample(seed++, x, y) * amplitude,
             y + warp.getSample(seed, x, y) * amplitude
@@ -32,6 +57,11 @@ public class DomainWarpedSampler implements Sampler {
 
     @Override
     public double getSample(long seed, double x, double y, double z) {
+        if(warp instanceof VectorSampler vector) {
+            double[] offsets = offsetBuffer.get();
+            vector.getSamples(seed + 1, offsets, 0, 3, x, y, z);
+            return function.getSample(seed, x + offsets[0] * amplitude, y + offsets[1] * amplitude, z + offsets[2] * amplitude);
+        }
         return function.getSample(seed++,
             x + warp.getSample(seed++, x, y, z) * amplitude,
             y + warp.getSample(seed++, x, y, z) * amplitude,
@@ -0,0 +1,80 @@
+package com.dfsek.seismic.algorithms.sampler;
+
+/**
+ * In-place radix-2 fast Fourier transforms over split real and imaginary arrays, used by {@link KernelSampler} to convolve large
+ * kernels.
+ */
+final class FourierTransform {
+    private FourierTransform() {
+    }
+
+    /**
+     * Transforms an {@code sizeX} by {@code sizeY} grid, stored with index {@code ix * sizeY + iy}, in place. Both sizes must be powers
+     * of two. The inverse transform is not scaled, so a round trip multiplies every value by {@code sizeX * sizeY}.
+     */
+    static void transform(double[] re, double[] im, int sizeX, int sizeY, boolean inverse) {
+        double[] cos = new double[Math.max(sizeX, sizeY) / 2];
+        double[] sin = new double[cos.length];
+
+        FourierTransform.twiddles(cos, sin, sizeY, inverse);
+        for(int ix = 0; ix < sizeX; ix++) {
+            FourierTransform.transform(re, im, ix * sizeY, 1, sizeY, cos, sin);
+        }
+        FourierTransform.twiddles(cos, sin, sizeX, inverse);
+        for(int iy = 0; iy < sizeY; iy++) {
+            FourierTransform.transform(re, im, iy, sizeY, sizeX, cos, sin);
+        }
+    }
+
+    private static void twiddles(double[] cos, double[] sin, int size, boolean inverse) {
+        double sign = inverse ? 1 : -1;
+        for(int i = 0; i < size / 2; i++) {
+            double angle = 2 * Math.PI * i / size;
+            cos[i] = Math.cos(angle);
+            sin[i] = sign * Math.sin(angle);
+        }
+    }
+
+    /**
+     * Transforms the {@code size} values at {@code offset}, {@code offset + stride}, ... using twiddle factors computed for
+     * {@code size}.
+     */
+    private static void transform(double[] re, double[] im, int offset, int stride, int size, double[] cos, double[] sin) {
+        for(int i = 1, j = 0; i < size; i++) {
+            int bit = size >> 1;
+            for(; (j & bit) != 0; bit >>= 1) {
+                j ^= bit;
+            }
+            j |= bit;
+            if(i < j) {
+                int a = offset + i * stride;
+                int b = offset + j * stride;
+                double t = re[a];
+                re[a] = re[b];
+                re[b] = t;
+                t = im[a];
+                im[a] = im[b];
+                im[b] = t;
+            }
+        }
+
+        for(int length = 2; length <= size; length <<= 1) {
+            int half = length >> 1;
+            int twiddleStep = size / length;
+            for(int start = 0; start < size; start += length) {
+                for(int k = 0; k < half; k++) {
+                    double wr = cos[k * twiddleStep];
+                    double wi = sin[k * twiddleStep];
+                    int a = offset + (start + k) * stride;
+                    int b = a + half * stride;
+                    double br = re[b] * wr - im[b] * wi;
+                    double bi = re[b] * wi + im[b] * wr;
+                    re[b] = re[a] - br;
+                    im[b] = im[a] - bi;
+                    re[a] += br;
+                    im[a] += bi;
+                }
+            }
+        }
+    }
+}
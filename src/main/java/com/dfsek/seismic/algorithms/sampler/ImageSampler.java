@@ -8,28 +8,143 @@
 package com.dfsek.seismic.algorithms.sampler;
 
 import com.dfsek.seismic.math.floatingpoint.FloatingPointFunctions;
+import com.dfsek.seismic.math.numericanalysis.interpolation.InterpolationFunctions;
 import com.dfsek.seismic.type.sampler.Sampler;
 
 import java.awt.image.BufferedImage;
 
 
+/**
+ * Samples one channel of an image, tiled infinitely, with each pixel covering one unit square at a frequency of 1. Channel values are
+ * mapped to the range [-1, 1].
+ * <p>
+ * Samplers constructed with a {@link Filter} copy the channel out of the image once, and never access the image afterwards. Otherwise
+ * every sample reads the image through {@link BufferedImage#getRGB(int, int)}, and sees changes made to it.
+ */
 public class ImageSampler implements Sampler {
     private final BufferedImage image;
     private final Channel channel;
 
     private final double frequency;
 
+    private final Filter filter;
+    private final int width;
+    private final int height;
+    /**
+     * The raw channel value of every pixel, unsigned, with index {@code px * height + py}, or {@code null} if the image is read on each
+     * sample.
+     */
+    private final short[] pixels;
+    /**
+     * The sample for every raw channel value.
+     */
+    private final double[] levels;
+
+    private final ThreadLocal<Axes> axes = ThreadLocal.withInitial(Axes::new);
+
     public ImageSampler(BufferedImage image, Channel channel, double frequency) {
         this.image = image;
         this.channel = channel;
         this.frequency = frequency;
+        this.filter = Filter.NEAREST;
+        this.width = image.getWidth();
+        this.height = image.getHeight();
+        this.pixels = null;
+        this.levels = null;
+    }
+
+    /**
+     * Creates a sampler from a copy of one channel of an image. Nearest filtering returns exactly what
+     * {@link #ImageSampler(BufferedImage, Channel, double)} would, except for 16-bit grayscale images
+     * ({@link BufferedImage#TYPE_USHORT_GRAY}), whose color channels are read from the raster at full precision rather than converted
+     * to 8 bits, and which are opaque.
+     *
+     * @param image     the image to copy the channel from.
+     * @param channel   the channel to sample.
+     * @param frequency the frequency of the sampler.
+     * @param filter    how to filter between pixels.
+     */
+    public ImageSampler(BufferedImage image, Channel channel, double frequency, Filter filter) {
+        this.image = null;
+        this.channel = channel;
+        this.frequency = frequency;
+        this.filter = filter;
+        this.width = image.getWidth();
+        this.height = image.getHeight();
+        this.pixels = new short[width * height];
+
+        boolean wide = image.getType() == BufferedImage.TYPE_USHORT_GRAY;
+        int[] row = new int[width];
+        for(int py = 0; py < height; py++) {
+            if(!wide) {
+                image.getRGB(0, py, width, 1, row, 0, width);
+            } else if(channel != Channel.ALPHA) {
+                image.getRaster().getSamples(0, py, width, 1, 0, row);
+            }
+            for(int px = 0; px < width; px++) {
+                int value = wide ? (channel == Channel.ALPHA ? 0xffff : row[px]) : channel.getChannel(row[px]);
+                pixels[px * height + py] = (short) value;
+            }
+        }
+
+        double max = wide ? 0xffff : 0xff;
+        this.levels = new double[(int) max + 1];
+        for(int i = 0; i < levels.length; i++) {
+            levels[i] = ((i / max) - 0.5) * 2;
+        }
+    }
+
+    public Filter getFilter() {
+        return filter;
     }
 
     @Override
     public double getSample(long seed, double x, double y) {
-        return ((channel.getChannel(image.getRGB(Math.floorMod(FloatingPointFunctions.floor(x * frequency), image.getWidth()),
-            Math.floorMod(FloatingPointFunctions.floor(y * frequency), image.getHeight()))) / 255D) - 0.5) *
-               2;
+        if(pixels == null) {
+            return ((channel.getChannel(image.getRGB(Math.floorMod(FloatingPointFunctions.floor(x * frequency), width),
+                Math.floorMod(FloatingPointFunctions.floor(y * frequency), height))) / 255D) - 0.5) *
+                   2;
+        }
+        double px = x * frequency;
+        double py = y * frequency;
+        switch(filter) {
+            case NEAREST -> {
+                return level(Math.floorMod(FloatingPointFunctions.floor(px), width) * height,
+                    Math.floorMod(FloatingPointFunctions.floor(py), height));
+            }
+            case BILINEAR -> {
+                // Pixel values lie at pixel centres.
+                px -= 0.5;
+                py -= 0.5;
+                int x0 = FloatingPointFunctions.floor(px);
+                int y0 = FloatingPointFunctions.floor(py);
+                int c0 = Math.floorMod(x0, width) * height;
+                int c1 = Math.floorMod(x0 + 1, width) * height;
+                int r0 = Math.floorMod(y0, height);
+                int r1 = Math.floorMod(y0 + 1, height);
+                return InterpolationFunctions.biLerp(level(c0, r0), level(c1, r0), level(c0, r1), level(c1, r1), px - x0, py - y0);
+            }
+            default -> {
+                px -= 0.5;
+                py -= 0.5;
+                int x0 = FloatingPointFunctions.floor(px);
+                int y0 = FloatingPointFunctions.floor(py);
+                int c0 = Math.floorMod(x0 - 1, width) * height;
+                int c1 = Math.floorMod(x0, width) * height;
+                int c2 = Math.floorMod(x0 + 1, width) * height;
+                int c3 = Math.floorMod(x0 + 2, width) * height;
+                int r0 = Math.floorMod(y0 - 1, height);
+                int r1 = Math.floorMod(y0, height);
+                int r2 = Math.floorMod(y0 + 1, height);
+                int r3 = Math.floorMod(y0 + 2, height);
+                return InterpolationFunctions.biCubicLerp(
+                    level(c0, r0), level(c1, r0), level(c2, r0), level(c3, r0),
+                    level(c0, r1), level(c1, r1), level(c2, r1), level(c3, r1),
+                    level(c0, r2), level(c1, r2), level(c2, r2), level(c3, r2),
+                    level(c0, r3), level(c1, r3), level(c2, r3), level(c3, r3),
+                    px - x0, py - y0);
+            }
+        }
     }
 
     @Override
@@ -37,6 +152,160 @@ public class ImageSampler implements Sampler {
         return getSample(seed, x, y);
     }
 
+    @Override
+    public void getSampleGrid(long seed, double[] out, double x, double y, double stepX, double stepY, int sizeX, int sizeY) {
+        if(pixels == null) {
+            Sampler.super.getSampleGrid(seed, out, x, y, stepX, stepY, sizeX, sizeY);
+            return;
+        }
+        // Pixel indices and weights depend on one coordinate each, so they are computed once per row and column.
+        int taps = filter.taps;
+        Axes axes = this.axes.get();
+        axes.ensureCapacity(sizeX * taps, sizeY * taps);
+        for(int ix = 0; ix < sizeX; ix++) {
+            axes.tx[ix] = axis((x + ix * stepX) * frequency, width, axes.columns, ix * taps);
+            for(int tap = 0; tap < taps; tap++) {
+                axes.columns[ix * taps + tap] *= height;
+            }
+        }
+        for(int iy = 0; iy < sizeY; iy++) {
+            axes.ty[iy] = axis((y + iy * stepY) * frequency, height, axes.rows, iy * taps);
+        }
+
+        int[] c = axes.columns;
+        int[] r = axes.rows;
+        int index = 0;
+        for(int ix = 0; ix < sizeX; ix++) {
+            int cx = ix * taps;
+            double tx = axes.tx[ix];
+            for(int iy = 0; iy < sizeY; iy++) {
+                int ry = iy * taps;
+                out[index++] = switch(filter) {
+                    case NEAREST -> level(c[cx], r[ry]);
+                    case BILINEAR -> InterpolationFunctions.biLerp(level(c[cx], r[ry]), level(c[cx + 1], r[ry]),
+                        level(c[cx], r[ry + 1]), level(c[cx + 1], r[ry + 1]), tx, axes.ty[iy]);
+                    case BICUBIC -> InterpolationFunctions.biCubicLerp(
+                        level(c[cx], r[ry]), level(c[cx + 1], r[ry]), level(c[cx + 2], r[ry]), level(c[cx + 3], r[ry]),
+                        level(c[cx], r[ry + 1]), level(c[cx + 1], r[ry + 1]), level(c[cx + 2], r[ry + 1]), level(c[cx + 3], r[ry + 1]),
+                        level(c[cx], r[ry + 2]), level(c[cx + 1], r[ry + 2]), level(c[cx + 2], r[ry + 2]), level(c[cx + 3], r[ry + 2]),
+                        level(c[cx], r[ry + 3]), level(c[cx + 1], r[ry + 3]), level(c[cx + 2], r[ry + 3]), level(c[cx + 3], r[ry + 3]),
+                        tx, axes.ty[iy]);
+                };
+            }
+        }
+    }
+
+    @Override
+    public void getSampleGrid(long seed, double[] out, double x, double y, double z, double stepX, double stepY, double stepZ,
+                              int sizeX, int sizeY, int sizeZ) {
+        if(pixels == null) {
+            Sampler.super.getSampleGrid(seed, out, x, y, z, stepX, stepY, stepZ, sizeX, sizeY, sizeZ);
+            return;
+        }
+        // Samples do not depend on z, so each xy value is repeated along it.
+        int count = sizeX * sizeY;
+        if(count == 0 || sizeZ == 0) {
+            return;
+        }
+        getSampleGrid(seed, out, x, y, stepX, stepY, sizeX, sizeY);
+        for(int i = count - 1; i >= 0; i--) {
+            double value = out[i];
+            int offset = i * sizeZ;
+            for(int iz = 0; iz < sizeZ; iz++) {
+                out[offset + iz] = value;
+            }
+        }
+    }
+
+    /**
+     * Reads the unfiltered samples of a rectangle of pixels, wrapping around the edges of the image.
+     *
+     * @param out   the array to write samples to, with index {@code ix * sizeY + iy}.
+     * @param x     the x coordinate of the first pixel.
+     * @param y     the y coordinate of the first pixel.
+     * @param sizeX the number of pixels along x.
+     * @param sizeY the number of pixels along y.
+     */
+    public void getRegion(double[] out, int x, int y, int sizeX, int sizeY) {
+        int index = 0;
+        for(int ix = 0; ix < sizeX; ix++) {
+            int px = Math.floorMod(x + ix, width);
+            for(int iy = 0; iy < sizeY; iy++) {
+                int py = Math.floorMod(y + iy, height);
+                out[index++] = pixels == null ? ((channel.getChannel(image.getRGB(px, py)) / 255D) - 0.5) * 2 : level(px * height, py);
+            }
+        }
+    }
+
+    private double level(int column, int row) {
+        return levels[pixels[column + row] & 0xffff];
+    }
+
+    /**
+     * Writes the wrapped indices of the pixels the filter reads along one axis to {@code indices}, as {@link #getSample(long, double,
+     * double)} computes them.
+     *
+     * @return the interpolation weight along the axis.
+     */
+    private double axis(double coordinate, int size, int[] indices, int offset) {
+        if(filter == Filter.NEAREST) {
+            indices[offset] = Math.floorMod(FloatingPointFunctions.floor(coordinate), size);
+            return 0;
+        }
+        coordinate -= 0.5;
+        int i0 = FloatingPointFunctions.floor(coordinate);
+        int first = filter == Filter.BILINEAR ? i0 : i0 - 1;
+        for(int tap = 0; tap < filter.taps; tap++) {
+            indices[offset + tap] = Math.floorMod(first + tap, size);
+        }
+        return coordinate - i0;
+    }
+
+
+    /**
+     * How samples between pixel centres are filtered.
+     */
+    public enum Filter {
+        /**
+         * Every sample takes the value of the pixel it falls in.
+         */
+        NEAREST(1),
+        /**
+         * Samples interpolate linearly between the four nearest pixel centres.
+         */
+        BILINEAR(2),
+        /**
+         * Samples interpolate cubically between the sixteen nearest pixel centres.
+         */
+        BICUBIC(4);
+
+        private final int taps;
+
+        Filter(int taps) {
+            this.taps = taps;
+        }
+    }
+
+
+    private static final class Axes {
+        private int[] columns = new int[0];
+        private int[] rows = new int[0];
+        private double[] tx = new double[0];
+        private double[] ty = new double[0];
+
+        private void ensureCapacity(int columnTaps, int rowTaps) {
+            if(columns.length < columnTaps) {
+                columns = new int[columnTaps];
+                tx = new double[columnTaps];
+            }
+            if(rows.length < rowTaps) {
+                rows = new int[rowTaps];
+                ty = new double[rowTaps];
+            }
+        }
+    }
+
+
     public enum Channel {
         RED {
             @Override
@@ -10,21 +10,122 @@ package com.dfsek.seismic.algorithms.sampler;
 
 import com.dfsek.seismic.type.sampler.Sampler;
 
+import java.util.Arrays;
 
+
+/**
+ * Convolves a sampler with a kernel of weights at integer offsets.
+ * <p>
+ * In {@linkplain #setRegionMode(boolean) region mode}, grids are filled by sampling the input once over the region the kernel covers
+ * and convolving it, instead of sampling the input once per output and weight.
+ */
 public class KernelSampler implements Sampler {
+    /**
+     * Number of non-zero weights from which kernels that are not separable are convolved through the Fourier transform.
+     */
+    private static final int FOURIER_WEIGHTS = 400;
+    /**
+     * Largest difference, relative to the largest weight, between a weight and the product of its factors for the kernel to be treated
+     * as separable.
+     */
+    private static final double SEPARABLE_TOLERANCE = 1.0E-12;
+    private static final int MAX_RATIO = 1 << 10;
+
     private final double[][] kernel;
     private final Sampler in;
     private double frequency = 1;
+    private boolean regionMode = false;
+
+    private final int width;
+    private final int height;
+    /**
+     * The kernel as a dense {@link #width} by {@link #height} array, with rows shorter than the longest padded with zero.
+     */
+    private final double[] weights;
+    private final int nonZeroWeights;
+    /**
+     * The factors of the kernel along x and y if it is separable and separating it saves work, or {@code null}.
+     */
+    private final double[] columnFactors;
+    private final double[] rowFactors;
+
+    private final ThreadLocal<Region> region = ThreadLocal.withInitial(Region::new);
+    private volatile Spectrum spectrum;
 
     public KernelSampler(double[][] kernel, Sampler in) {
         this.kernel = kernel;
         this.in = in;
+
+        this.width = kernel.length;
+        int height = 0;
+        for(double[] row : kernel) {
+            height = Math.max(height, row.length);
+        }
+        this.height = height;
+        this.weights = new double[width * height];
+        int nonZeroWeights = 0;
+        int pivot = -1;
+        for(int kx = 0; kx < width; kx++) {
+            for(int ky = 0; ky < kernel[kx].length; ky++) {
+                double weight = kernel[kx][ky];
+                weights[kx * height + ky] = weight;
+                if(weight != 0) {
+                    nonZeroWeights++;
+                    if(pivot < 0 || Math.abs(weight) > Math.abs(weights[pivot])) {
+                        pivot = kx * height + ky;
+                    }
+                }
+            }
+        }
+        this.nonZeroWeights = nonZeroWeights;
+
+        double[] columnFactors = null;
+        double[] rowFactors = null;
+        if(pivot >= 0 && width + height < nonZeroWeights) {
+            columnFactors = new double[width];
+            rowFactors = new double[height];
+            int pivotX = pivot / height;
+            int pivotY = pivot % height;
+            for(int kx = 0; kx < width; kx++) {
+                columnFactors[kx] = weights[kx * height + pivotY];
+            }
+            for(int ky = 0; ky < height; ky++) {
+                rowFactors[ky] = weights[pivotX * height + ky] / weights[pivot];
+            }
+            double tolerance = Math.abs(weights[pivot]) * SEPARABLE_TOLERANCE;
+            for(int kx = 0; kx < width && rowFactors != null; kx++) {
+                for(int ky = 0; ky < height; ky++) {
+                    if(Math.abs(weights[kx * height + ky] - columnFactors[kx] * rowFactors[ky]) > tolerance) {
+                        columnFactors = null;
+                        rowFactors = null;
+                        break;
+                    }
+                }
+            }
+        }
+        this.columnFactors = columnFactors;
+        this.rowFactors = rowFactors;
     }
 
     public void setFrequency(double frequency) {
         this.frequency = frequency;
     }
 
+    /**
+     * Sets whether grids are filled by convolving a region of the input sampled once. This applies to grids whose steps, multiplied by
+     * the frequency, are whole numbers, for which outputs share input samples; other grids are sampled pointwise. Separable kernels
+     * are applied as two one-dimensional passes, and large kernels through the Fourier transform, which change how weighted samples are
+     * summed and so differ from {@link #getSample(long, double, double)} by rounding. Other kernels sum in the same order, and differ
+     * only where input coordinates are rounded differently, as they may be when the grid origin is not a whole number.
+     * <p>
+     * The kernel is read when the sampler is constructed, so changes to it afterwards are not seen by region mode.
+     *
+     * @param regionMode whether to use region mode.
+     */
+    public void setRegionMode(boolean regionMode) {
+        this.regionMode = regionMode;
+    }
+
     @Override
     public double getSample(long seed, double x, double y) {
         x *= frequency;
@@ -61,4 +162,217 @@ public class KernelSampler implements Sampler {
 
         return accumulator;
     }
+
+    @Override
+    public void getSampleGrid(long seed, double[] out, double x, double y, double stepX, double stepY, int sizeX, int sizeY) {
+        int ratioX = ratio(stepX);
+        int ratioY = ratio(stepY);
+        if(!regionMode || ratioX == 0 || ratioY == 0 || !sharesSamples(ratioX, ratioY, sizeX, sizeY)) {
+            Sampler.super.getSampleGrid(seed, out, x, y, stepX, stepY, sizeX, sizeY);
+            return;
+        }
+        int inputX = (sizeX - 1) * ratioX + width;
+        int inputY = (sizeY - 1) * ratioY + height;
+        Region region = this.region.get();
+        region.ensureCapacity(inputX * inputY, sizeY);
+        in.getSampleGrid(seed, region.input, x * frequency, y * frequency, 1, 1, inputX, inputY);
+        convolve(region, inputX, inputY, ratioX, ratioY, out, 0, sizeY, sizeX, sizeY);
+    }
+
+    @Override
+    public void getSampleGrid(long seed, double[] out, double x, double y, double z, double stepX, double stepY, double stepZ,
+                              int sizeX, int sizeY, int sizeZ) {
+        int ratioX = ratio(stepX);
+        int ratioZ = ratio(stepZ);
+        if(!regionMode || ratioX == 0 || ratioZ == 0 || !sharesSamples(ratioX, ratioZ, sizeX, sizeZ)) {
+            Sampler.super.getSampleGrid(seed, out, x, y, z, stepX, stepY, stepZ, sizeX, sizeY, sizeZ);
+            return;
+        }
+        // The kernel spans x and z, so every y is its own plane.
+        int inputX = (sizeX - 1) * ratioX + width;
+        int inputZ = (sizeZ - 1) * ratioZ + height;
+        Region region = this.region.get();
+        region.ensureCapacity(inputX * inputZ, sizeZ);
+        for(int iy = 0; iy < sizeY; iy++) {
+            in.getSampleGrid(seed, region.input, x * frequency, (y + iy * stepY) * frequency, z * frequency, 1, 1, 1, inputX, 1, inputZ);
+            convolve(region, inputX, inputZ, ratioX, ratioZ, out, iy * sizeZ, sizeY * sizeZ, sizeX, sizeZ);
+        }
+    }
+
+    /**
+     * @return the number of input samples between neighbouring outputs {@code step} apart, or {@code 0} if it is not a whole number.
+     */
+    private int ratio(double step) {
+        double ratio = step * frequency;
+        return ratio >= 1 && ratio <= MAX_RATIO && ratio == Math.rint(ratio) ? (int) ratio : 0;
+    }
+
+    /**
+     * @return whether sampling the region covered by the kernel takes fewer input samples than sampling each output pointwise.
+     */
+    private boolean sharesSamples(int ratioX, int ratioY, int sizeX, int sizeY) {
+        long region = ((long) (sizeX - 1) * ratioX + width) * ((long) (sizeY - 1) * ratioY + height);
+        return region < (long) sizeX * sizeY * nonZeroWeights && region <= Integer.MAX_VALUE;
+    }
+
+    /**
+     * Convolves the {@code inputX} by {@code inputY} samples in {@link Region#input} with the kernel, writing a {@code sizeX} by
+     * {@code sizeY} plane of outputs to {@code out}, row {@code ix} starting at {@code offset + ix * rowStride}.
+     */
+    private void convolve(Region region, int inputX, int inputY, int ratioX, int ratioY, double[] out, int offset, int rowStride,
+                          int sizeX, int sizeY) {
+        if(columnFactors != null) {
+            convolveSeparable(region, inputX, inputY, ratioX, ratioY, out, offset, rowStride, sizeX, sizeY);
+        } else if(ratioX == 1 && ratioY == 1 && nonZeroWeights >= FOURIER_WEIGHTS) {
+            convolveFourier(region, inputX, inputY, out, offset, rowStride, sizeX, sizeY);
+        } else {
+            convolveDirect(region, inputY, ratioX, ratioY, out, offset, rowStride, sizeX, sizeY);
+        }
+    }
+
+    private void convolveDirect(Region region, int inputY, int ratioX, int ratioY, double[] out, int offset, int rowStride, int sizeX,
+                                int sizeY) {
+        double[] input = region.input;
+        double[] row = region.row;
+        for(int ix = 0; ix < sizeX; ix++) {
+            Arrays.fill(row, 0, sizeY, 0);
+            // Weights are accumulated in the same order as by getSample, a whole row of outputs at a time.
+            for(int kx = 0; kx < width; kx++) {
+                for(int ky = 0; ky < height; ky++) {
+                    double weight = weights[kx * height + ky];
+                    if(weight != 0) {
+                        int base = (ix * ratioX + kx) * inputY + ky;
+                        for(int iy = 0; iy < sizeY; iy++) {
+                            row[iy] += input[base + iy * ratioY] * weight;
+                        }
+                    }
+                }
+            }
+            System.arraycopy(row, 0, out, offset + ix * rowStride, sizeY);
+        }
+    }
+
+    private void convolveSeparable(Region region, int inputX, int inputY, int ratioX, int ratioY, double[] out, int offset,
+                                   int rowStride, int sizeX, int sizeY) {
+        double[] input = region.input;
+        double[] columns = region.ensureColumns(inputX * sizeY);
+        Arrays.fill(columns, 0, inputX * sizeY, 0);
+        for(int jx = 0; jx < inputX; jx++) {
+            for(int ky = 0; ky < height; ky++) {
+                double factor = rowFactors[ky];
+                if(factor != 0) {
+                    int base = jx * inputY + ky;
+                    int target = jx * sizeY;
+                    for(int iy = 0; iy < sizeY; iy++) {
+                        columns[target + iy] += input[base + iy * ratioY] * factor;
+                    }
+                }
+            }
+        }
+
+        double[] row = region.row;
+        for(int ix = 0; ix < sizeX; ix++) {
+            Arrays.fill(row, 0, sizeY, 0);
+            for(int kx = 0; kx < width; kx++) {
+                double factor = columnFactors[kx];
+                if(factor != 0) {
+                    int base = (ix * ratioX + kx) * sizeY;
+                    for(int iy = 0; iy < sizeY; iy++) {
+                        row[iy] += columns[base + iy] * factor;
+                    }
+                }
+            }
+            System.arraycopy(row, 0, out, offset + ix * rowStride, sizeY);
+        }
+    }
+
+    private void convolveFourier(Region region, int inputX, int inputY, double[] out, int offset, int rowStride, int sizeX,
+                                 int sizeY) {
+        int transformX = Integer.highestOneBit(inputX * 2 - 1);
+        int transformY = Integer.highestOneBit(inputY * 2 - 1);
+        int size = transformX * transformY;
+        region.ensureTransform(size);
+        double[] re = region.re;
+        double[] im = region.im;
+        Arrays.fill(re, 0, size, 0);
+        Arrays.fill(im, 0, size, 0);
+        for(int jx = 0; jx < inputX; jx++) {
+            System.arraycopy(region.input, jx * inputY, re, jx * transformY, inputY);
+        }
+
+        FourierTransform.transform(re, im, transformX, transformY, false);
+        Spectrum spectrum = spectrum(transformX, transformY);
+        for(int i = 0; i < size; i++) {
+            double r = re[i] * spectrum.re[i] - im[i] * spectrum.im[i];
+            im[i] = re[i] * spectrum.im[i] + im[i] * spectrum.re[i];
+            re[i] = r;
+        }
+        FourierTransform.transform(re, im, transformX, transformY, true);
+
+        // Inputs past the region wrap around, but the transform is large enough that no output reaches them.
+        double scale = 1.0 / size;
+        for(int ix = 0; ix < sizeX; ix++) {
+            int target = offset + ix * rowStride;
+            int source = ix * transformY;
+            for(int iy = 0; iy < sizeY; iy++) {
+                out[target + iy] = re[source + iy] * scale;
+            }
+        }
+    }
+
+    /**
+     * @return the transform of the kernel, reversed so that convolving with it correlates with the kernel, at the given size.
+     */
+    private Spectrum spectrum(int sizeX, int sizeY) {
+        Spectrum spectrum = this.spectrum;
+        if(spectrum == null || spectrum.sizeX != sizeX || spectrum.sizeY != sizeY) {
+            double[] re = new double[sizeX * sizeY];
+            double[] im = new double[sizeX * sizeY];
+            for(int kx = 0; kx < width; kx++) {
+                for(int ky = 0; ky < height; ky++) {
+                    re[((-kx) & (sizeX - 1)) * sizeY + ((-ky) & (sizeY - 1))] = weights[kx * height + ky];
+                }
+            }
+            FourierTransform.transform(re, im, sizeX, sizeY, false);
+            spectrum = new Spectrum(sizeX, sizeY, re, im);
+            this.spectrum = spectrum;
+        }
+        return spectrum;
+    }
+
+
+    private record Spectrum(int sizeX, int sizeY, double[] re, double[] im) {
+    }
+
+
+    private static final class Region {
+        private double[] input = new double[0];
+        private double[] row = new double[0];
+        private double[] columns = new double[0];
+        private double[] re = new double[0];
+        private double[] im = new double[0];
+
+        private void ensureCapacity(int inputSize, int rowSize) {
+            if(input.length < inputSize) {
+                input = new double[inputSize];
+            }
+            if(row.length < rowSize) {
+                row = new double[rowSize];
+            }
+        }
+
+        private double[] ensureColumns(int size) {
+            if(columns.length < size) {
+                columns = new double[size];
+            }
+            return columns;
+        }
+
+        private void ensureTransform(int size) {
+            if(re.length < size) {
+                re = new double[size];
+                im = new double[size];
+            }
+        }
+    }
 }
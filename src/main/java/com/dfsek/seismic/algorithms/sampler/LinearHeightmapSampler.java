@@ -15,6 +15,18 @@ public class LinearHeightmapSampler implements Sampler {
         this.base = base;
     }
 
+    public Sampler getSampler() {
+        return sampler;
+    }
+
+    public double getScale() {
+        return scale;
+    }
+
+    public double getBase() {
+        return base;
+    }
+
 
     @Override
     public double getSample(long seed, double x, double y) {
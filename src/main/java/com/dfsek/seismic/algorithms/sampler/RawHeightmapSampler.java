@@ -0,0 +1,256 @@
+package com.dfsek.seismic.algorithms.sampler;
+
+import com.dfsek.seismic.algorithms.sampler.ImageSampler.Filter;
+import com.dfsek.seismic.math.floatingpoint.FloatingPointFunctions;
+import com.dfsek.seismic.math.numericanalysis.interpolation.InterpolationFunctions;
+import com.dfsek.seismic.type.sampler.Sampler;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+
+/**
+ * Samples a raster of heights stored as raw values in a file, such as a digital elevation model, with each value covering one unit
+ * square at a frequency of 1. Samples are the stored values themselves, so they are usually passed through a normalizer.
+ * <p>
+ * The file is memory-mapped rather than read, so the operating system pages it in as it is sampled and the heap footprint does not
+ * depend on the size of the raster. 3D samples read the raster at their x and z coordinates, with y as the vertical axis.
+ * <p>
+ * Values are stored either row by row, the value at {@code (x, y)} being at index {@code y * width + x}, or in square tiles, which
+ * keeps neighbouring rows of large rasters close together. Tiles are stored row by row, each of them row by row, and tiles at the
+ * right and bottom edges are padded to full size.
+ */
+public class RawHeightmapSampler implements Sampler {
+    /**
+     * Size, as a power of two, of each mapped chunk of the file. Chunk sizes are multiples of every format's size, so no value spans two
+     * chunks.
+     */
+    private static final int CHUNK_BITS = 30;
+    private static final long CHUNK_MASK = (1L << CHUNK_BITS) - 1;
+
+    private final int width;
+    private final int height;
+    private final Format format;
+    private final int tileSize;
+    private final int tilesX;
+    private final ByteBuffer[] chunks;
+
+    private double frequency = 1;
+    private EdgeMode edgeMode = EdgeMode.WRAP;
+    private Filter filter = Filter.NEAREST;
+
+    /**
+     * Maps a raster stored row by row, starting at the beginning of the file.
+     *
+     * @param path      the file to map.
+     * @param width     the width of the raster.
+     * @param height    the height of the raster.
+     * @param format    the format of each value.
+     * @param byteOrder the byte order of each value.
+     *
+     * @throws IOException if the file could not be mapped.
+     */
+    public RawHeightmapSampler(Path path, int width, int height, Format format, ByteOrder byteOrder) throws IOException {
+        this(path, 0, width, height, format, byteOrder, 0);
+    }
+
+    /**
+     * Maps a raster.
+     *
+     * @param path      the file to map.
+     * @param offset    the position in the file of the first value, after any header.
+     * @param width     the width of the raster.
+     * @param height    the height of the raster.
+     * @param format    the format of each value.
+     * @param byteOrder the byte order of each value.
+     * @param tileSize  the width and height of each tile, or {@code 0} if values are stored row by row.
+     *
+     * @throws IOException if the file could not be mapped.
+     */
+    public RawHeightmapSampler(Path path, long offset, int width, int height, Format format, ByteOrder byteOrder, int tileSize)
+        throws IOException {
+        if(width <= 0 || height <= 0) {
+            throw new IllegalArgumentException("Raster size must be positive, got " + width + "x" + height);
+        }
+        if(tileSize < 0) {
+            throw new IllegalArgumentException("Tile size must not be negative, got " + tileSize);
+        }
+        this.width = width;
+        this.height = height;
+        this.format = format;
+        this.tileSize = tileSize;
+        this.tilesX = tileSize == 0 ? 0 : (width + tileSize - 1) / tileSize;
+
+        long values = tileSize == 0 ? (long) width * height : (long) tilesX * ((height + tileSize - 1) / tileSize) * tileSize * tileSize;
+        long size = values * format.bytes;
+        try(FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            if(channel.size() < offset + size) {
+                throw new IllegalArgumentException(
+                    "File " + path + " holds " + channel.size() + " bytes, but the raster ends at byte " + (offset + size));
+            }
+            // Mappings stay valid after their channel is closed.
+            this.chunks = new ByteBuffer[(int) ((size + CHUNK_MASK) >>> CHUNK_BITS)];
+            for(int i = 0; i < chunks.length; i++) {
+                long start = (long) i << CHUNK_BITS;
+                chunks[i] = channel.map(FileChannel.MapMode.READ_ONLY, offset + start, Math.min(size - start, 1L << CHUNK_BITS))
+                    .order(byteOrder);
+            }
+        }
+    }
+
+    public int getWidth() {
+        return width;
+    }
+
+    public int getHeight() {
+        return height;
+    }
+
+    public void setFrequency(double frequency) {
+        this.frequency = frequency;
+    }
+
+    /**
+     * Sets how coordinates outside the raster are sampled. Defaults to {@link EdgeMode#WRAP}.
+     *
+     * @param edgeMode the edge mode.
+     */
+    public void setEdgeMode(EdgeMode edgeMode) {
+        this.edgeMode = edgeMode;
+    }
+
+    /**
+     * Sets how samples between value centres are filtered. Defaults to {@link Filter#NEAREST}.
+     *
+     * @param filter the filter.
+     */
+    public void setFilter(Filter filter) {
+        this.filter = filter;
+    }
+
+    /**
+     * @return the value stored at the given position, which must lie within the raster.
+     */
+    public double getValue(int x, int y) {
+        long index;
+        if(tileSize == 0) {
+            index = (long) y * width + x;
+        } else {
+            long tile = (long) (y / tileSize) * tilesX + x / tileSize;
+            index = tile * tileSize * tileSize + (y % tileSize) * tileSize + x % tileSize;
+        }
+        long position = index * format.bytes;
+        ByteBuffer chunk = chunks[(int) (position >>> CHUNK_BITS)];
+        int offset = (int) (position & CHUNK_MASK);
+        return switch(format) {
+            case UNSIGNED_8 -> chunk.get(offset) & 0xff;
+            case SIGNED_16 -> chunk.getShort(offset);
+            case UNSIGNED_16 -> chunk.getShort(offset) & 0xffff;
+            case SIGNED_32 -> chunk.getInt(offset);
+            case FLOAT_32 -> chunk.getFloat(offset);
+        };
+    }
+
+    @Override
+    public double getSample(long seed, double x, double y) {
+        double px = x * frequency;
+        double py = y * frequency;
+        if(filter == Filter.NEAREST) {
+            return getValue(edge(FloatingPointFunctions.floor(px), width), edge(FloatingPointFunctions.floor(py), height));
+        }
+        // Values lie at the centres of their squares.
+        px -= 0.5;
+        py -= 0.5;
+        int x0 = FloatingPointFunctions.floor(px);
+        int y0 = FloatingPointFunctions.floor(py);
+        double tx = px - x0;
+        double ty = py - y0;
+        if(filter == Filter.BILINEAR) {
+            int c0 = edge(x0, width);
+            int c1 = edge(x0 + 1, width);
+            int r0 = edge(y0, height);
+            int r1 = edge(y0 + 1, height);
+            return InterpolationFunctions.biLerp(getValue(c0, r0), getValue(c1, r0), getValue(c0, r1), getValue(c1, r1), tx, ty);
+        }
+        int c0 = edge(x0 - 1, width);
+        int c1 = edge(x0, width);
+        int c2 = edge(x0 + 1, width);
+        int c3 = edge(x0 + 2, width);
+        int r0 = edge(y0 - 1, height);
+        int r1 = edge(y0, height);
+        int r2 = edge(y0 + 1, height);
+        int r3 = edge(y0 + 2, height);
+        return InterpolationFunctions.biCubicLerp(
+            getValue(c0, r0), getValue(c1, r0), getValue(c2, r0), getValue(c3, r0),
+            getValue(c0, r1), getValue(c1, r1), getValue(c2, r1), getValue(c3, r1),
+            getValue(c0, r2), getValue(c1, r2), getValue(c2, r2), getValue(c3, r2),
+            getValue(c0, r3), getValue(c1, r3), getValue(c2, r3), getValue(c3, r3),
+            tx, ty);
+    }
+
+    @Override
+    public double getSample(long seed, double x, double y, double z) {
+        return getSample(seed, x, z);
+    }
+
+    @Override
+    public void getSampleGrid(long seed, double[] out, double x, double y, double z, double stepX, double stepY, double stepZ,
+                              int sizeX, int sizeY, int sizeZ) {
+        if(sizeY == 0) {
+            return;
+        }
+        // Samples do not depend on y, so the xz plane is sampled once and each of its rows repeated along y, from the back so that no
+        // row is overwritten before it is copied.
+        getSampleGrid(seed, out, x, z, stepX, stepZ, sizeX, sizeZ);
+        for(int ix = sizeX - 1; ix >= 0; ix--) {
+            for(int iy = sizeY - 1; iy >= 0; iy--) {
+                System.arraycopy(out, ix * sizeZ, out, (ix * sizeY + iy) * sizeZ, sizeZ);
+            }
+        }
+    }
+
+    private int edge(int coordinate, int size) {
+        return edgeMode == EdgeMode.WRAP ? Math.floorMod(coordinate, size) : Math.min(Math.max(coordinate, 0), size - 1);
+    }
+
+
+    /**
+     * The format of each stored value.
+     */
+    public enum Format {
+        UNSIGNED_8(1),
+        SIGNED_16(2),
+        UNSIGNED_16(2),
+        SIGNED_32(4),
+        FLOAT_32(4);
+
+        private final int bytes;
+
+        Format(int bytes) {
+            this.bytes = bytes;
+        }
+
+        public int getBytes() {
+            return bytes;
+        }
+    }
+
+
+    /**
+     * How coordinates outside the raster are sampled.
+     */
+    public enum EdgeMode {
+        /**
+         * The raster is tiled infinitely.
+         */
+        WRAP,
+        /**
+         * Coordinates outside the raster take the value at the nearest edge.
+         */
+        CLAMP
+    }
+}
@@ -16,6 +16,22 @@ public class TranslateSampler implements Sampler {
         this.dz = dz;
     }
 
+    public Sampler getSampler() {
+        return sampler;
+    }
+
+    public double getDx() {
+        return dx;
+    }
+
+    public double getDy() {
+        return dy;
+    }
+
+    public double getDz() {
+        return dz;
+    }
+
     @Override
     public double getSample(long seed, double x, double y) {
         return sampler.getSample(seed, x - dx, y - dz);
@@ -22,4 +22,11 @@ public class AdditionSampler extends BinaryArithmeticSampler {
         }
         return out;
     }
+
+    @Override
+    public void operateDerivative(double[] left, int leftOffset, double[] right, int rightOffset, int dimensions) {
+        for(int i = 0; i < dimensions; i++) {
+            left[leftOffset + i] += right[rightOffset + i];
+        }
+    }
 }
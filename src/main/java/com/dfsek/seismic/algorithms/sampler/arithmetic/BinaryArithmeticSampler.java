@@ -5,15 +5,35 @@ import com.dfsek.seismic.type.sampler.Sampler;
 
 
 public abstract class BinaryArithmeticSampler implements DerivativeSampler {
+    /**
+     * Largest right operand grid kept between fills, enough for a 16x16x384 chunk column. Larger grids get a temporary buffer, so
+     * one oversized fill does not pin its buffer to the thread for good.
+     */
+    private static final int MAX_RETAINED_GRID = 1 << 17;
+
     private final Sampler left;
     private final Sampler right;
 
+    // Holds the right operand while the left operand is written to the caller's array.
+    // A sampler can never be its own descendant, so one buffer per instance and thread is never re-entered.
+    private final ThreadLocal<double[]> rightDerivative = ThreadLocal.withInitial(() -> new double[4]);
+    // Holds the right operand's grid in the same way, grown as needed up to MAX_RETAINED_GRID.
+    private final ThreadLocal<double[]> rightGrid = ThreadLocal.withInitial(() -> new double[0]);
+
     protected BinaryArithmeticSampler(Sampler left, Sampler right) {
         this.left = left;
         this.right = right;
     }
 
 
+    public Sampler getLeft() {
+        return left;
+    }
+
+    public Sampler getRight() {
+        return right;
+    }
+
     @Override
     public boolean isDifferentiable() {
         return DerivativeSampler.isDifferentiable(left) && DerivativeSampler.isDifferentiable(right);
@@ -29,20 +49,90 @@ public abstract class BinaryArithmeticSampler implements DerivativeSampler {
         return operate(left.getSample(seed, x, y, z), right.getSample(seed, x, y, z));
     }
 
+    @Override
+    public void getSampleGrid(long seed, double[] out, double x, double y, double stepX, double stepY, int sizeX, int sizeY) {
+        int size = sizeX * sizeY;
+        double[] rightOut = rightGrid(size);
+        left.getSampleGrid(seed, out, x, y, stepX, stepY, sizeX, sizeY);
+        right.getSampleGrid(seed, rightOut, x, y, stepX, stepY, sizeX, sizeY);
+        for(int i = 0; i < size; i++) {
+            out[i] = operate(out[i], rightOut[i]);
+        }
+    }
+
+    @Override
+    public void getSampleGrid(long seed, double[] out, double x, double y, double z, double stepX, double stepY, double stepZ,
+                              int sizeX, int sizeY, int sizeZ) {
+        int size = sizeX * sizeY * sizeZ;
+        double[] rightOut = rightGrid(size);
+        left.getSampleGrid(seed, out, x, y, z, stepX, stepY, stepZ, sizeX, sizeY, sizeZ);
+        right.getSampleGrid(seed, rightOut, x, y, z, stepX, stepY, stepZ, sizeX, sizeY, sizeZ);
+        for(int i = 0; i < size; i++) {
+            out[i] = operate(out[i], rightOut[i]);
+        }
+    }
+
 
     @Override
     public double[] getSampleDerivative(long seed, double x, double y) {
-        return operateDerivative(((DerivativeSampler) left).getSampleDerivative(seed, x, y),
-            ((DerivativeSampler) right).getSampleDerivative(seed, x, y));
+        double[] out = new double[3];
+        getSampleDerivative(seed, out, 0, x, y);
+        return out;
     }
 
     @Override
     public double[] getSampleDerivative(long seed, double x, double y, double z) {
-        return operateDerivative(((DerivativeSampler) left).getSampleDerivative(seed, x, y, z),
-            ((DerivativeSampler) right).getSampleDerivative(seed, x, y, z));
+        double[] out = new double[4];
+        getSampleDerivative(seed, out, 0, x, y, z);
+        return out;
+    }
+
+    @Override
+    public void getSampleDerivative(long seed, double[] out, int offset, double x, double y) {
+        double[] rightOut = rightDerivative.get();
+        ((DerivativeSampler) left).getSampleDerivative(seed, out, offset, x, y);
+        ((DerivativeSampler) right).getSampleDerivative(seed, rightOut, 0, x, y);
+        operateDerivative(out, offset, rightOut, 0, 3);
+    }
+
+    @Override
+    public void getSampleDerivative(long seed, double[] out, int offset, double x, double y, double z) {
+        double[] rightOut = rightDerivative.get();
+        ((DerivativeSampler) left).getSampleDerivative(seed, out, offset, x, y, z);
+        ((DerivativeSampler) right).getSampleDerivative(seed, rightOut, 0, x, y, z);
+        operateDerivative(out, offset, rightOut, 0, 4);
     }
 
     public abstract double operate(double left, double right);
 
+    private double[] rightGrid(int size) {
+        if(size > BinaryArithmeticSampler.MAX_RETAINED_GRID) {
+            return new double[size];
+        }
+        double[] grid = rightGrid.get();
+        if(grid.length < size) {
+            grid = new double[size];
+            rightGrid.set(grid);
+        }
+        return grid;
+    }
+
     public abstract double[] operateDerivative(double[] left, double[] right);
+
+    /**
+     * Combines two derivative samples in place. Copies the result of {@link #operateDerivative(double[], double[])} unless overridden.
+     *
+     * @param left        the left operand, overwritten with the result.
+     * @param leftOffset  the index of the left operand's value in {@code left}.
+     * @param right       the right operand.
+     * @param rightOffset the index of the right operand's value in {@code right}.
+     * @param dimensions  the number of elements in each sample, the value followed by its partial derivatives.
+     */
+    public void operateDerivative(double[] left, int leftOffset, double[] right, int rightOffset, int dimensions) {
+        double[] leftSample = new double[dimensions];
+        double[] rightSample = new double[dimensions];
+        System.arraycopy(left, leftOffset, leftSample, 0, dimensions);
+        System.arraycopy(right, rightOffset, rightSample, 0, dimensions);
+        System.arraycopy(operateDerivative(leftSample, rightSample), 0, left, leftOffset, dimensions);
+    }
 }
@@ -19,4 +19,11 @@ public class MaxSampler extends BinaryArithmeticSampler {
         double rightValue = right[0];
         return leftValue > rightValue ? left : right;
     }
+
+    @Override
+    public void operateDerivative(double[] left, int leftOffset, double[] right, int rightOffset, int dimensions) {
+        if(!(left[leftOffset] > right[rightOffset])) {
+            System.arraycopy(right, rightOffset, left, leftOffset, dimensions);
+        }
+    }
 }
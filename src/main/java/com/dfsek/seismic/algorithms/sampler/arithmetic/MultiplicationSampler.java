@@ -23,4 +23,14 @@ public class MultiplicationSampler extends BinaryArithmeticSampler {
         }
         return out;
     }
+
+    @Override
+    public void operateDerivative(double[] left, int leftOffset, double[] right, int rightOffset, int dimensions) {
+        double leftValue = left[leftOffset];
+        double rightValue = right[rightOffset];
+        left[leftOffset] = leftValue * rightValue;
+        for(int i = 1; i < dimensions; i++) {
+            left[leftOffset + i] = left[leftOffset + i] * rightValue + leftValue * right[rightOffset + i];
+        }
+    }
 }
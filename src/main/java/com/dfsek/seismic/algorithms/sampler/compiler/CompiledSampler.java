@@ -0,0 +1,94 @@
+package com.dfsek.seismic.algorithms.sampler.compiler;
+
+import com.dfsek.seismic.type.sampler.Sampler;
+
+import java.lang.constant.ConstantDescs;
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+
+
+/**
+ * Template for the hidden classes defined by {@link SamplerCompiler}.
+ * <p>
+ * This class file is defined again for every compiled tree, with the fused method handles as its class data. Since they are held in
+ * static final fields, C2 treats them as constants and inlines the whole tree into {@code getSample}. This class itself is never
+ * loaded.
+ * <p>
+ * The third element of the class data is the original tree if grids should be filled through its grid methods, or {@code null} if they
+ * should be filled point by point, where the fused handle is inlined into the loop.
+ */
+final class CompiledSampler implements Sampler {
+    private static final MethodHandle SAMPLE_2D;
+    private static final MethodHandle SAMPLE_3D;
+    private static final Sampler GRID;
+
+    static {
+        try {
+            MethodHandles.Lookup lookup = MethodHandles.lookup();
+            SAMPLE_2D = MethodHandles.classDataAt(lookup, ConstantDescs.DEFAULT_NAME, MethodHandle.class, 0);
+            SAMPLE_3D = MethodHandles.classDataAt(lookup, ConstantDescs.DEFAULT_NAME, MethodHandle.class, 1);
+            GRID = MethodHandles.classDataAt(lookup, ConstantDescs.DEFAULT_NAME, Sampler.class, 2);
+        } catch(IllegalAccessException e) {
+            throw new ExceptionInInitializerError(e);
+        }
+    }
+
+    CompiledSampler() {
+    }
+
+    @Override
+    public double getSample(long seed, double x, double y) {
+        try {
+            return (double) CompiledSampler.SAMPLE_2D.invokeExact(seed, x, y);
+        } catch(RuntimeException | Error e) {
+            throw e;
+        } catch(Throwable e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    @Override
+    public double getSample(long seed, double x, double y, double z) {
+        try {
+            return (double) CompiledSampler.SAMPLE_3D.invokeExact(seed, x, y, z);
+        } catch(RuntimeException | Error e) {
+            throw e;
+        } catch(Throwable e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    @Override
+    public void getSampleGrid(long seed, double[] out, double x, double y, double stepX, double stepY, int sizeX, int sizeY) {
+        if(CompiledSampler.GRID != null) {
+            CompiledSampler.GRID.getSampleGrid(seed, out, x, y, stepX, stepY, sizeX, sizeY);
+            return;
+        }
+        int index = 0;
+        for(int ix = 0; ix < sizeX; ix++) {
+            double sx = x + ix * stepX;
+            for(int iy = 0; iy < sizeY; iy++) {
+                out[index++] = getSample(seed, sx, y + iy * stepY);
+            }
+        }
+    }
+
+    @Override
+    public void getSampleGrid(long seed, double[] out, double x, double y, double z, double stepX, double stepY, double stepZ,
+                              int sizeX, int sizeY, int sizeZ) {
+        if(CompiledSampler.GRID != null) {
+            CompiledSampler.GRID.getSampleGrid(seed, out, x, y, z, stepX, stepY, stepZ, sizeX, sizeY, sizeZ);
+            return;
+        }
+        int index = 0;
+        for(int ix = 0; ix < sizeX; ix++) {
+            double sx = x + ix * stepX;
+            for(int iy = 0; iy < sizeY; iy++) {
+                double sy = y + iy * stepY;
+                for(int iz = 0; iz < sizeZ; iz++) {
+                    out[index++] = getSample(seed, sx, sy, z + iz * stepZ);
+                }
+            }
+        }
+    }
+}
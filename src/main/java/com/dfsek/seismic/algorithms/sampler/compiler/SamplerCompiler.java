@@ -0,0 +1,240 @@
+package com.dfsek.seismic.algorithms.sampler.compiler;
+
+import com.dfsek.seismic.algorithms.sampler.CubicSplineSampler;
+import com.dfsek.seismic.algorithms.sampler.DomainWarpedSampler;
+import com.dfsek.seismic.algorithms.sampler.TranslateSampler;
+import com.dfsek.seismic.algorithms.sampler.arithmetic.BinaryArithmeticSampler;
+import com.dfsek.seismic.algorithms.sampler.normalizer.Normalizer;
+import com.dfsek.seismic.type.CubicSpline;
+import com.dfsek.seismic.type.sampler.Sampler;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.util.Arrays;
+
+
+/**
+ * Fuses a tree of samplers into a single sampler without virtual calls between the nodes.
+ * <p>
+ * Deep trees of arithmetic, normalizer and transform samplers call each other through {@link Sampler#getSample}, which is megamorphic
+ * and so never inlined. The compiler walks the tree and composes the nodes it knows into one method handle, which is then held as a
+ * constant by a freshly defined hidden class. C2 inlines the whole handle, turning the tree into straight-line code.
+ * <p>
+ * The following nodes are fused, unless a subclass overrides their {@code getSample}:
+ * <ul>
+ *     <li>{@link BinaryArithmeticSampler}</li>
+ *     <li>{@link Normalizer}</li>
+ *     <li>{@link CubicSplineSampler}</li>
+ *     <li>{@link TranslateSampler}</li>
+ *     <li>{@link DomainWarpedSampler}</li>
+ * </ul>
+ * Any other sampler becomes a leaf, which is called directly rather than through an interface call, and can still be inlined.
+ * <p>
+ * Grids are filled through the grid methods of the original tree when these reach a leaf with its own bulk path, such as vectorised
+ * noise, and every fused node above it forwards grids exactly. Otherwise they are filled point by point through the fused handle.
+ */
+public final class SamplerCompiler {
+    private static final Logger LOGGER = LoggerFactory.getLogger(SamplerCompiler.class);
+
+    private static final MethodType SAMPLE_2D = MethodType.methodType(double.class, long.class, double.class, double.class);
+    private static final MethodType SAMPLE_3D = MethodType.methodType(double.class, long.class, double.class, double.class,
+        double.class);
+    private static final Class<?>[] GRID_2D = { long.class, double[].class, double.class, double.class, double.class, double.class,
+        int.class, int.class };
+    private static final Class<?>[] GRID_3D = { long.class, double[].class, double.class, double.class, double.class, double.class,
+        double.class, double.class, int.class, int.class, int.class };
+
+    private static final MethodHandle GET_SAMPLE_2D;
+    private static final MethodHandle GET_SAMPLE_3D;
+    private static final MethodHandle OPERATE;
+    private static final MethodHandle NORMALIZE;
+    private static final MethodHandle APPLY;
+    private static final MethodHandle SUBTRACT;
+    private static final MethodHandle WARP;
+    private static final MethodHandle OFFSET_SEED;
+
+    private static final byte[] TEMPLATE = SamplerCompiler.loadTemplate();
+
+    static {
+        try {
+            MethodHandles.Lookup lookup = MethodHandles.lookup();
+            GET_SAMPLE_2D = lookup.findVirtual(Sampler.class, "getSample", SamplerCompiler.SAMPLE_2D);
+            GET_SAMPLE_3D = lookup.findVirtual(Sampler.class, "getSample", SamplerCompiler.SAMPLE_3D);
+            OPERATE = lookup.findVirtual(BinaryArithmeticSampler.class, "operate",
+                MethodType.methodType(double.class, double.class, double.class));
+            NORMALIZE = lookup.findVirtual(Normalizer.class, "normalize", MethodType.methodType(double.class, double.class));
+            APPLY = lookup.findVirtual(CubicSpline.class, "apply", MethodType.methodType(double.class, double.class));
+            SUBTRACT = lookup.findStatic(SamplerCompiler.class, "subtract",
+                MethodType.methodType(double.class, double.class, double.class));
+            WARP = lookup.findStatic(SamplerCompiler.class, "warp",
+                MethodType.methodType(double.class, double.class, double.class, double.class));
+            OFFSET_SEED = lookup.findStatic(SamplerCompiler.class, "offsetSeed",
+                MethodType.methodType(long.class, long.class, long.class));
+        } catch(ReflectiveOperationException e) {
+            throw new ExceptionInInitializerError(e);
+        }
+    }
+
+    private SamplerCompiler() {
+    }
+
+    /**
+     * Compiles a sampler tree into a single fused sampler.
+     * <p>
+     * Only the structure of the tree is captured: nodes are still called on the original instances, so the result keeps seeing
+     * changes to their settings. The result does not implement {@link com.dfsek.seismic.type.sampler.DerivativeSampler}.
+     *
+     * @param sampler the root of the tree.
+     *
+     * @return a sampler returning exactly the same values as {@code sampler}, or {@code sampler} itself if the tree could not be
+     *         compiled.
+     */
+    public static Sampler compile(Sampler sampler) {
+        if(SamplerCompiler.TEMPLATE == null) {
+            return sampler;
+        }
+        try {
+            // The grid sampler may be null, which List.of does not allow.
+            Object classData = Arrays.asList(SamplerCompiler.compile(sampler, SamplerCompiler.SAMPLE_2D),
+                SamplerCompiler.compile(sampler, SamplerCompiler.SAMPLE_3D),
+                SamplerCompiler.gridLeaves(sampler) > 0 ? sampler : null);
+            MethodHandles.Lookup lookup = MethodHandles.lookup().defineHiddenClassWithClassData(SamplerCompiler.TEMPLATE, classData,
+                true);
+            return (Sampler) lookup.lookupClass().getDeclaredConstructor().newInstance();
+        } catch(ReflectiveOperationException | LinkageError e) {
+            SamplerCompiler.LOGGER.warn("Could not compile sampler {}, falling back to the uncompiled tree", sampler, e);
+            return sampler;
+        }
+    }
+
+    /**
+     * Build a method handle of {@code type} evaluating {@code sampler}.
+     */
+    private static MethodHandle compile(Sampler sampler, MethodType type) throws NoSuchMethodException {
+        if(sampler instanceof BinaryArithmeticSampler binary && SamplerCompiler.isFusable(binary, BinaryArithmeticSampler.class, type)) {
+            return SamplerCompiler.combine(SamplerCompiler.OPERATE.bindTo(binary), type,
+                SamplerCompiler.compile(binary.getLeft(), type),
+                SamplerCompiler.compile(binary.getRight(), type));
+        } else if(sampler instanceof Normalizer normalizer && SamplerCompiler.isFusable(normalizer, Normalizer.class, type)) {
+            return MethodHandles.filterReturnValue(SamplerCompiler.compile(normalizer.getSampler(), type),
+                SamplerCompiler.NORMALIZE.bindTo(normalizer));
+        } else if(sampler instanceof CubicSplineSampler spline && SamplerCompiler.isFusable(spline, CubicSplineSampler.class, type)) {
+            return MethodHandles.filterReturnValue(SamplerCompiler.compile(spline.getSampler(), type),
+                SamplerCompiler.APPLY.bindTo(spline.getSpline()));
+        } else if(sampler instanceof TranslateSampler translate && SamplerCompiler.isFusable(translate, TranslateSampler.class, type)) {
+            MethodHandle child = SamplerCompiler.compile(translate.getSampler(), type);
+            if(type.parameterCount() == 3) {
+                // TranslateSampler offsets y by dz in 2D.
+                return MethodHandles.filterArguments(child, 1,
+                    MethodHandles.insertArguments(SamplerCompiler.SUBTRACT, 1, translate.getDx()),
+                    MethodHandles.insertArguments(SamplerCompiler.SUBTRACT, 1, translate.getDz()));
+            } else {
+                return MethodHandles.filterArguments(child, 1,
+                    MethodHandles.insertArguments(SamplerCompiler.SUBTRACT, 1, translate.getDx()),
+                    MethodHandles.insertArguments(SamplerCompiler.SUBTRACT, 1, translate.getDy()),
+                    MethodHandles.insertArguments(SamplerCompiler.SUBTRACT, 1, translate.getDz()));
+            }
+        } else if(sampler instanceof DomainWarpedSampler warped && SamplerCompiler.isFusable(warped, DomainWarpedSampler.class, type)) {
+            MethodHandle warp = SamplerCompiler.compile(warped.getWarp(), type);
+            MethodHandle warpCoordinate = MethodHandles.insertArguments(SamplerCompiler.WARP, 2, warped.getAmplitude());
+            MethodHandle[] arguments = new MethodHandle[type.parameterCount()];
+            arguments[0] = MethodHandles.permuteArguments(MethodHandles.identity(long.class), type.changeReturnType(long.class), 0);
+            for(int i = 1; i < arguments.length; i++) {
+                // coordinate + warp.getSample(seed + i, ...) * amplitude
+                MethodHandle coordinate = MethodHandles.permuteArguments(MethodHandles.identity(double.class), type, i);
+                MethodHandle offset = MethodHandles.filterArguments(warp, 0,
+                    MethodHandles.insertArguments(SamplerCompiler.OFFSET_SEED, 1, (long) i));
+                arguments[i] = SamplerCompiler.combine(warpCoordinate, type, coordinate, offset);
+            }
+            return SamplerCompiler.combine(SamplerCompiler.compile(warped.getFunction(), type), type, arguments);
+        } else {
+            return (type.parameterCount() == 3 ? SamplerCompiler.GET_SAMPLE_2D : SamplerCompiler.GET_SAMPLE_3D).bindTo(sampler);
+        }
+    }
+
+    /**
+     * Count the leaves below {@code sampler} with their own grid methods, if the grid methods of every fused node on the way forward to
+     * their children exactly.
+     *
+     * @return the number of such leaves, or {@code -1} if a fused node would fill its grid point by point.
+     */
+    private static int gridLeaves(Sampler sampler) throws NoSuchMethodException {
+        if(sampler instanceof BinaryArithmeticSampler binary && SamplerCompiler.isFused(binary, BinaryArithmeticSampler.class)) {
+            int left = SamplerCompiler.gridLeaves(binary.getLeft());
+            int right = SamplerCompiler.gridLeaves(binary.getRight());
+            return left < 0 || right < 0 ? -1 : left + right;
+        } else if(sampler instanceof Normalizer normalizer && SamplerCompiler.isFused(normalizer, Normalizer.class)) {
+            return SamplerCompiler.gridLeaves(normalizer.getSampler());
+        } else if(sampler instanceof CubicSplineSampler spline && SamplerCompiler.isFused(spline, CubicSplineSampler.class)) {
+            return SamplerCompiler.gridLeaves(spline.getSampler());
+        } else if(sampler instanceof TranslateSampler translate && SamplerCompiler.isFused(translate, TranslateSampler.class) ||
+                  sampler instanceof DomainWarpedSampler warped && SamplerCompiler.isFused(warped, DomainWarpedSampler.class)) {
+            // Shifting the grid origin would round differently from shifting each point.
+            return -1;
+        } else {
+            Class<?> type = sampler.getClass();
+            return type.getMethod("getSampleGrid", SamplerCompiler.GRID_2D).getDeclaringClass() != Sampler.class ||
+                   type.getMethod("getSampleGrid", SamplerCompiler.GRID_3D).getDeclaringClass() != Sampler.class ? 1 : 0;
+        }
+    }
+
+    /**
+     * Feed the results of {@code arguments}, which all take the parameters of {@code type}, into the parameters of {@code target}.
+     */
+    private static MethodHandle combine(MethodHandle target, MethodType type, MethodHandle... arguments) {
+        int parameters = type.parameterCount();
+        for(int i = arguments.length - 1; i >= 0; i--) {
+            target = MethodHandles.collectArguments(target, i, arguments[i]);
+        }
+        int[] reorder = new int[arguments.length * parameters];
+        for(int i = 0; i < reorder.length; i++) {
+            reorder[i] = i % parameters;
+        }
+        return MethodHandles.permuteArguments(target, type.changeReturnType(target.type().returnType()), reorder);
+    }
+
+    /**
+     * Whether {@code sampler} still uses the {@code getSample} of {@code type} declared by {@code base}.
+     */
+    private static boolean isFusable(Sampler sampler, Class<?> base, MethodType type) throws NoSuchMethodException {
+        return sampler.getClass().getMethod("getSample", type.parameterArray()).getDeclaringClass() == base;
+    }
+
+    /**
+     * Whether {@code sampler} is fused in both 2D and 3D.
+     */
+    private static boolean isFused(Sampler sampler, Class<?> base) throws NoSuchMethodException {
+        return SamplerCompiler.isFusable(sampler, base, SamplerCompiler.SAMPLE_2D) &&
+               SamplerCompiler.isFusable(sampler, base, SamplerCompiler.SAMPLE_3D);
+    }
+
+    private static byte[] loadTemplate() {
+        try(InputStream template = SamplerCompiler.class.getResourceAsStream("CompiledSampler.class")) {
+            if(template == null) {
+                SamplerCompiler.LOGGER.warn("Could not find the compiled sampler template, samplers will not be compiled");
+                return null;
+            }
+            return template.readAllBytes();
+        } catch(IOException e) {
+            SamplerCompiler.LOGGER.warn("Could not read the compiled sampler template, samplers will not be compiled", e);
+            return null;
+        }
+    }
+
+    private static double subtract(double value, double offset) {
+        return value - offset;
+    }
+
+    private static double warp(double coordinate, double offset, double amplitude) {
+        return coordinate + offset * amplitude;
+    }
+
+    private static long offsetSeed(long seed, long offset) {
+        return seed + offset;
+    }
+}
@@ -0,0 +1,342 @@
+package com.dfsek.seismic.algorithms.sampler.instrumentation;
+
+
+import com.dfsek.seismic.type.sampler.DerivativeSampler;
+import com.dfsek.seismic.type.sampler.Sampler;
+import org.jetbrains.annotations.NotNull;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.LongAdder;
+
+
+/**
+ * Records how often a sampler is called, how long it takes and which values it returns.
+ * <p>
+ * Counters are {@link LongAdder}s, so the sampler can be shared between threads without them contending on a single counter. Times
+ * are measured with {@link System#nanoTime()} around every call, both including and excluding the time spent in other instrumented
+ * samplers called on the same thread. Values are counted in a histogram with evenly sized buckets between a minimum and maximum, plus
+ * one bucket below the minimum (which also counts {@code NaN}) and one at or above the maximum.
+ * <p>
+ * Every instrumented sampler is a {@link DerivativeSampler}, but it is only differentiable if the wrapped sampler is. Derivative
+ * methods throw an {@link UnsupportedOperationException} otherwise.
+ * <p>
+ * Instances created by {@link SamplerInstrumentation#instrument(Sampler)} also know the instrumented inputs of the wrapped sampler, so
+ * {@link #snapshot()} returns the whole tree and the time spent in each node itself.
+ */
+public class InstrumentedSampler implements DerivativeSampler {
+    /**
+     * Time spent in instrumented samplers called by the current one on this thread, so it can be left out of its own time.
+     */
+    private static final ThreadLocal<long[]> CHILD_NANOS = ThreadLocal.withInitial(() -> new long[1]);
+
+    private final String name;
+    private final Sampler sampler;
+    private final List<InstrumentedSampler> children;
+    private final double histogramMin;
+    private final double histogramMax;
+    private final double bucketScale;
+    private final int buckets;
+    private final boolean events;
+    private final LongAdder calls = new LongAdder();
+    private final LongAdder nanos = new LongAdder();
+    private final LongAdder selfNanos = new LongAdder();
+    private final LongAdder[] histogram;
+
+    public InstrumentedSampler(String name, Sampler sampler) {
+        this(name, sampler, -1, 1, 16, false);
+    }
+
+    /**
+     * @param name         the name of the node in snapshots and JFR events.
+     * @param sampler      the sampler to instrument.
+     * @param histogramMin the lower bound of the value histogram.
+     * @param histogramMax the upper bound of the value histogram.
+     * @param buckets      the number of buckets between the bounds.
+     * @param events       whether to emit a {@code com.dfsek.seismic.Sample} JFR event for every call. The event is disabled by default
+     *                     and has to be enabled in the recording settings as well.
+     */
+    public InstrumentedSampler(String name, Sampler sampler, double histogramMin, double histogramMax, int buckets, boolean events) {
+        this(name, sampler, List.of(), histogramMin, histogramMax, buckets, events);
+    }
+
+    InstrumentedSampler(String name, Sampler sampler, List<InstrumentedSampler> children, double histogramMin, double histogramMax,
+                        int buckets, boolean events) {
+        if(buckets < 1) {
+            throw new IllegalArgumentException("Histogram must have at least one bucket, got " + buckets);
+        }
+        if(!(histogramMax > histogramMin)) {
+            throw new IllegalArgumentException("Histogram maximum must be greater than its minimum");
+        }
+        this.name = name;
+        this.sampler = sampler;
+        this.children = children;
+        this.histogramMin = histogramMin;
+        this.histogramMax = histogramMax;
+        this.bucketScale = buckets / (histogramMax - histogramMin);
+        this.buckets = buckets;
+        this.events = events;
+        this.histogram = new LongAdder[buckets + 2];
+        for(int i = 0; i < histogram.length; i++) {
+            histogram[i] = new LongAdder();
+        }
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public Sampler getSampler() {
+        return sampler;
+    }
+
+    public List<InstrumentedSampler> getChildren() {
+        return children;
+    }
+
+    /**
+     * @return the counters of this node and all of its instrumented inputs, as they are at the time of the call.
+     */
+    public Snapshot snapshot() {
+        List<Snapshot> childSnapshots = new ArrayList<>(children.size());
+        for(InstrumentedSampler child : children) {
+            childSnapshots.add(child.snapshot());
+        }
+        long[] counts = new long[histogram.length];
+        for(int i = 0; i < counts.length; i++) {
+            counts[i] = histogram[i].sum();
+        }
+        return new Snapshot(name, calls.sum(), nanos.sum(), selfNanos.sum(), histogramMin, histogramMax, counts,
+            List.copyOf(childSnapshots));
+    }
+
+    /**
+     * Resets the counters of this node and all of its instrumented inputs.
+     */
+    public void reset() {
+        calls.reset();
+        nanos.reset();
+        selfNanos.reset();
+        for(LongAdder bucket : histogram) {
+            bucket.reset();
+        }
+        for(InstrumentedSampler child : children) {
+            child.reset();
+        }
+    }
+
+    @Override
+    public double getSample(long seed, double x, double y) {
+        long[] frame = InstrumentedSampler.CHILD_NANOS.get();
+        long outer = frame[0];
+        frame[0] = 0;
+        long start = System.nanoTime();
+        double value = sampler.getSample(seed, x, y);
+        record(frame, outer, start, value);
+        return value;
+    }
+
+    @Override
+    public double getSample(long seed, double x, double y, double z) {
+        long[] frame = InstrumentedSampler.CHILD_NANOS.get();
+        long outer = frame[0];
+        frame[0] = 0;
+        long start = System.nanoTime();
+        double value = sampler.getSample(seed, x, y, z);
+        record(frame, outer, start, value);
+        return value;
+    }
+
+    @Override
+    public void getSampleGrid(long seed, double @NotNull [] out, double x, double y, double stepX, double stepY, int sizeX, int sizeY) {
+        long[] frame = InstrumentedSampler.CHILD_NANOS.get();
+        long outer = frame[0];
+        frame[0] = 0;
+        long start = System.nanoTime();
+        sampler.getSampleGrid(seed, out, x, y, stepX, stepY, sizeX, sizeY);
+        recordGrid(frame, outer, start, out, sizeX * sizeY, 1);
+    }
+
+    @Override
+    public void getSampleGrid(long seed, double @NotNull [] out, double x, double y, double z, double stepX, double stepY, double stepZ,
+                              int sizeX, int sizeY, int sizeZ) {
+        long[] frame = InstrumentedSampler.CHILD_NANOS.get();
+        long outer = frame[0];
+        frame[0] = 0;
+        long start = System.nanoTime();
+        sampler.getSampleGrid(seed, out, x, y, z, stepX, stepY, stepZ, sizeX, sizeY, sizeZ);
+        recordGrid(frame, outer, start, out, sizeX * sizeY * sizeZ, 1);
+    }
+
+    @Override
+    public boolean isDifferentiable() {
+        return DerivativeSampler.isDifferentiable(sampler);
+    }
+
+    @Override
+    public double[] getSampleDerivative(long seed, double x, double y) {
+        double[] out = new double[3];
+        getSampleDerivative(seed, out, 0, x, y);
+        return out;
+    }
+
+    @Override
+    public double[] getSampleDerivative(long seed, double x, double y, double z) {
+        double[] out = new double[4];
+        getSampleDerivative(seed, out, 0, x, y, z);
+        return out;
+    }
+
+    @Override
+    public void getSampleDerivative(long seed, double @NotNull [] out, int offset, double x, double y) {
+        DerivativeSampler derivative = derivativeSampler();
+        long[] frame = InstrumentedSampler.CHILD_NANOS.get();
+        long outer = frame[0];
+        frame[0] = 0;
+        long start = System.nanoTime();
+        derivative.getSampleDerivative(seed, out, offset, x, y);
+        record(frame, outer, start, out[offset]);
+    }
+
+    @Override
+    public void getSampleDerivative(long seed, double @NotNull [] out, int offset, double x, double y, double z) {
+        DerivativeSampler derivative = derivativeSampler();
+        long[] frame = InstrumentedSampler.CHILD_NANOS.get();
+        long outer = frame[0];
+        frame[0] = 0;
+        long start = System.nanoTime();
+        derivative.getSampleDerivative(seed, out, offset, x, y, z);
+        record(frame, outer, start, out[offset]);
+    }
+
+    @Override
+    public void getSampleDerivativeGrid(long seed, double @NotNull [] out, double @NotNull [] xs, double @NotNull [] ys, int sizeX,
+                                        int sizeY) {
+        DerivativeSampler derivative = derivativeSampler();
+        long[] frame = InstrumentedSampler.CHILD_NANOS.get();
+        long outer = frame[0];
+        frame[0] = 0;
+        long start = System.nanoTime();
+        derivative.getSampleDerivativeGrid(seed, out, xs, ys, sizeX, sizeY);
+        recordGrid(frame, outer, start, out, sizeX * sizeY, 3);
+    }
+
+    @Override
+    public void getSampleDerivativeGrid(long seed, double @NotNull [] out, double @NotNull [] xs, double @NotNull [] ys,
+                                        double @NotNull [] zs, int sizeX, int sizeY, int sizeZ) {
+        DerivativeSampler derivative = derivativeSampler();
+        long[] frame = InstrumentedSampler.CHILD_NANOS.get();
+        long outer = frame[0];
+        frame[0] = 0;
+        long start = System.nanoTime();
+        derivative.getSampleDerivativeGrid(seed, out, xs, ys, zs, sizeX, sizeY, sizeZ);
+        recordGrid(frame, outer, start, out, sizeX * sizeY * sizeZ, 4);
+    }
+
+    private DerivativeSampler derivativeSampler() {
+        if(!DerivativeSampler.isDifferentiable(sampler)) {
+            throw new UnsupportedOperationException("Instrumented sampler " + name + " is not differentiable");
+        }
+        return (DerivativeSampler) sampler;
+    }
+
+    private void record(long[] frame, long outer, long start, double value) {
+        long elapsed = finish(frame, outer, start);
+        calls.increment();
+        histogram[bucket(value)].increment();
+        if(events) {
+            emit(1, elapsed);
+        }
+    }
+
+    /**
+     * Record a grid call of {@code count} samples, whose values are every {@code stride} elements of {@code out}.
+     */
+    private void recordGrid(long[] frame, long outer, long start, double[] out, int count, int stride) {
+        long elapsed = finish(frame, outer, start);
+        calls.add(count);
+        for(int i = 0; i < count; i++) {
+            histogram[bucket(out[i * stride])].increment();
+        }
+        if(events) {
+            emit(count, elapsed);
+        }
+    }
+
+    /**
+     * Record the time of a call that started at {@code start}, and add it to the time of the caller's children.
+     */
+    private long finish(long[] frame, long outer, long start) {
+        long elapsed = System.nanoTime() - start;
+        nanos.add(elapsed);
+        selfNanos.add(elapsed - frame[0]);
+        frame[0] = outer + elapsed;
+        return elapsed;
+    }
+
+    private void emit(long samples, long elapsed) {
+        SampleEvent event = new SampleEvent();
+        if(event.isEnabled()) {
+            event.node = name;
+            event.samples = samples;
+            event.nanos = elapsed;
+            event.commit();
+        }
+    }
+
+    private int bucket(double value) {
+        if(!(value >= histogramMin)) {
+            return 0;
+        }
+        if(value >= histogramMax) {
+            return buckets + 1;
+        }
+        // Rounding can put values just below the maximum into the overflow bucket.
+        return Math.min((int) ((value - histogramMin) * bucketScale), buckets - 1) + 1;
+    }
+
+    /**
+     * Counters of an instrumented node at one point in time.
+     *
+     * @param name         the name of the node.
+     * @param calls        the number of samples taken.
+     * @param totalNanos   the time spent in the node, including its inputs.
+     * @param selfNanos    the time spent in the node, excluding the instrumented samplers it called.
+     * @param histogramMin the lower bound of the histogram.
+     * @param histogramMax the upper bound of the histogram.
+     * @param histogram    the number of values below {@code histogramMin} or {@code NaN}, in each bucket, and at or above
+     *                     {@code histogramMax}.
+     * @param children     the snapshots of the node's instrumented inputs.
+     */
+    public record Snapshot(String name, long calls, long totalNanos, long selfNanos, double histogramMin, double histogramMax,
+                           long[] histogram, List<Snapshot> children) {
+        /**
+         * @return the average time per sample including inputs, or {@code 0} if nothing was sampled.
+         */
+        public double averageNanos() {
+            return calls == 0 ? 0 : (double) totalNanos / calls;
+        }
+
+        @Override
+        public String toString() {
+            StringBuilder builder = new StringBuilder();
+            append(builder, 0);
+            return builder.toString();
+        }
+
+        private void append(StringBuilder builder, int depth) {
+            builder.append("  ".repeat(depth))
+                .append(name)
+                .append(": ")
+                .append(calls)
+                .append(" calls, ")
+                .append(totalNanos / 1_000_000.0)
+                .append(" ms total, ")
+                .append(selfNanos / 1_000_000.0)
+                .append(" ms self\n");
+            for(Snapshot child : children) {
+                child.append(builder, depth + 1);
+            }
+        }
+    }
+}
@@ -0,0 +1,33 @@
+package com.dfsek.seismic.algorithms.sampler.instrumentation;
+
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Enabled;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+import jdk.jfr.Timespan;
+
+
+/**
+ * JFR event emitted for every sample of an {@link InstrumentedSampler} created with events enabled.
+ */
+@Name("com.dfsek.seismic.Sample")
+@Label("Sampler Sample")
+@Description("A single sample, or grid of samples, taken from an instrumented sampler node")
+@Category("Seismic")
+@StackTrace(false)
+@Enabled(false)
+final class SampleEvent extends Event {
+    @Label("Node")
+    String node;
+
+    @Label("Samples")
+    long samples;
+
+    @Label("Duration")
+    @Timespan(Timespan.NANOSECONDS)
+    long nanos;
+}
@@ -0,0 +1,287 @@
+package com.dfsek.seismic.algorithms.sampler.instrumentation;
+
+import com.dfsek.seismic.algorithms.sampler.CachingSampler;
+import com.dfsek.seismic.algorithms.sampler.CubicSplineSampler;
+import com.dfsek.seismic.algorithms.sampler.DomainWarpedSampler;
+import com.dfsek.seismic.algorithms.sampler.LinearHeightmapSampler;
+import com.dfsek.seismic.algorithms.sampler.TranslateSampler;
+import com.dfsek.seismic.algorithms.sampler.arithmetic.BinaryArithmeticSampler;
+import com.dfsek.seismic.algorithms.sampler.noise.fractal.BrownianMotionSampler;
+import com.dfsek.seismic.algorithms.sampler.noise.fractal.FractalNoiseFunction;
+import com.dfsek.seismic.algorithms.sampler.noise.fractal.ImmutableBrownianMotionSampler;
+import com.dfsek.seismic.algorithms.sampler.noise.fractal.ImmutableFractalNoiseFunction;
+import com.dfsek.seismic.algorithms.sampler.noise.fractal.ImmutablePingPongSampler;
+import com.dfsek.seismic.algorithms.sampler.noise.fractal.ImmutableRidgedFractalSampler;
+import com.dfsek.seismic.algorithms.sampler.noise.fractal.PingPongSampler;
+import com.dfsek.seismic.algorithms.sampler.noise.fractal.RidgedFractalSampler;
+import com.dfsek.seismic.algorithms.sampler.normalizer.Normalizer;
+import com.dfsek.seismic.type.sampler.Sampler;
+import org.jetbrains.annotations.Nullable;
+
+import java.util.ArrayList;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+
+
+/**
+ * Wraps every node of a sampler tree in an {@link InstrumentedSampler}.
+ * <p>
+ * Instrumentation is only applied if the {@code seismic.instrumentation} system property is {@code true}. Otherwise
+ * {@link #instrument(Sampler)} returns the tree it is given, so calls to it can stay in production code at no cost.
+ * <p>
+ * The following nodes are rebuilt with instrumented inputs, unless a subclass overrides their {@code getSample}:
+ * <ul>
+ *     <li>{@link BinaryArithmeticSampler}</li>
+ *     <li>{@link Normalizer}</li>
+ * </ul>
+ * The following nodes are rebuilt with instrumented inputs if they are exactly that class:
+ * <ul>
+ *     <li>{@link CubicSplineSampler}, {@link TranslateSampler}, {@link DomainWarpedSampler} and {@link LinearHeightmapSampler}</li>
+ *     <li>{@link CachingSampler}, starting with an empty cache</li>
+ *     <li>{@link BrownianMotionSampler}, {@link RidgedFractalSampler} and {@link PingPongSampler}</li>
+ *     <li>{@link ImmutableBrownianMotionSampler}, {@link ImmutableRidgedFractalSampler} and {@link ImmutablePingPongSampler}</li>
+ * </ul>
+ * Any other sampler is instrumented as a whole, without its inputs. A sampler used in several places of the tree is instrumented
+ * once and shared, like the original.
+ * <p>
+ * Rebuilt fractal samplers copy the configuration they have at the time of the call, and no longer see later changes to the original.
+ * Wrapping an input also hides its type from its parent, so optimisations that depend on it, like the direct octave loop of
+ * {@link FractalNoiseFunction}, are not applied to the instrumented tree.
+ */
+public final class SamplerInstrumentation {
+    private static final boolean ENABLED = SamplerInstrumentation.readEnabled();
+
+    private SamplerInstrumentation() {
+
+    }
+
+    /**
+     * @return whether the {@code seismic.instrumentation} system property is {@code true}.
+     */
+    public static boolean isEnabled() {
+        return SamplerInstrumentation.ENABLED;
+    }
+
+    /**
+     * Instrument {@code root} and all of its inputs, with a histogram of 16 buckets between {@code -1} and {@code 1} and no JFR events.
+     *
+     * @param root the root of the tree.
+     *
+     * @return an {@link InstrumentedSampler} wrapping the rebuilt tree, or {@code root} if instrumentation is disabled.
+     */
+    public static Sampler instrument(Sampler root) {
+        return SamplerInstrumentation.instrument(root, -1, 1, 16, false);
+    }
+
+    /**
+     * Instrument {@code root} and all of its inputs.
+     *
+     * @param root         the root of the tree.
+     * @param histogramMin the lower bound of every node's value histogram.
+     * @param histogramMax the upper bound of every node's value histogram.
+     * @param buckets      the number of buckets between the bounds.
+     * @param events       whether to emit JFR events for every call.
+     *
+     * @return an {@link InstrumentedSampler} wrapping the rebuilt tree, or {@code root} if instrumentation is disabled.
+     */
+    public static Sampler instrument(Sampler root, double histogramMin, double histogramMax, int buckets, boolean events) {
+        if(!SamplerInstrumentation.ENABLED) {
+            return root;
+        }
+        return new Walker(histogramMin, histogramMax, buckets, events).wrap(root);
+    }
+
+    /**
+     * @param sampler a sampler returned by {@link #instrument(Sampler)}.
+     *
+     * @return a snapshot of the counters of the whole tree, or {@code null} if {@code sampler} is not instrumented.
+     */
+    public static InstrumentedSampler.@Nullable Snapshot snapshot(Sampler sampler) {
+        return sampler instanceof InstrumentedSampler instrumented ? instrumented.snapshot() : null;
+    }
+
+    private static boolean readEnabled() {
+        try {
+            return Boolean.getBoolean("seismic.instrumentation");
+        } catch(
+            @SuppressWarnings("unused")
+            SecurityException se) {
+            return false;
+        }
+    }
+
+    private static boolean isPlain(Sampler sampler, Class<?> base) {
+        try {
+            Class<?> type = sampler.getClass();
+            return type.getMethod("getSample", long.class, double.class, double.class).getDeclaringClass() == base &&
+                   type.getMethod("getSample", long.class, double.class, double.class, double.class).getDeclaringClass() == base;
+        } catch(NoSuchMethodException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private static <T extends FractalNoiseFunction> T copyFractal(FractalNoiseFunction from, T to) {
+        to.setFrequency(from.getFrequency());
+        to.setSalt(from.getSalt());
+        to.setOctaves(from.getOctaves());
+        to.setGain(from.getGain());
+        to.setLacunarity(from.getLacunarity());
+        to.setWeightedStrength(from.getWeightedStrength());
+        return to;
+    }
+
+    private static <B extends ImmutableFractalNoiseFunction.Builder<B>> B copyFractal(ImmutableFractalNoiseFunction from, B to) {
+        return to.frequency(from.getFrequency())
+            .salt(from.getSalt())
+            .octaves(from.getOctaves())
+            .gain(from.getGain())
+            .lacunarity(from.getLacunarity())
+            .weightedStrength(from.getWeightedStrength());
+    }
+
+
+    private static final class Walker {
+        private final double histogramMin;
+        private final double histogramMax;
+        private final int buckets;
+        private final boolean events;
+        private final Map<Sampler, InstrumentedSampler> instrumented = new IdentityHashMap<>();
+
+        private Walker(double histogramMin, double histogramMax, int buckets, boolean events) {
+            this.histogramMin = histogramMin;
+            this.histogramMax = histogramMax;
+            this.buckets = buckets;
+            this.events = events;
+        }
+
+        private InstrumentedSampler wrap(Sampler sampler) {
+            if(sampler instanceof InstrumentedSampler already) {
+                return already;
+            }
+            InstrumentedSampler existing = instrumented.get(sampler);
+            if(existing != null) {
+                return existing;
+            }
+
+            List<InstrumentedSampler> children = new ArrayList<>();
+            Sampler rebuilt = rebuild(sampler, children);
+            String name = sampler.getClass().getSimpleName();
+            InstrumentedSampler result = new InstrumentedSampler(name.isEmpty() ? sampler.getClass().getName() : name, rebuilt,
+                List.copyOf(children), histogramMin, histogramMax, buckets, events);
+            instrumented.put(sampler, result);
+            return result;
+        }
+
+        private Sampler child(Sampler sampler, List<InstrumentedSampler> children) {
+            InstrumentedSampler child = wrap(sampler);
+            children.add(child);
+            return child;
+        }
+
+        private Sampler rebuild(Sampler sampler, List<InstrumentedSampler> children) {
+            Class<?> type = sampler.getClass();
+            if(sampler instanceof BinaryArithmeticSampler binary && SamplerInstrumentation.isPlain(binary, BinaryArithmeticSampler.class)) {
+                return new InstrumentedArithmeticSampler(binary, child(binary.getLeft(), children), child(binary.getRight(), children));
+            } else if(sampler instanceof Normalizer normalizer && SamplerInstrumentation.isPlain(normalizer, Normalizer.class)) {
+                return new InstrumentedNormalizer(normalizer, child(normalizer.getSampler(), children));
+            } else if(type == CubicSplineSampler.class) {
+                CubicSplineSampler spline = (CubicSplineSampler) sampler;
+                return new CubicSplineSampler(child(spline.getSampler(), children), spline.getSpline());
+            } else if(type == TranslateSampler.class) {
+                TranslateSampler translate = (TranslateSampler) sampler;
+                return new TranslateSampler(child(translate.getSampler(), children), translate.getDx(), translate.getDy(),
+                    translate.getDz());
+            } else if(type == DomainWarpedSampler.class) {
+                DomainWarpedSampler warped = (DomainWarpedSampler) sampler;
+                return new DomainWarpedSampler(child(warped.getFunction(), children), child(warped.getWarp(), children),
+                    warped.getAmplitude());
+            } else if(type == LinearHeightmapSampler.class) {
+                LinearHeightmapSampler heightmap = (LinearHeightmapSampler) sampler;
+                return new LinearHeightmapSampler(child(heightmap.getSampler(), children), heightmap.getScale(), heightmap.getBase());
+            } else if(type == CachingSampler.class) {
+                CachingSampler caching = (CachingSampler) sampler;
+                return new CachingSampler(child(caching.getSampler(), children), caching.getCapacity(), caching.getMode());
+            } else if(type == BrownianMotionSampler.class) {
+                FractalNoiseFunction fractal = (FractalNoiseFunction) sampler;
+                return SamplerInstrumentation.copyFractal(fractal, new BrownianMotionSampler(child(fractal.getInput(), children)));
+            } else if(type == RidgedFractalSampler.class) {
+                FractalNoiseFunction fractal = (FractalNoiseFunction) sampler;
+                return SamplerInstrumentation.copyFractal(fractal, new RidgedFractalSampler(child(fractal.getInput(), children)));
+            } else if(type == PingPongSampler.class) {
+                PingPongSampler pingPong = (PingPongSampler) sampler;
+                PingPongSampler copy = SamplerInstrumentation.copyFractal(pingPong,
+                    new PingPongSampler(child(pingPong.getInput(), children)));
+                copy.setPingPongStrength(pingPong.getPingPongStrength());
+                return copy;
+            } else if(type == ImmutableBrownianMotionSampler.class) {
+                ImmutableFractalNoiseFunction fractal = (ImmutableFractalNoiseFunction) sampler;
+                return SamplerInstrumentation.copyFractal(fractal,
+                    ImmutableBrownianMotionSampler.builder(child(fractal.getInput(), children))).build();
+            } else if(type == ImmutableRidgedFractalSampler.class) {
+                ImmutableFractalNoiseFunction fractal = (ImmutableFractalNoiseFunction) sampler;
+                return SamplerInstrumentation.copyFractal(fractal,
+                    ImmutableRidgedFractalSampler.builder(child(fractal.getInput(), children))).build();
+            } else if(type == ImmutablePingPongSampler.class) {
+                ImmutablePingPongSampler pingPong = (ImmutablePingPongSampler) sampler;
+                return SamplerInstrumentation.copyFractal(pingPong,
+                        ImmutablePingPongSampler.builder(child(pingPong.getInput(), children)))
+                    .pingPongStrength(pingPong.getPingPongStrength())
+                    .build();
+            } else {
+                return sampler;
+            }
+        }
+    }
+
+
+    /**
+     * Applies the operation of another arithmetic sampler to instrumented inputs.
+     */
+    private static final class InstrumentedArithmeticSampler extends BinaryArithmeticSampler {
+        private final BinaryArithmeticSampler original;
+
+        private InstrumentedArithmeticSampler(BinaryArithmeticSampler original, Sampler left, Sampler right) {
+            super(left, right);
+            this.original = original;
+        }
+
+        @Override
+        public double operate(double left, double right) {
+            return original.operate(left, right);
+        }
+
+        @Override
+        public double[] operateDerivative(double[] left, double[] right) {
+            return original.operateDerivative(left, right);
+        }
+
+        @Override
+        public void operateDerivative(double[] left, int leftOffset, double[] right, int rightOffset, int dimensions) {
+            original.operateDerivative(left, leftOffset, right, rightOffset, dimensions);
+        }
+    }
+
+
+    /**
+     * Applies the normalization of another normalizer to an instrumented input.
+     */
+    private static final class InstrumentedNormalizer extends Normalizer {
+        private final Normalizer original;
+
+        private InstrumentedNormalizer(Normalizer original, Sampler sampler) {
+            super(sampler);
+            this.original = original;
+        }
+
+        @Override
+        public double normalize(double in) {
+            return original.normalize(in);
+        }
+
+        @Override
+        public void normalize(double[] values, int offset, int length) {
+            original.normalize(values, offset, length);
+        }
+    }
+}
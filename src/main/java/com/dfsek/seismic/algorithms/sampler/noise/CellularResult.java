@@ -0,0 +1,147 @@
+package com.dfsek.seismic.algorithms.sampler.noise;
+
+import com.dfsek.seismic.algorithms.sampler.noise.CellularSampler.ReturnType;
+import com.dfsek.seismic.type.DistanceFunction;
+import com.dfsek.seismic.type.sampler.Sampler;
+
+import java.util.Arrays;
+
+
+/**
+ * Everything found by one neighbour search of a {@link CellularSampler}, from which the value of any {@link ReturnType} can be derived
+ * without searching again.
+ * <p>
+ * Results are filled in by {@link CellularSampler#search(long, double, double, CellularResult)} and its 3D counterpart, and are meant to
+ * be reused across searches so that sampling does not allocate. The configuration of the sampler is captured at search time, so
+ * reconfiguring the sampler afterwards does not affect results that were already filled in.
+ */
+public final class CellularResult {
+    private static final Output[] OUTPUTS = Arrays.stream(ReturnType.values()).map(CellularResult::create).toArray(Output[]::new);
+
+    boolean threeDimensional;
+
+    double x;
+    double y;
+    double z;
+
+    double distance0;
+    double distance1;
+    double distance2;
+    int closestHash;
+    double centerX;
+    double centerY;
+    double centerZ;
+
+    DistanceFunction distanceFunction;
+    double frequency;
+    Sampler noiseLookup;
+    long lookupSeed;
+
+    public boolean isThreeDimensional() {
+        return threeDimensional;
+    }
+
+    /**
+     * @param rank 0 for the closest feature point, 1 for the second closest, 2 for the third closest.
+     *
+     * @return the distance to the feature point of the given rank, as measured by the sampler's distance function.
+     */
+    public double getDistance(int rank) {
+        double distance = switch(rank) {
+            case 0 -> distance0;
+            case 1 -> distance1;
+            case 2 -> distance2;
+            default -> throw new IllegalArgumentException("Rank must be between 0 and 2, got " + rank);
+        };
+        return root(distance);
+    }
+
+    public int getClosestHash() {
+        return closestHash;
+    }
+
+    /**
+     * @return the position of the closest feature point, in sample coordinates.
+     */
+    public double getCenterX() {
+        return centerX;
+    }
+
+    public double getCenterY() {
+        return centerY;
+    }
+
+    /**
+     * @return the z coordinate of the closest feature point, or {@code 0} for a 2D search.
+     */
+    public double getCenterZ() {
+        return centerZ;
+    }
+
+    /**
+     * @return the angle from the closest feature point to the sampled coordinates, in the xy plane.
+     */
+    public double getAngle() {
+        return Math.atan2(y / frequency - centerY, x / frequency - centerX);
+    }
+
+    /**
+     * Derives a sample from this result.
+     *
+     * @param returnType the return type to derive.
+     *
+     * @return exactly what the sampler that produced this result would have returned when configured with {@code returnType}.
+     */
+    public double getSample(ReturnType returnType) {
+        return CellularResult.OUTPUTS[returnType.ordinal()].sample(this);
+    }
+
+    /**
+     * @return the strategy deriving samples of {@code returnType}, which samplers resolve once rather than per sample.
+     */
+    static Output output(ReturnType returnType) {
+        return CellularResult.OUTPUTS[returnType.ordinal()];
+    }
+
+    private static Output create(ReturnType returnType) {
+        return switch(returnType) {
+            case CellValue -> result -> result.closestHash * (1 / 2147483648.0);
+            case Distance -> result -> result.root(result.distance0) - 1;
+            case Distance2 -> result -> result.root(result.distance1) - 1;
+            case Distance2Add -> result -> (result.root(result.distance1) + result.root(result.distance0)) * 0.5 - 1;
+            case Distance2Sub -> result -> result.root(result.distance1) - result.root(result.distance0) - 1;
+            case Distance2Mul -> result -> result.root(result.distance1) * result.root(result.distance0) * 0.5 - 1;
+            case Distance2Div -> result -> result.root(result.distance0) / result.root(result.distance1) - 1;
+            case NoiseLookup -> result -> result.lookup(result.centerX, result.centerY, result.centerZ);
+            case LocalNoiseLookup -> result -> result.lookup(result.x / result.frequency - result.centerX,
+                result.y / result.frequency - result.centerY, result.z / result.frequency - result.centerZ);
+            // Unlike the first two distances, the third is never square rooted.
+            case Distance3 -> result -> result.distance2 - 1;
+            case Distance3Add -> result -> (result.distance2 + result.root(result.distance0)) * 0.5 - 1;
+            case Distance3Sub -> result -> result.distance2 - result.root(result.distance0) - 1;
+            case Distance3Mul -> result -> result.distance2 * result.root(result.distance0) - 1;
+            case Distance3Div -> result -> result.root(result.distance0) / result.distance2 - 1;
+            case Angle -> CellularResult::getAngle;
+        };
+    }
+
+    private double root(double distance) {
+        return distanceFunction == DistanceFunction.Euclidean ? Math.sqrt(distance) : distance;
+    }
+
+    private double lookup(double lookupX, double lookupY, double lookupZ) {
+        if(threeDimensional) {
+            return noiseLookup.getSample(lookupSeed, lookupX, lookupY, lookupZ);
+        }
+        return noiseLookup.getSample(lookupSeed, lookupX, lookupY);
+    }
+
+
+    /**
+     * Derives the sample of one {@link ReturnType} from a result.
+     */
+    @FunctionalInterface
+    interface Output {
+        double sample(CellularResult result);
+    }
+}
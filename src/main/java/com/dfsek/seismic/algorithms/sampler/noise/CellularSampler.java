@@ -14,12 +14,14 @@ import com.dfsek.seismic.math.floatingpoint.FloatingPointFunctions;
 import com.dfsek.seismic.type.DistanceFunction;
 import com.dfsek.seismic.type.sampler.Sampler;
 
+import java.util.Arrays;
+
 
 /**
  * NoiseSampler implementation for Cellular (Voronoi/Worley) Noise.
  */
 public class CellularSampler extends NoiseFunction {
-    private static final double[] RAND_VECS_3D = {
+    static final double[] RAND_VECS_3D = {
         -0.7292736885d, -0.6618439697d, 0.1735581948d, 0, 0.790292081d, -0.5480887466d, -0.2739291014d, 0, 0.7217578935d, 0.6226212466d,
         -0.3023380997d, 0, 0.565683137d, -0.8208298145d, -0.0790000257d, 0, 0.760049034d, -0.5555979497d, -0.3370999617d, 0,
         0.3713945616d, 0.5011264475d, 0.7816254623d, 0, -0.1277062463d, -0.4254438999d, -0.8959289049d, 0, -0.2881560924d,
@@ -128,7 +130,7 @@ public class CellularSampler extends NoiseFunction {
         0.7601631212d, -0.6344734459d, 0, 0.4484419361d, -0.845289248d, 0.2904925424d, 0
     };
 
-    private static final double[] RAND_VECS_2D = {
+    static final double[] RAND_VECS_2D = {
         -0.2700222198d, -0.9628540911d, 0.3863092627d, -0.9223693152d, 0.04444859006d, -0.999011673d, -0.5992523158d, -0.8005602176d,
         -0.7819280288d, 0.6233687174d, 0.9464672271d, 0.3227999196d, -0.6514146797d, -0.7587218957d, 0.9378472289d, 0.347048376d,
         -0.8497875957d, -0.5271252623d, -0.879042592d, 0.4767432447d, -0.892300288d, -0.4514423508d, -0.379844434d, -0.9250503802d,
@@ -195,21 +197,41 @@ public class CellularSampler extends NoiseFunction {
         -0.146637214d, -0.9891903394d, -0.782318098d, 0.6228791163d, -0.5039610839d, -0.8637263605d, -0.7743120191d, -0.6328039957d,
         };
 
+    private static final double MAX_COMPONENT_2D = CellularSampler.maxComponent(CellularSampler.RAND_VECS_2D);
+    private static final double MAX_COMPONENT_3D = CellularSampler.maxComponent(CellularSampler.RAND_VECS_3D);
+    /**
+     * Absolute slack added to the per-axis reach of a feature point, so rounding can never make a cell's computed distance fall below
+     * its lower bound.
+     */
+    private static final double BOUND_SLACK = 1.0e-9;
+
 
     private DistanceFunction distanceFunction = DistanceFunction.EuclideanSq;
+    private Metric metric = Metric.SQUARED;
     private ReturnType returnType = ReturnType.Distance;
+    private CellularResult.Output output = CellularResult.output(returnType);
+    private int rank = 0;
     private double jitterModifier = 1.0;
 
     private Sampler noiseLookup;
 
     private boolean saltLookup;
 
+    private boolean lookupCaching;
+    /**
+     * Identifies the lookup configuration that cached lookups were made with, so that changing it invalidates them on every thread.
+     */
+    private int lookupGeneration;
+    private final ThreadLocal<LookupCache> lookupCache = ThreadLocal.withInitial(LookupCache::new);
+    private final ThreadLocal<CellularResult> searchResult = ThreadLocal.withInitial(CellularResult::new);
+
     public CellularSampler() {
         noiseLookup = new OpenSimplex2Sampler();
     }
 
     public void setDistanceFunction(DistanceFunction distanceFunction) {
         this.distanceFunction = distanceFunction;
+        this.metric = Metric.of(distanceFunction);
     }
 
     public void setJitterModifier(double jitterModifier) {
@@ -218,18 +240,91 @@ public class CellularSampler extends NoiseFunction {
 
     public void setNoiseLookup(Sampler noiseLookup) {
         this.noiseLookup = noiseLookup;
+        this.lookupGeneration++;
     }
 
     public void setReturnType(ReturnType returnType) {
         this.returnType = returnType;
+        this.rank = CellularSampler.rank(returnType);
+        resolveOutput();
     }
 
     public void setSaltLookup(boolean saltLookup) {
         this.saltLookup = saltLookup;
     }
 
+    /**
+     * Sets whether {@link ReturnType#NoiseLookup} results are memoised per cell. Every sample in a cell looks up the same centre, so
+     * with caching enabled the lookup sampler usually runs once per cell rather than once per sample. Disabled by default.
+     * <p>
+     * Cached results are only discarded when {@link #setNoiseLookup(Sampler)} or this method is called, so the lookup sampler must
+     * be deterministic and must not be reconfigured while caching is enabled. Calling {@link #setNoiseLookup(Sampler)} again after
+     * reconfiguring it discards stale results.
+     *
+     * @param lookupCaching whether to memoise lookups.
+     */
+    public void setLookupCaching(boolean lookupCaching) {
+        this.lookupCaching = lookupCaching;
+        this.lookupGeneration++;
+        resolveOutput();
+    }
+
+    private void resolveOutput() {
+        this.output = returnType == ReturnType.NoiseLookup && lookupCaching ? this::cachedLookup : CellularResult.output(returnType);
+    }
+
     @Override
     public double getNoiseRaw(long sl, double x, double y) {
+        return output.sample(search2D(sl, x, y, rank, searchResult.get()));
+    }
+
+    @Override
+    public double getNoiseRaw(long sl, double x, double y, double z) {
+        return output.sample(search3D(sl, x, y, z, rank, searchResult.get()));
+    }
+
+    /**
+     * Performs one full neighbour search and stores everything it finds, so that several {@link ReturnType}s can be derived from it
+     * through {@link CellularResult#getSample(ReturnType)} at the cost of a single search.
+     *
+     * @param seed   the seed, before this sampler's salt is applied.
+     * @param x      the x coordinate, before this sampler's frequency is applied.
+     * @param y      the y coordinate, before this sampler's frequency is applied.
+     * @param result the result to fill in.
+     *
+     * @return {@code result}.
+     */
+    public CellularResult search(long seed, double x, double y, CellularResult result) {
+        return search2D(seed + salt, x * frequency, y * frequency, 2, result);
+    }
+
+    /**
+     * Performs one full neighbour search and stores everything it finds, so that several {@link ReturnType}s can be derived from it
+     * through {@link CellularResult#getSample(ReturnType)} at the cost of a single search.
+     *
+     * @param seed   the seed, before this sampler's salt is applied.
+     * @param x      the x coordinate, before this sampler's frequency is applied.
+     * @param y      the y coordinate, before this sampler's frequency is applied.
+     * @param z      the z coordinate, before this sampler's frequency is applied.
+     * @param result the result to fill in.
+     *
+     * @return {@code result}.
+     */
+    public CellularResult search(long seed, double x, double y, double z, CellularResult result) {
+        return search3D(seed + salt, x * frequency, y * frequency, z * frequency, 2, result);
+    }
+
+    private double cachedLookup(CellularResult result) {
+        return lookupCache.get().get(result, lookupGeneration);
+    }
+
+    /**
+     * Searches the cells around a point for its closest feature points.
+     *
+     * @param rank how many of the closest distances must be exact, minus one. Below 2, cells that cannot hold one of them are skipped,
+     *             so the remaining distances may be too large.
+     */
+    private CellularResult search2D(long sl, double x, double y, int rank, CellularResult result) {
         int seed = (int) sl;
         int xr = FloatingPointFunctions.round(x);
         int yr = FloatingPointFunctions.round(y);
@@ -242,6 +337,29 @@ public class CellularSampler extends NoiseFunction {
 
         double cellularJitter = 0.43701595 * jitterModifier;
 
+        // How far a feature point can be from its lattice point along one axis, with some slack for rounding.
+        double reach = Math.abs(cellularJitter) * CellularSampler.MAX_COMPONENT_2D + CellularSampler.BOUND_SLACK;
+
+        // The third distance depends on the order cells are visited in, so only searches for the first two can be pruned.
+        boolean prune = rank < 2;
+
+        // An upper bound on the distance of the rank-th closest feature, from the cells that are most likely to contain it.
+        double upperBound = Double.POSITIVE_INFINITY;
+        if(prune) {
+            upperBound = cellDistance2D(seed, xr, yr, x, y, cellularJitter);
+            if(rank == 1) {
+                int xn = xr;
+                int yn = yr;
+                if(Math.abs(x - xr) >= Math.abs(y - yr)) {
+                    xn += x > xr ? 1 : -1;
+                } else {
+                    yn += y > yr ? 1 : -1;
+                }
+                upperBound = Math.max(upperBound, cellDistance2D(seed, xn, yn, x, y, cellularJitter));
+            }
+        }
+        double limit = upperBound;
+
         int xPrimed = (xr - 1) * NoiseFunction.PRIME_X;
         int yPrimedBase = (yr - 1) * NoiseFunction.PRIME_Y;
 
@@ -249,67 +367,58 @@ public class CellularSampler extends NoiseFunction {
         double centerY = y;
 
         for(int xi = xr - 1; xi <= xr + 1; xi++) {
+            double boundX = prune ? axisBound(xi - x, reach) : 0;
+            if(prune && boundX > limit) {
+                xPrimed += NoiseFunction.PRIME_X;
+                continue;
+            }
             int yPrimed = yPrimedBase;
 
             for(int yi = yr - 1; yi <= yr + 1; yi++) {
+                // Cells whose closest possible feature is further than the rank-th closest one found so far cannot change the result.
+                if(prune && boundX + axisBound(yi - y, reach) > limit) {
+                    yPrimed += NoiseFunction.PRIME_Y;
+                    continue;
+                }
                 int hash = HashingFunctions.hashPrimeCoords(seed, xPrimed, yPrimed);
                 int idx = hash & (255 << 1);
-
-                double vecX = ArithmeticFunctions.fma(CellularSampler.RAND_VECS_2D[idx], cellularJitter, xi - x);
-                double vecY = ArithmeticFunctions.fma(CellularSampler.RAND_VECS_2D[idx | 1], cellularJitter, yi - y);
-
-                double newDistance = switch(distanceFunction) {
-                    case Euclidean, EuclideanSq -> ArithmeticFunctions.fma(vecX, vecX, vecY * vecY);
-                    case Manhattan -> Math.abs(vecX) + Math.abs(vecY);
-                    case Hybrid -> (Math.abs(vecX) + Math.abs(vecY)) + ArithmeticFunctions.fma(vecX, vecX, vecY * vecY);
-                };
+                double vectorX = CellularSampler.RAND_VECS_2D[idx];
+                double vectorY = CellularSampler.RAND_VECS_2D[idx | 1];
+                double newDistance = distance2D(vectorX, vectorY, xi - x, yi - y, cellularJitter);
 
                 distance1 = Math.max(Math.min(distance1, newDistance), distance0);
                 if(newDistance < distance0) {
                     distance0 = newDistance;
                     closestHash = hash;
-                    centerX = ArithmeticFunctions.fma(CellularSampler.RAND_VECS_2D[idx], cellularJitter, xi) / frequency;
-                    centerY = ArithmeticFunctions.fma(CellularSampler.RAND_VECS_2D[idx | 1], cellularJitter, yi) / frequency;
+                    centerX = ArithmeticFunctions.fma(vectorX, cellularJitter, xi) / frequency;
+                    centerY = ArithmeticFunctions.fma(vectorY, cellularJitter, yi) / frequency;
                 } else if(newDistance < distance1) {
                     distance2 = distance1;
                     distance1 = newDistance;
                 } else if(newDistance < distance2) {
                     distance2 = newDistance;
                 }
+                limit = Math.min(upperBound, rank == 0 ? distance0 : distance1);
                 yPrimed += NoiseFunction.PRIME_Y;
             }
             xPrimed += NoiseFunction.PRIME_X;
         }
 
-        if(distanceFunction == DistanceFunction.Euclidean && returnType != ReturnType.CellValue) {
-            distance0 = Math.sqrt(distance0);
-
-            if(returnType != ReturnType.Distance) {
-                distance1 = Math.sqrt(distance1);
-            }
-        }
-
-        return switch(returnType) {
-            case CellValue -> closestHash * (1 / 2147483648.0);
-            case Distance -> distance0 - 1;
-            case Distance2 -> distance1 - 1;
-            case Distance2Add -> (distance1 + distance0) * 0.5 - 1;
-            case Distance2Sub -> distance1 - distance0 - 1;
-            case Distance2Mul -> distance1 * distance0 * 0.5 - 1;
-            case Distance2Div -> distance0 / distance1 - 1;
-            case NoiseLookup -> noiseLookup.getSample(sl - (saltLookup ? 0 : salt), centerX, centerY);
-            case LocalNoiseLookup -> noiseLookup.getSample(sl - (saltLookup ? 0 : salt), x / frequency - centerX, y / frequency - centerY);
-            case Distance3 -> distance2 - 1;
-            case Distance3Add -> (distance2 + distance0) * 0.5 - 1;
-            case Distance3Sub -> distance2 - distance0 - 1;
-            case Distance3Mul -> distance2 * distance0 - 1;
-            case Distance3Div -> distance0 / distance2 - 1;
-            case Angle -> Math.atan2(y / frequency - centerY, x / frequency - centerX);
-        };
+        result.threeDimensional = false;
+        result.x = x;
+        result.y = y;
+        result.z = 0;
+        result.centerZ = 0;
+        return fill(result, sl, distance0, distance1, distance2, closestHash, centerX, centerY);
     }
 
-    @Override
-    public double getNoiseRaw(long sl, double x, double y, double z) {
+    /**
+     * Searches the cells around a point for its closest feature points.
+     *
+     * @param rank how many of the closest distances must be exact, minus one. Below 2, cells that cannot hold one of them are skipped,
+     *             so the remaining distances may be too large.
+     */
+    private CellularResult search3D(long sl, double x, double y, double z, int rank, CellularResult result) {
         int seed = (int) sl;
         int xr = FloatingPointFunctions.round(x);
         int yr = FloatingPointFunctions.round(y);
@@ -322,6 +431,32 @@ public class CellularSampler extends NoiseFunction {
 
         double cellularJitter = 0.39614353 * jitterModifier;
 
+        double reach = Math.abs(cellularJitter) * CellularSampler.MAX_COMPONENT_3D + CellularSampler.BOUND_SLACK;
+
+        boolean prune = rank < 2;
+
+        double upperBound = Double.POSITIVE_INFINITY;
+        if(prune) {
+            upperBound = cellDistance3D(seed, xr, yr, zr, x, y, z, cellularJitter);
+            if(rank == 1) {
+                int xn = xr;
+                int yn = yr;
+                int zn = zr;
+                double dx = Math.abs(x - xr);
+                double dy = Math.abs(y - yr);
+                double dz = Math.abs(z - zr);
+                if(dx >= dy && dx >= dz) {
+                    xn += x > xr ? 1 : -1;
+                } else if(dy >= dz) {
+                    yn += y > yr ? 1 : -1;
+                } else {
+                    zn += z > zr ? 1 : -1;
+                }
+                upperBound = Math.max(upperBound, cellDistance3D(seed, xn, yn, zn, x, y, z, cellularJitter));
+            }
+        }
+        double limit = upperBound;
+
         int xPrimed = (xr - 1) * NoiseFunction.PRIME_X;
         int yPrimedBase = (yr - 1) * NoiseFunction.PRIME_Y;
         int zPrimedBase = (zr - 1) * NoiseFunction.PRIME_Z;
@@ -331,40 +466,47 @@ public class CellularSampler extends NoiseFunction {
         double centerZ = z;
 
         for(int xi = xr - 1; xi <= xr + 1; xi++) {
+            double boundX = prune ? axisBound(xi - x, reach) : 0;
+            if(prune && boundX > limit) {
+                xPrimed += NoiseFunction.PRIME_X;
+                continue;
+            }
             int yPrimed = yPrimedBase;
 
             for(int yi = yr - 1; yi <= yr + 1; yi++) {
+                double boundXY = prune ? boundX + axisBound(yi - y, reach) : 0;
+                if(prune && boundXY > limit) {
+                    yPrimed += NoiseFunction.PRIME_Y;
+                    continue;
+                }
                 int zPrimed = zPrimedBase;
 
                 for(int zi = zr - 1; zi <= zr + 1; zi++) {
+                    if(prune && boundXY + axisBound(zi - z, reach) > limit) {
+                        zPrimed += NoiseFunction.PRIME_Z;
+                        continue;
+                    }
                     int hash = HashingFunctions.hashPrimeCoords(seed, xPrimed, yPrimed, zPrimed);
                     int idx = hash & (255 << 2);
-
-                    double vecX = ArithmeticFunctions.fma(CellularSampler.RAND_VECS_3D[idx], cellularJitter, xi - x);
-                    double vecY = ArithmeticFunctions.fma(CellularSampler.RAND_VECS_3D[idx | 1], cellularJitter, yi - y);
-                    double vecZ = ArithmeticFunctions.fma(CellularSampler.RAND_VECS_3D[idx | 2], cellularJitter, zi - z);
-
-                    double newDistance = switch(distanceFunction) {
-                        case Euclidean, EuclideanSq -> ArithmeticFunctions.fma(vecX, vecX,
-                            ArithmeticFunctions.fma(vecY, vecY, vecZ * vecZ));
-                        case Manhattan -> Math.abs(vecX) + Math.abs(vecY) + Math.abs(vecZ);
-                        case Hybrid -> (Math.abs(vecX) + Math.abs(vecY) + Math.abs(vecZ)) + ArithmeticFunctions.fma(vecX, vecX,
-                            ArithmeticFunctions.fma(vecY, vecY, vecZ * vecZ));
-                    };
+                    double vectorX = CellularSampler.RAND_VECS_3D[idx];
+                    double vectorY = CellularSampler.RAND_VECS_3D[idx | 1];
+                    double vectorZ = CellularSampler.RAND_VECS_3D[idx | 2];
+                    double newDistance = distance3D(vectorX, vectorY, vectorZ, xi - x, yi - y, zi - z, cellularJitter);
 
                     distance1 = Math.max(Math.min(distance1, newDistance), distance0);
                     if(newDistance < distance0) {
                         distance0 = newDistance;
                         closestHash = hash;
-                        centerX = ArithmeticFunctions.fma(CellularSampler.RAND_VECS_3D[idx], cellularJitter, xi) / frequency;
-                        centerY = ArithmeticFunctions.fma(CellularSampler.RAND_VECS_3D[idx | 1], cellularJitter, yi) / frequency;
-                        centerZ = ArithmeticFunctions.fma(CellularSampler.RAND_VECS_3D[idx | 2], cellularJitter, zi) / frequency;
+                        centerX = ArithmeticFunctions.fma(vectorX, cellularJitter, xi) / frequency;
+                        centerY = ArithmeticFunctions.fma(vectorY, cellularJitter, yi) / frequency;
+                        centerZ = ArithmeticFunctions.fma(vectorZ, cellularJitter, zi) / frequency;
                     } else if(newDistance < distance1) {
                         distance2 = distance1;
                         distance1 = newDistance;
                     } else if(newDistance < distance2) {
                         distance2 = newDistance;
                     }
+                    limit = Math.min(upperBound, rank == 0 ? distance0 : distance1);
                     zPrimed += NoiseFunction.PRIME_Z;
                 }
                 yPrimed += NoiseFunction.PRIME_Y;
@@ -372,31 +514,90 @@ public class CellularSampler extends NoiseFunction {
             xPrimed += NoiseFunction.PRIME_X;
         }
 
-        if(distanceFunction == DistanceFunction.Euclidean && returnType != ReturnType.CellValue) {
-            distance0 = Math.sqrt(distance0);
+        result.threeDimensional = true;
+        result.x = x;
+        result.y = y;
+        result.z = z;
+        result.centerZ = centerZ;
+        return fill(result, sl, distance0, distance1, distance2, closestHash, centerX, centerY);
+    }
 
-            if(returnType != ReturnType.Distance) {
-                distance1 = Math.sqrt(distance1);
-            }
+    private CellularResult fill(CellularResult result, long sl, double distance0, double distance1, double distance2, int closestHash,
+                                double centerX, double centerY) {
+        result.distance0 = distance0;
+        result.distance1 = distance1;
+        result.distance2 = distance2;
+        result.closestHash = closestHash;
+        result.centerX = centerX;
+        result.centerY = centerY;
+        result.distanceFunction = distanceFunction;
+        result.frequency = frequency;
+        result.noiseLookup = noiseLookup;
+        result.lookupSeed = sl - (saltLookup ? 0 : salt);
+        return result;
+    }
+
+    private double cellDistance2D(int seed, int xi, int yi, double x, double y, double cellularJitter) {
+        return distance2D(HashingFunctions.hashPrimeCoords(seed, xi * NoiseFunction.PRIME_X, yi * NoiseFunction.PRIME_Y), xi - x, yi - y,
+            cellularJitter);
+    }
+
+    private double cellDistance3D(int seed, int xi, int yi, int zi, double x, double y, double z, double cellularJitter) {
+        return distance3D(
+            HashingFunctions.hashPrimeCoords(seed, xi * NoiseFunction.PRIME_X, yi * NoiseFunction.PRIME_Y, zi * NoiseFunction.PRIME_Z),
+            xi - x, yi - y, zi - z, cellularJitter);
+    }
+
+    private double distance2D(int hash, double offsetX, double offsetY, double cellularJitter) {
+        int idx = hash & (255 << 1);
+        return distance2D(CellularSampler.RAND_VECS_2D[idx], CellularSampler.RAND_VECS_2D[idx | 1], offsetX, offsetY, cellularJitter);
+    }
+
+    private double distance2D(double vectorX, double vectorY, double offsetX, double offsetY, double cellularJitter) {
+        double vecX = ArithmeticFunctions.fma(vectorX, cellularJitter, offsetX);
+        double vecY = ArithmeticFunctions.fma(vectorY, cellularJitter, offsetY);
+        return metric.distance(vecX, vecY);
+    }
+
+    private double distance3D(int hash, double offsetX, double offsetY, double offsetZ, double cellularJitter) {
+        int idx = hash & (255 << 2);
+        return distance3D(CellularSampler.RAND_VECS_3D[idx], CellularSampler.RAND_VECS_3D[idx | 1], CellularSampler.RAND_VECS_3D[idx | 2],
+            offsetX, offsetY, offsetZ, cellularJitter);
+    }
+
+    private double distance3D(double vectorX, double vectorY, double vectorZ, double offsetX, double offsetY, double offsetZ,
+                              double cellularJitter) {
+        double vecX = ArithmeticFunctions.fma(vectorX, cellularJitter, offsetX);
+        double vecY = ArithmeticFunctions.fma(vectorY, cellularJitter, offsetY);
+        double vecZ = ArithmeticFunctions.fma(vectorZ, cellularJitter, offsetZ);
+        return metric.distance(vecX, vecY, vecZ);
+    }
+
+    /**
+     * The smallest contribution one axis can make to the distance of a feature point in a cell, given the offset of the cell's
+     * lattice point along that axis. Every distance function is a sum of per-axis terms, so these add up to a lower bound on the
+     * distance of the whole cell.
+     */
+    private double axisBound(double offset, double reach) {
+        return metric.bound(Math.max(Math.abs(offset) - reach, 0));
+    }
+
+    private static double maxComponent(double[] vectors) {
+        double max = 0;
+        for(double component : vectors) {
+            max = Math.max(max, Math.abs(component));
         }
+        return max;
+    }
 
+    /**
+     * @return how many of the closest distances {@code returnType} depends on, minus one.
+     */
+    private static int rank(ReturnType returnType) {
         return switch(returnType) {
-            case CellValue -> closestHash * (1 / 2147483648.0);
-            case Distance -> distance0 - 1;
-            case Distance2 -> distance1 - 1;
-            case Distance2Add -> (distance1 + distance0) * 0.5 - 1;
-            case Distance2Sub -> distance1 - distance0 - 1;
-            case Distance2Mul -> distance1 * distance0 * 0.5 - 1;
-            case Distance2Div -> distance0 / distance1 - 1;
-            case NoiseLookup -> noiseLookup.getSample(sl - (saltLookup ? 0 : salt), centerX, centerY, centerZ);
-            case LocalNoiseLookup -> noiseLookup.getSample(sl - (saltLookup ? 0 : salt), x / frequency - centerX, y / frequency - centerY,
-                z / frequency - centerZ);
-            case Distance3 -> distance2 - 1;
-            case Distance3Add -> (distance2 + distance0) * 0.5 - 1;
-            case Distance3Sub -> distance2 - distance0 - 1;
-            case Distance3Mul -> distance2 * distance0 - 1;
-            case Distance3Div -> distance0 / distance2 - 1;
-            case Angle -> Math.atan2(y / frequency - centerY, x / frequency - centerX);
+            case CellValue, Distance, NoiseLookup, LocalNoiseLookup, Angle -> 0;
+            case Distance2, Distance2Add, Distance2Sub, Distance2Mul, Distance2Div -> 1;
+            case Distance3, Distance3Add, Distance3Sub, Distance3Mul, Distance3Div -> 2;
         };
     }
 
@@ -417,4 +618,132 @@ public class CellularSampler extends NoiseFunction {
         Distance3Div,
         Angle
     }
+
+
+    /**
+     * The distance computed by a {@link DistanceFunction} during a search, resolved once when the distance function is set. Euclidean
+     * distances are compared squared and only rooted by the result.
+     */
+    private enum Metric {
+        SQUARED {
+            @Override
+            double distance(double x, double y) {
+                return ArithmeticFunctions.fma(x, x, y * y);
+            }
+
+            @Override
+            double distance(double x, double y, double z) {
+                return ArithmeticFunctions.fma(x, x, ArithmeticFunctions.fma(y, y, z * z));
+            }
+
+            @Override
+            double bound(double gap) {
+                return gap * gap;
+            }
+        },
+        MANHATTAN {
+            @Override
+            double distance(double x, double y) {
+                return Math.abs(x) + Math.abs(y);
+            }
+
+            @Override
+            double distance(double x, double y, double z) {
+                return Math.abs(x) + Math.abs(y) + Math.abs(z);
+            }
+
+            @Override
+            double bound(double gap) {
+                return gap;
+            }
+        },
+        HYBRID {
+            @Override
+            double distance(double x, double y) {
+                return (Math.abs(x) + Math.abs(y)) + ArithmeticFunctions.fma(x, x, y * y);
+            }
+
+            @Override
+            double distance(double x, double y, double z) {
+                return (Math.abs(x) + Math.abs(y) + Math.abs(z)) + ArithmeticFunctions.fma(x, x, ArithmeticFunctions.fma(y, y, z * z));
+            }
+
+            @Override
+            double bound(double gap) {
+                return gap + gap * gap;
+            }
+        };
+
+        private static Metric of(DistanceFunction distanceFunction) {
+            return switch(distanceFunction) {
+                case Euclidean, EuclideanSq -> SQUARED;
+                case Manhattan -> MANHATTAN;
+                case Hybrid -> HYBRID;
+            };
+        }
+
+        abstract double distance(double x, double y);
+
+        abstract double distance(double x, double y, double z);
+
+        /**
+         * @return the smallest distance a single axis can contribute when it is at least {@code gap} long.
+         */
+        abstract double bound(double gap);
+    }
+
+
+    /**
+     * Direct-mapped table of recent lookups, slotted by the hash of the cell they were made for.
+     */
+    private static final class LookupCache {
+        private static final int SIZE = 256;
+        private static final byte EMPTY = 0;
+        private static final byte KEY_2D = 1;
+        private static final byte KEY_3D = 2;
+
+        private final long[] seeds = new long[SIZE];
+        private final long[] xs = new long[SIZE];
+        private final long[] ys = new long[SIZE];
+        private final long[] zs = new long[SIZE];
+        private final double[] values = new double[SIZE];
+        private final byte[] states = new byte[SIZE];
+        private int generation;
+
+        /**
+         * @return the {@link ReturnType#NoiseLookup} sample of {@code result}.
+         */
+        private double get(CellularResult result, int generation) {
+            int slot = slot(generation, result.closestHash);
+            byte kind = result.threeDimensional ? KEY_3D : KEY_2D;
+            long seed = result.lookupSeed;
+            long xBits = Double.doubleToRawLongBits(result.centerX);
+            long yBits = Double.doubleToRawLongBits(result.centerY);
+            long zBits = Double.doubleToRawLongBits(result.centerZ);
+            if(states[slot] == kind && seeds[slot] == seed && xs[slot] == xBits && ys[slot] == yBits && zs[slot] == zBits) {
+                return values[slot];
+            }
+            double value = result.getSample(ReturnType.NoiseLookup);
+            store(slot, kind, seed, xBits, yBits, zBits, value);
+            return value;
+        }
+
+        private int slot(int generation, int closestHash) {
+            if(this.generation != generation) {
+                // The lookup configuration changed, so nothing cached for the old one is valid.
+                Arrays.fill(states, EMPTY);
+                this.generation = generation;
+            }
+            return (closestHash ^ (closestHash >>> 16)) & (SIZE - 1);
+        }
+
+        private void store(int slot, byte kind, long seed, long xBits, long yBits, long zBits, double value) {
+            states[slot] = kind;
+            seeds[slot] = seed;
+            xs[slot] = xBits;
+            ys[slot] = yBits;
+            zs[slot] = zBits;
+            values[slot] = value;
+        }
+    }
 }
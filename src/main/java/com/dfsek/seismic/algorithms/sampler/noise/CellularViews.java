@@ -0,0 +1,105 @@
+package com.dfsek.seismic.algorithms.sampler.noise;
+
+import com.dfsek.seismic.algorithms.sampler.noise.CellularSampler.ReturnType;
+import com.dfsek.seismic.type.sampler.Sampler;
+
+
+/**
+ * Shares the neighbour search of one {@link CellularSampler} between several samplers, each of which derives a different
+ * {@link ReturnType} from it.
+ * <p>
+ * Every thread remembers the last search it performed. A view sampled at the same seed and coordinates as the last search reuses it,
+ * so sampling several views at one coordinate, in any order, costs a single search. Views may be placed anywhere in a sampler tree.
+ * <p>
+ * The sampler must not be reconfigured while its views are in use, as remembered searches would no longer match its configuration.
+ */
+public class CellularViews {
+    private final CellularSampler sampler;
+    private final ThreadLocal<LastSearch> lastSearch = ThreadLocal.withInitial(LastSearch::new);
+
+    public CellularViews(CellularSampler sampler) {
+        this.sampler = sampler;
+    }
+
+    public CellularSampler getSampler() {
+        return sampler;
+    }
+
+    /**
+     * @param returnType the return type the view derives.
+     *
+     * @return a sampler returning exactly what {@link #getSampler()} would when configured with {@code returnType}.
+     */
+    public Sampler view(ReturnType returnType) {
+        return new View(returnType);
+    }
+
+    /**
+     * @return the result of searching at the given coordinates, owned by the calling thread and only valid until its next search.
+     */
+    public CellularResult search(long seed, double x, double y) {
+        LastSearch last = lastSearch.get();
+        long xBits = Double.doubleToRawLongBits(x);
+        long yBits = Double.doubleToRawLongBits(y);
+        if(!last.valid || last.threeDimensional || last.seed != seed || last.xBits != xBits || last.yBits != yBits) {
+            sampler.search(seed, x, y, last.result);
+            last.set(false, seed, xBits, yBits, 0);
+        }
+        return last.result;
+    }
+
+    /**
+     * @return the result of searching at the given coordinates, owned by the calling thread and only valid until its next search.
+     */
+    public CellularResult search(long seed, double x, double y, double z) {
+        LastSearch last = lastSearch.get();
+        long xBits = Double.doubleToRawLongBits(x);
+        long yBits = Double.doubleToRawLongBits(y);
+        long zBits = Double.doubleToRawLongBits(z);
+        if(!last.valid || !last.threeDimensional || last.seed != seed || last.xBits != xBits || last.yBits != yBits ||
+           last.zBits != zBits) {
+            sampler.search(seed, x, y, z, last.result);
+            last.set(true, seed, xBits, yBits, zBits);
+        }
+        return last.result;
+    }
+
+
+    private static final class LastSearch {
+        private final CellularResult result = new CellularResult();
+        private boolean valid;
+        private boolean threeDimensional;
+        private long seed;
+        private long xBits;
+        private long yBits;
+        private long zBits;
+
+        private void set(boolean threeDimensional, long seed, long xBits, long yBits, long zBits) {
+            this.valid = true;
+            this.threeDimensional = threeDimensional;
+            this.seed = seed;
+            this.xBits = xBits;
+            this.yBits = yBits;
+            this.zBits = zBits;
+        }
+    }
+
+
+    private final class View implements Sampler {
+        private final CellularResult.Output output;
+
+        private View(ReturnType returnType) {
+            this.output = CellularResult.output(returnType);
+        }
+
+        @Override
+        public double getSample(long seed, double x, double y) {
+            return output.sample(search(seed, x, y));
+        }
+
+        @Override
+        public double getSample(long seed, double x, double y, double z) {
+            return output.sample(search(seed, x, y, z));
+        }
+    }
+}
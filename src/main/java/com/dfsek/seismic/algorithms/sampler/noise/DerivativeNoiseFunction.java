@@ -20,7 +20,78 @@ public abstract class DerivativeNoiseFunction extends NoiseFunction implements D
         return getNoiseDerivativeRaw(seed + salt, x * frequency, y * frequency, z * frequency);
     }
 
+    @Override
+    public void getSampleDerivative(long seed, double[] out, int offset, double x, double y) {
+        getNoiseDerivativeRaw(seed + salt, out, offset, x * frequency, y * frequency);
+    }
+
+    @Override
+    public void getSampleDerivative(long seed, double[] out, int offset, double x, double y, double z) {
+        getNoiseDerivativeRaw(seed + salt, out, offset, x * frequency, y * frequency, z * frequency);
+    }
+
+    @Override
+    public void getSampleDerivativeGrid(long seed, double[] out, double[] xs, double[] ys, int sizeX, int sizeY) {
+        long saltedSeed = seed + salt;
+        int offset = 0;
+        for(int ix = 0; ix < sizeX; ix++) {
+            double sx = xs[ix] * frequency;
+            for(int iy = 0; iy < sizeY; iy++) {
+                getNoiseDerivativeRaw(saltedSeed, out, offset, sx, ys[iy] * frequency);
+                offset += 3;
+            }
+        }
+    }
+
+    @Override
+    public void getSampleDerivativeGrid(long seed, double[] out, double[] xs, double[] ys, double[] zs, int sizeX, int sizeY,
+                                        int sizeZ) {
+        long saltedSeed = seed + salt;
+        int offset = 0;
+        for(int ix = 0; ix < sizeX; ix++) {
+            double sx = xs[ix] * frequency;
+            for(int iy = 0; iy < sizeY; iy++) {
+                double sy = ys[iy] * frequency;
+                for(int iz = 0; iz < sizeZ; iz++) {
+                    getNoiseDerivativeRaw(saltedSeed, out, offset, sx, sy, zs[iz] * frequency);
+                    offset += 4;
+                }
+            }
+        }
+    }
+
     public abstract double[] getNoiseDerivativeRaw(long seed, double x, double y);
 
     public abstract double[] getNoiseDerivativeRaw(long seed, double x, double y, double z);
+
+    /**
+     * Derivative noise evaluation without salt or frequency applied, writing into a caller-supplied array. Copies the result of
+     * {@link #getNoiseDerivativeRaw(long, double, double)} unless overridden.
+     *
+     * @param seed   a seed.
+     * @param out    the array to write to.
+     * @param offset the index in {@code out} to write the 3 elements at, in index order: 2D noise value, partial x derivative,
+     *               partial y derivative.
+     * @param x      X coordinate.
+     * @param y      Y coordinate.
+     */
+    public void getNoiseDerivativeRaw(long seed, double[] out, int offset, double x, double y) {
+        System.arraycopy(getNoiseDerivativeRaw(seed, x, y), 0, out, offset, 3);
+    }
+
+    /**
+     * Derivative noise evaluation without salt or frequency applied, writing into a caller-supplied array. Copies the result of
+     * {@link #getNoiseDerivativeRaw(long, double, double, double)} unless overridden.
+     *
+     * @param seed   a seed.
+     * @param out    the array to write to.
+     * @param offset the index in {@code out} to write the 4 elements at, in index order: 3D noise value, partial x derivative,
+     *               partial y derivative, partial z derivative.
+     * @param x      X coordinate.
+     * @param y      Y coordinate.
+     * @param z      Z coordinate.
+     */
+    public void getNoiseDerivativeRaw(long seed, double[] out, int offset, double x, double y, double z) {
+        System.arraycopy(getNoiseDerivativeRaw(seed, x, y, z), 0, out, offset, 4);
+    }
 }
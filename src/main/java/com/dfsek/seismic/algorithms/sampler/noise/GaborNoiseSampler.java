@@ -13,9 +13,41 @@ import com.dfsek.seismic.algorithms.sampler.noise.random.WhiteNoiseSampler;
 import com.dfsek.seismic.math.floatingpoint.FloatingPointFunctions;
 import com.dfsek.seismic.math.trigonometry.TrigonometryFunctions;
 
+import java.util.Arrays;
 
+
+/**
+ * NoiseSampler implementation for sparse convolution Gabor noise.
+ * <p>
+ * Every sample sums the impulses of the 3x3 cells around it, which is expensive. In {@linkplain #setFastMode(boolean) fast mode} the
+ * impulses of recently used cells are kept per thread, and the Gaussian envelope is read from a table rather than computed with
+ * {@link Math#exp(double)}.
+ */
 public class GaborNoiseSampler extends NoiseFunction {
+    /**
+     * Envelope samples per unit of squared distance, measured in cells.
+     */
+    private static final int ENVELOPE_RESOLUTION = 1024;
+    /**
+     * Squared distance, in cells, past which no impulse is ever evaluated: the far corner of a neighbouring cell.
+     */
+    private static final int ENVELOPE_EXTENT = 8;
+    private static final double[] ENVELOPE = new double[ENVELOPE_EXTENT * ENVELOPE_RESOLUTION + 2];
+
+    static {
+        // The kernel radius is chosen so the envelope falls to 5% one cell away, whatever the bandwidth.
+        for(int i = 0; i < ENVELOPE.length; i++) {
+            ENVELOPE[i] = Math.pow(0.05, (double) i / ENVELOPE_RESOLUTION);
+        }
+    }
+
     private final WhiteNoiseSampler rand;
+    private final ThreadLocal<ImpulseCache> impulseCache = ThreadLocal.withInitial(ImpulseCache::new);
+    private boolean fastMode = false;
+    /**
+     * Incremented whenever a setting that affects impulses changes, so cached impulses made under old settings are discarded.
+     */
+    private int impulseVersion = 0;
     private double k = 1.0;
     private double a = 0.1;
     private double f0 = 0.625;
@@ -38,6 +70,17 @@ public class GaborNoiseSampler extends NoiseFunction {
         impulseDensity = (impulsesPerKernel / (Math.PI * kernelRadius * kernelRadius));
         impulsesPerCell = impulseDensity * kernelRadius * kernelRadius;
         g = Math.exp(-impulsesPerCell);
+        impulseVersion++;
+    }
+
+    private static double envelope(double distanceSquared) {
+        double position = distanceSquared * ENVELOPE_RESOLUTION;
+        if(position >= ENVELOPE.length - 1) {
+            return 0;
+        }
+        int index = (int) position;
+        double low = ENVELOPE[index];
+        return low + (ENVELOPE[index + 1] - low) * (position - index);
     }
 
     private double gaborNoise(long seed, double x, double y) {
@@ -56,6 +99,39 @@ public class GaborNoiseSampler extends NoiseFunction {
         return noise;
     }
 
+    private double gaborNoiseFast(long seed, double x, double y, ImpulseCache cache) {
+        x /= kernelRadius;
+        y /= kernelRadius;
+        int xi = FloatingPointFunctions.floor(x);
+        int yi = FloatingPointFunctions.floor(y);
+        double xf = x - xi;
+        double yf = y - yi;
+        double scale = 2 * Math.PI * f0 * kernelRadius;
+        double noise = 0;
+        for(int dx = -1; dx <= 1; dx++) {
+            for(int dz = -1; dz <= 1; dz++) {
+                double cellX = xf - dx;
+                double cellY = yf - dz;
+                // Impulses carry no offset within their cell, so the envelope is shared by all of them.
+                double envelope = GaborNoiseSampler.envelope(cellX * cellX + cellY * cellY);
+                if(envelope == 0) {
+                    continue;
+                }
+                int slot = cache.load(this, seed, xi + dx, yi + dz);
+                int impulses = cache.counts[slot];
+                double[] weights = cache.weights[slot];
+                double[] cosines = cache.cosines[slot];
+                double[] sines = cache.sines[slot];
+                double sum = 0;
+                for(int i = 0; i < impulses; i++) {
+                    sum += weights[i] * TrigonometryFunctions.cos(scale * (cellX * cosines[i] + cellY * sines[i]));
+                }
+                noise += envelope * sum;
+            }
+        }
+        return k * noise;
+    }
+
     private double calculateCell(long seed, int xi, int yi, double x, double y) {
         long mashedSeed = HashingFunctions.murmur64(31L * xi + yi) + seed;
 
@@ -101,19 +177,134 @@ public class GaborNoiseSampler extends NoiseFunction {
 
     public void setIsotropic(boolean isotropic) {
         this.isotropic = isotropic;
+        impulseVersion++;
     }
 
     public void setRotation(double omega0) {
         this.omega0 = Math.PI * omega0;
+        impulseVersion++;
+    }
+
+    /**
+     * Sets whether to trade exactness for speed. In fast mode the impulses of recently sampled cells are cached per thread, and the
+     * Gaussian envelope is interpolated from a table. Samples differ from the exact mode by roughly one part in a million of their
+     * range.
+     *
+     * @param fastMode whether to use fast mode.
+     */
+    public void setFastMode(boolean fastMode) {
+        this.fastMode = fastMode;
     }
 
     @Override
     public double getNoiseRaw(long seed, double x, double z) {
-        return gaborNoise(seed, x, z);
+        return fastMode ? gaborNoiseFast(seed, x, z, impulseCache.get()) : gaborNoise(seed, x, z);
     }
 
     @Override
     public double getNoiseRaw(long seed, double x, double y, double z) {
-        return gaborNoise(seed, x, z);
+        return fastMode ? gaborNoiseFast(seed, x, z, impulseCache.get()) : gaborNoise(seed, x, z);
+    }
+
+    @Override
+    public void getSampleGrid(long seed, double[] out, double x, double y, double stepX, double stepY, int sizeX, int sizeY) {
+        long saltedSeed = seed + salt;
+        ImpulseCache cache = fastMode ? impulseCache.get() : null;
+        int index = 0;
+        for(int ix = 0; ix < sizeX; ix++) {
+            double sx = (x + ix * stepX) * frequency;
+            for(int iy = 0; iy < sizeY; iy++) {
+                double sy = (y + iy * stepY) * frequency;
+                out[index++] = cache != null ? gaborNoiseFast(saltedSeed, sx, sy, cache) : gaborNoise(saltedSeed, sx, sy);
+            }
+        }
+    }
+
+    /**
+     * {@inheritDoc}
+     * <p>
+     * Gabor noise does not vary along y, so every row along z is computed once per x and copied to each y.
+     */
+    @Override
+    public void getSampleGrid(long seed, double[] out, double x, double y, double z, double stepX, double stepY, double stepZ,
+                              int sizeX, int sizeY, int sizeZ) {
+        long saltedSeed = seed + salt;
+        ImpulseCache cache = fastMode ? impulseCache.get() : null;
+        int index = 0;
+        for(int ix = 0; ix < sizeX; ix++) {
+            double sx = (x + ix * stepX) * frequency;
+            if(sizeY == 0) {
+                continue;
+            }
+            int row = index;
+            for(int iz = 0; iz < sizeZ; iz++) {
+                double sz = (z + iz * stepZ) * frequency;
+                out[index++] = cache != null ? gaborNoiseFast(saltedSeed, sx, sz, cache) : gaborNoise(saltedSeed, sx, sz);
+            }
+            for(int iy = 1; iy < sizeY; iy++) {
+                System.arraycopy(out, row, out, index, sizeZ);
+                index += sizeZ;
+            }
+        }
+    }
+
+
+    /**
+     * Direct-mapped table of the impulses of recently sampled cells.
+     */
+    private static final class ImpulseCache {
+        private static final int SIZE = 64;
+
+        private final boolean[] valid = new boolean[SIZE];
+        private final long[] seeds = new long[SIZE];
+        private final int[] xs = new int[SIZE];
+        private final int[] ys = new int[SIZE];
+        private final int[] versions = new int[SIZE];
+        private final int[] counts = new int[SIZE];
+        private final double[][] weights = new double[SIZE][32];
+        private final double[][] cosines = new double[SIZE][32];
+        private final double[][] sines = new double[SIZE][32];
+
+        /**
+         * @return the slot holding the impulses of the given cell, generated first if they are not cached.
+         */
+        private int load(GaborNoiseSampler sampler, long seed, int xi, int yi) {
+            long cellHash = HashingFunctions.murmur64(31L * xi + yi);
+            int slot = (int) ((cellHash + seed) ^ ((cellHash + seed) >>> 32)) & (SIZE - 1);
+            if(valid[slot] && seeds[slot] == seed && xs[slot] == xi && ys[slot] == yi && versions[slot] == sampler.impulseVersion) {
+                return slot;
+            }
+
+            // Draws the same impulses as calculateCell, in the same order.
+            long mashedSeed = cellHash + seed;
+            WhiteNoiseSampler rand = sampler.rand;
+            double gaussianSource = (rand.getNoiseRaw(mashedSeed++) + 1) / 2;
+            int impulses = 0;
+            while(gaussianSource > sampler.g) {
+                impulses++;
+                gaussianSource *= (rand.getNoiseRaw(mashedSeed++) + 1) / 2;
+            }
+
+            if(impulses > weights[slot].length) {
+                int capacity = Math.max(impulses, weights[slot].length * 2);
+                weights[slot] = Arrays.copyOf(weights[slot], capacity);
+                cosines[slot] = Arrays.copyOf(cosines[slot], capacity);
+                sines[slot] = Arrays.copyOf(sines[slot], capacity);
+            }
+            for(int i = 0; i < impulses; i++) {
+                weights[slot][i] = rand.getNoiseRaw(mashedSeed++);
+                double omega = sampler.isotropic ? (rand.getNoiseRaw(mashedSeed++) + 1) * Math.PI : sampler.omega0;
+                cosines[slot][i] = TrigonometryFunctions.cos(omega);
+                sines[slot][i] = TrigonometryFunctions.sin(omega);
+            }
+
+            valid[slot] = true;
+            seeds[slot] = seed;
+            xs[slot] = xi;
+            ys[slot] = yi;
+            versions[slot] = sampler.impulseVersion;
+            counts[slot] = impulses;
+            return slot;
+        }
     }
 }
@@ -0,0 +1,138 @@
+package com.dfsek.seismic.algorithms.sampler.noise;
+
+import com.dfsek.seismic.type.sampler.DerivativeSampler;
+import com.dfsek.seismic.type.sampler.VectorSampler;
+
+
+/**
+ * Immutable frequency and salt for a leaf {@link NoiseFunction}.
+ * <p>
+ * The frequency and salt are passed through a {@link Builder} and held in final fields, and those of the noise function itself are
+ * ignored, so instances can be shared between threads without synchronisation. The noise function is evaluated through its
+ * {@code getNoiseRaw}, so any other configuration it has, such as the distance function of a {@link CellularSampler}, must be complete
+ * when the instance is built and must not change afterwards. The final fields then publish it as well.
+ * <p>
+ * Samples are identical to those of the noise function configured with the same frequency and salt.
+ */
+public final class ImmutableNoiseSampler implements DerivativeSampler, VectorSampler {
+    private final NoiseFunction noise;
+    private final DerivativeNoiseFunction derivativeNoise;
+    private final double frequency;
+    private final long salt;
+
+    private ImmutableNoiseSampler(Builder builder) {
+        NoiseFunction noise = builder.noise;
+        this.noise = noise;
+        this.derivativeNoise = noise instanceof DerivativeNoiseFunction derivative && derivative.isDifferentiable() ? derivative : null;
+        this.frequency = builder.frequency;
+        this.salt = builder.salt;
+    }
+
+    public static Builder builder(NoiseFunction noise) {
+        return new Builder(noise);
+    }
+
+    public NoiseFunction getNoise() {
+        return noise;
+    }
+
+    public double getFrequency() {
+        return frequency;
+    }
+
+    public long getSalt() {
+        return salt;
+    }
+
+    @Override
+    public double getSample(long seed, double x, double y) {
+        return noise.getNoiseRaw(seed + salt, x * frequency, y * frequency);
+    }
+
+    @Override
+    public double getSample(long seed, double x, double y, double z) {
+        return noise.getNoiseRaw(seed + salt, x * frequency, y * frequency, z * frequency);
+    }
+
+    @Override
+    public void getSamples(long seed, double[] out, int offset, int channels, double x, double y) {
+        if(noise.sharesChannels()) {
+            noise.getNoiseRawChannels(seed + salt, out, offset, channels, x * frequency, y * frequency);
+        } else {
+            VectorSampler.super.getSamples(seed, out, offset, channels, x, y);
+        }
+    }
+
+    @Override
+    public void getSamples(long seed, double[] out, int offset, int channels, double x, double y, double z) {
+        if(noise.sharesChannels()) {
+            noise.getNoiseRawChannels(seed + salt, out, offset, channels, x * frequency, y * frequency, z * frequency);
+        } else {
+            VectorSampler.super.getSamples(seed, out, offset, channels, x, y, z);
+        }
+    }
+
+    @Override
+    public boolean isDifferentiable() {
+        return derivativeNoise != null;
+    }
+
+    @Override
+    public double[] getSampleDerivative(long seed, double x, double y) {
+        double[] out = new double[3];
+        getSampleDerivative(seed, out, 0, x, y);
+        return out;
+    }
+
+    @Override
+    public double[] getSampleDerivative(long seed, double x, double y, double z) {
+        double[] out = new double[4];
+        getSampleDerivative(seed, out, 0, x, y, z);
+        return out;
+    }
+
+    @Override
+    public void getSampleDerivative(long seed, double[] out, int offset, double x, double y) {
+        derivativeNoise().getNoiseDerivativeRaw(seed + salt, out, offset, x * frequency, y * frequency);
+    }
+
+    @Override
+    public void getSampleDerivative(long seed, double[] out, int offset, double x, double y, double z) {
+        derivativeNoise().getNoiseDerivativeRaw(seed + salt, out, offset, x * frequency, y * frequency, z * frequency);
+    }
+
+    private DerivativeNoiseFunction derivativeNoise() {
+        if(derivativeNoise == null) {
+            throw new UnsupportedOperationException("Implementation failed to check or set isDifferentiable correctly");
+        }
+        return derivativeNoise;
+    }
+
+
+    /**
+     * Collects the configuration of an {@link ImmutableNoiseSampler}. The defaults match those of {@link NoiseFunction}.
+     */
+    public static final class Builder {
+        private final NoiseFunction noise;
+        private double frequency = 0.02d;
+        private long salt = 0;
+
+        private Builder(NoiseFunction noise) {
+            this.noise = noise;
+        }
+
+        public Builder frequency(double frequency) {
+            this.frequency = frequency;
+            return this;
+        }
+
+        public Builder salt(long salt) {
+            this.salt = salt;
+            return this;
+        }
+
+        public ImmutableNoiseSampler build() {
+            return new ImmutableNoiseSampler(this);
+        }
+    }
+}
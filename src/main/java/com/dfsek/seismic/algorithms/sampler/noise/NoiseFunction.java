@@ -7,10 +7,10 @@
 
 package com.dfsek.seismic.algorithms.sampler.noise;
 
-import com.dfsek.seismic.type.sampler.Sampler;
+import com.dfsek.seismic.type.sampler.VectorSampler;
 
 
-public abstract class NoiseFunction implements Sampler {
+public abstract class NoiseFunction implements VectorSampler {
     /**
      * The prime number used for the x-coordinate in noise generation.
      */
@@ -33,6 +33,10 @@ public abstract class NoiseFunction implements Sampler {
         this.salt = 0;
     }
 
+    public long getSalt() {
+        return salt;
+    }
+
     public void setSalt(long salt) {
         this.salt = salt;
     }
@@ -55,6 +59,124 @@ public abstract class NoiseFunction implements Sampler {
         return getNoiseRaw(seed + salt, x * frequency, y * frequency, z * frequency);
     }
 
+    /**
+     * {@inheritDoc}
+     * <p>
+     * The salt is applied once for the whole grid, which is then filled by
+     * {@link #getNoiseRawGrid(long, double[], double, double, double, double, int, int)}.
+     */
+    @Override
+    public void getSampleGrid(long seed, double[] out, double x, double y, double stepX, double stepY, int sizeX, int sizeY) {
+        getNoiseRawGrid(seed + salt, out, x, y, stepX, stepY, sizeX, sizeY);
+    }
+
+    /**
+     * {@inheritDoc}
+     * <p>
+     * The salt is applied once for the whole grid, which is then filled by
+     * {@link #getNoiseRawGrid(long, double[], double, double, double, double, double, double, int, int, int)}.
+     */
+    @Override
+    public void getSampleGrid(long seed, double[] out, double x, double y, double z, double stepX, double stepY, double stepZ,
+                              int sizeX, int sizeY, int sizeZ) {
+        getNoiseRawGrid(seed + salt, out, x, y, z, stepX, stepY, stepZ, sizeX, sizeY, sizeZ);
+    }
+
+    /**
+     * Fills a grid with {@code getNoiseRaw}, in the layout of {@code getSampleGrid}. The seed is already salted, and each coordinate is
+     * scaled by the frequency after its step is added. Implementations with a faster path for whole grids override this, and must
+     * produce the same values as {@code getNoiseRaw}.
+     */
+    protected void getNoiseRawGrid(long seed, double[] out, double x, double y, double stepX, double stepY, int sizeX, int sizeY) {
+        int index = 0;
+        for(int ix = 0; ix < sizeX; ix++) {
+            double sx = (x + ix * stepX) * frequency;
+            for(int iy = 0; iy < sizeY; iy++) {
+                out[index++] = getNoiseRaw(seed, sx, (y + iy * stepY) * frequency);
+            }
+        }
+    }
+
+    /**
+     * Fills a grid with {@code getNoiseRaw}, in the layout of {@code getSampleGrid}. The seed is already salted, and each coordinate is
+     * scaled by the frequency after its step is added. Implementations with a faster path for whole grids override this, and must
+     * produce the same values as {@code getNoiseRaw}.
+     */
+    protected void getNoiseRawGrid(long seed, double[] out, double x, double y, double z, double stepX, double stepY, double stepZ,
+                                   int sizeX, int sizeY, int sizeZ) {
+        int index = 0;
+        for(int ix = 0; ix < sizeX; ix++) {
+            double sx = (x + ix * stepX) * frequency;
+            for(int iy = 0; iy < sizeY; iy++) {
+                double sy = (y + iy * stepY) * frequency;
+                for(int iz = 0; iz < sizeZ; iz++) {
+                    out[index++] = getNoiseRaw(seed, sx, sy, (z + iz * stepZ) * frequency);
+                }
+            }
+        }
+    }
+
+    /**
+     * {@inheritDoc}
+     * <p>
+     * If {@link #sharesChannels()}, salt and frequency are applied once for every channel. Otherwise each channel is sampled with
+     * {@code getSample}.
+     */
+    @Override
+    public void getSamples(long seed, double[] out, int offset, int channels, double x, double y) {
+        if(sharesChannels()) {
+            getNoiseRawChannels(seed + salt, out, offset, channels, x * frequency, y * frequency);
+        } else {
+            VectorSampler.super.getSamples(seed, out, offset, channels, x, y);
+        }
+    }
+
+    /**
+     * {@inheritDoc}
+     * <p>
+     * If {@link #sharesChannels()}, salt and frequency are applied once for every channel. Otherwise each channel is sampled with
+     * {@code getSample}.
+     */
+    @Override
+    public void getSamples(long seed, double[] out, int offset, int channels, double x, double y, double z) {
+        if(sharesChannels()) {
+            getNoiseRawChannels(seed + salt, out, offset, channels, x * frequency, y * frequency, z * frequency);
+        } else {
+            VectorSampler.super.getSamples(seed, out, offset, channels, x, y, z);
+        }
+    }
+
+    /**
+     * Whether {@link #getSamples} may call {@code getNoiseRawChannels} directly. A subclass may override {@code getSample} or
+     * {@code getNoiseRaw} without overriding {@code getNoiseRawChannels} to match, so implementations only return {@code true} for
+     * their own exact class.
+     *
+     * @return {@code true} if every channel of {@code getNoiseRawChannels} is identical to {@code getSample} for its seed.
+     */
+    public boolean sharesChannels() {
+        return false;
+    }
+
+    /**
+     * Writes {@link #getNoiseRaw(long, double, double)} for {@code channels} consecutive seeds, starting at {@code seed}, to
+     * {@code out}.
+     */
+    public void getNoiseRawChannels(long seed, double[] out, int offset, int channels, double x, double y) {
+        for(int c = 0; c < channels; c++) {
+            out[offset + c] = getNoiseRaw(seed + c, x, y);
+        }
+    }
+
+    /**
+     * Writes {@link #getNoiseRaw(long, double, double, double)} for {@code channels} consecutive seeds, starting at {@code seed}, to
+     * {@code out}.
+     */
+    public void getNoiseRawChannels(long seed, double[] out, int offset, int channels, double x, double y, double z) {
+        for(int c = 0; c < channels; c++) {
+            out[offset + c] = getNoiseRaw(seed + c, x, y, z);
+        }
+    }
+
     public abstract double getNoiseRaw(long seed, double x, double y);
 
     public abstract double getNoiseRaw(long seed, double x, double y, double z);
@@ -14,6 +14,11 @@ import com.dfsek.seismic.type.sampler.DerivativeSampler;
 public class PseudoErosionSampler extends NoiseFunction {
     private static final double HASH_X = 0.3183099f;
     private static final double HASH_Y = 0.3678794f;
+    /**
+     * Grid fills only tabulate an octave's cell offsets when the octave spans at most this many cells per sample, as cells that no
+     * sample reaches would otherwise be hashed for nothing.
+     */
+    private static final int MAX_CELLS_PER_SAMPLE = 4;
     public final double gain;
     public final double lacunarity;
     public final double slopeStrength;
@@ -29,6 +34,9 @@ public class PseudoErosionSampler extends NoiseFunction {
     private final double maxCellDistSq;
     private final double maxCellDistSqRecip;
     private final boolean averageErosionImpulses;
+    // Reused for the base derivative sample and every erosion octave, so heightMap does not allocate.
+    private final ThreadLocal<double[]> sampleBuffer = ThreadLocal.withInitial(() -> new double[3]);
+    private final ThreadLocal<Region> regionBuffer = ThreadLocal.withInitial(Region::new);
 
     public PseudoErosionSampler(int octaves, double gain, double lacunarity, double slopeStrength, double branchStrength,
                                 double erosionStrength, double erosionFrequency, DerivativeSampler sampler,
@@ -65,6 +73,19 @@ public class PseudoErosionSampler extends NoiseFunction {
     }
 
     public double[] erosion(int seed, double x, double y, double dirX, double dirY) {
+        double[] out = new double[3];
+        erosion(seed, out, 0, x, y, dirX, dirY);
+        return out;
+    }
+
+    public void erosion(int seed, double[] out, int offset, double x, double y, double dirX, double dirY) {
+        erosion(seed, out, offset, x, y, dirX, dirY, null);
+    }
+
+    /**
+     * @param cells the cell offsets of the octave being sampled, or {@code null} to hash them.
+     */
+    private void erosion(int seed, double[] out, int offset, double x, double y, double dirX, double dirY, CellOffsets cells) {
         int gridX = FloatingPointFunctions.floor(x);
         int gridY = FloatingPointFunctions.floor(y);
         double noise = 0.0f;
@@ -74,9 +95,17 @@ public class PseudoErosionSampler extends NoiseFunction {
 
         for(int cellX = gridX - 1; cellX <= gridX + 1; cellX++) {
             for(int cellY = gridY - 1; cellY <= gridY + 1; cellY++) {
-                double cellHash = HashingFunctions.hashPrimeCoords(seed, cellX, cellY);
-                double cellOffsetX = PseudoErosionSampler.hashX(seed, cellHash) * jitter;
-                double cellOffsetY = PseudoErosionSampler.hashY(seed, cellHash) * jitter;
+                double cellOffsetX;
+                double cellOffsetY;
+                if(cells == null) {
+                    double cellHash = HashingFunctions.hashPrimeCoords(seed, cellX, cellY);
+                    cellOffsetX = PseudoErosionSampler.hashX(seed, cellHash) * jitter;
+                    cellOffsetY = PseudoErosionSampler.hashY(seed, cellHash) * jitter;
+                } else {
+                    int cell = (cellX - cells.minX) * cells.height + (cellY - cells.minY);
+                    cellOffsetX = cells.offsetsX[cell];
+                    cellOffsetY = cells.offsetsY[cell];
+                }
                 double cellOriginDeltaX = (x - cellX) + cellOffsetX;
                 double cellOriginDeltaY = (y - cellY) + cellOffsetY;
                 double cellOriginDistSq = ArithmeticFunctions.fma(cellOriginDeltaX, cellOriginDeltaX, cellOriginDeltaY * cellOriginDeltaY);
@@ -97,11 +126,14 @@ public class PseudoErosionSampler extends NoiseFunction {
             dirOutX /= cumAmp;
             dirOutY /= cumAmp;
         }
-        return new double[]{ noise, dirOutX, dirOutY };
+        out[offset] = noise;
+        out[offset + 1] = dirOutX;
+        out[offset + 2] = dirOutY;
     }
 
     public double heightMap(long seed, double x, double y) {
-        double[] sample = sampler.getSampleDerivative(seed, x, y);
+        double[] sample = sampleBuffer.get();
+        sampler.getSampleDerivative(seed, sample, 0, x, y);
         double height = sample[0];
         double heightDirX = sample[1];
         double heightDirY = sample[2];
@@ -119,14 +151,14 @@ public class PseudoErosionSampler extends NoiseFunction {
 
         // Stack erosion octaves
         for(int i = 0; i < octaves; i++) {
-            double[] erosionResult = erosion((int) seed,
+            erosion((int) seed, sample, 0,
                 x * freq * erosionFrequency,
                 y * freq * erosionFrequency,
                 ArithmeticFunctions.fma(dirY, branchStrength, baseDirX),
                 baseDirY - dirX * branchStrength);
-            erosion = ArithmeticFunctions.fma(erosionResult[0], amp, erosion);
-            dirX = ArithmeticFunctions.fma(erosionResult[1], amp * freq, dirX);
-            dirY = ArithmeticFunctions.fma(erosionResult[2], amp * freq, dirY);
+            erosion = ArithmeticFunctions.fma(sample[0], amp, erosion);
+            dirX = ArithmeticFunctions.fma(sample[1], amp * freq, dirX);
+            dirY = ArithmeticFunctions.fma(sample[2], amp * freq, dirY);
             cumAmp += amp;
             amp *= gain;
             freq *= lacunarity;
@@ -158,4 +190,199 @@ public class PseudoErosionSampler extends NoiseFunction {
     public double getNoiseRaw(long seed, double x, double y, double z) {
         return getNoiseRaw(seed, x, z);
     }
+
+    /**
+     * {@inheritDoc}
+     * <p>
+     * The base derivative of the whole region is requested in one
+     * {@link DerivativeSampler#getSampleDerivativeGrid(long, double[], double[], double[], int, int) grid call}, and erosion is
+     * layered one octave at a time over every sample, hashing the jittered offset of each cell the octave reaches only once.
+     */
+    @Override
+    public void getSampleGrid(long seed, double[] out, double x, double y, double stepX, double stepY, int sizeX, int sizeY) {
+        int count = sizeX * sizeY;
+        if(count == 0) {
+            return;
+        }
+        long saltedSeed = seed + salt;
+        Region region = regionBuffer.get();
+        region.ensureCapacity(sizeX, sizeY);
+        double[] xs = region.xs;
+        double[] ys = region.ys;
+        for(int ix = 0; ix < sizeX; ix++) {
+            xs[ix] = (x + ix * stepX) * frequency;
+        }
+        for(int iy = 0; iy < sizeY; iy++) {
+            ys[iy] = (y + iy * stepY) * frequency;
+        }
+
+        double[] base = region.base;
+        sampler.getSampleDerivativeGrid(saltedSeed, base, xs, ys, sizeX, sizeY);
+
+        double[] erosion = region.erosion;
+        double[] dirX = region.dirX;
+        double[] dirY = region.dirY;
+        for(int i = 0; i < count; i++) {
+            // Take the curl of the normal to get the gradient facing down the slope
+            double baseDirX = base[i * 3 + 2] * slopeStrength;
+            double baseDirY = -base[i * 3 + 1] * slopeStrength;
+            base[i * 3 + 1] = baseDirX;
+            base[i * 3 + 2] = baseDirY;
+            erosion[i] = 0.0f;
+            dirX[i] = 0.0f;
+            dirY[i] = 0.0f;
+        }
+
+        double[] sample = sampleBuffer.get();
+        CellOffsets cells = region.cells;
+        double amp = 1.0f;
+        double cumAmp = 0.0f;
+        double freq = 1.0f;
+
+        // Stack erosion octaves
+        for(int octave = 0; octave < octaves; octave++) {
+            CellOffsets octaveCells = cells.fill((int) saltedSeed, jitter, xs[0] * freq * erosionFrequency,
+                xs[sizeX - 1] * freq * erosionFrequency, ys[0] * freq * erosionFrequency, ys[sizeY - 1] * freq * erosionFrequency,
+                (long) count * MAX_CELLS_PER_SAMPLE) ? cells : null;
+            int i = 0;
+            for(int ix = 0; ix < sizeX; ix++) {
+                double octaveX = xs[ix] * freq * erosionFrequency;
+                for(int iy = 0; iy < sizeY; iy++, i++) {
+                    erosion((int) saltedSeed, sample, 0,
+                        octaveX,
+                        ys[iy] * freq * erosionFrequency,
+                        ArithmeticFunctions.fma(dirY[i], branchStrength, base[i * 3 + 1]),
+                        base[i * 3 + 2] - dirX[i] * branchStrength,
+                        octaveCells);
+                    erosion[i] = ArithmeticFunctions.fma(sample[0], amp, erosion[i]);
+                    dirX[i] = ArithmeticFunctions.fma(sample[1], amp * freq, dirX[i]);
+                    dirY[i] = ArithmeticFunctions.fma(sample[2], amp * freq, dirY[i]);
+                }
+            }
+            cumAmp += amp;
+            amp *= gain;
+            freq *= lacunarity;
+        }
+
+        for(int i = 0; i < count; i++) {
+            // Normalize erosion noise, then [-1, 1] -> [0, 1]
+            double value = erosion[i] / cumAmp;
+            value = value * 0.5F + 0.5F;
+
+            if(slopeMask) {
+                double baseDirX = base[i * 3 + 1];
+                double baseDirY = base[i * 3 + 2];
+                double dirMagSq = LinearAlgebraFunctions.dotProduct(baseDirX, baseDirY, baseDirX, baseDirY);
+                double flatness = SmoothstepFunctions.cubicPolynomialSmoothstep(
+                    NormalizationFunctions.normalizeToRange(slopeMaskNoneSq, slopeMaskFullSq, dirMagSq));
+                value *= flatness;
+            }
+
+            out[i] = base[i * 3] + value * erosionStrength;
+        }
+    }
+
+    /**
+     * {@inheritDoc}
+     * <p>
+     * Erosion does not vary along y, so the xz plane is filled once and copied to each y.
+     */
+    @Override
+    public void getSampleGrid(long seed, double[] out, double x, double y, double z, double stepX, double stepY, double stepZ,
+                              int sizeX, int sizeY, int sizeZ) {
+        if(sizeY == 0) {
+            return;
+        }
+        getSampleGrid(seed, out, x, z, stepX, stepZ, sizeX, sizeZ);
+        // Spread the plane from the back, so no row is overwritten before it has been copied.
+        for(int ix = sizeX - 1; ix >= 0; ix--) {
+            for(int iy = sizeY - 1; iy >= 0; iy--) {
+                System.arraycopy(out, ix * sizeZ, out, (ix * sizeY + iy) * sizeZ, sizeZ);
+            }
+        }
+    }
+
+
+    /**
+     * Per-thread working arrays of a grid fill, grown as needed.
+     */
+    private static final class Region {
+        private final CellOffsets cells = new CellOffsets();
+        private double[] xs = new double[0];
+        private double[] ys = new double[0];
+        private double[] base = new double[0];
+        private double[] erosion = new double[0];
+        private double[] dirX = new double[0];
+        private double[] dirY = new double[0];
+
+        private void ensureCapacity(int sizeX, int sizeY) {
+            if(xs.length < sizeX) {
+                xs = new double[sizeX];
+            }
+            if(ys.length < sizeY) {
+                ys = new double[sizeY];
+            }
+            int count = sizeX * sizeY;
+            if(erosion.length < count) {
+                base = new double[count * 3];
+                erosion = new double[count];
+                dirX = new double[count];
+                dirY = new double[count];
+            }
+        }
+    }
+
+
+    /**
+     * The jittered offsets of a rectangle of cells, as computed by {@link #erosion(int, double[], int, double, double, double, double)}.
+     */
+    private static final class CellOffsets {
+        private int minX;
+        private int minY;
+        private int height;
+        private double[] offsetsX = new double[0];
+        private double[] offsetsY = new double[0];
+
+        /**
+         * Tabulate the cells reached by samples between the given octave coordinates.
+         *
+         * @return whether the cells were tabulated, which they are not if there are more than {@code maxCells} of them.
+         */
+        private boolean fill(int seed, double jitter, double x0, double x1, double y0, double y1, long maxCells) {
+            // Coordinates grow monotonically along each axis, so the extremes are at the ends; NaN fails every comparison.
+            double lowX = Math.min(x0, x1);
+            double highX = Math.max(x0, x1);
+            double lowY = Math.min(y0, y1);
+            double highY = Math.max(y0, y1);
+            if(!(lowX > Integer.MIN_VALUE + 2 && highX < Integer.MAX_VALUE - 2 && lowY > Integer.MIN_VALUE + 2 &&
+                 highY < Integer.MAX_VALUE - 2)) {
+                return false;
+            }
+            int cellMinX = FloatingPointFunctions.floor(lowX) - 1;
+            int cellMinY = FloatingPointFunctions.floor(lowY) - 1;
+            long width = (long) FloatingPointFunctions.floor(highX) + 1 - cellMinX + 1;
+            long cellHeight = (long) FloatingPointFunctions.floor(highY) + 1 - cellMinY + 1;
+            if(width * cellHeight > Math.min(maxCells, Integer.MAX_VALUE - 8)) {
+                return false;
+            }
+
+            int cellCount = (int) (width * cellHeight);
+            if(offsetsX.length < cellCount) {
+                offsetsX = new double[cellCount];
+                offsetsY = new double[cellCount];
+            }
+            minX = cellMinX;
+            minY = cellMinY;
+            height = (int) cellHeight;
+            int cell = 0;
+            for(int cellX = cellMinX; cellX < cellMinX + width; cellX++) {
+                for(int cellY = cellMinY; cellY < cellMinY + cellHeight; cellY++, cell++) {
+                    double cellHash = HashingFunctions.hashPrimeCoords(seed, cellX, cellY);
+                    offsetsX[cell] = PseudoErosionSampler.hashX(seed, cellHash) * jitter;
+                    offsetsY[cell] = PseudoErosionSampler.hashY(seed, cellHash) * jitter;
+                }
+            }
+            return true;
+        }
+    }
 }
\ No newline at end of file
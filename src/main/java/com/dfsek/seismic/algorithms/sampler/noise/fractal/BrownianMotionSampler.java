@@ -7,12 +7,19 @@
 
 package com.dfsek.seismic.algorithms.sampler.noise.fractal;
 
+import com.dfsek.seismic.algorithms.sampler.noise.NoiseFunction;
 import com.dfsek.seismic.math.numericanalysis.interpolation.InterpolationFunctions;
 import com.dfsek.seismic.type.sampler.DerivativeSampler;
 import com.dfsek.seismic.type.sampler.Sampler;
+import com.dfsek.seismic.type.sampler.VectorSampler;
+
+import java.util.Arrays;
 
 
 public class BrownianMotionSampler extends FractalNoiseFunction {
+    // Sums followed by amplitudes, per channel, reused so that getNoiseRawChannels does not allocate.
+    private final ThreadLocal<double[]> channelState = ThreadLocal.withInitial(() -> new double[0]);
+
     public BrownianMotionSampler(Sampler input) {
         super(input);
     }
@@ -23,7 +30,7 @@ public class BrownianMotionSampler extends FractalNoiseFunction {
         double amp = fractalBounding;
 
         for(int i = 0; i < octaves; i++) {
-            double noise = input.getSample(seed++, x, y);
+            double noise = sampleInput(seed++, x, y);
             sum += noise * amp;
             amp *= InterpolationFunctions.lerp(weightedStrength, 1.0, Math.min(noise + 1, 2) * 0.5);
 
@@ -41,7 +48,7 @@ public class BrownianMotionSampler extends FractalNoiseFunction {
         double amp = fractalBounding;
 
         for(int i = 0; i < octaves; i++) {
-            double noise = input.getSample(seed++, x, y, z);
+            double noise = sampleInput(seed++, x, y, z);
             sum += noise * amp;
             amp *= InterpolationFunctions.lerp(weightedStrength, 1.0, (noise + 1) * 0.5);
 
@@ -54,6 +61,123 @@ public class BrownianMotionSampler extends FractalNoiseFunction {
         return sum;
     }
 
+    /**
+     * {@inheritDoc}
+     * <p>
+     * If the input is a {@link VectorSampler}, each octave evaluates every channel in one call.
+     */
+    @Override
+    public void getNoiseRawChannels(long seed, double[] out, int offset, int channels, double x, double y) {
+        NoiseFunction raw = rawChannelInput();
+        if(raw == null && !(input instanceof VectorSampler)) {
+            super.getNoiseRawChannels(seed, out, offset, channels, x, y);
+            return;
+        }
+        double[] state = channelState(channels);
+        Arrays.fill(state, 0, channels, 0);
+        Arrays.fill(state, channels, channels * 2, fractalBounding);
+
+        long inputSeed = seed;
+        double inputFrequency = 1;
+        if(raw != null) {
+            inputSeed += raw.getSalt();
+            inputFrequency = raw.getFrequency();
+        }
+
+        for(int i = 0; i < octaves; i++) {
+            if(raw != null) {
+                raw.getNoiseRawChannels(inputSeed++, out, offset, channels, x * inputFrequency, y * inputFrequency);
+            } else {
+                ((VectorSampler) input).getSamples(inputSeed++, out, offset, channels, x, y);
+            }
+            for(int n = 0; n < channels; n++) {
+                double noise = out[offset + n];
+                double amp = state[channels + n];
+                state[n] += noise * amp;
+                amp *= InterpolationFunctions.lerp(weightedStrength, 1.0, Math.min(noise + 1, 2) * 0.5);
+                state[channels + n] = amp * gain;
+            }
+
+            x *= lacunarity;
+            y *= lacunarity;
+        }
+
+        System.arraycopy(state, 0, out, offset, channels);
+    }
+
+    /**
+     * {@inheritDoc}
+     * <p>
+     * If the input is a {@link VectorSampler}, each octave evaluates every channel in one call.
+     */
+    @Override
+    public void getNoiseRawChannels(long seed, double[] out, int offset, int channels, double x, double y, double z) {
+        NoiseFunction raw = rawChannelInput();
+        if(raw == null && !(input instanceof VectorSampler)) {
+            super.getNoiseRawChannels(seed, out, offset, channels, x, y, z);
+            return;
+        }
+        double[] state = channelState(channels);
+        Arrays.fill(state, 0, channels, 0);
+        Arrays.fill(state, channels, channels * 2, fractalBounding);
+
+        long inputSeed = seed;
+        double inputFrequency = 1;
+        if(raw != null) {
+            inputSeed += raw.getSalt();
+            inputFrequency = raw.getFrequency();
+        }
+
+        for(int i = 0; i < octaves; i++) {
+            if(raw != null) {
+                raw.getNoiseRawChannels(inputSeed++, out, offset, channels, x * inputFrequency, y * inputFrequency, z * inputFrequency);
+            } else {
+                ((VectorSampler) input).getSamples(inputSeed++, out, offset, channels, x, y, z);
+            }
+            for(int n = 0; n < channels; n++) {
+                double noise = out[offset + n];
+                double amp = state[channels + n];
+                state[n] += noise * amp;
+                amp *= InterpolationFunctions.lerp(weightedStrength, 1.0, (noise + 1) * 0.5);
+                state[channels + n] = amp * gain;
+            }
+
+            x *= lacunarity;
+            y *= lacunarity;
+            z *= lacunarity;
+        }
+
+        System.arraycopy(state, 0, out, offset, channels);
+    }
+
+    /**
+     * {@inheritDoc}
+     * <p>
+     * Subclasses may override {@code getNoiseRaw}, so only this exact class shares channels.
+     */
+    @Override
+    public boolean sharesChannels() {
+        return getClass() == BrownianMotionSampler.class;
+    }
+
+    /**
+     * {@link #rawInput}, if its {@code getNoiseRawChannels} matches its {@code getNoiseRaw}. Otherwise {@code null}, and every octave
+     * goes through the input's {@code getSamples}.
+     */
+    private NoiseFunction rawChannelInput() {
+        NoiseFunction raw = rawInput;
+        return raw != null && raw.sharesChannels() ? raw : null;
+    }
+
+    private double[] channelState(int channels) {
+        double[] state = channelState.get();
+        if(state.length < channels * 2) {
+            state = new double[channels * 2];
+            channelState.set(state);
+        }
+        return state;
+    }
+
     @Override
     public boolean isDifferentiable() {
         return DerivativeSampler.isDifferentiable(input);
@@ -61,45 +185,63 @@ public class BrownianMotionSampler extends FractalNoiseFunction {
 
     @Override
     public double[] getNoiseDerivativeRaw(long seed, double x, double y) {
-        double[] sum = { 0, 0, 0 };
+        double[] out = new double[3];
+        getNoiseDerivativeRaw(seed, out, 0, x, y);
+        return out;
+    }
+
+    @Override
+    public void getNoiseDerivativeRaw(long seed, double[] out, int offset, double x, double y) {
+        double sum = 0, sumX = 0, sumY = 0;
         double amp = fractalBounding;
 
         for(int i = 0; i < octaves; i++) {
             // This should only be called after `input` is verified as a `DerivativeNoiseSampler`
             // so this should be a safe cast
-            double[] noise = ((DerivativeSampler) input).getSampleDerivative(seed++, x, y);
-            sum[0] += noise[0] * amp;
+            ((DerivativeSampler) input).getSampleDerivative(seed++, out, offset, x, y);
+            double noise = out[offset];
+            sum += noise * amp;
 
             // Directional derivative of each octave can be subject to the same addition and product
             // as per derivative sum and product rules in order to produce the correct final derivative
-            sum[1] += noise[1] * amp;
-            sum[2] += noise[2] * amp;
+            sumX += out[offset + 1] * amp;
+            sumY += out[offset + 2] * amp;
 
-            amp *= InterpolationFunctions.lerp(weightedStrength, 1.0, Math.min(noise[0] + 1, 2) * 0.5);
+            amp *= InterpolationFunctions.lerp(weightedStrength, 1.0, Math.min(noise + 1, 2) * 0.5);
 
             x *= lacunarity;
             y *= lacunarity;
             amp *= gain;
         }
 
-        return sum;
+        out[offset] = sum;
+        out[offset + 1] = sumX;
+        out[offset + 2] = sumY;
     }
 
     @Override
     public double[] getNoiseDerivativeRaw(long seed, double x, double y, double z) {
-        double[] sum = { 0, 0, 0, 0 };
+        double[] out = new double[4];
+        getNoiseDerivativeRaw(seed, out, 0, x, y, z);
+        return out;
+    }
+
+    @Override
+    public void getNoiseDerivativeRaw(long seed, double[] out, int offset, double x, double y, double z) {
+        double sum = 0, sumX = 0, sumY = 0, sumZ = 0;
         double amp = fractalBounding;
 
         for(int i = 0; i < octaves; i++) {
-            double[] noise = ((DerivativeSampler) input).getSampleDerivative(seed++, x, y, z);
-            sum[0] += noise[0] * amp;
+            ((DerivativeSampler) input).getSampleDerivative(seed++, out, offset, x, y, z);
+            double noise = out[offset];
+            sum += noise * amp;
 
             // See comment in 2D version
-            sum[1] += noise[1] * amp;
-            sum[2] += noise[2] * amp;
-            sum[3] += noise[3] * amp;
+            sumX += out[offset + 1] * amp;
+            sumY += out[offset + 2] * amp;
+            sumZ += out[offset + 3] * amp;
 
-            amp *= InterpolationFunctions.lerp(weightedStrength, 1.0, (noise[0] + 1) * 0.5);
+            amp *= InterpolationFunctions.lerp(weightedStrength, 1.0, (noise + 1) * 0.5);
 
             x *= lacunarity;
             y *= lacunarity;
@@ -107,6 +249,9 @@ public class BrownianMotionSampler extends FractalNoiseFunction {
             amp *= gain;
         }
 
-        return sum;
+        out[offset] = sum;
+        out[offset + 1] = sumX;
+        out[offset + 2] = sumY;
+        out[offset + 3] = sumZ;
     }
 }
@@ -8,11 +8,19 @@
 package com.dfsek.seismic.algorithms.sampler.noise.fractal;
 
 import com.dfsek.seismic.algorithms.sampler.noise.DerivativeNoiseFunction;
+import com.dfsek.seismic.algorithms.sampler.noise.NoiseFunction;
+import com.dfsek.seismic.algorithms.sampler.noise.simplex.SimplexStyleSampler;
+import com.dfsek.seismic.algorithms.sampler.noise.value.ValueStyleNoise;
 import com.dfsek.seismic.type.sampler.Sampler;
 
 
 public abstract class FractalNoiseFunction extends DerivativeNoiseFunction {
     protected final Sampler input;
+    /**
+     * {@code input}, if every octave can call its {@code getNoiseRaw} directly instead of going through {@code getSample}.
+     * Otherwise {@code null}.
+     */
+    protected final NoiseFunction rawInput;
     protected double fractalBounding = 1 / 1.75;
     protected int octaves = 3;
     protected double gain = 0.5;
@@ -21,9 +29,54 @@ public abstract class FractalNoiseFunction extends DerivativeNoiseFunction {
 
     public FractalNoiseFunction(Sampler input) {
         this.input = input;
+        this.rawInput = FractalNoiseFunction.rawInput(input);
         frequency = 1;
     }
 
+    private static NoiseFunction rawInput(Sampler input) {
+        if(!(input instanceof SimplexStyleSampler) && !(input instanceof ValueStyleNoise)) {
+            return null;
+        }
+        try {
+            // A subclass that overrides getSample may do more than salting and scaling, so it has to be called as-is.
+            Class<?> type = input.getClass();
+            if(type.getMethod("getSample", long.class, double.class, double.class).getDeclaringClass() != NoiseFunction.class ||
+               type.getMethod("getSample", long.class, double.class, double.class, double.class).getDeclaringClass() !=
+               NoiseFunction.class) {
+                return null;
+            }
+        } catch(NoSuchMethodException e) {
+            throw new IllegalStateException(e);
+        }
+        return (NoiseFunction) input;
+    }
+
+    /**
+     * Samples the input for one octave. If the input is {@link #rawInput}, this applies its salt and frequency and calls its
+     * {@code getNoiseRaw}, exactly as its {@code getSample} would, without the virtual call to {@code getSample}.
+     */
+    protected final double sampleInput(long seed, double x, double y) {
+        NoiseFunction raw = rawInput;
+        if(raw == null) {
+            return input.getSample(seed, x, y);
+        }
+        double frequency = raw.getFrequency();
+        return raw.getNoiseRaw(seed + raw.getSalt(), x * frequency, y * frequency);
+    }
+
+    /**
+     * Samples the input for one octave. If the input is {@link #rawInput}, this applies its salt and frequency and calls its
+     * {@code getNoiseRaw}, exactly as its {@code getSample} would, without the virtual call to {@code getSample}.
+     */
+    protected final double sampleInput(long seed, double x, double y, double z) {
+        NoiseFunction raw = rawInput;
+        if(raw == null) {
+            return input.getSample(seed, x, y, z);
+        }
+        double frequency = raw.getFrequency();
+        return raw.getNoiseRaw(seed + raw.getSalt(), x * frequency, y * frequency, z * frequency);
+    }
+
     protected void calculateFractalBounding() {
         double gain = Math.abs(this.gain);
         double amp = gain;
@@ -35,20 +88,40 @@ public abstract class FractalNoiseFunction extends DerivativeNoiseFunction {
         fractalBounding = 1 / ampFractal;
     }
 
+    public Sampler getInput() {
+        return input;
+    }
+
+    public double getGain() {
+        return gain;
+    }
+
     public void setGain(double gain) {
         this.gain = gain;
         calculateFractalBounding();
     }
 
+    public double getLacunarity() {
+        return lacunarity;
+    }
+
     public void setLacunarity(double lacunarity) {
         this.lacunarity = lacunarity;
     }
 
+    public int getOctaves() {
+        return octaves;
+    }
+
     public void setOctaves(int octaves) {
         this.octaves = octaves;
         calculateFractalBounding();
     }
 
+    public double getWeightedStrength() {
+        return weightedStrength;
+    }
+
     public void setWeightedStrength(double weightedStrength) {
         this.weightedStrength = weightedStrength;
     }
@@ -67,4 +140,14 @@ public abstract class FractalNoiseFunction extends DerivativeNoiseFunction {
     public double[] getNoiseDerivativeRaw(long seed, double x, double y, double z) {
         throw new UnsupportedOperationException("Implementation failed to check or set isDifferentiable correctly");
     }
+
+    @Override
+    public void getNoiseDerivativeRaw(long seed, double[] out, int offset, double x, double y) {
+        throw new UnsupportedOperationException("Implementation failed to check or set isDifferentiable correctly");
+    }
+
+    @Override
+    public void getNoiseDerivativeRaw(long seed, double[] out, int offset, double x, double y, double z) {
+        throw new UnsupportedOperationException("Implementation failed to check or set isDifferentiable correctly");
+    }
 }
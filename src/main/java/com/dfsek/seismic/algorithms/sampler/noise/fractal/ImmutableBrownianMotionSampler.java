@@ -0,0 +1,149 @@
+package com.dfsek.seismic.algorithms.sampler.noise.fractal;
+
+import com.dfsek.seismic.math.numericanalysis.interpolation.InterpolationFunctions;
+import com.dfsek.seismic.type.sampler.DerivativeSampler;
+import com.dfsek.seismic.type.sampler.Sampler;
+
+
+/**
+ * Immutable counterpart of {@link BrownianMotionSampler}.
+ */
+public final class ImmutableBrownianMotionSampler extends ImmutableFractalNoiseFunction {
+    private ImmutableBrownianMotionSampler(Builder builder) {
+        super(builder);
+    }
+
+    public static Builder builder(Sampler input) {
+        return new Builder(input);
+    }
+
+    @Override
+    public double getNoiseRaw(long seed, double x, double y) {
+        double sum = 0;
+        if(weightedStrength == 1.0) {
+            for(int i = 0; i < octaves; i++) {
+                sum += input.getSample(seed++, x, y) * amplitudes[i];
+
+                x *= lacunarity;
+                y *= lacunarity;
+            }
+            return sum;
+        }
+
+        double weight = 1;
+        for(int i = 0; i < octaves; i++) {
+            double amp = amplitudes[i] * weight;
+            double noise = input.getSample(seed++, x, y);
+            sum += noise * amp;
+            weight *= InterpolationFunctions.lerp(weightedStrength, 1.0, Math.min(noise + 1, 2) * 0.5);
+
+            x *= lacunarity;
+            y *= lacunarity;
+        }
+
+        return sum;
+    }
+
+    @Override
+    public double getNoiseRaw(long seed, double x, double y, double z) {
+        double sum = 0;
+        if(weightedStrength == 1.0) {
+            for(int i = 0; i < octaves; i++) {
+                sum += input.getSample(seed++, x, y, z) * amplitudes[i];
+
+                x *= lacunarity;
+                y *= lacunarity;
+                z *= lacunarity;
+            }
+            return sum;
+        }
+
+        double weight = 1;
+        for(int i = 0; i < octaves; i++) {
+            double amp = amplitudes[i] * weight;
+            double noise = input.getSample(seed++, x, y, z);
+            sum += noise * amp;
+            weight *= InterpolationFunctions.lerp(weightedStrength, 1.0, (noise + 1) * 0.5);
+
+            x *= lacunarity;
+            y *= lacunarity;
+            z *= lacunarity;
+        }
+
+        return sum;
+    }
+
+    @Override
+    public boolean isDifferentiable() {
+        return DerivativeSampler.isDifferentiable(input);
+    }
+
+    @Override
+    public void getNoiseDerivativeRaw(long seed, double[] out, int offset, double x, double y) {
+        double sum = 0, sumX = 0, sumY = 0;
+        double weight = 1;
+
+        for(int i = 0; i < octaves; i++) {
+            double amp = amplitudes[i] * weight;
+            // This should only be called after `input` is verified as a `DerivativeNoiseSampler`
+            // so this should be a safe cast
+            ((DerivativeSampler) input).getSampleDerivative(seed++, out, offset, x, y);
+            double noise = out[offset];
+            sum += noise * amp;
+            sumX += out[offset + 1] * amp;
+            sumY += out[offset + 2] * amp;
+
+            weight *= InterpolationFunctions.lerp(weightedStrength, 1.0, Math.min(noise + 1, 2) * 0.5);
+
+            x *= lacunarity;
+            y *= lacunarity;
+        }
+
+        out[offset] = sum;
+        out[offset + 1] = sumX;
+        out[offset + 2] = sumY;
+    }
+
+    @Override
+    public void getNoiseDerivativeRaw(long seed, double[] out, int offset, double x, double y, double z) {
+        double sum = 0, sumX = 0, sumY = 0, sumZ = 0;
+        double weight = 1;
+
+        for(int i = 0; i < octaves; i++) {
+            double amp = amplitudes[i] * weight;
+            ((DerivativeSampler) input).getSampleDerivative(seed++, out, offset, x, y, z);
+            double noise = out[offset];
+            sum += noise * amp;
+            sumX += out[offset + 1] * amp;
+            sumY += out[offset + 2] * amp;
+            sumZ += out[offset + 3] * amp;
+
+            weight *= InterpolationFunctions.lerp(weightedStrength, 1.0, (noise + 1) * 0.5);
+
+            x *= lacunarity;
+            y *= lacunarity;
+            z *= lacunarity;
+        }
+
+        out[offset] = sum;
+        out[offset + 1] = sumX;
+        out[offset + 2] = sumY;
+        out[offset + 3] = sumZ;
+    }
+
+    public static final class Builder extends ImmutableFractalNoiseFunction.Builder<Builder> {
+        private Builder(Sampler input) {
+            super(input);
+        }
+
+        @Override
+        protected Builder self() {
+            return this;
+        }
+
+        @Override
+        public ImmutableBrownianMotionSampler build() {
+            return new ImmutableBrownianMotionSampler(this);
+        }
+    }
+}
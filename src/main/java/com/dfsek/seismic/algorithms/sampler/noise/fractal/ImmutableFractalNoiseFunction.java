@@ -0,0 +1,196 @@
+package com.dfsek.seismic.algorithms.sampler.noise.fractal;
+
+import com.dfsek.seismic.algorithms.sampler.noise.ImmutableNoiseSampler;
+import com.dfsek.seismic.type.sampler.DerivativeSampler;
+import com.dfsek.seismic.type.sampler.Sampler;
+
+
+/**
+ * Immutable counterpart of {@link FractalNoiseFunction}.
+ * <p>
+ * All configuration is passed through a {@link Builder} and held in final fields, so instances can be shared between threads without
+ * synchronisation. The final fields also publish the state of {@code input} as it was when the instance was built, as long as it
+ * isn't changed afterwards. Leaf noise inputs can be given immutable configuration of their own through {@link ImmutableNoiseSampler}.
+ * <p>
+ * The fractal bounding and the amplitude of every octave before weighting are computed once. Weighted octaves, the default, scale the
+ * precomputed amplitude by the product of the weights so far, rather than scaling one running amplitude by each weight and the gain in
+ * turn, so their samples may differ from a {@link FractalNoiseFunction} with the same configuration by rounding. Samples are identical
+ * if octave weighting is disabled, which is the case for a weighted strength of exactly {@code 1}.
+ */
+public abstract class ImmutableFractalNoiseFunction implements DerivativeSampler {
+    protected final Sampler input;
+    protected final double frequency;
+    protected final long salt;
+    protected final int octaves;
+    protected final double gain;
+    protected final double lacunarity;
+    protected final double weightedStrength;
+    protected final double fractalBounding;
+    /**
+     * The amplitude of every octave before weighting.
+     */
+    protected final double[] amplitudes;
+
+    protected ImmutableFractalNoiseFunction(Builder<?> builder) {
+        this.input = builder.input;
+        this.frequency = builder.frequency;
+        this.salt = builder.salt;
+        this.octaves = builder.octaves;
+        this.gain = builder.gain;
+        this.lacunarity = builder.lacunarity;
+        this.weightedStrength = builder.weightedStrength;
+
+        // Same as FractalNoiseFunction.calculateFractalBounding
+        double absGain = Math.abs(gain);
+        double amp = absGain;
+        double ampFractal = 1.0;
+        for(int i = 1; i < octaves; i++) {
+            ampFractal += amp;
+            amp *= absGain;
+        }
+        this.fractalBounding = 1 / ampFractal;
+
+        double[] amplitudes = new double[octaves];
+        double octaveAmp = fractalBounding;
+        for(int i = 0; i < octaves; i++) {
+            amplitudes[i] = octaveAmp;
+            octaveAmp *= gain;
+        }
+        this.amplitudes = amplitudes;
+    }
+
+    public Sampler getInput() {
+        return input;
+    }
+
+    public double getFrequency() {
+        return frequency;
+    }
+
+    public long getSalt() {
+        return salt;
+    }
+
+    public int getOctaves() {
+        return octaves;
+    }
+
+    public double getGain() {
+        return gain;
+    }
+
+    public double getLacunarity() {
+        return lacunarity;
+    }
+
+    public double getWeightedStrength() {
+        return weightedStrength;
+    }
+
+    @Override
+    public double getSample(long seed, double x, double y) {
+        return getNoiseRaw(seed + salt, x * frequency, y * frequency);
+    }
+
+    @Override
+    public double getSample(long seed, double x, double y, double z) {
+        return getNoiseRaw(seed + salt, x * frequency, y * frequency, z * frequency);
+    }
+
+    @Override
+    public boolean isDifferentiable() {
+        return false;
+    }
+
+    @Override
+    public double[] getSampleDerivative(long seed, double x, double y) {
+        double[] out = new double[3];
+        getSampleDerivative(seed, out, 0, x, y);
+        return out;
+    }
+
+    @Override
+    public double[] getSampleDerivative(long seed, double x, double y, double z) {
+        double[] out = new double[4];
+        getSampleDerivative(seed, out, 0, x, y, z);
+        return out;
+    }
+
+    @Override
+    public void getSampleDerivative(long seed, double[] out, int offset, double x, double y) {
+        getNoiseDerivativeRaw(seed + salt, out, offset, x * frequency, y * frequency);
+    }
+
+    @Override
+    public void getSampleDerivative(long seed, double[] out, int offset, double x, double y, double z) {
+        getNoiseDerivativeRaw(seed + salt, out, offset, x * frequency, y * frequency, z * frequency);
+    }
+
+    public abstract double getNoiseRaw(long seed, double x, double y);
+
+    public abstract double getNoiseRaw(long seed, double x, double y, double z);
+
+    public void getNoiseDerivativeRaw(long seed, double[] out, int offset, double x, double y) {
+        throw new UnsupportedOperationException("Implementation failed to check or set isDifferentiable correctly");
+    }
+
+    public void getNoiseDerivativeRaw(long seed, double[] out, int offset, double x, double y, double z) {
+        throw new UnsupportedOperationException("Implementation failed to check or set isDifferentiable correctly");
+    }
+
+    /**
+     * Collects the configuration of an {@link ImmutableFractalNoiseFunction}. The defaults match those of {@link FractalNoiseFunction}.
+     *
+     * @param <B> the concrete builder type, returned by every setter.
+     */
+    public abstract static class Builder<B extends Builder<B>> {
+        private final Sampler input;
+        private double frequency = 1;
+        private long salt = 0;
+        private int octaves = 3;
+        private double gain = 0.5;
+        private double lacunarity = 2.0d;
+        private double weightedStrength = 0.0d;
+
+        protected Builder(Sampler input) {
+            this.input = input;
+        }
+
+        public B frequency(double frequency) {
+            this.frequency = frequency;
+            return self();
+        }
+
+        public B salt(long salt) {
+            this.salt = salt;
+            return self();
+        }
+
+        public B octaves(int octaves) {
+            if(octaves < 0) {
+                throw new IllegalArgumentException("Octaves must not be negative, got " + octaves);
+            }
+            this.octaves = octaves;
+            return self();
+        }
+
+        public B gain(double gain) {
+            this.gain = gain;
+            return self();
+        }
+
+        public B lacunarity(double lacunarity) {
+            this.lacunarity = lacunarity;
+            return self();
+        }
+
+        public B weightedStrength(double weightedStrength) {
+            this.weightedStrength = weightedStrength;
+            return self();
+        }
+
+        protected abstract B self();
+
+        public abstract ImmutableFractalNoiseFunction build();
+    }
+}
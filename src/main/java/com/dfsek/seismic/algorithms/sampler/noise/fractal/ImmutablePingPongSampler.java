@@ -0,0 +1,111 @@
+package com.dfsek.seismic.algorithms.sampler.noise.fractal;
+
+import com.dfsek.seismic.math.numericanalysis.interpolation.InterpolationFunctions;
+import com.dfsek.seismic.type.sampler.Sampler;
+
+
+/**
+ * Immutable counterpart of {@link PingPongSampler}.
+ */
+public final class ImmutablePingPongSampler extends ImmutableFractalNoiseFunction {
+    private final double pingPongStrength;
+
+    private ImmutablePingPongSampler(Builder builder) {
+        super(builder);
+        this.pingPongStrength = builder.pingPongStrength;
+    }
+
+    public static Builder builder(Sampler input) {
+        return new Builder(input);
+    }
+
+    private static double pingPong(double t) {
+        t -= (int) (t * 0.5f) << 1;
+        return t < 1 ? t : 2 - t;
+    }
+
+    public double getPingPongStrength() {
+        return pingPongStrength;
+    }
+
+    @Override
+    public double getNoiseRaw(long seed, double x, double y) {
+        double sum = 0;
+        if(weightedStrength == 1.0) {
+            for(int i = 0; i < octaves; i++) {
+                double noise = ImmutablePingPongSampler.pingPong((input.getSample(seed++, x, y) + 1) * pingPongStrength);
+                sum += (noise - 0.5) * 2 * amplitudes[i];
+
+                x *= lacunarity;
+                y *= lacunarity;
+            }
+            return sum;
+        }
+
+        double weight = 1;
+        for(int i = 0; i < octaves; i++) {
+            double amp = amplitudes[i] * weight;
+            double noise = ImmutablePingPongSampler.pingPong((input.getSample(seed++, x, y) + 1) * pingPongStrength);
+            sum += (noise - 0.5) * 2 * amp;
+            weight *= InterpolationFunctions.lerp(weightedStrength, 1.0, noise);
+
+            x *= lacunarity;
+            y *= lacunarity;
+        }
+
+        return sum;
+    }
+
+    @Override
+    public double getNoiseRaw(long seed, double x, double y, double z) {
+        double sum = 0;
+        if(weightedStrength == 1.0) {
+            for(int i = 0; i < octaves; i++) {
+                double noise = ImmutablePingPongSampler.pingPong((input.getSample(seed++, x, y, z) + 1) * pingPongStrength);
+                sum += (noise - 0.5) * 2 * amplitudes[i];
+
+                x *= lacunarity;
+                y *= lacunarity;
+                z *= lacunarity;
+            }
+            return sum;
+        }
+
+        double weight = 1;
+        for(int i = 0; i < octaves; i++) {
+            double amp = amplitudes[i] * weight;
+            double noise = ImmutablePingPongSampler.pingPong((input.getSample(seed++, x, y, z) + 1) * pingPongStrength);
+            sum += (noise - 0.5) * 2 * amp;
+            weight *= InterpolationFunctions.lerp(weightedStrength, 1.0, noise);
+
+            x *= lacunarity;
+            y *= lacunarity;
+            z *= lacunarity;
+        }
+
+        return sum;
+    }
+
+    public static final class Builder extends ImmutableFractalNoiseFunction.Builder<Builder> {
+        private double pingPongStrength = 2.0;
+
+        private Builder(Sampler input) {
+            super(input);
+        }
+
+        public Builder pingPongStrength(double pingPongStrength) {
+            this.pingPongStrength = pingPongStrength;
+            return this;
+        }
+
+        @Override
+        protected Builder self() {
+            return this;
+        }
+
+        @Override
+        public ImmutablePingPongSampler build() {
+            return new ImmutablePingPongSampler(this);
+        }
+    }
+}
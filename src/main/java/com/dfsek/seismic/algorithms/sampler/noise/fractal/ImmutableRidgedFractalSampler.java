@@ -0,0 +1,92 @@
+package com.dfsek.seismic.algorithms.sampler.noise.fractal;
+
+import com.dfsek.seismic.math.numericanalysis.interpolation.InterpolationFunctions;
+import com.dfsek.seismic.type.sampler.Sampler;
+
+
+/**
+ * Immutable counterpart of {@link RidgedFractalSampler}.
+ */
+public final class ImmutableRidgedFractalSampler extends ImmutableFractalNoiseFunction {
+    private ImmutableRidgedFractalSampler(Builder builder) {
+        super(builder);
+    }
+
+    public static Builder builder(Sampler input) {
+        return new Builder(input);
+    }
+
+    @Override
+    public double getNoiseRaw(long seed, double x, double y) {
+        double sum = 0;
+        if(weightedStrength == 1.0) {
+            for(int i = 0; i < octaves; i++) {
+                double noise = Math.abs(input.getSample(seed++, x, y));
+                sum += (noise * -2 + 1) * amplitudes[i];
+
+                x *= lacunarity;
+                y *= lacunarity;
+            }
+            return sum;
+        }
+
+        double weight = 1;
+        for(int i = 0; i < octaves; i++) {
+            double amp = amplitudes[i] * weight;
+            double noise = Math.abs(input.getSample(seed++, x, y));
+            sum += (noise * -2 + 1) * amp;
+            weight *= InterpolationFunctions.lerp(weightedStrength, 1.0, 1 - noise);
+
+            x *= lacunarity;
+            y *= lacunarity;
+        }
+
+        return sum;
+    }
+
+    @Override
+    public double getNoiseRaw(long seed, double x, double y, double z) {
+        double sum = 0;
+        if(weightedStrength == 1.0) {
+            for(int i = 0; i < octaves; i++) {
+                double noise = Math.abs(input.getSample(seed++, x, y, z));
+                sum += (noise * -2 + 1) * amplitudes[i];
+
+                x *= lacunarity;
+                y *= lacunarity;
+                z *= lacunarity;
+            }
+            return sum;
+        }
+
+        double weight = 1;
+        for(int i = 0; i < octaves; i++) {
+            double amp = amplitudes[i] * weight;
+            double noise = Math.abs(input.getSample(seed++, x, y, z));
+            sum += (noise * -2 + 1) * amp;
+            weight *= InterpolationFunctions.lerp(weightedStrength, 1.0, 1 - noise);
+
+            x *= lacunarity;
+            y *= lacunarity;
+            z *= lacunarity;
+        }
+
+        return sum;
+    }
+
+    public static final class Builder extends ImmutableFractalNoiseFunction.Builder<Builder> {
+        private Builder(Sampler input) {
+            super(input);
+        }
+
+        @Override
+        protected Builder self() {
+            return this;
+        }
+
+        @Override
+        public ImmutableRidgedFractalSampler build() {
+            return new ImmutableRidgedFractalSampler(this);
+        }
+    }
+}
@@ -24,6 +24,10 @@ public class PingPongSampler extends FractalNoiseFunction {
         return t < 1 ? t : 2 - t;
     }
 
+    public double getPingPongStrength() {
+        return pingPongStrength;
+    }
+
     public void setPingPongStrength(double strength) {
         this.pingPongStrength = strength;
     }
@@ -34,7 +38,7 @@ public class PingPongSampler extends FractalNoiseFunction {
         double amp = fractalBounding;
 
         for(int i = 0; i < octaves; i++) {
-            double noise = PingPongSampler.pingPong((input.getSample(seed++, x, y) + 1) * pingPongStrength);
+            double noise = PingPongSampler.pingPong((sampleInput(seed++, x, y) + 1) * pingPongStrength);
             sum += (noise - 0.5) * 2 * amp;
             amp *= InterpolationFunctions.lerp(weightedStrength, 1.0, noise);
 
@@ -52,7 +56,7 @@ public class PingPongSampler extends FractalNoiseFunction {
         double amp = fractalBounding;
 
         for(int i = 0; i < octaves; i++) {
-            double noise = PingPongSampler.pingPong((input.getSample(seed++, x, y, z) + 1) * pingPongStrength);
+            double noise = PingPongSampler.pingPong((sampleInput(seed++, x, y, z) + 1) * pingPongStrength);
             sum += (noise - 0.5) * 2 * amp;
             amp *= InterpolationFunctions.lerp(weightedStrength, 1.0, noise);
 
@@ -23,7 +23,7 @@ public class RidgedFractalSampler extends FractalNoiseFunction {
         double amp = fractalBounding;
 
         for(int i = 0; i < octaves; i++) {
-            double noise = Math.abs(input.getSample(seed++, x, y));
+            double noise = Math.abs(sampleInput(seed++, x, y));
             sum += (noise * -2 + 1) * amp;
             amp *= InterpolationFunctions.lerp(weightedStrength, 1.0, 1 - noise);
 
@@ -41,7 +41,7 @@ public class RidgedFractalSampler extends FractalNoiseFunction {
         double amp = fractalBounding;
 
         for(int i = 0; i < octaves; i++) {
-            double noise = Math.abs(input.getSample(seed++, x, y, z));
+            double noise = Math.abs(sampleInput(seed++, x, y, z));
             sum += (noise * -2 + 1) * amp;
             amp *= InterpolationFunctions.lerp(weightedStrength, 1.0, 1 - noise);
 
@@ -9,20 +9,75 @@ package com.dfsek.seismic.algorithms.sampler.noise.random;
 
 
 import com.dfsek.seismic.algorithms.sampler.noise.NoiseFunction;
+import com.dfsek.seismic.math.statistic.StatisticFunctions;
 
 
 /**
  * NoiseSampler implementation to provide random, normally distributed (Gaussian) noise.
+ * <p>
+ * By default samples are drawn with the Marsaglia polar method, which retries a data-dependent number of times. In
+ * {@linkplain #setFastMode(boolean) fast mode} they are instead drawn by inverse transform sampling from a single hash, at a constant
+ * cost and without branches.
  */
 public class GaussianNoiseSampler extends NoiseFunction {
+    /**
+     * Log2 of the number of equally probable intervals the inverse CDF table divides the distribution into.
+     */
+    private static final int TABLE_BITS = 12;
+    private static final int TABLE_SIZE = 1 << TABLE_BITS;
+    private static final int FRACTION_BITS = 40;
+    private static final double FRACTION_SCALE = 1.0 / (1L << FRACTION_BITS);
+    /**
+     * The inverse CDF of the standard normal distribution at every multiple of {@code 1 / TABLE_SIZE}. The infinite end points are
+     * replaced by values that keep the mean of the outermost intervals exact under linear interpolation.
+     */
+    private static final double[] INVERSE_CDF = new double[TABLE_SIZE + 1];
+
+    static {
+        for(int i = 1; i < TABLE_SIZE; i++) {
+            INVERSE_CDF[i] = StatisticFunctions.normalInverse((double) i / TABLE_SIZE, 0, 1);
+        }
+        // The mean of the normal distribution below z is -pdf(z) / cdf(z), which the interpolated interval must share.
+        double inner = INVERSE_CDF[1];
+        double density = Math.exp(-inner * inner / 2) / Math.sqrt(2 * Math.PI);
+        INVERSE_CDF[0] = -2 * TABLE_SIZE * density - inner;
+        INVERSE_CDF[TABLE_SIZE] = -INVERSE_CDF[0];
+    }
+
     private final WhiteNoiseSampler whiteNoiseSampler; // Back with a white noise sampler.
+    private boolean fastMode = false;
 
     public GaussianNoiseSampler() {
         whiteNoiseSampler = new WhiteNoiseSampler();
     }
 
+    /**
+     * Maps 64 random bits to a standard normal value. The top bits select an interval of the inverse CDF table, and the bits below
+     * them interpolate within it.
+     */
+    private static double inverseTransform(long bits) {
+        int index = (int) (bits >>> (64 - TABLE_BITS));
+        double fraction = ((bits >>> (64 - TABLE_BITS - FRACTION_BITS)) & ((1L << FRACTION_BITS) - 1)) * FRACTION_SCALE;
+        double low = INVERSE_CDF[index];
+        return low + (INVERSE_CDF[index + 1] - low) * fraction;
+    }
+
+    /**
+     * Sets whether to draw samples by inverse transform sampling. This takes one hash per sample and never branches, but produces
+     * different values than the default polar method. Values interpolate a table of the inverse CDF, so their distribution matches the
+     * standard normal to within 4e-5 of cumulative probability, and its tails are cut off at about 4 standard deviations.
+     *
+     * @param fastMode whether to use fast mode.
+     */
+    public void setFastMode(boolean fastMode) {
+        this.fastMode = fastMode;
+    }
+
     @Override
     public double getNoiseRaw(long seed, double x, double y) {
+        if(fastMode) {
+            return GaussianNoiseSampler.inverseTransform(WhiteNoiseSampler.randomBits(seed, x, y));
+        }
         double v1, v2, s;
         do {
             v1 = whiteNoiseSampler.getSample(seed++, x, y);
@@ -35,6 +90,9 @@ public class GaussianNoiseSampler extends NoiseFunction {
 
     @Override
     public double getNoiseRaw(long seed, double x, double y, double z) {
+        if(fastMode) {
+            return GaussianNoiseSampler.inverseTransform(WhiteNoiseSampler.randomBits(seed, x, y, z));
+        }
         double v1, v2, s;
         do {
             v1 = whiteNoiseSampler.getSample(seed++, x, y, z);
@@ -44,4 +102,42 @@ public class GaussianNoiseSampler extends NoiseFunction {
         double multiplier = Math.sqrt(-2 * Math.log(s) / s);
         return v1 * multiplier;
     }
+
+    @Override
+    public void getSampleGrid(long seed, double[] out, double x, double y, double stepX, double stepY, int sizeX, int sizeY) {
+        if(!fastMode) {
+            super.getSampleGrid(seed, out, x, y, stepX, stepY, sizeX, sizeY);
+            return;
+        }
+        long saltedSeed = seed + salt;
+        int index = 0;
+        for(int ix = 0; ix < sizeX; ix++) {
+            double sx = (x + ix * stepX) * frequency;
+            for(int iy = 0; iy < sizeY; iy++) {
+                out[index++] = GaussianNoiseSampler.inverseTransform(
+                    WhiteNoiseSampler.randomBits(saltedSeed, sx, (y + iy * stepY) * frequency));
+            }
+        }
+    }
+
+    @Override
+    public void getSampleGrid(long seed, double[] out, double x, double y, double z, double stepX, double stepY, double stepZ,
+                              int sizeX, int sizeY, int sizeZ) {
+        if(!fastMode) {
+            super.getSampleGrid(seed, out, x, y, z, stepX, stepY, stepZ, sizeX, sizeY, sizeZ);
+            return;
+        }
+        long saltedSeed = seed + salt;
+        int index = 0;
+        for(int ix = 0; ix < sizeX; ix++) {
+            double sx = (x + ix * stepX) * frequency;
+            for(int iy = 0; iy < sizeY; iy++) {
+                double sy = (y + iy * stepY) * frequency;
+                for(int iz = 0; iz < sizeZ; iz++) {
+                    out[index++] = GaussianNoiseSampler.inverseTransform(
+                        WhiteNoiseSampler.randomBits(saltedSeed, sx, sy, (z + iz * stepZ) * frequency));
+                }
+            }
+        }
+    }
 }
@@ -0,0 +1,109 @@
+package com.dfsek.seismic.algorithms.sampler.noise.random;
+
+import com.dfsek.seismic.algorithms.hashing.HashingFunctions;
+import jdk.incubator.vector.DoubleVector;
+import jdk.incubator.vector.LongVector;
+import jdk.incubator.vector.VectorOperators;
+import jdk.incubator.vector.VectorSpecies;
+
+
+/**
+ * {@link WhiteNoiseBatchKernel} built on the incubating Vector API.
+ * <p>
+ * Hashing is split into stages that only communicate through the output array: one combining the inputs of each lane into a single
+ * long, and one applying Murmur64 to it in place, so no vector crosses a method call. Lanes left over after the last full vector are
+ * hashed with the scalar code.
+ * <p>
+ * This class must only be loaded through {@link WhiteNoiseBatchKernels}.
+ */
+final class VectorizedWhiteNoiseKernel implements WhiteNoiseBatchKernel {
+    private static final VectorSpecies<Long> LONG = LongVector.SPECIES_PREFERRED;
+    /**
+     * Double species with the same number of lanes as {@link #LONG}.
+     */
+    private static final VectorSpecies<Double> DOUBLE = VectorizedWhiteNoiseKernel.LONG.withLanes(double.class);
+    private static final int LANES = VectorizedWhiteNoiseKernel.LONG.length();
+    private static final long MANTISSA = 0x000fffffffffffffL;
+    private static final long POSITIVE_POW1 = 0b01111111111L << 52;
+
+    @Override
+    public void randomBits(long seed, double[] x, double[] y, int from, long[] out, int offset, int length) {
+        int bound = VectorizedWhiteNoiseKernel.LONG.loopBound(length);
+        for(int n = 0; n < bound; n += VectorizedWhiteNoiseKernel.LANES) {
+            LongVector hashX = DoubleVector.fromArray(VectorizedWhiteNoiseKernel.DOUBLE, x, from + n).reinterpretAsLongs()
+                                           .lanewise(VectorOperators.XOR, seed);
+            LongVector hashZ = DoubleVector.fromArray(VectorizedWhiteNoiseKernel.DOUBLE, y, from + n).reinterpretAsLongs()
+                                           .lanewise(VectorOperators.XOR, seed);
+            hashX.lanewise(VectorOperators.XOR, hashX.lanewise(VectorOperators.LSHR, 32))
+                 .add(hashZ.lanewise(VectorOperators.XOR, hashZ.lanewise(VectorOperators.LSHR, 32)).lanewise(VectorOperators.LSHL, 32))
+                 .lanewise(VectorOperators.XOR, seed)
+                 .intoArray(out, offset + n);
+        }
+        VectorizedWhiteNoiseKernel.murmur64(out, offset, bound);
+        for(int n = bound; n < length; n++) {
+            out[offset + n] = WhiteNoiseSampler.randomBits(seed, x[from + n], y[from + n]);
+        }
+    }
+
+    @Override
+    public void randomBits(long seed, double[] x, double[] y, double[] z, int from, long[] out, int offset, int length) {
+        int bound = VectorizedWhiteNoiseKernel.LONG.loopBound(length);
+        for(int n = 0; n < bound; n += VectorizedWhiteNoiseKernel.LANES) {
+            LongVector hashX = DoubleVector.fromArray(VectorizedWhiteNoiseKernel.DOUBLE, x, from + n).reinterpretAsLongs()
+                                           .lanewise(VectorOperators.XOR, seed);
+            LongVector hashZ = DoubleVector.fromArray(VectorizedWhiteNoiseKernel.DOUBLE, y, from + n).reinterpretAsLongs()
+                                           .lanewise(VectorOperators.XOR, seed);
+            hashX.lanewise(VectorOperators.XOR, hashX.lanewise(VectorOperators.LSHR, 32))
+                 .add(hashZ.lanewise(VectorOperators.XOR, hashZ.lanewise(VectorOperators.LSHR, 32)).lanewise(VectorOperators.LSHL, 32))
+                 .lanewise(VectorOperators.XOR, seed)
+                 .add(DoubleVector.fromArray(VectorizedWhiteNoiseKernel.DOUBLE, z, from + n).reinterpretAsLongs())
+                 .intoArray(out, offset + n);
+        }
+        VectorizedWhiteNoiseKernel.murmur64(out, offset, bound);
+        for(int n = bound; n < length; n++) {
+            out[offset + n] = WhiteNoiseSampler.randomBits(seed, x[from + n], y[from + n], z[from + n]);
+        }
+    }
+
+    @Override
+    public void randomBits(long seed, long[] out, int offset, int length) {
+        int bound = VectorizedWhiteNoiseKernel.LONG.loopBound(length);
+        LongVector index = LongVector.zero(VectorizedWhiteNoiseKernel.LONG).addIndex(1);
+        for(int n = 0; n < bound; n += VectorizedWhiteNoiseKernel.LANES) {
+            index.add(seed + n).intoArray(out, offset + n);
+        }
+        VectorizedWhiteNoiseKernel.murmur64(out, offset, bound);
+        for(int n = bound; n < length; n++) {
+            out[offset + n] = HashingFunctions.murmur64(seed + n);
+        }
+    }
+
+    @Override
+    public void unmap(long[] bits, int bitsOffset, double[] out, int offset, int length) {
+        int bound = VectorizedWhiteNoiseKernel.LONG.loopBound(length);
+        for(int n = 0; n < bound; n += VectorizedWhiteNoiseKernel.LANES) {
+            LongVector.fromArray(VectorizedWhiteNoiseKernel.LONG, bits, bitsOffset + n)
+                      .and(VectorizedWhiteNoiseKernel.MANTISSA)
+                      .or(VectorizedWhiteNoiseKernel.POSITIVE_POW1)
+                      .reinterpretAsDoubles()
+                      .intoArray(out, offset + n);
+        }
+        for(int n = bound; n < length; n++) {
+            out[offset + n] = Double.longBitsToDouble(
+                (bits[bitsOffset + n] & VectorizedWhiteNoiseKernel.MANTISSA) | VectorizedWhiteNoiseKernel.POSITIVE_POW1);
+        }
+    }
+
+    /**
+     * Stage replacing the first {@code length} values from {@code offset} with their {@link HashingFunctions#murmur64(long)} hash.
+     * {@code length} must be a multiple of the lane count.
+     */
+    private static void murmur64(long[] h, int offset, int length) {
+        for(int n = 0; n < length; n += VectorizedWhiteNoiseKernel.LANES) {
+            LongVector hash = LongVector.fromArray(VectorizedWhiteNoiseKernel.LONG, h, offset + n);
+            hash = hash.lanewise(VectorOperators.XOR, hash.lanewise(VectorOperators.LSHR, 33)).mul(0xff51afd7ed558ccdL);
+            hash = hash.lanewise(VectorOperators.XOR, hash.lanewise(VectorOperators.LSHR, 33)).mul(0xc4ceb9fe1a85ec53L);
+            hash.lanewise(VectorOperators.XOR, hash.lanewise(VectorOperators.LSHR, 33)).intoArray(h, offset + n);
+        }
+    }
+}
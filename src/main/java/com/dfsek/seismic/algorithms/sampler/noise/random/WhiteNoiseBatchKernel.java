@@ -0,0 +1,57 @@
+package com.dfsek.seismic.algorithms.sampler.noise.random;
+
+
+/**
+ * Evaluates {@link WhiteNoiseSampler} hashes for many inputs at once.
+ * <p>
+ * Every value written must be bit-identical to the one returned by the matching scalar method of {@link WhiteNoiseSampler}.
+ */
+interface WhiteNoiseBatchKernel {
+    /**
+     * Compute {@link WhiteNoiseSampler#randomBits(long, double, double)} for {@code length} coordinate pairs.
+     *
+     * @param seed   the seed.
+     * @param x      X coordinates.
+     * @param y      Y coordinates.
+     * @param from   the index of the first coordinate in {@code x} and {@code y}.
+     * @param out    the array to write hashes to, starting at {@code offset}.
+     * @param offset the index of the first hash in {@code out}.
+     * @param length the number of coordinates to hash.
+     */
+    void randomBits(long seed, double[] x, double[] y, int from, long[] out, int offset, int length);
+
+    /**
+     * Compute {@link WhiteNoiseSampler#randomBits(long, double, double, double)} for {@code length} coordinate triples.
+     *
+     * @param seed   the seed.
+     * @param x      X coordinates.
+     * @param y      Y coordinates.
+     * @param z      Z coordinates.
+     * @param from   the index of the first coordinate in {@code x}, {@code y} and {@code z}.
+     * @param out    the array to write hashes to, starting at {@code offset}.
+     * @param offset the index of the first hash in {@code out}.
+     * @param length the number of coordinates to hash.
+     */
+    void randomBits(long seed, double[] x, double[] y, double[] z, int from, long[] out, int offset, int length);
+
+    /**
+     * Compute the Murmur64 hash of {@code length} consecutive seeds, starting at {@code seed}.
+     *
+     * @param seed   the first seed.
+     * @param out    the array to write hashes to, starting at {@code offset}.
+     * @param offset the index of the first hash in {@code out}.
+     * @param length the number of seeds to hash.
+     */
+    void randomBits(long seed, long[] out, int offset, int length);
+
+    /**
+     * Map {@code length} hashes to doubles in [1, 2), as {@link WhiteNoiseSampler#getNoiseUnmapped(long, double, double)} does.
+     *
+     * @param bits       the hashes.
+     * @param bitsOffset the index of the first hash in {@code bits}.
+     * @param out        the array to write doubles to, starting at {@code offset}.
+     * @param offset     the index of the first double in {@code out}.
+     * @param length     the number of hashes to map.
+     */
+    void unmap(long[] bits, int bitsOffset, double[] out, int offset, int length);
+}
@@ -0,0 +1,34 @@
+package com.dfsek.seismic.algorithms.sampler.noise.random;
+
+import com.dfsek.seismic.util.VMConstants;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+
+/**
+ * Holds the vectorised {@link WhiteNoiseBatchKernel}, if the running VM supports it.
+ * <p>
+ * The kernel is only loaded reflectively, so the {@code jdk.incubator.vector} module is never touched unless
+ * {@link VMConstants#HAS_VECTOR_API} is set. A {@code null} kernel means the scalar implementation should be used.
+ */
+final class WhiteNoiseBatchKernels {
+    private static final Logger LOGGER = LoggerFactory.getLogger(WhiteNoiseBatchKernels.class);
+
+    static final WhiteNoiseBatchKernel WHITE_NOISE = WhiteNoiseBatchKernels.load("VectorizedWhiteNoiseKernel");
+
+    private WhiteNoiseBatchKernels() {
+    }
+
+    private static WhiteNoiseBatchKernel load(String name) {
+        if(!VMConstants.HAS_VECTOR_API) {
+            return null;
+        }
+        try {
+            Class<?> kernel = Class.forName(WhiteNoiseBatchKernels.class.getPackageName() + "." + name);
+            return (WhiteNoiseBatchKernel) kernel.getDeclaredConstructor().newInstance();
+        } catch(ReflectiveOperationException | LinkageError e) {
+            WhiteNoiseBatchKernels.LOGGER.warn("Could not load vectorised kernel {}, falling back to scalar noise", name, e);
+            return null;
+        }
+    }
+}
@@ -13,8 +13,17 @@ import com.dfsek.seismic.algorithms.sampler.noise.NoiseFunction;
 
 /**
  * NoiseSampler implementation to produce random, uniformly distributed (white) noise.
+ * <p>
+ * Besides sampling single coordinates, random bits and noise can be generated for whole arrays of coordinates or consecutive seeds.
+ * These bulk methods are vectorised when {@link com.dfsek.seismic.util.VMConstants#HAS_VECTOR_API} is set, and always produce the
+ * same values as the equivalent scalar calls.
  */
 public class WhiteNoiseSampler extends NoiseFunction {
+    /**
+     * Number of values hashed per kernel call.
+     */
+    private static final int BATCH_SIZE = 256;
+    private static final ThreadLocal<Batch> BATCH = ThreadLocal.withInitial(Batch::new);
     private static final long POSITIVE_POW1 = 0b01111111111L << 52;
     // Bits that when applied to the exponent/sign section of a double, produce a positive number with a power of 1.
 
@@ -46,6 +55,162 @@ public class WhiteNoiseSampler extends NoiseFunction {
         return Double.longBitsToDouble(base);
     }
 
+    /**
+     * Computes {@link #randomBits(long, double, double)} for the first {@code length} coordinate pairs of {@code x} and {@code y}.
+     *
+     * @param seed   a seed.
+     * @param x      X coordinates.
+     * @param y      Y coordinates.
+     * @param out    the array to write the random bits to.
+     * @param length the number of coordinates.
+     */
+    public static void randomBits(long seed, double[] x, double[] y, long[] out, int length) {
+        WhiteNoiseBatchKernel kernel = WhiteNoiseBatchKernels.WHITE_NOISE;
+        if(kernel != null) {
+            kernel.randomBits(seed, x, y, 0, out, 0, length);
+            return;
+        }
+        for(int n = 0; n < length; n++) {
+            out[n] = WhiteNoiseSampler.randomBits(seed, x[n], y[n]);
+        }
+    }
+
+    /**
+     * Computes {@link #randomBits(long, double, double, double)} for the first {@code length} coordinate triples of {@code x},
+     * {@code y} and {@code z}.
+     *
+     * @param seed   a seed.
+     * @param x      X coordinates.
+     * @param y      Y coordinates.
+     * @param z      Z coordinates.
+     * @param out    the array to write the random bits to.
+     * @param length the number of coordinates.
+     */
+    public static void randomBits(long seed, double[] x, double[] y, double[] z, long[] out, int length) {
+        WhiteNoiseBatchKernel kernel = WhiteNoiseBatchKernels.WHITE_NOISE;
+        if(kernel != null) {
+            kernel.randomBits(seed, x, y, z, 0, out, 0, length);
+            return;
+        }
+        for(int n = 0; n < length; n++) {
+            out[n] = WhiteNoiseSampler.randomBits(seed, x[n], y[n], z[n]);
+        }
+    }
+
+    /**
+     * Computes the random bits behind {@link #getNoiseRaw(long)} for {@code length} consecutive seeds, so that {@code out[n]} is
+     * the Murmur64 hash of {@code seed + n}.
+     *
+     * @param seed   the first seed.
+     * @param out    the array to write the random bits to.
+     * @param length the number of seeds.
+     */
+    public static void randomBits(long seed, long[] out, int length) {
+        WhiteNoiseBatchKernel kernel = WhiteNoiseBatchKernels.WHITE_NOISE;
+        if(kernel != null) {
+            kernel.randomBits(seed, out, 0, length);
+            return;
+        }
+        for(int n = 0; n < length; n++) {
+            out[n] = HashingFunctions.murmur64(seed + n);
+        }
+    }
+
+    /**
+     * Computes {@link #getNoiseUnmapped(long, double, double)} for the first {@code length} coordinate pairs of {@code x} and
+     * {@code y}.
+     *
+     * @param seed   a seed.
+     * @param x      X coordinates.
+     * @param y      Y coordinates.
+     * @param out    the array to write noise in [1, 2) to.
+     * @param length the number of coordinates.
+     */
+    public static void getNoiseUnmapped(long seed, double[] x, double[] y, double[] out, int length) {
+        WhiteNoiseBatchKernel kernel = WhiteNoiseBatchKernels.WHITE_NOISE;
+        if(kernel == null) {
+            for(int n = 0; n < length; n++) {
+                out[n] = WhiteNoiseSampler.getNoiseUnmapped(seed, x[n], y[n]);
+            }
+            return;
+        }
+        long[] bits = WhiteNoiseSampler.BATCH.get().bits;
+        for(int from = 0; from < length; from += WhiteNoiseSampler.BATCH_SIZE) {
+            int batch = Math.min(WhiteNoiseSampler.BATCH_SIZE, length - from);
+            kernel.randomBits(seed, x, y, from, bits, 0, batch);
+            kernel.unmap(bits, 0, out, from, batch);
+        }
+    }
+
+    /**
+     * Computes {@link #getNoiseUnmapped(long, double, double, double)} for the first {@code length} coordinate triples of {@code x},
+     * {@code y} and {@code z}.
+     *
+     * @param seed   a seed.
+     * @param x      X coordinates.
+     * @param y      Y coordinates.
+     * @param z      Z coordinates.
+     * @param out    the array to write noise in [1, 2) to.
+     * @param length the number of coordinates.
+     */
+    public static void getNoiseUnmapped(long seed, double[] x, double[] y, double[] z, double[] out, int length) {
+        WhiteNoiseBatchKernel kernel = WhiteNoiseBatchKernels.WHITE_NOISE;
+        if(kernel == null) {
+            for(int n = 0; n < length; n++) {
+                out[n] = WhiteNoiseSampler.getNoiseUnmapped(seed, x[n], y[n], z[n]);
+            }
+            return;
+        }
+        long[] bits = WhiteNoiseSampler.BATCH.get().bits;
+        for(int from = 0; from < length; from += WhiteNoiseSampler.BATCH_SIZE) {
+            int batch = Math.min(WhiteNoiseSampler.BATCH_SIZE, length - from);
+            kernel.randomBits(seed, x, y, z, from, bits, 0, batch);
+            kernel.unmap(bits, 0, out, from, batch);
+        }
+    }
+
+    /**
+     * Whether the bulk methods of this sampler may use the batch kernel. Subclasses may override the scalar methods, so only this
+     * exact class is batched.
+     */
+    private boolean isBatched() {
+        return WhiteNoiseBatchKernels.WHITE_NOISE != null && getClass() == WhiteNoiseSampler.class;
+    }
+
+    /**
+     * Fills {@code out} with {@link #getNoiseRaw(long)} for {@code length} consecutive seeds, so that {@code out[n]} is the noise
+     * for {@code seed + n}.
+     *
+     * @param seed   the first seed.
+     * @param out    the array to write noise to.
+     * @param length the number of seeds.
+     */
+    public void getNoiseRaw(long seed, double[] out, int length) {
+        if(!isBatched()) {
+            for(int n = 0; n < length; n++) {
+                out[n] = getNoiseRaw(seed + n);
+            }
+            return;
+        }
+        WhiteNoiseBatchKernel kernel = WhiteNoiseBatchKernels.WHITE_NOISE;
+        long[] bits = WhiteNoiseSampler.BATCH.get().bits;
+        for(int from = 0; from < length; from += WhiteNoiseSampler.BATCH_SIZE) {
+            int batch = Math.min(WhiteNoiseSampler.BATCH_SIZE, length - from);
+            kernel.randomBits(seed + from, bits, 0, batch);
+            kernel.unmap(bits, 0, out, from, batch);
+        }
+        WhiteNoiseSampler.map(out, 0, length);
+    }
+
+    /**
+     * Maps noise in [1, 2) to [-1, 1) in place.
+     */
+    private static void map(double[] values, int offset, int length) {
+        for(int n = offset; n < offset + length; n++) {
+            values[n] = (values[n] - 1.5) * 2;
+        }
+    }
+
     public double getNoiseRaw(long seed) {
         return (Double.longBitsToDouble((HashingFunctions.murmur64(seed) & 0x000fffffffffffffL) | WhiteNoiseSampler.POSITIVE_POW1) - 1.5) *
                2;
@@ -60,4 +225,74 @@ public class WhiteNoiseSampler extends NoiseFunction {
     public double getNoiseRaw(long seed, double x, double y, double z) {
         return (WhiteNoiseSampler.getNoiseUnmapped(seed, x, y, z) - 1.5) * 2;
     }
+
+    @Override
+    public void getSampleGrid(long seed, double[] out, double x, double y, double stepX, double stepY, int sizeX, int sizeY) {
+        if(!isBatched()) {
+            super.getSampleGrid(seed, out, x, y, stepX, stepY, sizeX, sizeY);
+            return;
+        }
+        WhiteNoiseBatchKernel kernel = WhiteNoiseBatchKernels.WHITE_NOISE;
+        long saltedSeed = seed + salt;
+        Batch batch = WhiteNoiseSampler.BATCH.get();
+        int size = sizeX * sizeY;
+        int ix = 0, iy = 0;
+        for(int index = 0; index < size; index += WhiteNoiseSampler.BATCH_SIZE) {
+            int length = Math.min(WhiteNoiseSampler.BATCH_SIZE, size - index);
+            for(int n = 0; n < length; n++) {
+                batch.xs[n] = (x + ix * stepX) * frequency;
+                batch.ys[n] = (y + iy * stepY) * frequency;
+                if(++iy == sizeY) {
+                    iy = 0;
+                    ix++;
+                }
+            }
+            kernel.randomBits(saltedSeed, batch.xs, batch.ys, 0, batch.bits, 0, length);
+            kernel.unmap(batch.bits, 0, out, index, length);
+        }
+        WhiteNoiseSampler.map(out, 0, size);
+    }
+
+    @Override
+    public void getSampleGrid(long seed, double[] out, double x, double y, double z, double stepX, double stepY, double stepZ,
+                              int sizeX, int sizeY, int sizeZ) {
+        if(!isBatched()) {
+            super.getSampleGrid(seed, out, x, y, z, stepX, stepY, stepZ, sizeX, sizeY, sizeZ);
+            return;
+        }
+        WhiteNoiseBatchKernel kernel = WhiteNoiseBatchKernels.WHITE_NOISE;
+        long saltedSeed = seed + salt;
+        Batch batch = WhiteNoiseSampler.BATCH.get();
+        int size = sizeX * sizeY * sizeZ;
+        int ix = 0, iy = 0, iz = 0;
+        for(int index = 0; index < size; index += WhiteNoiseSampler.BATCH_SIZE) {
+            int length = Math.min(WhiteNoiseSampler.BATCH_SIZE, size - index);
+            for(int n = 0; n < length; n++) {
+                batch.xs[n] = (x + ix * stepX) * frequency;
+                batch.ys[n] = (y + iy * stepY) * frequency;
+                batch.zs[n] = (z + iz * stepZ) * frequency;
+                if(++iz == sizeZ) {
+                    iz = 0;
+                    if(++iy == sizeY) {
+                        iy = 0;
+                        ix++;
+                    }
+                }
+            }
+            kernel.randomBits(saltedSeed, batch.xs, batch.ys, batch.zs, 0, batch.bits, 0, length);
+            kernel.unmap(batch.bits, 0, out, index, length);
+        }
+        WhiteNoiseSampler.map(out, 0, size);
+    }
+
+
+    /**
+     * Per-thread working arrays of the bulk methods.
+     */
+    private static final class Batch {
+        private final long[] bits = new long[WhiteNoiseSampler.BATCH_SIZE];
+        private final double[] xs = new double[WhiteNoiseSampler.BATCH_SIZE];
+        private final double[] ys = new double[WhiteNoiseSampler.BATCH_SIZE];
+        private final double[] zs = new double[WhiteNoiseSampler.BATCH_SIZE];
+    }
 }
@@ -314,6 +314,13 @@ public class OpenSimplex2SSampler extends SimplexStyleSampler {
 
     @Override
     public double[] getNoiseDerivativeRaw(long sl, double x, double y) {
+        double[] out = new double[3];
+        getNoiseDerivativeRaw(sl, out, 0, x, y);
+        return out;
+    }
+
+    @Override
+    public void getNoiseDerivativeRaw(long sl, double[] out, int offset, double x, double y) {
         int seed = (int) sl;
         // 2D OpenSimplex2S case is a modified 2D simplex noise.
 
@@ -340,16 +347,14 @@ public class OpenSimplex2SSampler extends SimplexStyleSampler {
         double x0 = xi - t;
         double y0 = yi - t;
 
-        double[] out = { 0.0f, 0.0f, 0.0f };
-
         double a0 = (2.0 / 3.0) - x0 * x0 - y0 * y0;
         double aa0 = a0 * a0, aaa0 = aa0 * a0, aaaa0 = aa0 * aa0;
         int gi0 = SimplexStyleSampler.gradCoordIndex(seed, i, j);
         double gx0 = SimplexStyleSampler.GRADIENTS_2D[gi0], gy0 = SimplexStyleSampler.GRADIENTS_2D[gi0 | 1];
         double rampValue0 = gx0 * x0 + gy0 * y0;
-        out[0] = aaaa0 * rampValue0;
-        out[1] = gx0 * aaaa0 - 8 * rampValue0 * aaa0 * x0;
-        out[2] = gy0 * aaaa0 - 8 * rampValue0 * aaa0 * y0;
+        double value = aaaa0 * rampValue0;
+        double derivX = gx0 * aaaa0 - 8 * rampValue0 * aaa0 * x0;
+        double derivY = gy0 * aaaa0 - 8 * rampValue0 * aaa0 * y0;
 
 
         double a1 = 2 * (1 - 2 * G2) * (1 / G2 - 2) * t + ((-2 * (1 - 2 * G2) * (1 - 2 * G2)) + a0);
@@ -359,9 +364,9 @@ public class OpenSimplex2SSampler extends SimplexStyleSampler {
         int gi1 = SimplexStyleSampler.gradCoordIndex(seed, i1, j1);
         double gx1 = SimplexStyleSampler.GRADIENTS_2D[gi1], gy1 = SimplexStyleSampler.GRADIENTS_2D[gi1 | 1];
         double rampValue1 = gx1 * x1 + gy1 * y1;
-        out[0] += aaaa1 * rampValue1;
-        out[1] += gx1 * aaaa1 - 8 * rampValue1 * aaa1 * x1;
-        out[2] += gy1 * aaaa1 - 8 * rampValue1 * aaa1 * y1;
+        value += aaaa1 * rampValue1;
+        derivX += gx1 * aaaa1 - 8 * rampValue1 * aaa1 * x1;
+        derivY += gy1 * aaaa1 - 8 * rampValue1 * aaa1 * y1;
 
         // Nested conditionals were faster than compact bit logic/arithmetic.
         double xmyi = xi - yi;
@@ -375,9 +380,9 @@ public class OpenSimplex2SSampler extends SimplexStyleSampler {
                     int gi2 = SimplexStyleSampler.gradCoordIndex(seed, i + (NoiseFunction.PRIME_X << 1), j + NoiseFunction.PRIME_Y);
                     double gx2 = SimplexStyleSampler.GRADIENTS_2D[gi2], gy2 = SimplexStyleSampler.GRADIENTS_2D[gi2 | 1];
                     double rampValue2 = gx2 * x2 + gy2 * y2;
-                    out[0] += aaaa2 * rampValue2;
-                    out[1] += gx2 * aaaa2 - 8 * rampValue2 * aaa2 * x2;
-                    out[2] += gy2 * aaaa2 - 8 * rampValue2 * aaa2 * y2;
+                    value += aaaa2 * rampValue2;
+                    derivX += gx2 * aaaa2 - 8 * rampValue2 * aaa2 * x2;
+                    derivY += gy2 * aaaa2 - 8 * rampValue2 * aaa2 * y2;
                 }
             } else {
                 double x2 = x0 + G2;
@@ -388,9 +393,9 @@ public class OpenSimplex2SSampler extends SimplexStyleSampler {
                     int gi2 = SimplexStyleSampler.gradCoordIndex(seed, i, j + NoiseFunction.PRIME_Y);
                     double gx2 = SimplexStyleSampler.GRADIENTS_2D[gi2], gy2 = SimplexStyleSampler.GRADIENTS_2D[gi2 | 1];
                     double rampValue2 = gx2 * x2 + gy2 * y2;
-                    out[0] += aaaa2 * rampValue2;
-                    out[1] += gx2 * aaaa2 - 8 * rampValue2 * aaa2 * x2;
-                    out[2] += gy2 * aaaa2 - 8 * rampValue2 * aaa2 * y2;
+                    value += aaaa2 * rampValue2;
+                    derivX += gx2 * aaaa2 - 8 * rampValue2 * aaa2 * x2;
+                    derivY += gy2 * aaaa2 - 8 * rampValue2 * aaa2 * y2;
                 }
             }
 
@@ -403,9 +408,9 @@ public class OpenSimplex2SSampler extends SimplexStyleSampler {
                     int gi3 = SimplexStyleSampler.gradCoordIndex(seed, i + NoiseFunction.PRIME_X, j + (NoiseFunction.PRIME_Y << 1));
                     double gx3 = SimplexStyleSampler.GRADIENTS_2D[gi3], gy3 = SimplexStyleSampler.GRADIENTS_2D[gi3 | 1];
                     double rampValue3 = gx3 * x3 + gy3 * y3;
-                    out[0] += aaaa3 * rampValue3;
-                    out[1] += gx3 * aaaa3 - 8 * rampValue3 * aaa3 * x3;
-                    out[2] += gy3 * aaaa3 - 8 * rampValue3 * aaa3 * y3;
+                    value += aaaa3 * rampValue3;
+                    derivX += gx3 * aaaa3 - 8 * rampValue3 * aaa3 * x3;
+                    derivY += gy3 * aaaa3 - 8 * rampValue3 * aaa3 * y3;
                 }
             } else {
                 double x3 = x0 + (G2 - 1);
@@ -416,9 +421,9 @@ public class OpenSimplex2SSampler extends SimplexStyleSampler {
                     int gi3 = SimplexStyleSampler.gradCoordIndex(seed, i + NoiseFunction.PRIME_X, j);
                     double gx3 = SimplexStyleSampler.GRADIENTS_2D[gi3], gy3 = SimplexStyleSampler.GRADIENTS_2D[gi3 | 1];
                     double rampValue3 = gx3 * x3 + gy3 * y3;
-                    out[0] += aaaa3 * rampValue3;
-                    out[1] += gx3 * aaaa3 - 8 * rampValue3 * aaa3 * x3;
-                    out[2] += gy3 * aaaa3 - 8 * rampValue3 * aaa3 * y3;
+                    value += aaaa3 * rampValue3;
+                    derivX += gx3 * aaaa3 - 8 * rampValue3 * aaa3 * x3;
+                    derivY += gy3 * aaaa3 - 8 * rampValue3 * aaa3 * y3;
                 }
             }
         } else {
@@ -431,9 +436,9 @@ public class OpenSimplex2SSampler extends SimplexStyleSampler {
                     int gi2 = SimplexStyleSampler.gradCoordIndex(seed, i - NoiseFunction.PRIME_X, j);
                     double gx2 = SimplexStyleSampler.GRADIENTS_2D[gi2], gy2 = SimplexStyleSampler.GRADIENTS_2D[gi2 | 1];
                     double rampValue2 = gx2 * x2 + gy2 * y2;
-                    out[0] += aaaa2 * rampValue2;
-                    out[1] += gx2 * aaaa2 - 8 * rampValue2 * aaa2 * x2;
-                    out[2] += gy2 * aaaa2 - 8 * rampValue2 * aaa2 * y2;
+                    value += aaaa2 * rampValue2;
+                    derivX += gx2 * aaaa2 - 8 * rampValue2 * aaa2 * x2;
+                    derivY += gy2 * aaaa2 - 8 * rampValue2 * aaa2 * y2;
                 }
             } else {
                 double x2 = x0 + (G2 - 1);
@@ -444,9 +449,9 @@ public class OpenSimplex2SSampler extends SimplexStyleSampler {
                     int gi2 = SimplexStyleSampler.gradCoordIndex(seed, i + NoiseFunction.PRIME_X, j);
                     double gx2 = SimplexStyleSampler.GRADIENTS_2D[gi2], gy2 = SimplexStyleSampler.GRADIENTS_2D[gi2 | 1];
                     double rampValue2 = gx2 * x2 + gy2 * y2;
-                    out[0] += aaaa2 * rampValue2;
-                    out[1] += gx2 * aaaa2 - 8 * rampValue2 * aaa2 * x2;
-                    out[2] += gy2 * aaaa2 - 8 * rampValue2 * aaa2 * y2;
+                    value += aaaa2 * rampValue2;
+                    derivX += gx2 * aaaa2 - 8 * rampValue2 * aaa2 * x2;
+                    derivY += gy2 * aaaa2 - 8 * rampValue2 * aaa2 * y2;
                 }
             }
 
@@ -459,9 +464,9 @@ public class OpenSimplex2SSampler extends SimplexStyleSampler {
                     int gi2 = SimplexStyleSampler.gradCoordIndex(seed, i, j - NoiseFunction.PRIME_Y);
                     double gx2 = SimplexStyleSampler.GRADIENTS_2D[gi2], gy2 = SimplexStyleSampler.GRADIENTS_2D[gi2 | 1];
                     double rampValue2 = gx2 * x2 + gy2 * y2;
-                    out[0] += aaaa2 * rampValue2;
-                    out[1] += gx2 * aaaa2 - 8 * rampValue2 * aaa2 * x2;
-                    out[2] += gy2 * aaaa2 - 8 * rampValue2 * aaa2 * y2;
+                    value += aaaa2 * rampValue2;
+                    derivX += gx2 * aaaa2 - 8 * rampValue2 * aaa2 * x2;
+                    derivY += gy2 * aaaa2 - 8 * rampValue2 * aaa2 * y2;
                 }
             } else {
                 double x2 = x0 + G2;
@@ -472,20 +477,26 @@ public class OpenSimplex2SSampler extends SimplexStyleSampler {
                     int gi2 = SimplexStyleSampler.gradCoordIndex(seed, i, j + NoiseFunction.PRIME_Y);
                     double gx2 = SimplexStyleSampler.GRADIENTS_2D[gi2], gy2 = SimplexStyleSampler.GRADIENTS_2D[gi2 | 1];
                     double rampValue2 = gx2 * x2 + gy2 * y2;
-                    out[0] += aaaa2 * rampValue2;
-                    out[1] += gx2 * aaaa2 - 8 * rampValue2 * aaa2 * x2;
-                    out[2] += gy2 * aaaa2 - 8 * rampValue2 * aaa2 * y2;
+                    value += aaaa2 * rampValue2;
+                    derivX += gx2 * aaaa2 - 8 * rampValue2 * aaa2 * x2;
+                    derivY += gy2 * aaaa2 - 8 * rampValue2 * aaa2 * y2;
                 }
             }
         }
-        out[0] *= 18.24196194486065;
-        out[1] *= 18.24196194486065;
-        out[2] *= 18.24196194486065;
-        return out;
+        out[offset] = value * 18.24196194486065;
+        out[offset + 1] = derivX * 18.24196194486065;
+        out[offset + 2] = derivY * 18.24196194486065;
     }
 
     @Override
     public double[] getNoiseDerivativeRaw(long sl, double x, double y, double z) {
+        double[] out = new double[4];
+        getNoiseDerivativeRaw(sl, out, 0, x, y, z);
+        return out;
+    }
+
+    @Override
+    public void getNoiseDerivativeRaw(long sl, double[] out, int offset, double x, double y, double z) {
         int seed = (int) sl;
         // 3D OpenSimplex2S case uses two offset rotated cube grids.
         final double R3 = (2.0 / 3.0);
@@ -511,8 +522,6 @@ public class OpenSimplex2SSampler extends SimplexStyleSampler {
         int yNMask = (int) (-0.5 - yi);
         int zNMask = (int) (-0.5 - zi);
 
-        double[] out = { 0.0f, 0.0f, 0.0f, 0.0f };
-
         double x0 = xi + xNMask;
         double y0 = yi + yNMask;
         double z0 = zi + zNMask;
@@ -523,10 +532,10 @@ public class OpenSimplex2SSampler extends SimplexStyleSampler {
         double gx0 = SimplexStyleSampler.GRADIENTS_3D[gi0], gy0 = SimplexStyleSampler.GRADIENTS_3D[gi0 | 1], gz0 =
             SimplexStyleSampler.GRADIENTS_3D[gi0 | 2];
         double rampValue0 = gx0 * x0 + gy0 * y0 + gz0 * z0;
-        out[0] = aaaa0 * rampValue0;
-        out[1] = gx0 * aaaa0 - 8 * rampValue0 * aaa0 * x0;
-        out[2] = gy0 * aaaa0 - 8 * rampValue0 * aaa0 * y0;
-        out[3] = gz0 * aaaa0 - 8 * rampValue0 * aaa0 * z0;
+        double value = aaaa0 * rampValue0;
+        double derivX = gx0 * aaaa0 - 8 * rampValue0 * aaa0 * x0;
+        double derivY = gy0 * aaaa0 - 8 * rampValue0 * aaa0 * y0;
+        double derivZ = gz0 * aaaa0 - 8 * rampValue0 * aaa0 * z0;
 
         double x1 = xi - 0.5;
         double y1 = yi - 0.5;
@@ -538,10 +547,10 @@ public class OpenSimplex2SSampler extends SimplexStyleSampler {
         double gx1 = SimplexStyleSampler.GRADIENTS_3D[gi1], gy1 = SimplexStyleSampler.GRADIENTS_3D[gi1 | 1], gz1 =
             SimplexStyleSampler.GRADIENTS_3D[gi1 | 2];
         double rampValue1 = gx1 * x1 + gy1 * y1 + gz1 * z1;
-        out[0] += aaaa1 * rampValue1;
-        out[1] += gx1 * aaaa1 - 8 * rampValue1 * aaa1 * x1;
-        out[2] += gy1 * aaaa1 - 8 * rampValue1 * aaa1 * y1;
-        out[3] += gz1 * aaaa1 - 8 * rampValue1 * aaa1 * z1;
+        value += aaaa1 * rampValue1;
+        derivX += gx1 * aaaa1 - 8 * rampValue1 * aaa1 * x1;
+        derivY += gy1 * aaaa1 - 8 * rampValue1 * aaa1 * y1;
+        derivZ += gz1 * aaaa1 - 8 * rampValue1 * aaa1 * z1;
 
         double xAFlipMask0 = ((xNMask | 1) << 1) * x1;
         double yAFlipMask0 = ((yNMask | 1) << 1) * y1;
@@ -560,10 +569,10 @@ public class OpenSimplex2SSampler extends SimplexStyleSampler {
             double gx2 = SimplexStyleSampler.GRADIENTS_3D[gi2], gy2 = SimplexStyleSampler.GRADIENTS_3D[gi2 | 1], gz2 =
                 SimplexStyleSampler.GRADIENTS_3D[gi2 | 2];
             double rampValue2 = gx2 * x2 + gy2 * y0 + gz2 * z0;
-            out[0] += aaaa2 * rampValue2;
-            out[1] += gx2 * aaaa2 - 8 * rampValue2 * aaa2 * x2;
-            out[2] += gy2 * aaaa2 - 8 * rampValue2 * aaa2 * y0;
-            out[3] += gz2 * aaaa2 - 8 * rampValue2 * aaa2 * z0;
+            value += aaaa2 * rampValue2;
+            derivX += gx2 * aaaa2 - 8 * rampValue2 * aaa2 * x2;
+            derivY += gy2 * aaaa2 - 8 * rampValue2 * aaa2 * y0;
+            derivZ += gz2 * aaaa2 - 8 * rampValue2 * aaa2 * z0;
         } else {
             double a3 = yAFlipMask0 + zAFlipMask0 + a0;
             if(a3 > 0) {
@@ -575,10 +584,10 @@ public class OpenSimplex2SSampler extends SimplexStyleSampler {
                 double gx3 = SimplexStyleSampler.GRADIENTS_3D[gi3], gy3 = SimplexStyleSampler.GRADIENTS_3D[gi3 | 1], gz3 =
                     SimplexStyleSampler.GRADIENTS_3D[gi3 | 2];
                 double rampValue3 = gx3 * x0 + gy3 * y3 + gz3 * z3;
-                out[0] += aaaa3 * rampValue3;
-                out[1] += gx3 * aaaa3 - 8 * rampValue3 * aaa3 * x0;
-                out[2] += gy3 * aaaa3 - 8 * rampValue3 * aaa3 * y3;
-                out[3] += gz3 * aaaa3 - 8 * rampValue3 * aaa3 * z3;
+                value += aaaa3 * rampValue3;
+                derivX += gx3 * aaaa3 - 8 * rampValue3 * aaa3 * x0;
+                derivY += gy3 * aaaa3 - 8 * rampValue3 * aaa3 * y3;
+                derivZ += gz3 * aaaa3 - 8 * rampValue3 * aaa3 * z3;
             }
 
             double a4 = xAFlipMask1 + a1;
@@ -590,10 +599,10 @@ public class OpenSimplex2SSampler extends SimplexStyleSampler {
                 double gx4 = SimplexStyleSampler.GRADIENTS_3D[gi4], gy4 = SimplexStyleSampler.GRADIENTS_3D[gi4 | 1], gz4 =
                     SimplexStyleSampler.GRADIENTS_3D[gi4 | 2];
                 double rampValue4 = gx4 * x4 + gy4 * y1 + gz4 * z1;
-                out[0] += aaaa4 * rampValue4;
-                out[1] += gx4 * aaaa4 - 8 * rampValue4 * aaa4 * x4;
-                out[2] += gy4 * aaaa4 - 8 * rampValue4 * aaa4 * y1;
-                out[3] += gz4 * aaaa4 - 8 * rampValue4 * aaa4 * z1;
+                value += aaaa4 * rampValue4;
+                derivX += gx4 * aaaa4 - 8 * rampValue4 * aaa4 * x4;
+                derivY += gy4 * aaaa4 - 8 * rampValue4 * aaa4 * y1;
+                derivZ += gz4 * aaaa4 - 8 * rampValue4 * aaa4 * z1;
                 skip5 = true;
             }
         }
@@ -608,10 +617,10 @@ public class OpenSimplex2SSampler extends SimplexStyleSampler {
             double gx6 = SimplexStyleSampler.GRADIENTS_3D[gi6], gy6 = SimplexStyleSampler.GRADIENTS_3D[gi6 | 1], gz6 =
                 SimplexStyleSampler.GRADIENTS_3D[gi6 | 2];
             double rampValue6 = gx6 * x0 + gy6 * y6 + gz6 * z0;
-            out[0] += aaaa6 * rampValue6;
-            out[1] += gx6 * aaaa6 - 8 * rampValue6 * aaa6 * x0;
-            out[2] += gy6 * aaaa6 - 8 * rampValue6 * aaa6 * y6;
-            out[3] += gz6 * aaaa6 - 8 * rampValue6 * aaa6 * z0;
+            value += aaaa6 * rampValue6;
+            derivX += gx6 * aaaa6 - 8 * rampValue6 * aaa6 * x0;
+            derivY += gy6 * aaaa6 - 8 * rampValue6 * aaa6 * y6;
+            derivZ += gz6 * aaaa6 - 8 * rampValue6 * aaa6 * z0;
         } else {
             double a7 = xAFlipMask0 + zAFlipMask0 + a0;
             if(a7 > 0) {
@@ -623,10 +632,10 @@ public class OpenSimplex2SSampler extends SimplexStyleSampler {
                 double gx7 = SimplexStyleSampler.GRADIENTS_3D[gi7], gy7 = SimplexStyleSampler.GRADIENTS_3D[gi7 | 1], gz7 =
                     SimplexStyleSampler.GRADIENTS_3D[gi7 | 2];
                 double rampValue7 = gx7 * x7 + gy7 * y0 + gz7 * z7;
-                out[0] += aaaa7 * rampValue7;
-                out[1] += gx7 * aaaa7 - 8 * rampValue7 * aaa7 * x7;
-                out[2] += gy7 * aaaa7 - 8 * rampValue7 * aaa7 * y0;
-                out[3] += gz7 * aaaa7 - 8 * rampValue7 * aaa7 * z7;
+                value += aaaa7 * rampValue7;
+                derivX += gx7 * aaaa7 - 8 * rampValue7 * aaa7 * x7;
+                derivY += gy7 * aaaa7 - 8 * rampValue7 * aaa7 * y0;
+                derivZ += gz7 * aaaa7 - 8 * rampValue7 * aaa7 * z7;
             }
 
             double a8 = yAFlipMask1 + a1;
@@ -638,10 +647,10 @@ public class OpenSimplex2SSampler extends SimplexStyleSampler {
                 double gx8 = SimplexStyleSampler.GRADIENTS_3D[gi8], gy8 = SimplexStyleSampler.GRADIENTS_3D[gi8 | 1], gz8 =
                     SimplexStyleSampler.GRADIENTS_3D[gi8 | 2];
                 double rampValue8 = gx8 * x1 + gy8 * y8 + gz8 * z1;
-                out[0] += aaaa8 * rampValue8;
-                out[1] += gx8 * aaaa8 - 8 * rampValue8 * aaa8 * x1;
-                out[2] += gy8 * aaaa8 - 8 * rampValue8 * aaa8 * y8;
-                out[3] += gz8 * aaaa8 - 8 * rampValue8 * aaa8 * z1;
+                value += aaaa8 * rampValue8;
+                derivX += gx8 * aaaa8 - 8 * rampValue8 * aaa8 * x1;
+                derivY += gy8 * aaaa8 - 8 * rampValue8 * aaa8 * y8;
+                derivZ += gz8 * aaaa8 - 8 * rampValue8 * aaa8 * z1;
                 skip9 = true;
             }
         }
@@ -656,10 +665,10 @@ public class OpenSimplex2SSampler extends SimplexStyleSampler {
             double gxA = SimplexStyleSampler.GRADIENTS_3D[giA], gyA = SimplexStyleSampler.GRADIENTS_3D[giA | 1], gzA =
                 SimplexStyleSampler.GRADIENTS_3D[giA | 2];
             double rampValueA = gxA * x0 + gyA * y0 + gzA * zA;
-            out[0] += aaaaA * rampValueA;
-            out[1] += gxA * aaaaA - 8 * rampValueA * aaaA * x0;
-            out[2] += gyA * aaaaA - 8 * rampValueA * aaaA * y0;
-            out[3] += gzA * aaaaA - 8 * rampValueA * aaaA * zA;
+            value += aaaaA * rampValueA;
+            derivX += gxA * aaaaA - 8 * rampValueA * aaaA * x0;
+            derivY += gyA * aaaaA - 8 * rampValueA * aaaA * y0;
+            derivZ += gzA * aaaaA - 8 * rampValueA * aaaA * zA;
         } else {
             double aB = xAFlipMask0 + yAFlipMask0 + a0;
             if(aB > 0) {
@@ -671,10 +680,10 @@ public class OpenSimplex2SSampler extends SimplexStyleSampler {
                 double gxB = SimplexStyleSampler.GRADIENTS_3D[giB], gyB = SimplexStyleSampler.GRADIENTS_3D[giB | 1], gzB =
                     SimplexStyleSampler.GRADIENTS_3D[giB | 2];
                 double rampValueB = gxB * xB + gyB * yB + gzB * z0;
-                out[0] += aaaaB * rampValueB;
-                out[1] += gxB * aaaaB - 8 * rampValueB * aaaB * xB;
-                out[2] += gyB * aaaaB - 8 * rampValueB * aaaB * yB;
-                out[3] += gzB * aaaaB - 8 * rampValueB * aaaB * z0;
+                value += aaaaB * rampValueB;
+                derivX += gxB * aaaaB - 8 * rampValueB * aaaB * xB;
+                derivY += gyB * aaaaB - 8 * rampValueB * aaaB * yB;
+                derivZ += gzB * aaaaB - 8 * rampValueB * aaaB * z0;
             }
 
             double aC = zAFlipMask1 + a1;
@@ -686,10 +695,10 @@ public class OpenSimplex2SSampler extends SimplexStyleSampler {
                 double gxC = SimplexStyleSampler.GRADIENTS_3D[giC], gyC = SimplexStyleSampler.GRADIENTS_3D[giC | 1], gzC =
                     SimplexStyleSampler.GRADIENTS_3D[giC | 2];
                 double rampValueC = gxC * x1 + gyC * y1 + gzC * zC;
-                out[0] += aaaaC * rampValueC;
-                out[1] += gxC * aaaaC - 8 * rampValueC * aaaC * x1;
-                out[2] += gyC * aaaaC - 8 * rampValueC * aaaC * y1;
-                out[3] += gzC * aaaaC - 8 * rampValueC * aaaC * zC;
+                value += aaaaC * rampValueC;
+                derivX += gxC * aaaaC - 8 * rampValueC * aaaC * x1;
+                derivY += gyC * aaaaC - 8 * rampValueC * aaaC * y1;
+                derivZ += gzC * aaaaC - 8 * rampValueC * aaaC * zC;
                 skipD = true;
             }
         }
@@ -705,10 +714,10 @@ public class OpenSimplex2SSampler extends SimplexStyleSampler {
                 double gx5 = SimplexStyleSampler.GRADIENTS_3D[gi5], gy5 = SimplexStyleSampler.GRADIENTS_3D[gi5 | 1], gz5 =
                     SimplexStyleSampler.GRADIENTS_3D[gi5 | 2];
                 double rampValue5 = gx5 * x1 + gy5 * y5 + gz5 * z5;
-                out[0] += aaaa5 * rampValue5;
-                out[1] += gx5 * aaaa5 - 8 * rampValue5 * aaa5 * x1;
-                out[2] += gy5 * aaaa5 - 8 * rampValue5 * aaa5 * y5;
-                out[3] += gz5 * aaaa5 - 8 * rampValue5 * aaa5 * z5;
+                value += aaaa5 * rampValue5;
+                derivX += gx5 * aaaa5 - 8 * rampValue5 * aaa5 * x1;
+                derivY += gy5 * aaaa5 - 8 * rampValue5 * aaa5 * y5;
+                derivZ += gz5 * aaaa5 - 8 * rampValue5 * aaa5 * z5;
             }
         }
 
@@ -723,10 +732,10 @@ public class OpenSimplex2SSampler extends SimplexStyleSampler {
                 double gx9 = SimplexStyleSampler.GRADIENTS_3D[gi9], gy9 = SimplexStyleSampler.GRADIENTS_3D[gi9 | 1], gz9 =
                     SimplexStyleSampler.GRADIENTS_3D[gi9 | 2];
                 double rampValue9 = gx9 * x9 + gy9 * y1 + gz9 * z9;
-                out[0] += aaaa9 * rampValue9;
-                out[1] += gx9 * aaaa9 - 8 * rampValue9 * aaa9 * x9;
-                out[2] += gy9 * aaaa9 - 8 * rampValue9 * aaa9 * y1;
-                out[3] += gz9 * aaaa9 - 8 * rampValue9 * aaa9 * z9;
+                value += aaaa9 * rampValue9;
+                derivX += gx9 * aaaa9 - 8 * rampValue9 * aaa9 * x9;
+                derivY += gy9 * aaaa9 - 8 * rampValue9 * aaa9 * y1;
+                derivZ += gz9 * aaaa9 - 8 * rampValue9 * aaa9 * z9;
             }
         }
 
@@ -741,17 +750,34 @@ public class OpenSimplex2SSampler extends SimplexStyleSampler {
                 double gxD = SimplexStyleSampler.GRADIENTS_3D[giD], gyD = SimplexStyleSampler.GRADIENTS_3D[giD | 1], gzD =
                     SimplexStyleSampler.GRADIENTS_3D[giD | 2];
                 double rampValueD = gxD * xD + gyD * yD + gzD * z1;
-                out[0] += aaaaD * rampValueD;
-                out[1] += gxD * aaaaD - 8 * rampValueD * aaaD * xD;
-                out[2] += gyD * aaaaD - 8 * rampValueD * aaaD * yD;
-                out[3] += gzD * aaaaD - 8 * rampValueD * aaaD * z1;
+                value += aaaaD * rampValueD;
+                derivX += gxD * aaaaD - 8 * rampValueD * aaaD * xD;
+                derivY += gyD * aaaaD - 8 * rampValueD * aaaD * yD;
+                derivZ += gzD * aaaaD - 8 * rampValueD * aaaD * z1;
             }
         }
 
-        out[0] *= 9.046026385208288;
-        out[1] *= 9.046026385208288;
-        out[2] *= 9.046026385208288;
-        out[3] *= 9.046026385208288;
-        return out;
+        out[offset] = value * 9.046026385208288;
+        out[offset + 1] = derivX * 9.046026385208288;
+        out[offset + 2] = derivY * 9.046026385208288;
+        out[offset + 3] = derivZ * 9.046026385208288;
+    }
+
+    @Override
+    protected void getNoiseRawGrid(long seed, double[] out, double x, double y, double stepX, double stepY, int sizeX, int sizeY) {
+        SimplexBatchKernel kernel = batchKernel();
+        if(kernel == null) {
+            super.getNoiseRawGrid(seed, out, x, y, stepX, stepY, sizeX, sizeY);
+            return;
+        }
+        SimplexBatchKernels.getSampleGrid(kernel, (int) seed, frequency, out, x, y, stepX, stepY, sizeX, sizeY);
+    }
+
+    /**
+     * The vectorised kernel to fill 2D grids with, or {@code null} to use the scalar implementation.
+     * Subclasses may override {@code getNoiseRaw}, so only this exact class is batched.
+     */
+    private SimplexBatchKernel batchKernel() {
+        return getClass() == OpenSimplex2SSampler.class ? SimplexBatchKernels.OPEN_SIMPLEX_2S : null;
     }
 }
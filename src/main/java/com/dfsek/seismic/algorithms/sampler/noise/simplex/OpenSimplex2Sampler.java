@@ -169,6 +169,185 @@ public class OpenSimplex2Sampler extends SimplexStyleSampler {
         return value * 32.69428253173828125;
     }
 
+    /**
+     * {@inheritDoc}
+     * <p>
+     * Subclasses may override {@code getNoiseRaw}, so only this exact class shares channels.
+     */
+    @Override
+    public boolean sharesChannels() {
+        return getClass() == OpenSimplex2Sampler.class;
+    }
+
+    /**
+     * {@inheritDoc}
+     * <p>
+     * The lattice search and the falloff of every corner do not depend on the seed, so they are computed once, and only the gradients
+     * are looked up per channel.
+     */
+    @Override
+    public void getNoiseRawChannels(long sl, double[] out, int offset, int channels, double x, double y) {
+        double s = (x + y) * OpenSimplex2Sampler.F2;
+        x += s;
+        y += s;
+
+
+        int i = FloatingPointFunctions.floor(x);
+        int j = FloatingPointFunctions.floor(y);
+        double xi = x - i;
+        double yi = y - j;
+
+        double t = (xi + yi) * OpenSimplex2Sampler.G2;
+        double x0 = xi - t;
+        double y0 = yi - t;
+
+        i *= NoiseFunction.PRIME_X;
+        j *= NoiseFunction.PRIME_Y;
+
+        double a = 0.5 - x0 * x0 - y0 * y0;
+        double falloffA = (a * a) * (a * a);
+        for(int n = 0; n < channels; n++) {
+            out[offset + n] = a > 0 ? falloffA * SimplexStyleSampler.gradCoord((int) (sl + n), i, j, x0, y0) : 0;
+        }
+
+
+        double c = ArithmeticFunctions.fma((2 * (1 - 2 * OpenSimplex2Sampler.G2) * (1 / OpenSimplex2Sampler.G2 - 2)), t,
+            ((-2 * (1 - 2 * OpenSimplex2Sampler.G2) * (1 - 2 * OpenSimplex2Sampler.G2)) + a));
+        if(c > 0) {
+            double x2 = x0 + (2 * OpenSimplex2Sampler.G2 - 1);
+            double y2 = y0 + (2 * OpenSimplex2Sampler.G2 - 1);
+            double falloff = (c * c) * (c * c);
+            for(int n = 0; n < channels; n++) {
+                out[offset + n] = ArithmeticFunctions.fma(falloff,
+                    SimplexStyleSampler.gradCoord((int) (sl + n), i + NoiseFunction.PRIME_X, j + NoiseFunction.PRIME_Y, x2, y2),
+                    out[offset + n]);
+            }
+        }
+
+        double x1, y1;
+        int i1 = i, j1 = j;
+        if(y0 > x0) {
+            x1 = x0 + OpenSimplex2Sampler.G2;
+            y1 = y0 + (OpenSimplex2Sampler.G2 - 1);
+            j1 += NoiseFunction.PRIME_Y;
+        } else {
+            x1 = x0 + (OpenSimplex2Sampler.G2 - 1);
+            y1 = y0 + OpenSimplex2Sampler.G2;
+            i1 += NoiseFunction.PRIME_X;
+        }
+        double b = 0.5 - x1 * x1 - y1 * y1;
+        if(b > 0) {
+            double falloff = (b * b) * (b * b);
+            for(int n = 0; n < channels; n++) {
+                out[offset + n] = ArithmeticFunctions.fma(falloff, SimplexStyleSampler.gradCoord((int) (sl + n), i1, j1, x1, y1),
+                    out[offset + n]);
+            }
+        }
+
+        for(int n = 0; n < channels; n++) {
+            out[offset + n] *= 99.83685446303647f;
+        }
+    }
+
+    /**
+     * {@inheritDoc}
+     * <p>
+     * The lattice search and the falloff of every corner do not depend on the seed, so they are computed once, and only the gradients
+     * are looked up per channel.
+     */
+    @Override
+    public void getNoiseRawChannels(long sl, double[] out, int offset, int channels, double x, double y, double z) {
+        double r = (x + y + z) * OpenSimplex2Sampler.R3; // Rotation, not skew
+        x = r - x;
+        y = r - y;
+        z = r - z;
+
+
+        int i = FloatingPointFunctions.round(x);
+        int j = FloatingPointFunctions.round(y);
+        int k = FloatingPointFunctions.round(z);
+        double x0 = x - i;
+        double y0 = y - j;
+        double z0 = z - k;
+
+        int xNSign = (int) (-1.0 - x0) | 1;
+        int yNSign = (int) (-1.0 - y0) | 1;
+        int zNSign = (int) (-1.0 - z0) | 1;
+
+        double ax0 = xNSign * -x0;
+        double ay0 = yNSign * -y0;
+        double az0 = zNSign * -z0;
+
+        i *= NoiseFunction.PRIME_X;
+        j *= NoiseFunction.PRIME_Y;
+        k *= NoiseFunction.PRIME_Z;
+
+        for(int n = 0; n < channels; n++) {
+            out[offset + n] = 0;
+        }
+        double a = (0.6f - x0 * x0) - ArithmeticFunctions.fma(y0, y0, z0 * z0);
+
+        for(int l = 0; ; l++) {
+            // The second lattice is hashed with the complement of each channel's seed.
+            int flip = -l;
+            if(a > 0) {
+                double falloff = (a * a) * (a * a);
+                for(int n = 0; n < channels; n++) {
+                    out[offset + n] += falloff * SimplexStyleSampler.gradCoord((int) (sl + n) ^ flip, i, j, k, x0, y0, z0);
+                }
+            }
+
+            double b;
+            int bi = i, bj = j, bk = k;
+            double bx = x0, by = y0, bz = z0;
+            if(ax0 >= ay0 && ax0 >= az0) {
+                b = a + ax0 + ax0;
+                bi -= xNSign * NoiseFunction.PRIME_X;
+                bx += xNSign;
+            } else if(ay0 > ax0 && ay0 >= az0) {
+                b = a + ay0 + ay0;
+                bj -= yNSign * NoiseFunction.PRIME_Y;
+                by += yNSign;
+            } else {
+                b = a + az0 + az0;
+                bk -= zNSign * NoiseFunction.PRIME_Z;
+                bz += zNSign;
+            }
+            if(b > 1) {
+                b -= 1;
+                double falloff = (b * b) * (b * b);
+                for(int n = 0; n < channels; n++) {
+                    out[offset + n] = ArithmeticFunctions.fma(falloff,
+                        SimplexStyleSampler.gradCoord((int) (sl + n) ^ flip, bi, bj, bk, bx, by, bz), out[offset + n]);
+                }
+            }
+
+            if(l == 1) break;
+
+            ax0 = 0.5 - ax0;
+            ay0 = 0.5 - ay0;
+            az0 = 0.5 - az0;
+
+            x0 = xNSign * ax0;
+            y0 = yNSign * ay0;
+            z0 = zNSign * az0;
+
+            a += (0.75 - ax0) - (ay0 + az0);
+
+            i += (xNSign >> 1) & NoiseFunction.PRIME_X;
+            j += (yNSign >> 1) & NoiseFunction.PRIME_Y;
+            k += (zNSign >> 1) & NoiseFunction.PRIME_Z;
+
+            xNSign = -xNSign;
+            yNSign = -yNSign;
+            zNSign = -zNSign;
+        }
+
+        for(int n = 0; n < channels; n++) {
+            out[offset + n] *= 32.69428253173828125;
+        }
+    }
+
     @Override
     public boolean isDifferentiable() {
         return true;
@@ -176,6 +355,13 @@ public class OpenSimplex2Sampler extends SimplexStyleSampler {
 
     @Override
     public double[] getNoiseDerivativeRaw(long sl, double x, double y) {
+        double[] out = new double[3];
+        getNoiseDerivativeRaw(sl, out, 0, x, y);
+        return out;
+    }
+
+    @Override
+    public void getNoiseDerivativeRaw(long sl, double[] out, int offset, double x, double y) {
         int seed = (int) sl;
         // 2D OpenSimplex2 case uses the same algorithm as ordinary Simplex.
         double s = (x + y) * OpenSimplex2Sampler.F2;
@@ -195,7 +381,7 @@ public class OpenSimplex2Sampler extends SimplexStyleSampler {
         i *= NoiseFunction.PRIME_X;
         j *= NoiseFunction.PRIME_Y;
 
-        double[] out = { 0.0f, 0.0f, 0.0f };
+        double value = 0, derivX = 0, derivY = 0;
 
         double a = 0.5 - x0 * x0 - y0 * y0;
         if(a > 0) {
@@ -203,9 +389,9 @@ public class OpenSimplex2Sampler extends SimplexStyleSampler {
             int gi = SimplexStyleSampler.gradCoordIndex(seed, i, j);
             double gx = SimplexStyleSampler.GRADIENTS_2D[gi], gy = SimplexStyleSampler.GRADIENTS_2D[gi | 1];
             double rampValue = ArithmeticFunctions.fma(gx, x0, gy * y0);
-            out[0] = ArithmeticFunctions.fma(aaaa, rampValue, out[0]);
-            out[1] = ArithmeticFunctions.fma(ArithmeticFunctions.fma(gx, aaaa, -8 * rampValue * aaa), x0, out[1]);
-            out[2] = ArithmeticFunctions.fma(ArithmeticFunctions.fma(gy, aaaa, -8 * rampValue * aaa), y0, out[2]);
+            value = ArithmeticFunctions.fma(aaaa, rampValue, value);
+            derivX = ArithmeticFunctions.fma(ArithmeticFunctions.fma(gx, aaaa, -8 * rampValue * aaa), x0, derivX);
+            derivY = ArithmeticFunctions.fma(ArithmeticFunctions.fma(gy, aaaa, -8 * rampValue * aaa), y0, derivY);
         }
 
         double c = ArithmeticFunctions.fma((2 * (1 - 2 * OpenSimplex2Sampler.G2) * (1 / OpenSimplex2Sampler.G2 - 2)), t, ((-2 * (1 - 2 *
@@ -220,9 +406,9 @@ public class OpenSimplex2Sampler extends SimplexStyleSampler {
             int gi = SimplexStyleSampler.gradCoordIndex(seed, i + NoiseFunction.PRIME_X, j + NoiseFunction.PRIME_Y);
             double gx = SimplexStyleSampler.GRADIENTS_2D[gi], gy = SimplexStyleSampler.GRADIENTS_2D[gi | 1];
             double rampValue = ArithmeticFunctions.fma(gx, x2, gy * y2);
-            out[0] = ArithmeticFunctions.fma(cccc, rampValue, out[0]);
-            out[1] = ArithmeticFunctions.fma(ArithmeticFunctions.fma(gx, cccc, -8 * rampValue * ccc), x2, out[1]);
-            out[2] = ArithmeticFunctions.fma(ArithmeticFunctions.fma(gy, cccc, -8 * rampValue * ccc), y2, out[2]);
+            value = ArithmeticFunctions.fma(cccc, rampValue, value);
+            derivX = ArithmeticFunctions.fma(ArithmeticFunctions.fma(gx, cccc, -8 * rampValue * ccc), x2, derivX);
+            derivY = ArithmeticFunctions.fma(ArithmeticFunctions.fma(gy, cccc, -8 * rampValue * ccc), y2, derivY);
         }
 
         if(y0 > x0) {
@@ -234,9 +420,9 @@ public class OpenSimplex2Sampler extends SimplexStyleSampler {
                 int gi = SimplexStyleSampler.gradCoordIndex(seed, i, j + NoiseFunction.PRIME_Y);
                 double gx = SimplexStyleSampler.GRADIENTS_2D[gi], gy = SimplexStyleSampler.GRADIENTS_2D[gi | 1];
                 double rampValue = ArithmeticFunctions.fma(gx, x1, gy * y1);
-                out[0] = ArithmeticFunctions.fma(bbbb, rampValue, out[0]);
-                out[1] = ArithmeticFunctions.fma(ArithmeticFunctions.fma(gx, bbbb, -8 * rampValue * bbb), x1, out[1]);
-                out[2] = ArithmeticFunctions.fma(ArithmeticFunctions.fma(gy, bbbb, -8 * rampValue * bbb), y1, out[2]);
+                value = ArithmeticFunctions.fma(bbbb, rampValue, value);
+                derivX = ArithmeticFunctions.fma(ArithmeticFunctions.fma(gx, bbbb, -8 * rampValue * bbb), x1, derivX);
+                derivY = ArithmeticFunctions.fma(ArithmeticFunctions.fma(gy, bbbb, -8 * rampValue * bbb), y1, derivY);
             }
         } else {
             double x1 = x0 + (OpenSimplex2Sampler.G2 - 1);
@@ -247,20 +433,26 @@ public class OpenSimplex2Sampler extends SimplexStyleSampler {
                 int gi = SimplexStyleSampler.gradCoordIndex(seed, i + NoiseFunction.PRIME_X, j);
                 double gx = SimplexStyleSampler.GRADIENTS_2D[gi], gy = SimplexStyleSampler.GRADIENTS_2D[gi | 1];
                 double rampValue = ArithmeticFunctions.fma(gx, x1, gy * y1);
-                out[0] = ArithmeticFunctions.fma(bbbb, rampValue, out[0]);
-                out[1] = ArithmeticFunctions.fma(ArithmeticFunctions.fma(gx, bbbb, -8 * rampValue * bbb), x1, out[1]);
-                out[2] = ArithmeticFunctions.fma(ArithmeticFunctions.fma(gy, bbbb, -8 * rampValue * bbb), y1, out[2]);
+                value = ArithmeticFunctions.fma(bbbb, rampValue, value);
+                derivX = ArithmeticFunctions.fma(ArithmeticFunctions.fma(gx, bbbb, -8 * rampValue * bbb), x1, derivX);
+                derivY = ArithmeticFunctions.fma(ArithmeticFunctions.fma(gy, bbbb, -8 * rampValue * bbb), y1, derivY);
             }
         }
 
-        out[0] *= 99.83685446303647f;
-        out[1] *= 99.83685446303647f;
-        out[2] *= 99.83685446303647f;
-        return out;
+        out[offset] = value * 99.83685446303647f;
+        out[offset + 1] = derivX * 99.83685446303647f;
+        out[offset + 2] = derivY * 99.83685446303647f;
     }
 
     @Override
     public double[] getNoiseDerivativeRaw(long sl, double x, double y, double z) {
+        double[] out = new double[4];
+        getNoiseDerivativeRaw(sl, out, 0, x, y, z);
+        return out;
+    }
+
+    @Override
+    public void getNoiseDerivativeRaw(long sl, double[] out, int offset, double x, double y, double z) {
         int seed = (int) sl;
         // 3D OpenSimplex2Sampler case uses two offset rotated cube grids.
         double r = (x + y + z) * OpenSimplex2Sampler.R3; // Rotation, not skew
@@ -288,7 +480,7 @@ public class OpenSimplex2Sampler extends SimplexStyleSampler {
         j *= NoiseFunction.PRIME_Y;
         k *= NoiseFunction.PRIME_Z;
 
-        double[] out = { 0.0f, 0.0f, 0.0f, 0.0f };
+        double value = 0, derivX = 0, derivY = 0, derivZ = 0;
         double a = (0.6f - x0 * x0) - (ArithmeticFunctions.fma(y0, y0, z0 * z0));
 
         for(int l = 0; ; l++) {
@@ -298,10 +490,10 @@ public class OpenSimplex2Sampler extends SimplexStyleSampler {
                 double gx = SimplexStyleSampler.GRADIENTS_3D[gi], gy = SimplexStyleSampler.GRADIENTS_3D[gi | 1], gz =
                     SimplexStyleSampler.GRADIENTS_3D[gi | 2];
                 double rampValue = ArithmeticFunctions.fma(gx, x0, ArithmeticFunctions.fma(gy, y0, gz * z0));
-                out[0] = ArithmeticFunctions.fma(aaaa, rampValue, out[0]);
-                out[1] = ArithmeticFunctions.fma(ArithmeticFunctions.fma(gx, aaaa, -8 * rampValue * aaa), x0, out[1]);
-                out[2] = ArithmeticFunctions.fma(ArithmeticFunctions.fma(gy, aaaa, -8 * rampValue * aaa), y0, out[2]);
-                out[3] = ArithmeticFunctions.fma(ArithmeticFunctions.fma(gz, aaaa, -8 * rampValue * aaa), z0, out[3]);
+                value = ArithmeticFunctions.fma(aaaa, rampValue, value);
+                derivX = ArithmeticFunctions.fma(ArithmeticFunctions.fma(gx, aaaa, -8 * rampValue * aaa), x0, derivX);
+                derivY = ArithmeticFunctions.fma(ArithmeticFunctions.fma(gy, aaaa, -8 * rampValue * aaa), y0, derivY);
+                derivZ = ArithmeticFunctions.fma(ArithmeticFunctions.fma(gz, aaaa, -8 * rampValue * aaa), z0, derivZ);
             }
 
             if(ax0 >= ay0 && ax0 >= az0) {
@@ -313,10 +505,10 @@ public class OpenSimplex2Sampler extends SimplexStyleSampler {
                     double gx = SimplexStyleSampler.GRADIENTS_3D[gi], gy = SimplexStyleSampler.GRADIENTS_3D[gi | 1], gz =
                         SimplexStyleSampler.GRADIENTS_3D[gi | 2];
                     double rampValue = ArithmeticFunctions.fma(gx, (x0 + xNSign), ArithmeticFunctions.fma(gy, y0, gz * z0));
-                    out[0] = ArithmeticFunctions.fma(bbbb, rampValue, out[0]);
-                    out[1] = ArithmeticFunctions.fma(ArithmeticFunctions.fma(gx, bbbb, -8 * rampValue * bbb), (x0 + xNSign), out[1]);
-                    out[2] = ArithmeticFunctions.fma(ArithmeticFunctions.fma(gy, bbbb, -8 * rampValue * bbb), y0, out[2]);
-                    out[3] = ArithmeticFunctions.fma(ArithmeticFunctions.fma(gz, bbbb, -8 * rampValue * bbb), z0, out[3]);
+                    value = ArithmeticFunctions.fma(bbbb, rampValue, value);
+                    derivX = ArithmeticFunctions.fma(ArithmeticFunctions.fma(gx, bbbb, -8 * rampValue * bbb), (x0 + xNSign), derivX);
+                    derivY = ArithmeticFunctions.fma(ArithmeticFunctions.fma(gy, bbbb, -8 * rampValue * bbb), y0, derivY);
+                    derivZ = ArithmeticFunctions.fma(ArithmeticFunctions.fma(gz, bbbb, -8 * rampValue * bbb), z0, derivZ);
                 }
             } else if(ay0 > ax0 && ay0 >= az0) {
                 double b = a + ay0 + ay0;
@@ -327,10 +519,10 @@ public class OpenSimplex2Sampler extends SimplexStyleSampler {
                     double gx = SimplexStyleSampler.GRADIENTS_3D[gi], gy = SimplexStyleSampler.GRADIENTS_3D[gi | 1], gz =
                         SimplexStyleSampler.GRADIENTS_3D[gi | 2];
                     double rampValue = ArithmeticFunctions.fma(gx, x0, ArithmeticFunctions.fma(gy, (y0 + yNSign), gz * z0));
-                    out[0] = ArithmeticFunctions.fma(bbbb, rampValue, out[0]);
-                    out[1] = ArithmeticFunctions.fma(ArithmeticFunctions.fma(gx, bbbb, -8 * rampValue * bbb), x0, out[1]);
-                    out[2] = ArithmeticFunctions.fma(ArithmeticFunctions.fma(gy, bbbb, -8 * rampValue * bbb), (y0 + yNSign), out[2]);
-                    out[3] = ArithmeticFunctions.fma(ArithmeticFunctions.fma(gz, bbbb, -8 * rampValue * bbb), z0, out[3]);
+                    value = ArithmeticFunctions.fma(bbbb, rampValue, value);
+                    derivX = ArithmeticFunctions.fma(ArithmeticFunctions.fma(gx, bbbb, -8 * rampValue * bbb), x0, derivX);
+                    derivY = ArithmeticFunctions.fma(ArithmeticFunctions.fma(gy, bbbb, -8 * rampValue * bbb), (y0 + yNSign), derivY);
+                    derivZ = ArithmeticFunctions.fma(ArithmeticFunctions.fma(gz, bbbb, -8 * rampValue * bbb), z0, derivZ);
                 }
             } else {
                 double b = a + az0 + az0;
@@ -341,10 +533,10 @@ public class OpenSimplex2Sampler extends SimplexStyleSampler {
                     double gx = SimplexStyleSampler.GRADIENTS_3D[gi], gy = SimplexStyleSampler.GRADIENTS_3D[gi | 1], gz =
                         SimplexStyleSampler.GRADIENTS_3D[gi | 2];
                     double rampValue = ArithmeticFunctions.fma(gx, x0, ArithmeticFunctions.fma(gy, y0, gz * (z0 + zNSign)));
-                    out[0] = ArithmeticFunctions.fma(bbbb, rampValue, out[0]);
-                    out[1] = ArithmeticFunctions.fma(ArithmeticFunctions.fma(gx, bbbb, -8 * rampValue * bbb), x0, out[1]);
-                    out[2] = ArithmeticFunctions.fma(ArithmeticFunctions.fma(gy, bbbb, -8 * rampValue * bbb), y0, out[2]);
-                    out[3] = ArithmeticFunctions.fma(ArithmeticFunctions.fma(gz, bbbb, -8 * rampValue * bbb), (z0 + zNSign), out[3]);
+                    value = ArithmeticFunctions.fma(bbbb, rampValue, value);
+                    derivX = ArithmeticFunctions.fma(ArithmeticFunctions.fma(gx, bbbb, -8 * rampValue * bbb), x0, derivX);
+                    derivY = ArithmeticFunctions.fma(ArithmeticFunctions.fma(gy, bbbb, -8 * rampValue * bbb), y0, derivY);
+                    derivZ = ArithmeticFunctions.fma(ArithmeticFunctions.fma(gz, bbbb, -8 * rampValue * bbb), (z0 + zNSign), derivZ);
                 }
             }
 
@@ -371,10 +563,38 @@ public class OpenSimplex2Sampler extends SimplexStyleSampler {
 
             seed = ~seed;
         }
-        out[0] *= 32.69428253173828125;
-        out[1] *= 32.69428253173828125;
-        out[2] *= 32.69428253173828125;
-        out[3] *= 32.69428253173828125;
-        return out;
+        out[offset] = value * 32.69428253173828125;
+        out[offset + 1] = derivX * 32.69428253173828125;
+        out[offset + 2] = derivY * 32.69428253173828125;
+        out[offset + 3] = derivZ * 32.69428253173828125;
+    }
+
+    @Override
+    protected void getNoiseRawGrid(long seed, double[] out, double x, double y, double stepX, double stepY, int sizeX, int sizeY) {
+        SimplexBatchKernel kernel = batchKernel();
+        if(kernel == null) {
+            super.getNoiseRawGrid(seed, out, x, y, stepX, stepY, sizeX, sizeY);
+            return;
+        }
+        SimplexBatchKernels.getSampleGrid(kernel, (int) seed, frequency, out, x, y, stepX, stepY, sizeX, sizeY);
+    }
+
+    @Override
+    protected void getNoiseRawGrid(long seed, double[] out, double x, double y, double z, double stepX, double stepY, double stepZ,
+                                   int sizeX, int sizeY, int sizeZ) {
+        SimplexBatchKernel kernel = batchKernel();
+        if(kernel == null) {
+            super.getNoiseRawGrid(seed, out, x, y, z, stepX, stepY, stepZ, sizeX, sizeY, sizeZ);
+            return;
+        }
+        SimplexBatchKernels.getSampleGrid(kernel, (int) seed, frequency, out, x, y, z, stepX, stepY, stepZ, sizeX, sizeY, sizeZ);
+    }
+
+    /**
+     * The vectorised kernel to fill grids with, or {@code null} to use the scalar implementation.
+     * Subclasses may override {@code getNoiseRaw}, so only this exact class is batched.
+     */
+    private SimplexBatchKernel batchKernel() {
+        return getClass() == OpenSimplex2Sampler.class ? SimplexBatchKernels.OPEN_SIMPLEX_2 : null;
     }
 }
@@ -83,4 +83,153 @@ public class PerlinSampler extends SimplexStyleSampler {
 
         return InterpolationFunctions.lerp(zs, yf0, yf1) * 0.964921414852142333984375;
     }
+
+    /**
+     * {@inheritDoc}
+     * <p>
+     * Each lattice corner is hashed once per column and reused for every point in the cells around it, until the column moves past it.
+     */
+    @Override
+    protected void getNoiseRawGrid(long seed, double[] out, double x, double y, double stepX, double stepY, int sizeX, int sizeY) {
+        if(!reusesLattice()) {
+            super.getNoiseRawGrid(seed, out, x, y, stepX, stepY, sizeX, sizeY);
+            return;
+        }
+        int saltedSeed = (int) seed;
+        int index = 0;
+        for(int ix = 0; ix < sizeX; ix++) {
+            double sx = (x + ix * stepX) * frequency;
+            int x0 = FloatingPointFunctions.floor(sx);
+            double xd0 = sx - x0;
+            double xd1 = xd0 - 1;
+            double xs = SmoothstepFunctions.quinticPolynomialSmoothstep(xd0);
+            x0 *= NoiseFunction.PRIME_X;
+            int x1 = x0 + NoiseFunction.PRIME_X;
+
+            // Gradient indices of the corners of the current y cell.
+            boolean cached = false;
+            int cell = 0;
+            int g00 = 0, g10 = 0, g01 = 0, g11 = 0;
+            for(int iy = 0; iy < sizeY; iy++) {
+                double sy = (y + iy * stepY) * frequency;
+                int y0 = FloatingPointFunctions.floor(sy);
+                if(!cached || y0 != cell) {
+                    int y0Primed = y0 * NoiseFunction.PRIME_Y;
+                    int y1Primed = y0Primed + NoiseFunction.PRIME_Y;
+                    if(cached && y0 == cell + 1) {
+                        g00 = g01;
+                        g10 = g11;
+                    } else {
+                        g00 = SimplexStyleSampler.gradCoordIndex(saltedSeed, x0, y0Primed);
+                        g10 = SimplexStyleSampler.gradCoordIndex(saltedSeed, x1, y0Primed);
+                    }
+                    g01 = SimplexStyleSampler.gradCoordIndex(saltedSeed, x0, y1Primed);
+                    g11 = SimplexStyleSampler.gradCoordIndex(saltedSeed, x1, y1Primed);
+                    cell = y0;
+                    cached = true;
+                }
+
+                double yd0 = sy - y0;
+                double yd1 = yd0 - 1;
+                double ys = SmoothstepFunctions.quinticPolynomialSmoothstep(yd0);
+
+                double xf0 = InterpolationFunctions.lerp(xs, SimplexStyleSampler.gradDot(g00, xd0, yd0),
+                    SimplexStyleSampler.gradDot(g10, xd1, yd0));
+                double xf1 = InterpolationFunctions.lerp(xs, SimplexStyleSampler.gradDot(g01, xd0, yd1),
+                    SimplexStyleSampler.gradDot(g11, xd1, yd1));
+
+                out[index++] = InterpolationFunctions.lerp(ys, xf0, xf1) * 1.4247691104677813;
+            }
+        }
+    }
+
+    /**
+     * {@inheritDoc}
+     * <p>
+     * Each lattice corner is hashed once per column and reused for every point in the cells around it, until the column moves past it.
+     */
+    @Override
+    protected void getNoiseRawGrid(long seed, double[] out, double x, double y, double z, double stepX, double stepY, double stepZ,
+                                   int sizeX, int sizeY, int sizeZ) {
+        if(!reusesLattice()) {
+            super.getNoiseRawGrid(seed, out, x, y, z, stepX, stepY, stepZ, sizeX, sizeY, sizeZ);
+            return;
+        }
+        int saltedSeed = (int) seed;
+        int index = 0;
+        for(int ix = 0; ix < sizeX; ix++) {
+            double sx = (x + ix * stepX) * frequency;
+            int x0 = FloatingPointFunctions.floor(sx);
+            double xd0 = sx - x0;
+            double xd1 = xd0 - 1;
+            double xs = SmoothstepFunctions.quinticPolynomialSmoothstep(xd0);
+            x0 *= NoiseFunction.PRIME_X;
+            int x1 = x0 + NoiseFunction.PRIME_X;
+
+            for(int iy = 0; iy < sizeY; iy++) {
+                double sy = (y + iy * stepY) * frequency;
+                int y0 = FloatingPointFunctions.floor(sy);
+                double yd0 = sy - y0;
+                double yd1 = yd0 - 1;
+                double ys = SmoothstepFunctions.quinticPolynomialSmoothstep(yd0);
+                y0 *= NoiseFunction.PRIME_Y;
+                int y1 = y0 + NoiseFunction.PRIME_Y;
+
+                // Gradient indices of the corners of the current z cell.
+                boolean cached = false;
+                int cell = 0;
+                int g000 = 0, g100 = 0, g010 = 0, g110 = 0, g001 = 0, g101 = 0, g011 = 0, g111 = 0;
+                for(int iz = 0; iz < sizeZ; iz++) {
+                    double sz = (z + iz * stepZ) * frequency;
+                    int z0 = FloatingPointFunctions.floor(sz);
+                    if(!cached || z0 != cell) {
+                        int z0Primed = z0 * NoiseFunction.PRIME_Z;
+                        int z1Primed = z0Primed + NoiseFunction.PRIME_Z;
+                        if(cached && z0 == cell + 1) {
+                            g000 = g001;
+                            g100 = g101;
+                            g010 = g011;
+                            g110 = g111;
+                        } else {
+                            g000 = SimplexStyleSampler.gradCoordIndex(saltedSeed, x0, y0, z0Primed);
+                            g100 = SimplexStyleSampler.gradCoordIndex(saltedSeed, x1, y0, z0Primed);
+                            g010 = SimplexStyleSampler.gradCoordIndex(saltedSeed, x0, y1, z0Primed);
+                            g110 = SimplexStyleSampler.gradCoordIndex(saltedSeed, x1, y1, z0Primed);
+                        }
+                        g001 = SimplexStyleSampler.gradCoordIndex(saltedSeed, x0, y0, z1Primed);
+                        g101 = SimplexStyleSampler.gradCoordIndex(saltedSeed, x1, y0, z1Primed);
+                        g011 = SimplexStyleSampler.gradCoordIndex(saltedSeed, x0, y1, z1Primed);
+                        g111 = SimplexStyleSampler.gradCoordIndex(saltedSeed, x1, y1, z1Primed);
+                        cell = z0;
+                        cached = true;
+                    }
+
+                    double zd0 = sz - z0;
+                    double zd1 = zd0 - 1;
+                    double zs = SmoothstepFunctions.quinticPolynomialSmoothstep(zd0);
+
+                    double xf00 = InterpolationFunctions.lerp(xs, SimplexStyleSampler.gradDot(g000, xd0, yd0, zd0),
+                        SimplexStyleSampler.gradDot(g100, xd1, yd0, zd0));
+                    double xf10 = InterpolationFunctions.lerp(xs, SimplexStyleSampler.gradDot(g010, xd0, yd1, zd0),
+                        SimplexStyleSampler.gradDot(g110, xd1, yd1, zd0));
+                    double xf01 = InterpolationFunctions.lerp(xs, SimplexStyleSampler.gradDot(g001, xd0, yd0, zd1),
+                        SimplexStyleSampler.gradDot(g101, xd1, yd0, zd1));
+                    double xf11 = InterpolationFunctions.lerp(xs, SimplexStyleSampler.gradDot(g011, xd0, yd1, zd1),
+                        SimplexStyleSampler.gradDot(g111, xd1, yd1, zd1));
+
+                    double yf0 = InterpolationFunctions.lerp(ys, xf00, xf10);
+                    double yf1 = InterpolationFunctions.lerp(ys, xf01, xf11);
+
+                    out[index++] = InterpolationFunctions.lerp(zs, yf0, yf1) * 0.964921414852142333984375;
+                }
+            }
+        }
+    }
+
+    /**
+     * Whether grid fills may reuse lattice corners. Subclasses may override {@code getNoiseRaw}, so they fill grids through it instead.
+     */
+    private boolean reusesLattice() {
+        return getClass() == PerlinSampler.class;
+    }
 }
@@ -0,0 +1,36 @@
+package com.dfsek.seismic.algorithms.sampler.noise.simplex;
+
+
+/**
+ * Evaluates the raw noise of a simplex-style sampler for many coordinates at once.
+ * <p>
+ * Every value written must be bit-identical to the one returned by the scalar {@code getNoiseRaw} of the sampler it replaces.
+ */
+interface SimplexBatchKernel {
+    /**
+     * Evaluate 2D noise for {@code length} coordinate pairs.
+     *
+     * @param seed   the salted seed.
+     * @param x      X coordinates, with frequency already applied.
+     * @param y      Y coordinates, with frequency already applied.
+     * @param out    the array to write samples to, starting at {@code offset}.
+     * @param offset the index of the first sample in {@code out}.
+     * @param length the number of coordinates to evaluate.
+     */
+    void getNoiseRaw(int seed, double[] x, double[] y, double[] out, int offset, int length);
+
+    /**
+     * Evaluate 3D noise for {@code length} coordinate triples.
+     *
+     * @param seed   the salted seed.
+     * @param x      X coordinates, with frequency already applied.
+     * @param y      Y coordinates, with frequency already applied.
+     * @param z      Z coordinates, with frequency already applied.
+     * @param out    the array to write samples to, starting at {@code offset}.
+     * @param offset the index of the first sample in {@code out}.
+     * @param length the number of coordinates to evaluate.
+     *
+     * @throws UnsupportedOperationException if this kernel only supports 2D noise.
+     */
+    void getNoiseRaw(int seed, double[] x, double[] y, double[] z, double[] out, int offset, int length);
+}
@@ -0,0 +1,116 @@
+package com.dfsek.seismic.algorithms.sampler.noise.simplex;
+
+import com.dfsek.seismic.util.VMConstants;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+
+/**
+ * Holds the vectorised {@link SimplexBatchKernel}s, if the running VM supports them.
+ * <p>
+ * The kernels are only loaded reflectively, so the {@code jdk.incubator.vector} module is never touched unless
+ * {@link VMConstants#HAS_VECTOR_API} is set. A {@code null} kernel means the scalar implementation should be used.
+ */
+final class SimplexBatchKernels {
+    private static final Logger LOGGER = LoggerFactory.getLogger(SimplexBatchKernels.class);
+
+    static final SimplexBatchKernel OPEN_SIMPLEX_2 = SimplexBatchKernels.load("VectorizedOpenSimplex2Kernel");
+    /**
+     * Only supports 2D noise.
+     */
+    static final SimplexBatchKernel OPEN_SIMPLEX_2S = SimplexBatchKernels.load("VectorizedOpenSimplex2SKernel");
+
+    /**
+     * Number of coordinates handed to a kernel per call when filling a grid.
+     */
+    private static final int BATCH_SIZE = 256;
+    private static final ThreadLocal<Batch> BATCH = ThreadLocal.withInitial(Batch::new);
+
+    private SimplexBatchKernels() {
+    }
+
+    /**
+     * Fill {@code out} with 2D noise over an axis-aligned grid, using the layout of {@link
+     * com.dfsek.seismic.type.sampler.Sampler#getSampleGrid(long, double[], double, double, double, double, int, int)}.
+     * <p>
+     * The grid is flattened into batches, so the kernel stays busy even when {@code sizeY} is smaller than a vector.
+     */
+    static void getSampleGrid(SimplexBatchKernel kernel, int seed, double frequency, double[] out, double x, double y, double stepX,
+                              double stepY, int sizeX, int sizeY) {
+        int size = sizeX * sizeY;
+        int batch = SimplexBatchKernels.BATCH_SIZE;
+        Batch buffers = SimplexBatchKernels.BATCH.get();
+        double[] xs = buffers.xs;
+        double[] ys = buffers.ys;
+        int ix = 0, iy = 0;
+        for(int index = 0; index < size; index += batch) {
+            int length = Math.min(batch, size - index);
+            for(int n = 0; n < length; n++) {
+                xs[n] = (x + ix * stepX) * frequency;
+                ys[n] = (y + iy * stepY) * frequency;
+                if(++iy == sizeY) {
+                    iy = 0;
+                    ix++;
+                }
+            }
+            kernel.getNoiseRaw(seed, xs, ys, out, index, length);
+        }
+    }
+
+    /**
+     * Fill {@code out} with 3D noise over an axis-aligned grid, using the layout of {@link
+     * com.dfsek.seismic.type.sampler.Sampler#getSampleGrid(long, double[], double, double, double, double, double, double, int, int,
+     * int)}.
+     * <p>
+     * The grid is flattened into batches, so the kernel stays busy even when {@code sizeZ} is smaller than a vector.
+     */
+    static void getSampleGrid(SimplexBatchKernel kernel, int seed, double frequency, double[] out, double x, double y, double z,
+                              double stepX, double stepY, double stepZ, int sizeX, int sizeY, int sizeZ) {
+        int size = sizeX * sizeY * sizeZ;
+        int batch = SimplexBatchKernels.BATCH_SIZE;
+        Batch buffers = SimplexBatchKernels.BATCH.get();
+        double[] xs = buffers.xs;
+        double[] ys = buffers.ys;
+        double[] zs = buffers.zs;
+        int ix = 0, iy = 0, iz = 0;
+        for(int index = 0; index < size; index += batch) {
+            int length = Math.min(batch, size - index);
+            for(int n = 0; n < length; n++) {
+                xs[n] = (x + ix * stepX) * frequency;
+                ys[n] = (y + iy * stepY) * frequency;
+                zs[n] = (z + iz * stepZ) * frequency;
+                if(++iz == sizeZ) {
+                    iz = 0;
+                    if(++iy == sizeY) {
+                        iy = 0;
+                        ix++;
+                    }
+                }
+            }
+            kernel.getNoiseRaw(seed, xs, ys, zs, out, index, length);
+        }
+    }
+
+    private static SimplexBatchKernel load(String name) {
+        if(!VMConstants.HAS_VECTOR_API) {
+            return null;
+        }
+        try {
+            Class<?> kernel = Class.forName(SimplexBatchKernels.class.getPackageName() + "." + name);
+            return (SimplexBatchKernel) kernel.getDeclaredConstructor().newInstance();
+        } catch(ReflectiveOperationException | LinkageError e) {
+            SimplexBatchKernels.LOGGER.warn("Could not load vectorised kernel {}, falling back to scalar noise", name, e);
+            return null;
+        }
+    }
+
+
+    /**
+     * Per-thread coordinate arrays handed to the kernels.
+     */
+    private static final class Batch {
+        private final double[] xs = new double[SimplexBatchKernels.BATCH_SIZE];
+        private final double[] ys = new double[SimplexBatchKernels.BATCH_SIZE];
+        private final double[] zs = new double[SimplexBatchKernels.BATCH_SIZE];
+    }
+}
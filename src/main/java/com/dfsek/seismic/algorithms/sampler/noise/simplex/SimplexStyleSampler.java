@@ -91,8 +91,14 @@ public abstract class SimplexStyleSampler extends DerivativeNoiseFunction {
     }
 
     protected static double gradCoord(int seed, int xPrimed, int yPrimed, double xd, double yd) {
-        int index = SimplexStyleSampler.gradCoordIndex(seed, xPrimed, yPrimed);
+        return SimplexStyleSampler.gradDot(SimplexStyleSampler.gradCoordIndex(seed, xPrimed, yPrimed), xd, yd);
+    }
 
+    /**
+     * Dot product of the 2D gradient at {@code index}, as returned by {@link #gradCoordIndex(int, int, int)}, with an offset.
+     * Lets a lattice corner be hashed once and reused for every point around it.
+     */
+    protected static double gradDot(int index, double xd, double yd) {
         double xg = SimplexStyleSampler.GRADIENTS_2D[index];
         double yg = SimplexStyleSampler.GRADIENTS_2D[index | 1];
 
@@ -108,8 +114,13 @@ public abstract class SimplexStyleSampler extends DerivativeNoiseFunction {
     }
 
     protected static double gradCoord(int seed, int xPrimed, int yPrimed, int zPrimed, double xd, double yd, double zd) {
-        int index = SimplexStyleSampler.gradCoordIndex(seed, xPrimed, yPrimed, zPrimed);
+        return SimplexStyleSampler.gradDot(SimplexStyleSampler.gradCoordIndex(seed, xPrimed, yPrimed, zPrimed), xd, yd, zd);
+    }
 
+    /**
+     * Dot product of the 3D gradient at {@code index}, as returned by {@link #gradCoordIndex(int, int, int, int)}, with an offset.
+     */
+    protected static double gradDot(int index, double xd, double yd, double zd) {
         double xg = SimplexStyleSampler.GRADIENTS_3D[index];
         double yg = SimplexStyleSampler.GRADIENTS_3D[index | 1];
         double zg = SimplexStyleSampler.GRADIENTS_3D[index | 2];
@@ -127,6 +138,16 @@ public abstract class SimplexStyleSampler extends DerivativeNoiseFunction {
         throw new UnsupportedOperationException("Implementation failed to check or set isDifferentiable correctly");
     }
 
+    @Override
+    public void getNoiseDerivativeRaw(long seed, double[] out, int offset, double x, double y) {
+        throw new UnsupportedOperationException("Implementation failed to check or set isDifferentiable correctly");
+    }
+
+    @Override
+    public void getNoiseDerivativeRaw(long seed, double[] out, int offset, double x, double y, double z) {
+        throw new UnsupportedOperationException("Implementation failed to check or set isDifferentiable correctly");
+    }
+
     @Override
     public boolean isDifferentiable() {
         return false;
@@ -0,0 +1,301 @@
+package com.dfsek.seismic.algorithms.sampler.noise.simplex;
+
+import com.dfsek.seismic.algorithms.sampler.noise.NoiseFunction;
+import jdk.incubator.vector.DoubleVector;
+import jdk.incubator.vector.IntVector;
+import jdk.incubator.vector.VectorMask;
+import jdk.incubator.vector.VectorOperators;
+
+
+/**
+ * Vectorised {@link OpenSimplex2Sampler}.
+ */
+final class VectorizedOpenSimplex2Kernel extends VectorizedSimplexKernel {
+    private static final double SQRT3 = 1.7320508075688772935274463415059;
+    private static final double F2 = 0.5f * (VectorizedOpenSimplex2Kernel.SQRT3 - 1.0f);
+    private static final double G2 = (3 - VectorizedOpenSimplex2Kernel.SQRT3) / 6;
+    private static final double R3 = (2.0 / 3.0);
+
+    /**
+     * Skews the input, finds the base lattice point and the falloff of the first corner.
+     */
+    private static void setup2(Scratch s, int length) {
+        double[] x0 = s.doubles[0], y0 = s.doubles[1], t = s.doubles[2], a = s.doubles[3];
+        int[] i = s.ints[0], j = s.ints[1];
+
+        for(int n = 0; n < length; n += VectorizedSimplexKernel.LANES) {
+            DoubleVector x = DoubleVector.fromArray(VectorizedSimplexKernel.DOUBLE, s.x, n);
+            DoubleVector y = DoubleVector.fromArray(VectorizedSimplexKernel.DOUBLE, s.y, n);
+            DoubleVector skew = x.add(y).mul(VectorizedOpenSimplex2Kernel.F2);
+            x = x.add(skew);
+            y = y.add(skew);
+
+            // FloatingPointFunctions.floor
+            IntVector iv = (IntVector) x.convertShape(VectorOperators.D2I, VectorizedSimplexKernel.INT, 0);
+            IntVector jv = (IntVector) y.convertShape(VectorOperators.D2I, VectorizedSimplexKernel.INT, 0);
+            iv = iv.sub(1, x.compare(VectorOperators.GE, 0).not().cast(VectorizedSimplexKernel.INT));
+            jv = jv.sub(1, y.compare(VectorOperators.GE, 0).not().cast(VectorizedSimplexKernel.INT));
+            DoubleVector xi = x.sub(iv.convertShape(VectorOperators.I2D, VectorizedSimplexKernel.DOUBLE, 0));
+            DoubleVector yi = y.sub(jv.convertShape(VectorOperators.I2D, VectorizedSimplexKernel.DOUBLE, 0));
+
+            DoubleVector tv = xi.add(yi).mul(VectorizedOpenSimplex2Kernel.G2);
+            DoubleVector x0v = xi.sub(tv);
+            DoubleVector y0v = yi.sub(tv);
+
+            iv.mul(NoiseFunction.PRIME_X).intoArray(i, n);
+            jv.mul(NoiseFunction.PRIME_Y).intoArray(j, n);
+            DoubleVector.broadcast(VectorizedSimplexKernel.DOUBLE, 0.5).sub(x0v.mul(x0v)).sub(y0v.mul(y0v)).intoArray(a, n);
+            x0v.intoArray(x0, n);
+            y0v.intoArray(y0, n);
+            tv.intoArray(t, n);
+        }
+    }
+
+    /**
+     * Prepares the corner opposite the base lattice point.
+     */
+    private static void diagonalCorner2(Scratch s, int length) {
+        double[] x0 = s.doubles[0], y0 = s.doubles[1], t = s.doubles[2], a = s.doubles[3];
+        double[] cx = s.doubles[4], cy = s.doubles[5], c = s.doubles[6];
+        int[] i = s.ints[0], j = s.ints[1], ci = s.ints[2], cj = s.ints[3];
+
+        DoubleVector factor = DoubleVector.broadcast(VectorizedSimplexKernel.DOUBLE,
+            2 * (1 - 2 * VectorizedOpenSimplex2Kernel.G2) * (1 / VectorizedOpenSimplex2Kernel.G2 - 2));
+        for(int n = 0; n < length; n += VectorizedSimplexKernel.LANES) {
+            DoubleVector tv = DoubleVector.fromArray(VectorizedSimplexKernel.DOUBLE, t, n);
+            DoubleVector av = DoubleVector.fromArray(VectorizedSimplexKernel.DOUBLE, a, n)
+                                          .add(-2 * (1 - 2 * VectorizedOpenSimplex2Kernel.G2) * (1 - 2 * VectorizedOpenSimplex2Kernel.G2));
+            DoubleVector cv = VectorizedSimplexKernel.FMA ? factor.fma(tv, av) : factor.mul(tv).add(av);
+            cv.intoArray(c, n);
+            DoubleVector.fromArray(VectorizedSimplexKernel.DOUBLE, x0, n).add(2 * VectorizedOpenSimplex2Kernel.G2 - 1).intoArray(cx, n);
+            DoubleVector.fromArray(VectorizedSimplexKernel.DOUBLE, y0, n).add(2 * VectorizedOpenSimplex2Kernel.G2 - 1).intoArray(cy, n);
+            IntVector.fromArray(VectorizedSimplexKernel.INT, i, n).add(NoiseFunction.PRIME_X).intoArray(ci, n);
+            IntVector.fromArray(VectorizedSimplexKernel.INT, j, n).add(NoiseFunction.PRIME_Y).intoArray(cj, n);
+        }
+    }
+
+    /**
+     * Prepares the third corner, which depends on which half of the skewed cell each lane is in.
+     */
+    private static void sideCorner2(Scratch s, int length) {
+        double[] x0 = s.doubles[0], y0 = s.doubles[1];
+        double[] cx = s.doubles[4], cy = s.doubles[5], c = s.doubles[6];
+        int[] i = s.ints[0], j = s.ints[1], ci = s.ints[2], cj = s.ints[3];
+
+        DoubleVector g2 = DoubleVector.broadcast(VectorizedSimplexKernel.DOUBLE, VectorizedOpenSimplex2Kernel.G2);
+        DoubleVector g2m1 = DoubleVector.broadcast(VectorizedSimplexKernel.DOUBLE, VectorizedOpenSimplex2Kernel.G2 - 1);
+        for(int n = 0; n < length; n += VectorizedSimplexKernel.LANES) {
+            DoubleVector x0v = DoubleVector.fromArray(VectorizedSimplexKernel.DOUBLE, x0, n);
+            DoubleVector y0v = DoubleVector.fromArray(VectorizedSimplexKernel.DOUBLE, y0, n);
+            IntVector iv = IntVector.fromArray(VectorizedSimplexKernel.INT, i, n);
+            IntVector jv = IntVector.fromArray(VectorizedSimplexKernel.INT, j, n);
+
+            VectorMask<Double> upper = y0v.compare(VectorOperators.GT, x0v);
+            VectorMask<Integer> upperInt = upper.cast(VectorizedSimplexKernel.INT);
+            DoubleVector x1 = x0v.add(g2m1.blend(g2, upper));
+            DoubleVector y1 = y0v.add(g2.blend(g2m1, upper));
+            iv.blend(iv.add(NoiseFunction.PRIME_X), upperInt.not()).intoArray(ci, n);
+            jv.blend(jv.add(NoiseFunction.PRIME_Y), upperInt).intoArray(cj, n);
+            DoubleVector.broadcast(VectorizedSimplexKernel.DOUBLE, 0.5).sub(x1.mul(x1)).sub(y1.mul(y1)).intoArray(c, n);
+            x1.intoArray(cx, n);
+            y1.intoArray(cy, n);
+        }
+    }
+
+    /**
+     * Rotates the input, finds the nearest lattice point and the falloff of the first corner.
+     */
+    private static void setup3(Scratch s, int length) {
+        double[] x0 = s.doubles[0], y0 = s.doubles[1], z0 = s.doubles[2];
+        double[] ax0 = s.doubles[3], ay0 = s.doubles[4], az0 = s.doubles[5];
+        double[] a = s.doubles[6];
+        int[] i = s.ints[0], j = s.ints[1], k = s.ints[2];
+        int[] xNSign = s.ints[3], yNSign = s.ints[4], zNSign = s.ints[5];
+
+        for(int n = 0; n < length; n += VectorizedSimplexKernel.LANES) {
+            DoubleVector x = DoubleVector.fromArray(VectorizedSimplexKernel.DOUBLE, s.x, n);
+            DoubleVector y = DoubleVector.fromArray(VectorizedSimplexKernel.DOUBLE, s.y, n);
+            DoubleVector z = DoubleVector.fromArray(VectorizedSimplexKernel.DOUBLE, s.z, n);
+            DoubleVector r = x.add(y).add(z).mul(VectorizedOpenSimplex2Kernel.R3); // Rotation, not skew
+            x = r.sub(x);
+            y = r.sub(y);
+            z = r.sub(z);
+
+            // FloatingPointFunctions.round
+            IntVector iv = (IntVector) x.sub(0.5).blend(x.add(0.5), x.compare(VectorOperators.GE, 0))
+                                        .convertShape(VectorOperators.D2I, VectorizedSimplexKernel.INT, 0);
+            IntVector jv = (IntVector) y.sub(0.5).blend(y.add(0.5), y.compare(VectorOperators.GE, 0))
+                                        .convertShape(VectorOperators.D2I, VectorizedSimplexKernel.INT, 0);
+            IntVector kv = (IntVector) z.sub(0.5).blend(z.add(0.5), z.compare(VectorOperators.GE, 0))
+                                        .convertShape(VectorOperators.D2I, VectorizedSimplexKernel.INT, 0);
+            DoubleVector x0v = x.sub(iv.convertShape(VectorOperators.I2D, VectorizedSimplexKernel.DOUBLE, 0));
+            DoubleVector y0v = y.sub(jv.convertShape(VectorOperators.I2D, VectorizedSimplexKernel.DOUBLE, 0));
+            DoubleVector z0v = z.sub(kv.convertShape(VectorOperators.I2D, VectorizedSimplexKernel.DOUBLE, 0));
+
+            DoubleVector minusOne = DoubleVector.broadcast(VectorizedSimplexKernel.DOUBLE, -1.0);
+            IntVector xs = ((IntVector) minusOne.sub(x0v).convertShape(VectorOperators.D2I, VectorizedSimplexKernel.INT, 0)).or(1);
+            IntVector ys = ((IntVector) minusOne.sub(y0v).convertShape(VectorOperators.D2I, VectorizedSimplexKernel.INT, 0)).or(1);
+            IntVector zs = ((IntVector) minusOne.sub(z0v).convertShape(VectorOperators.D2I, VectorizedSimplexKernel.INT, 0)).or(1);
+
+            ((DoubleVector) xs.convertShape(VectorOperators.I2D, VectorizedSimplexKernel.DOUBLE, 0)).mul(x0v.neg()).intoArray(ax0, n);
+            ((DoubleVector) ys.convertShape(VectorOperators.I2D, VectorizedSimplexKernel.DOUBLE, 0)).mul(y0v.neg()).intoArray(ay0, n);
+            ((DoubleVector) zs.convertShape(VectorOperators.I2D, VectorizedSimplexKernel.DOUBLE, 0)).mul(z0v.neg()).intoArray(az0, n);
+
+            iv.mul(NoiseFunction.PRIME_X).intoArray(i, n);
+            jv.mul(NoiseFunction.PRIME_Y).intoArray(j, n);
+            kv.mul(NoiseFunction.PRIME_Z).intoArray(k, n);
+
+            DoubleVector yz = VectorizedSimplexKernel.FMA ? y0v.fma(y0v, z0v.mul(z0v)) : y0v.mul(y0v).add(z0v.mul(z0v));
+            DoubleVector.broadcast(VectorizedSimplexKernel.DOUBLE, 0.6f).sub(x0v.mul(x0v)).sub(yz).intoArray(a, n);
+            DoubleVector.zero(VectorizedSimplexKernel.DOUBLE).intoArray(s.value, n);
+
+            x0v.intoArray(x0, n);
+            y0v.intoArray(y0, n);
+            z0v.intoArray(z0, n);
+            xs.intoArray(xNSign, n);
+            ys.intoArray(yNSign, n);
+            zs.intoArray(zNSign, n);
+        }
+    }
+
+    /**
+     * Prepares the corner along the axis each lane is furthest from, for one of the two 3D lattices.
+     */
+    private static void axisCorner3(Scratch s, int length) {
+        double[] x0 = s.doubles[0], y0 = s.doubles[1], z0 = s.doubles[2];
+        double[] ax0 = s.doubles[3], ay0 = s.doubles[4], az0 = s.doubles[5];
+        double[] a = s.doubles[6];
+        double[] bx = s.doubles[7], by = s.doubles[8], bz = s.doubles[9], b = s.doubles[10];
+        int[] i = s.ints[0], j = s.ints[1], k = s.ints[2];
+        int[] xNSign = s.ints[3], yNSign = s.ints[4], zNSign = s.ints[5];
+        int[] bi = s.ints[6], bj = s.ints[7], bk = s.ints[8];
+
+        for(int n = 0; n < length; n += VectorizedSimplexKernel.LANES) {
+            DoubleVector axv = DoubleVector.fromArray(VectorizedSimplexKernel.DOUBLE, ax0, n);
+            DoubleVector ayv = DoubleVector.fromArray(VectorizedSimplexKernel.DOUBLE, ay0, n);
+            DoubleVector azv = DoubleVector.fromArray(VectorizedSimplexKernel.DOUBLE, az0, n);
+
+            VectorMask<Double> alongX = axv.compare(VectorOperators.GE, ayv).and(axv.compare(VectorOperators.GE, azv));
+            VectorMask<Double> alongY = alongX.not()
+                                              .and(ayv.compare(VectorOperators.GT, axv))
+                                              .and(ayv.compare(VectorOperators.GE, azv));
+            VectorMask<Double> alongZ = alongX.or(alongY).not();
+
+            DoubleVector axis = azv.blend(ayv, alongY).blend(axv, alongX);
+            // b > 1 exactly when b - 1 > 0, so the shifted falloff doubles as the mask of the corner.
+            DoubleVector.fromArray(VectorizedSimplexKernel.DOUBLE, a, n).add(axis).add(axis).sub(1).intoArray(b, n);
+
+            IntVector xs = IntVector.fromArray(VectorizedSimplexKernel.INT, xNSign, n);
+            IntVector ys = IntVector.fromArray(VectorizedSimplexKernel.INT, yNSign, n);
+            IntVector zs = IntVector.fromArray(VectorizedSimplexKernel.INT, zNSign, n);
+            IntVector iv = IntVector.fromArray(VectorizedSimplexKernel.INT, i, n);
+            IntVector jv = IntVector.fromArray(VectorizedSimplexKernel.INT, j, n);
+            IntVector kv = IntVector.fromArray(VectorizedSimplexKernel.INT, k, n);
+            iv.blend(iv.sub(xs.mul(NoiseFunction.PRIME_X)), alongX.cast(VectorizedSimplexKernel.INT)).intoArray(bi, n);
+            jv.blend(jv.sub(ys.mul(NoiseFunction.PRIME_Y)), alongY.cast(VectorizedSimplexKernel.INT)).intoArray(bj, n);
+            kv.blend(kv.sub(zs.mul(NoiseFunction.PRIME_Z)), alongZ.cast(VectorizedSimplexKernel.INT)).intoArray(bk, n);
+
+            DoubleVector xv = DoubleVector.fromArray(VectorizedSimplexKernel.DOUBLE, x0, n);
+            DoubleVector yv = DoubleVector.fromArray(VectorizedSimplexKernel.DOUBLE, y0, n);
+            DoubleVector zv = DoubleVector.fromArray(VectorizedSimplexKernel.DOUBLE, z0, n);
+            xv.blend(xv.add(xs.convertShape(VectorOperators.I2D, VectorizedSimplexKernel.DOUBLE, 0)), alongX).intoArray(bx, n);
+            yv.blend(yv.add(ys.convertShape(VectorOperators.I2D, VectorizedSimplexKernel.DOUBLE, 0)), alongY).intoArray(by, n);
+            zv.blend(zv.add(zs.convertShape(VectorOperators.I2D, VectorizedSimplexKernel.DOUBLE, 0)), alongZ).intoArray(bz, n);
+        }
+    }
+
+    /**
+     * Moves every lane over to the second, offset lattice.
+     */
+    private static void secondLattice3(Scratch s, int length) {
+        double[] x0 = s.doubles[0], y0 = s.doubles[1], z0 = s.doubles[2];
+        double[] ax0 = s.doubles[3], ay0 = s.doubles[4], az0 = s.doubles[5];
+        double[] a = s.doubles[6];
+        int[] i = s.ints[0], j = s.ints[1], k = s.ints[2];
+        int[] xNSign = s.ints[3], yNSign = s.ints[4], zNSign = s.ints[5];
+
+        DoubleVector half = DoubleVector.broadcast(VectorizedSimplexKernel.DOUBLE, 0.5);
+        for(int n = 0; n < length; n += VectorizedSimplexKernel.LANES) {
+            DoubleVector axv = half.sub(DoubleVector.fromArray(VectorizedSimplexKernel.DOUBLE, ax0, n));
+            DoubleVector ayv = half.sub(DoubleVector.fromArray(VectorizedSimplexKernel.DOUBLE, ay0, n));
+            DoubleVector azv = half.sub(DoubleVector.fromArray(VectorizedSimplexKernel.DOUBLE, az0, n));
+            IntVector xs = IntVector.fromArray(VectorizedSimplexKernel.INT, xNSign, n);
+            IntVector ys = IntVector.fromArray(VectorizedSimplexKernel.INT, yNSign, n);
+            IntVector zs = IntVector.fromArray(VectorizedSimplexKernel.INT, zNSign, n);
+
+            ((DoubleVector) xs.convertShape(VectorOperators.I2D, VectorizedSimplexKernel.DOUBLE, 0)).mul(axv).intoArray(x0, n);
+            ((DoubleVector) ys.convertShape(VectorOperators.I2D, VectorizedSimplexKernel.DOUBLE, 0)).mul(ayv).intoArray(y0, n);
+            ((DoubleVector) zs.convertShape(VectorOperators.I2D, VectorizedSimplexKernel.DOUBLE, 0)).mul(azv).intoArray(z0, n);
+
+            DoubleVector.fromArray(VectorizedSimplexKernel.DOUBLE, a, n)
+                        .add(DoubleVector.broadcast(VectorizedSimplexKernel.DOUBLE, 0.75).sub(axv).sub(ayv.add(azv)))
+                        .intoArray(a, n);
+
+            IntVector.fromArray(VectorizedSimplexKernel.INT, i, n)
+                     .add(xs.lanewise(VectorOperators.ASHR, 1).and(NoiseFunction.PRIME_X))
+                     .intoArray(i, n);
+            IntVector.fromArray(VectorizedSimplexKernel.INT, j, n)
+                     .add(ys.lanewise(VectorOperators.ASHR, 1).and(NoiseFunction.PRIME_Y))
+                     .intoArray(j, n);
+            IntVector.fromArray(VectorizedSimplexKernel.INT, k, n)
+                     .add(zs.lanewise(VectorOperators.ASHR, 1).and(NoiseFunction.PRIME_Z))
+                     .intoArray(k, n);
+
+            xs.neg().intoArray(xNSign, n);
+            ys.neg().intoArray(yNSign, n);
+            zs.neg().intoArray(zNSign, n);
+
+            axv.intoArray(ax0, n);
+            ayv.intoArray(ay0, n);
+            azv.intoArray(az0, n);
+        }
+    }
+
+    @Override
+    void getNoiseRaw(int seed, Scratch s, int length) {
+        double[] x0 = s.doubles[0], y0 = s.doubles[1], a = s.doubles[3];
+        double[] cx = s.doubles[4], cy = s.doubles[5], c = s.doubles[6];
+        int[] i = s.ints[0], j = s.ints[1], ci = s.ints[2], cj = s.ints[3];
+
+        VectorizedOpenSimplex2Kernel.setup2(s, length);
+        VectorizedSimplexKernel.gradCoord(seed, i, j, x0, y0, s, length);
+        VectorizedSimplexKernel.setIfPositive(a, s.gradient, s.value, length);
+
+        VectorizedOpenSimplex2Kernel.diagonalCorner2(s, length);
+        VectorizedSimplexKernel.gradCoord(seed, ci, cj, cx, cy, s, length);
+        VectorizedSimplexKernel.fmaIfPositive(c, s.gradient, s.value, length);
+
+        VectorizedOpenSimplex2Kernel.sideCorner2(s, length);
+        VectorizedSimplexKernel.gradCoord(seed, ci, cj, cx, cy, s, length);
+        VectorizedSimplexKernel.fmaIfPositive(c, s.gradient, s.value, length);
+
+        VectorizedSimplexKernel.scale(s.value, 99.83685446303647f, length);
+    }
+
+    @Override
+    void getNoiseRaw3(int seed, Scratch s, int length) {
+        double[] x0 = s.doubles[0], y0 = s.doubles[1], z0 = s.doubles[2];
+        double[] a = s.doubles[6];
+        double[] bx = s.doubles[7], by = s.doubles[8], bz = s.doubles[9], b = s.doubles[10];
+        int[] i = s.ints[0], j = s.ints[1], k = s.ints[2];
+        int[] bi = s.ints[6], bj = s.ints[7], bk = s.ints[8];
+
+        VectorizedOpenSimplex2Kernel.setup3(s, length);
+
+        for(int l = 0; ; l++) {
+            VectorizedSimplexKernel.gradCoord(seed, i, j, k, x0, y0, z0, s, length);
+            VectorizedSimplexKernel.addIfPositive(a, s.gradient, s.value, length);
+
+            VectorizedOpenSimplex2Kernel.axisCorner3(s, length);
+            VectorizedSimplexKernel.gradCoord(seed, bi, bj, bk, bx, by, bz, s, length);
+            VectorizedSimplexKernel.fmaIfPositive(b, s.gradient, s.value, length);
+
+            if(l == 1) break;
+
+            VectorizedOpenSimplex2Kernel.secondLattice3(s, length);
+            seed = ~seed;
+        }
+
+        VectorizedSimplexKernel.scale(s.value, 32.69428253173828125, length);
+    }
+}
@@ -0,0 +1,172 @@
+package com.dfsek.seismic.algorithms.sampler.noise.simplex;
+
+import com.dfsek.seismic.algorithms.sampler.noise.NoiseFunction;
+import jdk.incubator.vector.DoubleVector;
+import jdk.incubator.vector.IntVector;
+import jdk.incubator.vector.VectorMask;
+import jdk.incubator.vector.VectorOperators;
+
+
+/**
+ * Vectorised 2D {@link OpenSimplex2SSampler}.
+ * <p>
+ * There is no 3D kernel: it has to evaluate all eleven conditional corners for every lane, which is slower than the branching
+ * scalar code.
+ */
+final class VectorizedOpenSimplex2SKernel extends VectorizedSimplexKernel {
+    private static final double SQRT3 = 1.7320508075688772935274463415059;
+    private static final double G2 = (3 - VectorizedOpenSimplex2SKernel.SQRT3) / 6;
+    private static final double F2 = 0.5f * (VectorizedOpenSimplex2SKernel.SQRT3 - 1);
+
+    /*
+     * Offsets of the two conditional 2D corners, indexed by [corner][case].
+     * The cases are, in order: upper triangle and outside the upper edge, upper triangle,
+     * lower triangle and outside the lower edge, lower triangle.
+     */
+    private static final double[][] SIDE_X = {
+        { 3 * G2 - 2, G2, 1 - G2, G2 - 1 },
+        { 3 * G2 - 1, G2 - 1, -G2, G2 },
+    };
+    private static final double[][] SIDE_Y = {
+        { 3 * G2 - 1, G2 - 1, -G2, G2 },
+        { 3 * G2 - 2, G2, -(G2 - 1), G2 - 1 },
+    };
+    private static final int[][] SIDE_I = {
+        { NoiseFunction.PRIME_X << 1, 0, -NoiseFunction.PRIME_X, NoiseFunction.PRIME_X },
+        { NoiseFunction.PRIME_X, NoiseFunction.PRIME_X, 0, 0 },
+    };
+    private static final int[][] SIDE_J = {
+        { NoiseFunction.PRIME_Y, NoiseFunction.PRIME_Y, 0, 0 },
+        { NoiseFunction.PRIME_Y << 1, 0, -NoiseFunction.PRIME_Y, NoiseFunction.PRIME_Y },
+    };
+
+    /**
+     * Skews the input, finds the base lattice point and prepares the two corners every lane uses.
+     */
+    private static void setup2(Scratch s, int length) {
+        double[] x0 = s.doubles[0], y0 = s.doubles[1], t = s.doubles[2], a0 = s.doubles[3];
+        double[] u2 = s.doubles[4], u3 = s.doubles[5];
+        double[] x1 = s.doubles[6], y1 = s.doubles[7], a1 = s.doubles[8];
+        int[] i = s.ints[0], j = s.ints[1], i1 = s.ints[2], j1 = s.ints[3];
+
+        DoubleVector factor = DoubleVector.broadcast(VectorizedSimplexKernel.DOUBLE,
+            2 * (1 - 2 * VectorizedOpenSimplex2SKernel.G2) * (1 / VectorizedOpenSimplex2SKernel.G2 - 2));
+        for(int n = 0; n < length; n += VectorizedSimplexKernel.LANES) {
+            DoubleVector x = DoubleVector.fromArray(VectorizedSimplexKernel.DOUBLE, s.x, n);
+            DoubleVector y = DoubleVector.fromArray(VectorizedSimplexKernel.DOUBLE, s.y, n);
+            DoubleVector skew = x.add(y).mul(VectorizedOpenSimplex2SKernel.F2);
+            x = x.add(skew);
+            y = y.add(skew);
+
+            // FloatingPointFunctions.floor
+            IntVector iv = (IntVector) x.convertShape(VectorOperators.D2I, VectorizedSimplexKernel.INT, 0);
+            IntVector jv = (IntVector) y.convertShape(VectorOperators.D2I, VectorizedSimplexKernel.INT, 0);
+            iv = iv.sub(1, x.compare(VectorOperators.GE, 0).not().cast(VectorizedSimplexKernel.INT));
+            jv = jv.sub(1, y.compare(VectorOperators.GE, 0).not().cast(VectorizedSimplexKernel.INT));
+            DoubleVector xi = x.sub(iv.convertShape(VectorOperators.I2D, VectorizedSimplexKernel.DOUBLE, 0));
+            DoubleVector yi = y.sub(jv.convertShape(VectorOperators.I2D, VectorizedSimplexKernel.DOUBLE, 0));
+
+            iv = iv.mul(NoiseFunction.PRIME_X);
+            jv = jv.mul(NoiseFunction.PRIME_Y);
+            iv.intoArray(i, n);
+            jv.intoArray(j, n);
+            iv.add(NoiseFunction.PRIME_X).intoArray(i1, n);
+            jv.add(NoiseFunction.PRIME_Y).intoArray(j1, n);
+
+            DoubleVector tv = xi.add(yi).mul(VectorizedOpenSimplex2SKernel.G2);
+            DoubleVector x0v = xi.sub(tv);
+            DoubleVector y0v = yi.sub(tv);
+            DoubleVector a0v = DoubleVector.broadcast(VectorizedSimplexKernel.DOUBLE, 2.0 / 3.0).sub(x0v.mul(x0v)).sub(y0v.mul(y0v));
+
+            x0v.intoArray(x0, n);
+            y0v.intoArray(y0, n);
+            tv.intoArray(t, n);
+            a0v.intoArray(a0, n);
+            factor.mul(tv).add(a0v.add(-2 * (1 - 2 * VectorizedOpenSimplex2SKernel.G2) * (1 - 2 * VectorizedOpenSimplex2SKernel.G2)))
+                  .intoArray(a1, n);
+            x0v.sub(1 - 2 * VectorizedOpenSimplex2SKernel.G2).intoArray(x1, n);
+            y0v.sub(1 - 2 * VectorizedOpenSimplex2SKernel.G2).intoArray(y1, n);
+
+            // yi < xmyi exactly when yi - xmyi < 0, so both conditional corners can test one value against 1 and 0.
+            DoubleVector xmyi = xi.sub(yi);
+            xi.add(xmyi).intoArray(u2, n);
+            yi.sub(xmyi).intoArray(u3, n);
+        }
+    }
+
+    /**
+     * Prepares one of the two conditional corners, which depend on where in the skewed cell each lane is.
+     */
+    private static void sideCorner2(Scratch s, int corner, int length) {
+        double[] x0 = s.doubles[0], y0 = s.doubles[1], t = s.doubles[2], u = s.doubles[4 + corner];
+        double[] cx = s.doubles[6], cy = s.doubles[7], c = s.doubles[8];
+        int[] i = s.ints[0], j = s.ints[1], ci = s.ints[2], cj = s.ints[3];
+
+        double[] sx = VectorizedOpenSimplex2SKernel.SIDE_X[corner], sy = VectorizedOpenSimplex2SKernel.SIDE_Y[corner];
+        int[] si = VectorizedOpenSimplex2SKernel.SIDE_I[corner], sj = VectorizedOpenSimplex2SKernel.SIDE_J[corner];
+        DoubleVector xOuterUpper = DoubleVector.broadcast(VectorizedSimplexKernel.DOUBLE, sx[0]);
+        DoubleVector xUpper = DoubleVector.broadcast(VectorizedSimplexKernel.DOUBLE, sx[1]);
+        DoubleVector xOuterLower = DoubleVector.broadcast(VectorizedSimplexKernel.DOUBLE, sx[2]);
+        DoubleVector xLower = DoubleVector.broadcast(VectorizedSimplexKernel.DOUBLE, sx[3]);
+        DoubleVector yOuterUpper = DoubleVector.broadcast(VectorizedSimplexKernel.DOUBLE, sy[0]);
+        DoubleVector yUpper = DoubleVector.broadcast(VectorizedSimplexKernel.DOUBLE, sy[1]);
+        DoubleVector yOuterLower = DoubleVector.broadcast(VectorizedSimplexKernel.DOUBLE, sy[2]);
+        DoubleVector yLower = DoubleVector.broadcast(VectorizedSimplexKernel.DOUBLE, sy[3]);
+        IntVector iOuterUpper = IntVector.broadcast(VectorizedSimplexKernel.INT, si[0]);
+        IntVector iUpper = IntVector.broadcast(VectorizedSimplexKernel.INT, si[1]);
+        IntVector iOuterLower = IntVector.broadcast(VectorizedSimplexKernel.INT, si[2]);
+        IntVector iLower = IntVector.broadcast(VectorizedSimplexKernel.INT, si[3]);
+        IntVector jOuterUpper = IntVector.broadcast(VectorizedSimplexKernel.INT, sj[0]);
+        IntVector jUpper = IntVector.broadcast(VectorizedSimplexKernel.INT, sj[1]);
+        IntVector jOuterLower = IntVector.broadcast(VectorizedSimplexKernel.INT, sj[2]);
+        IntVector jLower = IntVector.broadcast(VectorizedSimplexKernel.INT, sj[3]);
+
+        for(int n = 0; n < length; n += VectorizedSimplexKernel.LANES) {
+            DoubleVector uv = DoubleVector.fromArray(VectorizedSimplexKernel.DOUBLE, u, n);
+            VectorMask<Double> upper = DoubleVector.fromArray(VectorizedSimplexKernel.DOUBLE, t, n)
+                                                   .compare(VectorOperators.GT, VectorizedOpenSimplex2SKernel.G2);
+            VectorMask<Double> outerUpper = upper.and(uv.compare(VectorOperators.GT, 1));
+            VectorMask<Double> inUpper = upper.andNot(uv.compare(VectorOperators.GT, 1));
+            VectorMask<Double> outerLower = upper.not().and(uv.compare(VectorOperators.LT, 0));
+            VectorMask<Integer> outerUpperInt = outerUpper.cast(VectorizedSimplexKernel.INT);
+            VectorMask<Integer> inUpperInt = inUpper.cast(VectorizedSimplexKernel.INT);
+            VectorMask<Integer> outerLowerInt = outerLower.cast(VectorizedSimplexKernel.INT);
+
+            DoubleVector x = DoubleVector.fromArray(VectorizedSimplexKernel.DOUBLE, x0, n)
+                                         .add(xLower.blend(xOuterLower, outerLower).blend(xUpper, inUpper).blend(xOuterUpper, outerUpper));
+            DoubleVector y = DoubleVector.fromArray(VectorizedSimplexKernel.DOUBLE, y0, n)
+                                         .add(yLower.blend(yOuterLower, outerLower).blend(yUpper, inUpper).blend(yOuterUpper, outerUpper));
+            IntVector.fromArray(VectorizedSimplexKernel.INT, i, n)
+                     .add(iLower.blend(iOuterLower, outerLowerInt).blend(iUpper, inUpperInt).blend(iOuterUpper, outerUpperInt))
+                     .intoArray(ci, n);
+            IntVector.fromArray(VectorizedSimplexKernel.INT, j, n)
+                     .add(jLower.blend(jOuterLower, outerLowerInt).blend(jUpper, inUpperInt).blend(jOuterUpper, outerUpperInt))
+                     .intoArray(cj, n);
+
+            DoubleVector.broadcast(VectorizedSimplexKernel.DOUBLE, 2.0 / 3.0).sub(x.mul(x)).sub(y.mul(y)).intoArray(c, n);
+            x.intoArray(cx, n);
+            y.intoArray(cy, n);
+        }
+    }
+
+    @Override
+    void getNoiseRaw(int seed, Scratch s, int length) {
+        double[] x0 = s.doubles[0], y0 = s.doubles[1], a0 = s.doubles[3];
+        double[] cx = s.doubles[6], cy = s.doubles[7], c = s.doubles[8];
+        int[] i = s.ints[0], j = s.ints[1], ci = s.ints[2], cj = s.ints[3];
+
+        VectorizedOpenSimplex2SKernel.setup2(s, length);
+        VectorizedSimplexKernel.gradCoord(seed, i, j, x0, y0, s, length);
+        VectorizedSimplexKernel.set(a0, s.gradient, s.value, length);
+        VectorizedSimplexKernel.gradCoord(seed, ci, cj, cx, cy, s, length);
+        VectorizedSimplexKernel.add(c, s.gradient, s.value, length);
+
+        for(int corner = 0; corner < 2; corner++) {
+            VectorizedOpenSimplex2SKernel.sideCorner2(s, corner, length);
+            VectorizedSimplexKernel.gradCoord(seed, ci, cj, cx, cy, s, length);
+            VectorizedSimplexKernel.addIfPositive(c, s.gradient, s.value, length);
+        }
+
+        VectorizedSimplexKernel.scale(s.value, 18.24196194486065, length);
+    }
+}
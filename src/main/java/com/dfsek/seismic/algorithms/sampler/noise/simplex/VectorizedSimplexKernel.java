@@ -0,0 +1,221 @@
+package com.dfsek.seismic.algorithms.sampler.noise.simplex;
+
+import com.dfsek.seismic.math.arithmetic.ArithmeticFunctions;
+import com.dfsek.seismic.util.VMConstants;
+import jdk.incubator.vector.DoubleVector;
+import jdk.incubator.vector.IntVector;
+import jdk.incubator.vector.VectorOperators;
+import jdk.incubator.vector.VectorShape;
+import jdk.incubator.vector.VectorSpecies;
+
+
+/**
+ * Base for {@link SimplexBatchKernel}s built on the incubating Vector API.
+ * <p>
+ * Each lane mirrors the scalar sampler operation for operation, including {@code fma} only being fused when
+ * {@link VMConstants#HAS_FAST_SCALAR_FMA} is set, so the output is bit-identical to the scalar path.
+ * Branches are evaluated for every lane and merged with masks.
+ * <p>
+ * Coordinates are processed in batches of {@link #BATCH_SIZE}, and every algorithm is split into short loops ("stages") that only
+ * communicate through the arrays of a {@link Scratch}. C2 stops inlining ordinary methods once a compilation grows too large, and
+ * a vector that crosses a call which was not inlined gets boxed, so a stage never passes vectors to or from a method of its own:
+ * its loop body only calls into the Vector API, which is always inlined.
+ * <p>
+ * This class must only be loaded through {@link SimplexBatchKernels}.
+ */
+abstract class VectorizedSimplexKernel implements SimplexBatchKernel {
+    static final VectorSpecies<Double> DOUBLE = DoubleVector.SPECIES_PREFERRED;
+    /**
+     * Integer species with the same number of lanes as {@link #DOUBLE}.
+     */
+    static final VectorSpecies<Integer> INT = VectorSpecies.of(int.class, VectorShape.forBitSize(DOUBLE.vectorBitSize() / 2));
+    static final int LANES = DOUBLE.length();
+    /**
+     * Number of coordinates per batch. A multiple of every possible lane count, and small enough for the scratch arrays to stay
+     * in the L1 cache.
+     */
+    static final int BATCH_SIZE = 128;
+    static final boolean FMA = VMConstants.HAS_FAST_SCALAR_FMA;
+
+    private static final ThreadLocal<Scratch> SCRATCH = ThreadLocal.withInitial(Scratch::new);
+
+    /**
+     * Stage computing {@code SimplexStyleSampler.gradCoord} for every lane into {@link Scratch#gradient}.
+     * <p>
+     * Only the hash is vectorised: the gradients are looked up and applied with scalar code, as C2 in some JDK 21 builds
+     * miscompiles vector gathers on AVX-512 hardware, and they are barely faster than scalar loads anyway.
+     */
+    static void gradCoord(int seed, int[] i, int[] j, double[] x, double[] y, Scratch s, int length) {
+        int[] index = s.index;
+        for(int n = 0; n < length; n += VectorizedSimplexKernel.LANES) {
+            IntVector hash = IntVector.fromArray(VectorizedSimplexKernel.INT, i, n)
+                                      .lanewise(VectorOperators.XOR, IntVector.fromArray(VectorizedSimplexKernel.INT, j, n))
+                                      .lanewise(VectorOperators.XOR, seed)
+                                      .mul(0x27d4eb2d);
+            hash.lanewise(VectorOperators.XOR, hash.lanewise(VectorOperators.ASHR, 15)).and(127 << 1).intoArray(index, n);
+        }
+        double[] gradient = s.gradient;
+        for(int n = 0; n < length; n++) {
+            int gi = index[n];
+            gradient[n] = ArithmeticFunctions.fma(x[n], SimplexStyleSampler.GRADIENTS_2D[gi], y[n] * SimplexStyleSampler.GRADIENTS_2D[gi | 1]);
+        }
+    }
+
+    /**
+     * Stage computing {@code SimplexStyleSampler.gradCoord} for every lane into {@link Scratch#gradient}.
+     */
+    static void gradCoord(int seed, int[] i, int[] j, int[] k, double[] x, double[] y, double[] z, Scratch s, int length) {
+        int[] index = s.index;
+        for(int n = 0; n < length; n += VectorizedSimplexKernel.LANES) {
+            IntVector hash = IntVector.fromArray(VectorizedSimplexKernel.INT, i, n)
+                                      .lanewise(VectorOperators.XOR, IntVector.fromArray(VectorizedSimplexKernel.INT, j, n))
+                                      .lanewise(VectorOperators.XOR, IntVector.fromArray(VectorizedSimplexKernel.INT, k, n))
+                                      .lanewise(VectorOperators.XOR, seed)
+                                      .mul(0x27d4eb2d);
+            hash.lanewise(VectorOperators.XOR, hash.lanewise(VectorOperators.ASHR, 15)).and(63 << 2).intoArray(index, n);
+        }
+        double[] gradient = s.gradient;
+        for(int n = 0; n < length; n++) {
+            int gi = index[n];
+            gradient[n] = ArithmeticFunctions.fma(x[n], SimplexStyleSampler.GRADIENTS_3D[gi],
+                ArithmeticFunctions.fma(y[n], SimplexStyleSampler.GRADIENTS_3D[gi | 1], z[n] * SimplexStyleSampler.GRADIENTS_3D[gi | 2]));
+        }
+    }
+
+    /**
+     * Stage computing {@code value = (a * a) * (a * a) * gradient}.
+     */
+    static void set(double[] a, double[] gradient, double[] value, int length) {
+        for(int n = 0; n < length; n += VectorizedSimplexKernel.LANES) {
+            DoubleVector av = DoubleVector.fromArray(VectorizedSimplexKernel.DOUBLE, a, n);
+            DoubleVector aa = av.mul(av);
+            aa.mul(aa).mul(DoubleVector.fromArray(VectorizedSimplexKernel.DOUBLE, gradient, n)).intoArray(value, n);
+        }
+    }
+
+    /**
+     * Stage computing {@code value = a > 0 ? (a * a) * (a * a) * gradient : 0}.
+     */
+    static void setIfPositive(double[] a, double[] gradient, double[] value, int length) {
+        for(int n = 0; n < length; n += VectorizedSimplexKernel.LANES) {
+            DoubleVector av = DoubleVector.fromArray(VectorizedSimplexKernel.DOUBLE, a, n);
+            DoubleVector aa = av.mul(av);
+            DoubleVector contribution = aa.mul(aa).mul(DoubleVector.fromArray(VectorizedSimplexKernel.DOUBLE, gradient, n));
+            DoubleVector.zero(VectorizedSimplexKernel.DOUBLE)
+                        .blend(contribution, av.compare(VectorOperators.GT, 0))
+                        .intoArray(value, n);
+        }
+    }
+
+    /**
+     * Stage computing {@code value += (a * a) * (a * a) * gradient}.
+     */
+    static void add(double[] a, double[] gradient, double[] value, int length) {
+        for(int n = 0; n < length; n += VectorizedSimplexKernel.LANES) {
+            DoubleVector av = DoubleVector.fromArray(VectorizedSimplexKernel.DOUBLE, a, n);
+            DoubleVector aa = av.mul(av);
+            DoubleVector contribution = aa.mul(aa).mul(DoubleVector.fromArray(VectorizedSimplexKernel.DOUBLE, gradient, n));
+            DoubleVector.fromArray(VectorizedSimplexKernel.DOUBLE, value, n).add(contribution).intoArray(value, n);
+        }
+    }
+
+    /**
+     * Stage computing {@code if(a > 0) value += (a * a) * (a * a) * gradient}.
+     */
+    static void addIfPositive(double[] a, double[] gradient, double[] value, int length) {
+        for(int n = 0; n < length; n += VectorizedSimplexKernel.LANES) {
+            DoubleVector av = DoubleVector.fromArray(VectorizedSimplexKernel.DOUBLE, a, n);
+            DoubleVector aa = av.mul(av);
+            DoubleVector contribution = aa.mul(aa).mul(DoubleVector.fromArray(VectorizedSimplexKernel.DOUBLE, gradient, n));
+            DoubleVector v = DoubleVector.fromArray(VectorizedSimplexKernel.DOUBLE, value, n);
+            v.blend(v.add(contribution), av.compare(VectorOperators.GT, 0)).intoArray(value, n);
+        }
+    }
+
+    /**
+     * Stage computing {@code if(a > 0) value = fma((a * a) * (a * a), gradient, value)}.
+     */
+    static void fmaIfPositive(double[] a, double[] gradient, double[] value, int length) {
+        for(int n = 0; n < length; n += VectorizedSimplexKernel.LANES) {
+            DoubleVector av = DoubleVector.fromArray(VectorizedSimplexKernel.DOUBLE, a, n);
+            DoubleVector aa = av.mul(av);
+            DoubleVector falloff = aa.mul(aa);
+            DoubleVector g = DoubleVector.fromArray(VectorizedSimplexKernel.DOUBLE, gradient, n);
+            DoubleVector v = DoubleVector.fromArray(VectorizedSimplexKernel.DOUBLE, value, n);
+            DoubleVector sum = VectorizedSimplexKernel.FMA ? falloff.fma(g, v) : falloff.mul(g).add(v);
+            v.blend(sum, av.compare(VectorOperators.GT, 0)).intoArray(value, n);
+        }
+    }
+
+    /**
+     * Stage computing {@code value *= factor}.
+     */
+    static void scale(double[] value, double factor, int length) {
+        for(int n = 0; n < length; n += VectorizedSimplexKernel.LANES) {
+            DoubleVector.fromArray(VectorizedSimplexKernel.DOUBLE, value, n).mul(factor).intoArray(value, n);
+        }
+    }
+
+    @Override
+    public void getNoiseRaw(int seed, double[] x, double[] y, double[] out, int offset, int length) {
+        Scratch scratch = VectorizedSimplexKernel.SCRATCH.get();
+        for(int start = 0; start < length; start += VectorizedSimplexKernel.BATCH_SIZE) {
+            int batch = Math.min(VectorizedSimplexKernel.BATCH_SIZE, length - start);
+            System.arraycopy(x, start, scratch.x, 0, batch);
+            System.arraycopy(y, start, scratch.y, 0, batch);
+            // Lanes past the end of the batch hold stale coordinates, which are evaluated and then discarded.
+            getNoiseRaw(seed, scratch, VectorizedSimplexKernel.DOUBLE.loopBound(batch + VectorizedSimplexKernel.LANES - 1));
+            System.arraycopy(scratch.value, 0, out, offset + start, batch);
+        }
+    }
+
+    @Override
+    public void getNoiseRaw(int seed, double[] x, double[] y, double[] z, double[] out, int offset, int length) {
+        Scratch scratch = VectorizedSimplexKernel.SCRATCH.get();
+        for(int start = 0; start < length; start += VectorizedSimplexKernel.BATCH_SIZE) {
+            int batch = Math.min(VectorizedSimplexKernel.BATCH_SIZE, length - start);
+            System.arraycopy(x, start, scratch.x, 0, batch);
+            System.arraycopy(y, start, scratch.y, 0, batch);
+            System.arraycopy(z, start, scratch.z, 0, batch);
+            getNoiseRaw3(seed, scratch, VectorizedSimplexKernel.DOUBLE.loopBound(batch + VectorizedSimplexKernel.LANES - 1));
+            System.arraycopy(scratch.value, 0, out, offset + start, batch);
+        }
+    }
+
+    /**
+     * Evaluate 2D noise for the coordinates in {@link Scratch#x} and {@link Scratch#y}, writing the result to {@link Scratch#value}.
+     *
+     * @param seed   the salted seed.
+     * @param s      the scratch space.
+     * @param length the number of lanes to evaluate, a multiple of {@link #LANES}.
+     */
+    abstract void getNoiseRaw(int seed, Scratch s, int length);
+
+    /**
+     * Evaluate 3D noise for the coordinates in {@link Scratch#x}, {@link Scratch#y} and {@link Scratch#z}, writing the result to
+     * {@link Scratch#value}.
+     *
+     * @param seed   the salted seed.
+     * @param s      the scratch space.
+     * @param length the number of lanes to evaluate, a multiple of {@link #LANES}.
+     *
+     * @throws UnsupportedOperationException if this kernel only supports 2D noise.
+     */
+    void getNoiseRaw3(int seed, Scratch s, int length) {
+        throw new UnsupportedOperationException(getClass().getSimpleName() + " only supports 2D noise");
+    }
+
+    /**
+     * Per-thread arrays the stages of a kernel communicate through. Kernels are free to use every array for whatever they need.
+     */
+    static final class Scratch {
+        final double[] x = new double[VectorizedSimplexKernel.BATCH_SIZE];
+        final double[] y = new double[VectorizedSimplexKernel.BATCH_SIZE];
+        final double[] z = new double[VectorizedSimplexKernel.BATCH_SIZE];
+        final double[] value = new double[VectorizedSimplexKernel.BATCH_SIZE];
+        final double[] gradient = new double[VectorizedSimplexKernel.BATCH_SIZE];
+        final double[][] doubles = new double[11][VectorizedSimplexKernel.BATCH_SIZE];
+        final int[][] ints = new int[9][VectorizedSimplexKernel.BATCH_SIZE];
+        final int[] index = new int[VectorizedSimplexKernel.BATCH_SIZE];
+    }
+}
@@ -136,4 +136,150 @@ public class ValueCubicSampler extends ValueStyleNoise {
                 ys),
             zs) * (1 / (1.5 * 1.5 * 1.5));
     }
+
+    /**
+     * Value along one lattice row, interpolated in x.
+     */
+    private static double cubicRow(int seed, int x0, int x1, int x2, int x3, double xs, int yPrimed) {
+        return InterpolationFunctions.cubicLerp(ValueStyleNoise.valCoord(seed, x0, yPrimed), ValueStyleNoise.valCoord(seed, x1, yPrimed),
+            ValueStyleNoise.valCoord(seed, x2, yPrimed), ValueStyleNoise.valCoord(seed, x3, yPrimed), xs);
+    }
+
+    /**
+     * Value of one lattice slice, interpolated in x and y.
+     */
+    private static double cubicSlice(int seed, int x0, int x1, int x2, int x3, double xs, int y0, int y1, int y2, int y3, double ys,
+                                     int z) {
+        return InterpolationFunctions.cubicLerp(
+            InterpolationFunctions.cubicLerp(ValueStyleNoise.valCoord(seed, x0, y0, z), ValueStyleNoise.valCoord(seed, x1, y0, z),
+                ValueStyleNoise.valCoord(seed, x2, y0, z), ValueStyleNoise.valCoord(seed, x3, y0, z), xs),
+            InterpolationFunctions.cubicLerp(ValueStyleNoise.valCoord(seed, x0, y1, z), ValueStyleNoise.valCoord(seed, x1, y1, z),
+                ValueStyleNoise.valCoord(seed, x2, y1, z), ValueStyleNoise.valCoord(seed, x3, y1, z), xs),
+            InterpolationFunctions.cubicLerp(ValueStyleNoise.valCoord(seed, x0, y2, z), ValueStyleNoise.valCoord(seed, x1, y2, z),
+                ValueStyleNoise.valCoord(seed, x2, y2, z), ValueStyleNoise.valCoord(seed, x3, y2, z), xs),
+            InterpolationFunctions.cubicLerp(ValueStyleNoise.valCoord(seed, x0, y3, z), ValueStyleNoise.valCoord(seed, x1, y3, z),
+                ValueStyleNoise.valCoord(seed, x2, y3, z), ValueStyleNoise.valCoord(seed, x3, y3, z), xs),
+            ys);
+    }
+
+    /**
+     * {@inheritDoc}
+     * <p>
+     * The x interpolation only depends on the column and the lattice row, so it is done once per row and the four rows around a
+     * point are reused until it moves to the next cell.
+     */
+    @Override
+    protected void getNoiseRawGrid(long seed, double[] out, double x, double y, double stepX, double stepY, int sizeX, int sizeY) {
+        if(!reusesLattice()) {
+            super.getNoiseRawGrid(seed, out, x, y, stepX, stepY, sizeX, sizeY);
+            return;
+        }
+        int saltedSeed = (int) seed;
+        int index = 0;
+        for(int ix = 0; ix < sizeX; ix++) {
+            double sx = (x + ix * stepX) * frequency;
+            int x1 = FloatingPointFunctions.floor(sx);
+            double xs = sx - x1;
+            x1 *= NoiseFunction.PRIME_X;
+            int x0 = x1 - NoiseFunction.PRIME_X;
+            int x2 = x1 + NoiseFunction.PRIME_X;
+            int x3 = x1 + (NoiseFunction.PRIME_X << 1);
+
+            boolean cached = false;
+            int cell = 0;
+            double r0 = 0, r1 = 0, r2 = 0, r3 = 0;
+            for(int iy = 0; iy < sizeY; iy++) {
+                double sy = (y + iy * stepY) * frequency;
+                int y1 = FloatingPointFunctions.floor(sy);
+                if(!cached || y1 != cell) {
+                    int y1Primed = y1 * NoiseFunction.PRIME_Y;
+                    if(cached && y1 == cell + 1) {
+                        r0 = r1;
+                        r1 = r2;
+                        r2 = r3;
+                    } else {
+                        r0 = ValueCubicSampler.cubicRow(saltedSeed, x0, x1, x2, x3, xs, y1Primed - NoiseFunction.PRIME_Y);
+                        r1 = ValueCubicSampler.cubicRow(saltedSeed, x0, x1, x2, x3, xs, y1Primed);
+                        r2 = ValueCubicSampler.cubicRow(saltedSeed, x0, x1, x2, x3, xs, y1Primed + NoiseFunction.PRIME_Y);
+                    }
+                    r3 = ValueCubicSampler.cubicRow(saltedSeed, x0, x1, x2, x3, xs, y1Primed + (NoiseFunction.PRIME_Y << 1));
+                    cell = y1;
+                    cached = true;
+                }
+
+                out[index++] = InterpolationFunctions.cubicLerp(r0, r1, r2, r3, sy - y1) * (1 / (1.5 * 1.5));
+            }
+        }
+    }
+
+    /**
+     * {@inheritDoc}
+     * <p>
+     * The x and y interpolation only depends on the column and the lattice slice, so it is done once per slice and the four slices
+     * around a point are reused until it moves to the next cell.
+     */
+    @Override
+    protected void getNoiseRawGrid(long seed, double[] out, double x, double y, double z, double stepX, double stepY, double stepZ,
+                                   int sizeX, int sizeY, int sizeZ) {
+        if(!reusesLattice()) {
+            super.getNoiseRawGrid(seed, out, x, y, z, stepX, stepY, stepZ, sizeX, sizeY, sizeZ);
+            return;
+        }
+        int saltedSeed = (int) seed;
+        int index = 0;
+        for(int ix = 0; ix < sizeX; ix++) {
+            double sx = (x + ix * stepX) * frequency;
+            int x1 = FloatingPointFunctions.floor(sx);
+            double xs = sx - x1;
+            x1 *= NoiseFunction.PRIME_X;
+            int x0 = x1 - NoiseFunction.PRIME_X;
+            int x2 = x1 + NoiseFunction.PRIME_X;
+            int x3 = x1 + (NoiseFunction.PRIME_X << 1);
+
+            for(int iy = 0; iy < sizeY; iy++) {
+                double sy = (y + iy * stepY) * frequency;
+                int y1 = FloatingPointFunctions.floor(sy);
+                double ys = sy - y1;
+                y1 *= NoiseFunction.PRIME_Y;
+                int y0 = y1 - NoiseFunction.PRIME_Y;
+                int y2 = y1 + NoiseFunction.PRIME_Y;
+                int y3 = y1 + (NoiseFunction.PRIME_Y << 1);
+
+                boolean cached = false;
+                int cell = 0;
+                double s0 = 0, s1 = 0, s2 = 0, s3 = 0;
+                for(int iz = 0; iz < sizeZ; iz++) {
+                    double sz = (z + iz * stepZ) * frequency;
+                    int z1 = FloatingPointFunctions.floor(sz);
+                    if(!cached || z1 != cell) {
+                        int z1Primed = z1 * NoiseFunction.PRIME_Z;
+                        if(cached && z1 == cell + 1) {
+                            s0 = s1;
+                            s1 = s2;
+                            s2 = s3;
+                        } else {
+                            s0 = ValueCubicSampler.cubicSlice(saltedSeed, x0, x1, x2, x3, xs, y0, y1, y2, y3, ys,
+                                z1Primed - NoiseFunction.PRIME_Z);
+                            s1 = ValueCubicSampler.cubicSlice(saltedSeed, x0, x1, x2, x3, xs, y0, y1, y2, y3, ys, z1Primed);
+                            s2 = ValueCubicSampler.cubicSlice(saltedSeed, x0, x1, x2, x3, xs, y0, y1, y2, y3, ys,
+                                z1Primed + NoiseFunction.PRIME_Z);
+                        }
+                        s3 = ValueCubicSampler.cubicSlice(saltedSeed, x0, x1, x2, x3, xs, y0, y1, y2, y3, ys,
+                            z1Primed + (NoiseFunction.PRIME_Z << 1));
+                        cell = z1;
+                        cached = true;
+                    }
+
+                    out[index++] = InterpolationFunctions.cubicLerp(s0, s1, s2, s3, sz - z1) * (1 / (1.5 * 1.5 * 1.5));
+                }
+            }
+        }
+    }
+
+    /**
+     * Whether grid fills may reuse lattice rows. Subclasses may override {@code getNoiseRaw}, so they fill grids through it instead.
+     */
+    private boolean reusesLattice() {
+        return getClass() == ValueCubicSampler.class;
+    }
 }
@@ -67,4 +67,187 @@ public class ValueSampler extends ValueStyleNoise {
         return InterpolationFunctions.lerp(zs, yf0, yf1);
     }
 
+    /**
+     * {@inheritDoc}
+     * <p>
+     * Subclasses may override {@code getNoiseRaw}, so only this exact class shares channels.
+     */
+    @Override
+    public boolean sharesChannels() {
+        return getClass() == ValueSampler.class;
+    }
+
+    /**
+     * {@inheritDoc}
+     * <p>
+     * The lattice cell and the interpolation weights do not depend on the seed, so they are computed once for every channel.
+     */
+    @Override
+    public void getNoiseRawChannels(long sl, double[] out, int offset, int channels, double x, double y) {
+        int x0 = FloatingPointFunctions.floor(x);
+        int y0 = FloatingPointFunctions.floor(y);
+
+        double xs = SmoothstepFunctions.cubicPolynomialSmoothstep(x - x0);
+        double ys = SmoothstepFunctions.cubicPolynomialSmoothstep(y - y0);
+
+        x0 *= NoiseFunction.PRIME_X;
+        y0 *= NoiseFunction.PRIME_Y;
+        int x1 = x0 + NoiseFunction.PRIME_X;
+        int y1 = y0 + NoiseFunction.PRIME_Y;
+
+        for(int n = 0; n < channels; n++) {
+            int seed = (int) (sl + n);
+            double xf0 = ValueSampler.lerpRow(seed, x0, x1, xs, y0);
+            double xf1 = ValueSampler.lerpRow(seed, x0, x1, xs, y1);
+            out[offset + n] = InterpolationFunctions.lerp(ys, xf0, xf1);
+        }
+    }
+
+    /**
+     * {@inheritDoc}
+     * <p>
+     * The lattice cell and the interpolation weights do not depend on the seed, so they are computed once for every channel.
+     */
+    @Override
+    public void getNoiseRawChannels(long sl, double[] out, int offset, int channels, double x, double y, double z) {
+        int x0 = FloatingPointFunctions.floor(x);
+        int y0 = FloatingPointFunctions.floor(y);
+        int z0 = FloatingPointFunctions.floor(z);
+
+        // Matches getNoiseRaw.
+        double xs = SmoothstepFunctions.cubicPolynomialSmoothstep(-x0);
+        double ys = SmoothstepFunctions.cubicPolynomialSmoothstep(y - y0);
+        double zs = SmoothstepFunctions.cubicPolynomialSmoothstep(z - z0);
+
+        x0 *= NoiseFunction.PRIME_X;
+        y0 *= NoiseFunction.PRIME_Y;
+        z0 *= NoiseFunction.PRIME_Z;
+        int x1 = x0 + NoiseFunction.PRIME_X;
+        int y1 = y0 + NoiseFunction.PRIME_Y;
+        int z1 = z0 + NoiseFunction.PRIME_Z;
+
+        for(int n = 0; n < channels; n++) {
+            int seed = (int) (sl + n);
+            double yf0 = ValueSampler.lerpSlice(seed, x0, x1, xs, y0, y1, ys, z0);
+            double yf1 = ValueSampler.lerpSlice(seed, x0, x1, xs, y0, y1, ys, z1);
+            out[offset + n] = InterpolationFunctions.lerp(zs, yf0, yf1);
+        }
+    }
+
+    /**
+     * Value along one lattice row, interpolated in x.
+     */
+    private static double lerpRow(int seed, int x0, int x1, double xs, int yPrimed) {
+        return InterpolationFunctions.lerp(xs, ValueStyleNoise.valCoord(seed, x0, yPrimed), ValueStyleNoise.valCoord(seed, x1, yPrimed));
+    }
+
+    /**
+     * Value of one lattice slice, interpolated in x and y.
+     */
+    private static double lerpSlice(int seed, int x0, int x1, double xs, int y0, int y1, double ys, int zPrimed) {
+        double xf0 = InterpolationFunctions.lerp(xs, ValueStyleNoise.valCoord(seed, x0, y0, zPrimed),
+            ValueStyleNoise.valCoord(seed, x1, y0, zPrimed));
+        double xf1 = InterpolationFunctions.lerp(xs, ValueStyleNoise.valCoord(seed, x0, y1, zPrimed),
+            ValueStyleNoise.valCoord(seed, x1, y1, zPrimed));
+        return InterpolationFunctions.lerp(ys, xf0, xf1);
+    }
+
+    /**
+     * {@inheritDoc}
+     * <p>
+     * The x interpolation only depends on the column and the lattice row, so it is done once per row and reused for every point
+     * between two rows.
+     */
+    @Override
+    protected void getNoiseRawGrid(long seed, double[] out, double x, double y, double stepX, double stepY, int sizeX, int sizeY) {
+        if(!reusesLattice()) {
+            super.getNoiseRawGrid(seed, out, x, y, stepX, stepY, sizeX, sizeY);
+            return;
+        }
+        int saltedSeed = (int) seed;
+        int index = 0;
+        for(int ix = 0; ix < sizeX; ix++) {
+            double sx = (x + ix * stepX) * frequency;
+            int x0 = FloatingPointFunctions.floor(sx);
+            double xs = SmoothstepFunctions.cubicPolynomialSmoothstep(sx - x0);
+            x0 *= NoiseFunction.PRIME_X;
+            int x1 = x0 + NoiseFunction.PRIME_X;
+
+            boolean cached = false;
+            int cell = 0;
+            double xf0 = 0, xf1 = 0;
+            for(int iy = 0; iy < sizeY; iy++) {
+                double sy = (y + iy * stepY) * frequency;
+                int y0 = FloatingPointFunctions.floor(sy);
+                if(!cached || y0 != cell) {
+                    int y0Primed = y0 * NoiseFunction.PRIME_Y;
+                    xf0 = cached && y0 == cell + 1 ? xf1 : ValueSampler.lerpRow(saltedSeed, x0, x1, xs, y0Primed);
+                    xf1 = ValueSampler.lerpRow(saltedSeed, x0, x1, xs, y0Primed + NoiseFunction.PRIME_Y);
+                    cell = y0;
+                    cached = true;
+                }
+
+                double ys = SmoothstepFunctions.cubicPolynomialSmoothstep(sy - y0);
+                out[index++] = InterpolationFunctions.lerp(ys, xf0, xf1);
+            }
+        }
+    }
+
+    /**
+     * {@inheritDoc}
+     * <p>
+     * The x and y interpolation only depends on the column and the lattice slice, so it is done once per slice and reused for every
+     * point between two slices.
+     */
+    @Override
+    protected void getNoiseRawGrid(long seed, double[] out, double x, double y, double z, double stepX, double stepY, double stepZ,
+                                   int sizeX, int sizeY, int sizeZ) {
+        if(!reusesLattice()) {
+            super.getNoiseRawGrid(seed, out, x, y, z, stepX, stepY, stepZ, sizeX, sizeY, sizeZ);
+            return;
+        }
+        int saltedSeed = (int) seed;
+        int index = 0;
+        for(int ix = 0; ix < sizeX; ix++) {
+            double sx = (x + ix * stepX) * frequency;
+            int x0 = FloatingPointFunctions.floor(sx);
+            // Matches getNoiseRaw.
+            double xs = SmoothstepFunctions.cubicPolynomialSmoothstep(-x0);
+            x0 *= NoiseFunction.PRIME_X;
+            int x1 = x0 + NoiseFunction.PRIME_X;
+
+            for(int iy = 0; iy < sizeY; iy++) {
+                double sy = (y + iy * stepY) * frequency;
+                int y0 = FloatingPointFunctions.floor(sy);
+                double ys = SmoothstepFunctions.cubicPolynomialSmoothstep(sy - y0);
+                y0 *= NoiseFunction.PRIME_Y;
+                int y1 = y0 + NoiseFunction.PRIME_Y;
+
+                boolean cached = false;
+                int cell = 0;
+                double yf0 = 0, yf1 = 0;
+                for(int iz = 0; iz < sizeZ; iz++) {
+                    double sz = (z + iz * stepZ) * frequency;
+                    int z0 = FloatingPointFunctions.floor(sz);
+                    if(!cached || z0 != cell) {
+                        int z0Primed = z0 * NoiseFunction.PRIME_Z;
+                        yf0 = cached && z0 == cell + 1 ? yf1 : ValueSampler.lerpSlice(saltedSeed, x0, x1, xs, y0, y1, ys, z0Primed);
+                        yf1 = ValueSampler.lerpSlice(saltedSeed, x0, x1, xs, y0, y1, ys, z0Primed + NoiseFunction.PRIME_Z);
+                        cell = z0;
+                        cached = true;
+                    }
+
+                    double zs = SmoothstepFunctions.cubicPolynomialSmoothstep(sz - z0);
+                    out[index++] = InterpolationFunctions.lerp(zs, yf0, yf1);
+                }
+            }
+        }
+    }
+
+    /**
+     * Whether grid fills may reuse lattice rows. Subclasses may override {@code getNoiseRaw}, so they fill grids through it instead.
+     */
+    private boolean reusesLattice() {
+        return getClass() == ValueSampler.class;
+    }
 }
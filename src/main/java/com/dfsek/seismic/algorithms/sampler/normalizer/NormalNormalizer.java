@@ -14,10 +14,22 @@ import com.dfsek.seismic.type.sampler.Sampler;
 
 /**
  * Normalizer to redistribute normally distributed data to a continuous distribution via an automatically generated lookup table.
+ * <p>
+ * The bucket of a value is found through a second table dividing the range of the buckets into equally wide cells, each holding the
+ * last bucket that starts at or before it. Cells are narrower than the narrowest bucket, so finding a bucket takes one index
+ * computation and rarely more than one comparison, instead of a binary search.
  */
 public class NormalNormalizer extends Normalizer {
+    /**
+     * Number of cells per bucket. Buckets are narrowest at the mean, where they are about {@code 2.5 / buckets} standard deviations
+     * wide, and for up to a million buckets the cells span less than 10 standard deviations, so each cell is narrower than any bucket.
+     */
+    private static final int CELLS_PER_BUCKET = 4;
 
     private final double[] lookup;
+    private final int[] cellStart;
+    private final double cellMin;
+    private final double cellScale;
 
     public NormalNormalizer(Sampler sampler, int buckets, double mean, double standardDeviation) {
         super(sampler);
@@ -26,10 +38,25 @@ public class NormalNormalizer extends Normalizer {
         for(int i = 0; i < buckets; i++) {
             lookup[i] = StatisticFunctions.normalInverse((double) i / buckets, mean, standardDeviation);
         }
+
+        // The first bucket starts at negative infinity, so the cells span the finite bucket starts.
+        double min = buckets > 1 ? lookup[1] : mean;
+        double max = buckets > 0 ? lookup[buckets - 1] : mean;
+        int cells = buckets * CELLS_PER_BUCKET;
+        this.cellMin = min;
+        this.cellScale = max > min ? cells / (max - min) : 0;
+        this.cellStart = new int[cells];
+        // Values below the cells are clamped into the first one, so it starts at the first bucket.
+        for(int cell = 1; cell < cells; cell++) {
+            // Search slightly before the cell, so rounding while indexing can never land a value in a cell starting past it.
+            cellStart[cell] = search(min + (cell - 0.25) * (max - min) / cells);
+        }
     }
 
-    @Override
-    public double normalize(double in) {
+    /**
+     * @return the last bucket before the final one that starts at or before {@code in}, or the first bucket if there is none.
+     */
+    private int search(double in) {
         int start = 0;
         int end = lookup.length - 1;
         while(start + 1 < end) {
@@ -40,6 +67,18 @@ public class NormalNormalizer extends Normalizer {
                 end = mid;
             }
         }
+        return start;
+    }
+
+    @Override
+    public double normalize(double in) {
+        double[] lookup = this.lookup;
+        int cell = (int) Math.min(Math.max((in - cellMin) * cellScale, 0), cellStart.length - 1);
+        int start = cellStart[cell];
+        while(start < lookup.length - 2 && lookup[start + 1] <= in) {
+            start++;
+        }
+        int end = Math.min(start + 1, lookup.length - 1);
         double left = Math.abs(lookup[start] - in);
         double right = Math.abs(lookup[end] - in);
 
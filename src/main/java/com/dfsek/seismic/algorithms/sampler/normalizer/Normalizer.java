@@ -18,8 +18,25 @@ public abstract class Normalizer implements Sampler {
         this.sampler = sampler;
     }
 
+    public Sampler getSampler() {
+        return sampler;
+    }
+
     public abstract double normalize(double in);
 
+    /**
+     * Normalizes {@code length} values of {@code values} in place, starting at {@code offset}.
+     *
+     * @param values the values to normalize.
+     * @param offset the index of the first value.
+     * @param length the number of values.
+     */
+    public void normalize(double[] values, int offset, int length) {
+        for(int i = offset; i < offset + length; i++) {
+            values[i] = normalize(values[i]);
+        }
+    }
+
     @Override
     public double getSample(long seed, double x, double y) {
         return normalize(sampler.getSample(seed, x, y));
@@ -29,4 +46,17 @@ public abstract class Normalizer implements Sampler {
     public double getSample(long seed, double x, double y, double z) {
         return normalize(sampler.getSample(seed, x, y, z));
     }
+
+    @Override
+    public void getSampleGrid(long seed, double[] out, double x, double y, double stepX, double stepY, int sizeX, int sizeY) {
+        sampler.getSampleGrid(seed, out, x, y, stepX, stepY, sizeX, sizeY);
+        normalize(out, 0, sizeX * sizeY);
+    }
+
+    @Override
+    public void getSampleGrid(long seed, double[] out, double x, double y, double z, double stepX, double stepY, double stepZ,
+                              int sizeX, int sizeY, int sizeZ) {
+        sampler.getSampleGrid(seed, out, x, y, z, stepX, stepY, stepZ, sizeX, sizeY, sizeZ);
+        normalize(out, 0, sizeX * sizeY * sizeZ);
+    }
 }
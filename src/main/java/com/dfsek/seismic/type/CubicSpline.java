@@ -7,12 +7,40 @@ import java.util.Collections;
 import java.util.List;
 
 
+/**
+ * A cubic spline through a list of points, extended linearly past its first and last point.
+ * <p>
+ * On construction the spline precomputes the terms of every segment that do not depend on the input, and a uniform bucket index over
+ * its points, so that {@link #apply(double)} finds its segment in constant time and only evaluates what does. It selects the same
+ * segment and performs the same arithmetic as {@link #calculate(double, double[], double[], double[])}, and so returns identical
+ * values.
+ */
 public class CubicSpline {
+    /**
+     * Number of doubles per segment in {@link #segments}: the input at its start, its width, the outputs at its start and end, and the
+     * two values its cubic term interpolates between. The linear extensions instead store the input, gradient and output of their
+     * point.
+     */
+    private static final int STRIDE = 6;
 
     private final double[] fromValues;
     private final double[] toValues;
     private final double[] gradients;
 
+    /**
+     * Precomputed terms of every segment, {@link #STRIDE} doubles each. Segment {@code k} is used for inputs with exactly {@code k}
+     * points at or below them, so the first and last segments are the linear extensions.
+     */
+    private final double[] segments;
+
+    /**
+     * Uniform buckets spanning the first to the last point, each holding the segment of its lower bound. The segment of an input is usually
+     * only a few points away from that of its bucket, and is found exactly by stepping over them.
+     */
+    private final int[] bucketSegments;
+    private final double bucketOrigin;
+    private final double bucketScale;
+
     /**
      * Constructs a CubicSpline from a list of points.
      *
@@ -30,6 +58,23 @@ public class CubicSpline {
             toValues[i] = points.get(i).to;
             gradients[i] = points.get(i).gradient;
         }
+
+        int count = fromValues.length;
+        this.segments = new double[(count + 1) * STRIDE];
+        for(int segment = 0; segment <= count; segment++) {
+            compileSegment(segment);
+        }
+
+        // Two buckets per point keep the expected number of steps below one for evenly spread points.
+        int buckets = Math.max(1, count * 2);
+        this.bucketSegments = new int[buckets];
+        double first = count == 0 ? 0 : fromValues[0];
+        double width = count == 0 ? 0 : fromValues[count - 1] - first;
+        this.bucketOrigin = first;
+        this.bucketScale = width > 0 ? buckets / width : 0;
+        for(int b = 0; b < buckets; b++) {
+            bucketSegments[b] = CubicSpline.floorBinarySearch(width > 0 ? first + b / bucketScale : first, fromValues);
+        }
     }
 
     /**
@@ -97,7 +142,86 @@ public class CubicSpline {
      * @return the interpolated value
      */
     public double apply(double in) {
-        return CubicSpline.calculate(in, fromValues, toValues, gradients);
+        double[] fromValues = this.fromValues;
+        int[] bucketSegments = this.bucketSegments;
+        int bucket = Math.min(Math.max((int) ((in - bucketOrigin) * bucketScale), 0), bucketSegments.length - 1);
+        int segment = bucketSegments[bucket];
+        // Rounding may place an input in a neighbouring bucket, so the walk checks both directions.
+        while(segment > 0 && in < fromValues[segment - 1]) {
+            segment--;
+        }
+        while(segment < fromValues.length && in >= fromValues[segment]) {
+            segment++;
+        }
+        return evaluate(segment, in);
+    }
+
+    /**
+     * Evaluates segment {@code segment} at {@code in}.
+     */
+    private double evaluate(int segment, double in) {
+        int offset = segment * STRIDE;
+        double[] segments = this.segments;
+        if(segment == 0 || segment == fromValues.length) {
+            return segments[offset + 1] * (in - segments[offset]) + segments[offset + 2];
+        }
+        double t = (in - segments[offset]) / segments[offset + 1];
+        return InterpolationFunctions.lerp(t, segments[offset + 2], segments[offset + 3]) + t * (1.0F - t) * InterpolationFunctions.lerp(t,
+            segments[offset + 4], segments[offset + 5]);
+    }
+
+    /**
+     * Applies the cubic spline interpolation to the first {@code length} values of {@code in}. Every value written is identical to
+     * the one returned by {@link #apply(double)}.
+     *
+     * @param in     the input values
+     * @param out    the array to write the interpolated values to, which may be {@code in}
+     * @param length the number of values
+     */
+    public void apply(double[] in, double[] out, int length) {
+        for(int i = 0; i < length; i++) {
+            out[i] = apply(in[i]);
+        }
+    }
+
+    /**
+     * Applies the cubic spline interpolation to every value of {@code in}.
+     *
+     * @param in  the input values
+     * @param out the array to write the interpolated values to, which may be {@code in}
+     */
+    public void apply(double[] in, double[] out) {
+        apply(in, out, in.length);
+    }
+
+    /**
+     * Precomputes the terms of the segment starting at point {@code segment - 1} exactly as
+     * {@link #calculate(double, double[], double[], double[])} computes them.
+     */
+    private void compileSegment(int segment) {
+        int last = fromValues.length - 1;
+        int offset = segment * STRIDE;
+        if(last < 0) {
+            return;
+        }
+        if(segment == 0 || segment > last) {
+            int point = segment == 0 ? 0 : last;
+            segments[offset] = fromValues[point];
+            segments[offset + 1] = gradients[point];
+            segments[offset + 2] = toValues[point];
+            return;
+        }
+        double fromLeft = fromValues[segment - 1];
+        double fromDelta = fromValues[segment] - fromLeft;
+        double toLeft = toValues[segment - 1];
+        double toRight = toValues[segment];
+        double toDelta = toRight - toLeft;
+        segments[offset] = fromLeft;
+        segments[offset + 1] = fromDelta;
+        segments[offset + 2] = toLeft;
+        segments[offset + 3] = toRight;
+        segments[offset + 4] = gradients[segment - 1] * fromDelta - toDelta;
+        segments[offset + 5] = -gradients[segment] * fromDelta + toDelta;
     }
 
 
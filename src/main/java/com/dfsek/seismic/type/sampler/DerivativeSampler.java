@@ -94,4 +94,88 @@ public interface DerivativeSampler extends Sampler {
      * @return 4 element array, in index order: 3D noise value, partial x derivative, partial y derivative, partial z derivative
      */
     double[] getSampleDerivative(long seed, double x, double y, double z);
+
+    /**
+     * Derivative version of standard 2D noise evaluation, writing into a caller-supplied array instead of allocating one.
+     *
+     * @param seed   a seed.
+     * @param out    the array to write to.
+     * @param offset the index in {@code out} to write the 3 elements at, in index order: 2D noise value, partial x derivative,
+     *               partial y derivative.
+     * @param x      X coordinate.
+     * @param y      Y coordinate.
+     */
+    default void getSampleDerivative(long seed, double @NotNull [] out, int offset, double x, double y) {
+        System.arraycopy(getSampleDerivative(seed, x, y), 0, out, offset, 3);
+    }
+
+    /**
+     * Derivative version of standard 3D noise evaluation, writing into a caller-supplied array instead of allocating one.
+     *
+     * @param seed   a seed.
+     * @param out    the array to write to.
+     * @param offset the index in {@code out} to write the 4 elements at, in index order: 3D noise value, partial x derivative,
+     *               partial y derivative, partial z derivative.
+     * @param x      X coordinate.
+     * @param y      Y coordinate.
+     * @param z      Z coordinate.
+     */
+    default void getSampleDerivative(long seed, double @NotNull [] out, int offset, double x, double y, double z) {
+        System.arraycopy(getSampleDerivative(seed, x, y, z), 0, out, offset, 4);
+    }
+
+    /**
+     * Derivative version of 2D grid evaluation, writing into a caller-supplied array. Lets samplers that consume a derivative over a
+     * whole region request it in one call.
+     * <p>
+     * The sample at grid position ({@code ix}, {@code iy}) is taken at coordinates ({@code xs[ix]}, {@code ys[iy]}) and its 3 elements
+     * are stored from index {@code (ix * sizeY + iy) * 3}, so every value is identical to the one written by
+     * {@link #getSampleDerivative(long, double[], int, double, double)} for the same coordinates.
+     *
+     * @param seed  a seed.
+     * @param out   the array to write to, of at least {@code sizeX * sizeY * 3} elements.
+     * @param xs    X coordinates of the grid columns.
+     * @param ys    Y coordinates of the grid rows.
+     * @param sizeX number of samples along the X axis.
+     * @param sizeY number of samples along the Y axis.
+     */
+    default void getSampleDerivativeGrid(long seed, double @NotNull [] out, double @NotNull [] xs, double @NotNull [] ys, int sizeX,
+                                         int sizeY) {
+        int offset = 0;
+        for(int ix = 0; ix < sizeX; ix++) {
+            for(int iy = 0; iy < sizeY; iy++) {
+                getSampleDerivative(seed, out, offset, xs[ix], ys[iy]);
+                offset += 3;
+            }
+        }
+    }
+
+    /**
+     * Derivative version of 3D grid evaluation, writing into a caller-supplied array.
+     * <p>
+     * The sample at grid position ({@code ix}, {@code iy}, {@code iz}) is taken at coordinates ({@code xs[ix]}, {@code ys[iy]},
+     * {@code zs[iz]}) and its 4 elements are stored from index {@code ((ix * sizeY + iy) * sizeZ + iz) * 4}, so every value is identical
+     * to the one written by {@link #getSampleDerivative(long, double[], int, double, double, double)} for the same coordinates.
+     *
+     * @param seed  a seed.
+     * @param out   the array to write to, of at least {@code sizeX * sizeY * sizeZ * 4} elements.
+     * @param xs    X coordinates of the grid columns.
+     * @param ys    Y coordinates of the grid rows.
+     * @param zs    Z coordinates of the grid layers.
+     * @param sizeX number of samples along the X axis.
+     * @param sizeY number of samples along the Y axis.
+     * @param sizeZ number of samples along the Z axis.
+     */
+    default void getSampleDerivativeGrid(long seed, double @NotNull [] out, double @NotNull [] xs, double @NotNull [] ys,
+                                         double @NotNull [] zs, int sizeX, int sizeY, int sizeZ) {
+        int offset = 0;
+        for(int ix = 0; ix < sizeX; ix++) {
+            for(int iy = 0; iy < sizeY; iy++) {
+                for(int iz = 0; iz < sizeZ; iz++) {
+                    getSampleDerivative(seed, out, offset, xs[ix], ys[iy], zs[iz]);
+                    offset += 4;
+                }
+            }
+        }
+    }
 }
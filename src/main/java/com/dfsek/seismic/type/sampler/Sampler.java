@@ -127,4 +127,64 @@ public interface Sampler {
     default double getSample(long seed, int x, int y, int z) {
         return getSample(seed, (double) x, y, z);
     }
+
+    /**
+     * Fill {@code out} with 2D noise sampled over an axis-aligned grid, using the given seed.
+     * <p>
+     * The sample at grid position ({@code ix}, {@code iy}) is taken at coordinates
+     * ({@code x + ix * stepX}, {@code y + iy * stepY}) and stored at index {@code ix * sizeY + iy},
+     * so every value is identical to the one returned by {@link #getSample(long, double, double)} for the same coordinates.
+     *
+     * @param seed  a seed.
+     * @param out   the array to write samples to, of at least {@code sizeX * sizeY} elements.
+     * @param x     X coordinate of the grid origin.
+     * @param y     Y coordinate of the grid origin.
+     * @param stepX distance between samples along the X axis.
+     * @param stepY distance between samples along the Y axis.
+     * @param sizeX number of samples along the X axis.
+     * @param sizeY number of samples along the Y axis.
+     */
+    default void getSampleGrid(long seed, double @NotNull [] out, double x, double y, double stepX, double stepY, int sizeX, int sizeY) {
+        int index = 0;
+        for(int ix = 0; ix < sizeX; ix++) {
+            double sx = x + ix * stepX;
+            for(int iy = 0; iy < sizeY; iy++) {
+                out[index++] = getSample(seed, sx, y + iy * stepY);
+            }
+        }
+    }
+
+    /**
+     * Fill {@code out} with 3D noise sampled over an axis-aligned grid, using the given seed.
+     * <p>
+     * The sample at grid position ({@code ix}, {@code iy}, {@code iz}) is taken at coordinates
+     * ({@code x + ix * stepX}, {@code y + iy * stepY}, {@code z + iz * stepZ}) and stored at index
+     * {@code (ix * sizeY + iy) * sizeZ + iz}, so every value is identical to the one returned by
+     * {@link #getSample(long, double, double, double)} for the same coordinates.
+     *
+     * @param seed  a seed.
+     * @param out   the array to write samples to, of at least {@code sizeX * sizeY * sizeZ} elements.
+     * @param x     X coordinate of the grid origin.
+     * @param y     Y coordinate of the grid origin.
+     * @param z     Z coordinate of the grid origin.
+     * @param stepX distance between samples along the X axis.
+     * @param stepY distance between samples along the Y axis.
+     * @param stepZ distance between samples along the Z axis.
+     * @param sizeX number of samples along the X axis.
+     * @param sizeY number of samples along the Y axis.
+     * @param sizeZ number of samples along the Z axis.
+     */
+    default void getSampleGrid(long seed, double @NotNull [] out, double x, double y, double z, double stepX, double stepY, double stepZ,
+                               int sizeX, int sizeY, int sizeZ) {
+        int index = 0;
+        for(int ix = 0; ix < sizeX; ix++) {
+            double sx = x + ix * stepX;
+            for(int iy = 0; iy < sizeY; iy++) {
+                double sy = y + iy * stepY;
+                for(int iz = 0; iz < sizeZ; iz++) {
+                    out[index++] = getSample(seed, sx, sy, z + iz * stepZ);
+                }
+            }
+        }
+    }
 }
@@ -0,0 +1,46 @@
+package com.dfsek.seismic.type.sampler;
+
+import org.jetbrains.annotations.NotNull;
+
+
+/**
+ * A Sampler which may evaluate several channels at the same coordinates in one call.
+ * <p>
+ * Channel {@code c} is the sample at seed {@code seed + c}, and every channel must be identical to the value
+ * {@link #getSample(long, double, double)} returns for that seed. Implementations sharing work between channels, such as the lattice
+ * search of a noise function or the octave loop of a fractal, are expected to override these methods.
+ */
+public interface VectorSampler extends Sampler {
+    /**
+     * Evaluates several channels of 2D samples at once.
+     *
+     * @param seed     the seed of the first channel.
+     * @param out      the array to write to.
+     * @param offset   the index in {@code out} to write the first channel at.
+     * @param channels the number of channels.
+     * @param x        X coordinate.
+     * @param y        Y coordinate.
+     */
+    default void getSamples(long seed, double @NotNull [] out, int offset, int channels, double x, double y) {
+        for(int c = 0; c < channels; c++) {
+            out[offset + c] = getSample(seed + c, x, y);
+        }
+    }
+
+    /**
+     * Evaluates several channels of 3D samples at once.
+     *
+     * @param seed     the seed of the first channel.
+     * @param out      the array to write to.
+     * @param offset   the index in {@code out} to write the first channel at.
+     * @param channels the number of channels.
+     * @param x        X coordinate.
+     * @param y        Y coordinate.
+     * @param z        Z coordinate.
+     */
+    default void getSamples(long seed, double @NotNull [] out, int offset, int channels, double x, double y, double z) {
+        for(int c = 0; c < channels; c++) {
+            out[offset + c] = getSample(seed + c, x, y, z);
+        }
+    }
+}
@@ -97,9 +97,9 @@ public final class VMConstants {
      */
     public static final String JAVA_VENDOR = VMConstants.getSysProp("java.vendor", VMConstants.UNKNOWN);
     /**
-     * maximum supported vectorsize.
+     * maximum supported vectorsize, in bytes.
      */
-    private static final int MAX_VECTOR_SIZE =
+    public static final int MAX_VECTOR_SIZE =
         HotspotVMOptionsUtils.get("MaxVectorSize").map(Integer::valueOf).orElse(0);
     /**
      * true for an AMD cpu with SSE4a instructions.
@@ -114,6 +114,10 @@ public final class VMConstants {
      * true if we know FMA has faster throughput than separate mul/add.
      */
     public static final boolean HAS_FAST_SCALAR_FMA = VMConstants.hasFastScalarFMA();
+    /**
+     * true if the incubating Vector API module is present and is likely to be compiled to SIMD instructions.
+     */
+    public static final boolean HAS_VECTOR_API = VMConstants.hasVectorAPI();
 
     private VMConstants() {
     } // can't construct
@@ -175,6 +179,20 @@ public final class VMConstants {
         return false;
     }
 
+    private static boolean hasVectorAPI() {
+        if(ModuleLayer.boot().findModule("jdk.incubator.vector").isEmpty()) {
+            return false;
+        }
+        String value = VMConstants.getSysProp("seismic.useVectorAPI", "auto");
+        if("auto".equals(value)) {
+            // the Vector API falls back to (very slow) java code without C2,
+            // and anything narrower than 256 bits only fits two doubles per vector
+            return !VMConstants.IS_CLIENT_VM && VMConstants.MAX_VECTOR_SIZE >= 32;
+        } else {
+            return Boolean.parseBoolean(value);
+        }
+    }
+
     private static String getSysProp() {
         try {
             return AccessControllerUtils.doPrivileged(() -> System.getProperty("sun.arch.data.model"));
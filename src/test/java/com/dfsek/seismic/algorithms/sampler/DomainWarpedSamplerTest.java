@@ -0,0 +1,114 @@
+package com.dfsek.seismic.algorithms.sampler;
+
+import com.dfsek.seismic.algorithms.sampler.noise.NoiseFunction;
+import com.dfsek.seismic.algorithms.sampler.noise.fractal.BrownianMotionSampler;
+import com.dfsek.seismic.algorithms.sampler.noise.simplex.OpenSimplex2Sampler;
+import com.dfsek.seismic.algorithms.sampler.noise.value.ValueSampler;
+import com.dfsek.seismic.type.sampler.Sampler;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+
+public class DomainWarpedSamplerTest {
+    private static final long SEED = 2501;
+    private static final int CHANNELS = 3;
+
+    private static <T extends NoiseFunction> T configure(T noise, double frequency, long salt) {
+        noise.setFrequency(frequency);
+        noise.setSalt(salt);
+        return noise;
+    }
+
+    /**
+     * OpenSimplex2 with {@code getNoiseRaw} overridden, so its {@code getNoiseRawChannels} no longer matches {@code getSample}.
+     */
+    private static OpenSimplex2Sampler overriddenNoise() {
+        return configure(new OpenSimplex2Sampler() {
+            @Override
+            public double getNoiseRaw(long seed, double x, double y) {
+                return super.getNoiseRaw(seed, x, y) * 0.5 + 0.25;
+            }
+
+            @Override
+            public double getNoiseRaw(long seed, double x, double y, double z) {
+                return super.getNoiseRaw(seed, x, y, z) * 0.5 + 0.25;
+            }
+        }, 0.03, 5);
+    }
+
+    private static List<NoiseFunction> warps() {
+        BrownianMotionSampler overriddenFractal = new BrownianMotionSampler(configure(new ValueSampler(), 0.04, 3)) {
+            @Override
+            public double getNoiseRaw(long seed, double x, double y) {
+                return -super.getNoiseRaw(seed, x, y);
+            }
+
+            @Override
+            public double getNoiseRaw(long seed, double x, double y, double z) {
+                return -super.getNoiseRaw(seed, x, y, z);
+            }
+        };
+        return List.of(
+            configure(new OpenSimplex2Sampler(), 0.03, 5),
+            configure(new ValueSampler(), 0.04, 3),
+            configure(new BrownianMotionSampler(configure(new OpenSimplex2Sampler(), 0.03, 5)), 0.7, 11),
+            configure(new BrownianMotionSampler(configure(new ValueSampler(), 0.04, 3)), 1.3, 7),
+            overriddenNoise(),
+            configure(new BrownianMotionSampler(overriddenNoise()), 0.7, 11),
+            overriddenFractal
+        );
+    }
+
+    @Test
+    public void onlyExactClassesShareChannels() {
+        assertTrue(new OpenSimplex2Sampler().sharesChannels());
+        assertTrue(new ValueSampler().sharesChannels());
+        assertTrue(new BrownianMotionSampler(new OpenSimplex2Sampler()).sharesChannels());
+        assertFalse(overriddenNoise().sharesChannels());
+    }
+
+    @Test
+    public void getSamplesMatchesGetSample() {
+        double[] out = new double[CHANNELS + 1];
+        for(NoiseFunction warp : warps()) {
+            for(int i = 0; i < 64; i++) {
+                double x = i * 7.3 - 200;
+                double y = i * -3.1 + 50;
+                double z = i * 1.7;
+                warp.getSamples(SEED, out, 1, CHANNELS, x, y);
+                for(int c = 0; c < CHANNELS; c++) {
+                    assertEquals(warp.getSample(SEED + c, x, y), out[1 + c], 0, warp.getClass() + " 2D channel " + c);
+                }
+                warp.getSamples(SEED, out, 1, CHANNELS, x, y, z);
+                for(int c = 0; c < CHANNELS; c++) {
+                    assertEquals(warp.getSample(SEED + c, x, y, z), out[1 + c], 0, warp.getClass() + " 3D channel " + c);
+                }
+            }
+        }
+    }
+
+    @Test
+    public void warpMatchesPerAxisSamples() {
+        Sampler function = configure(new OpenSimplex2Sampler(), 0.02, 0);
+        for(NoiseFunction warp : warps()) {
+            DomainWarpedSampler sampler = new DomainWarpedSampler(function, warp, 12.5);
+            for(int i = 0; i < 64; i++) {
+                double x = i * 7.3 - 200;
+                double y = i * -3.1 + 50;
+                double z = i * 1.7;
+                assertEquals(function.getSample(SEED,
+                    x + warp.getSample(SEED + 1, x, y) * 12.5,
+                    y + warp.getSample(SEED + 2, x, y) * 12.5), sampler.getSample(SEED, x, y), 0, warp.getClass() + " 2D");
+                assertEquals(function.getSample(SEED,
+                    x + warp.getSample(SEED + 1, x, y, z) * 12.5,
+                    y + warp.getSample(SEED + 2, x, y, z) * 12.5,
+                    z + warp.getSample(SEED + 3, x, y, z) * 12.5), sampler.getSample(SEED, x, y, z), 0, warp.getClass() + " 3D");
+            }
+        }
+    }
+}
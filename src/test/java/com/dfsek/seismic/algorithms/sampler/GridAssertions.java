@@ -0,0 +1,65 @@
+package com.dfsek.seismic.algorithms.sampler;
+
+import com.dfsek.seismic.type.sampler.Sampler;
+
+import static org.junit.jupiter.api.Assertions.assertDoesNotThrow;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+
+/**
+ * Checks grid fills against the pointwise samples they must reproduce.
+ */
+public final class GridAssertions {
+    private GridAssertions() {
+    }
+
+    /**
+     * Asserts that a 2D grid fill matches sampling every point of it, to within {@code delta}, or exactly if {@code delta} is 0.
+     */
+    public static void assertGridMatchesPointwise(Sampler sampler, double delta, long seed, double x, double y, double stepX,
+                                                  double stepY, int sizeX, int sizeY) {
+        double[] out = new double[sizeX * sizeY];
+        sampler.getSampleGrid(seed, out, x, y, stepX, stepY, sizeX, sizeY);
+        for(int ix = 0; ix < sizeX; ix++) {
+            for(int iy = 0; iy < sizeY; iy++) {
+                double sx = x + ix * stepX;
+                double sy = y + iy * stepY;
+                assertEquals(sampler.getSample(seed, sx, sy), out[ix * sizeY + iy], delta, () -> "at " + sx + ", " + sy);
+            }
+        }
+    }
+
+    /**
+     * Asserts that a 3D grid fill matches sampling every point of it, to within {@code delta}, or exactly if {@code delta} is 0.
+     */
+    public static void assertGridMatchesPointwise(Sampler sampler, double delta, long seed, double x, double y, double z,
+                                                  double stepX, double stepY, double stepZ, int sizeX, int sizeY, int sizeZ) {
+        double[] out = new double[sizeX * sizeY * sizeZ];
+        sampler.getSampleGrid(seed, out, x, y, z, stepX, stepY, stepZ, sizeX, sizeY, sizeZ);
+        for(int ix = 0; ix < sizeX; ix++) {
+            for(int iy = 0; iy < sizeY; iy++) {
+                for(int iz = 0; iz < sizeZ; iz++) {
+                    double sx = x + ix * stepX;
+                    double sy = y + iy * stepY;
+                    double sz = z + iz * stepZ;
+                    assertEquals(sampler.getSample(seed, sx, sy, sz), out[(ix * sizeY + iy) * sizeZ + iz], delta,
+                        () -> "at " + sx + ", " + sy + ", " + sz);
+                }
+            }
+        }
+    }
+
+    /**
+     * Asserts that grids with no samples along some axis can be filled into an empty array.
+     */
+    public static void assertEmptyGridsAllowed(Sampler sampler) {
+        double[] empty = new double[0];
+        int[][] sizes = { { 0, 0, 0 }, { 0, 3, 3 }, { 3, 0, 3 }, { 3, 3, 0 } };
+        for(int[] size : sizes) {
+            assertDoesNotThrow(() -> sampler.getSampleGrid(0, empty, 0, 0, 0, 1, 1, 1, size[0], size[1], size[2]));
+            if(size[0] == 0 || size[1] == 0) {
+                assertDoesNotThrow(() -> sampler.getSampleGrid(0, empty, 0, 0, 1, 1, size[0], size[1]));
+            }
+        }
+    }
+}
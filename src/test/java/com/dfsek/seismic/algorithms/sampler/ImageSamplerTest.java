@@ -0,0 +1,62 @@
+package com.dfsek.seismic.algorithms.sampler;
+
+import com.dfsek.seismic.algorithms.sampler.ImageSampler.Channel;
+import com.dfsek.seismic.algorithms.sampler.ImageSampler.Filter;
+import org.junit.jupiter.api.Test;
+
+import java.awt.image.BufferedImage;
+import java.util.SplittableRandom;
+
+import static com.dfsek.seismic.algorithms.sampler.GridAssertions.assertEmptyGridsAllowed;
+import static com.dfsek.seismic.algorithms.sampler.GridAssertions.assertGridMatchesPointwise;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+
+public class ImageSamplerTest {
+    private static BufferedImage image() {
+        SplittableRandom random = new SplittableRandom(2301);
+        BufferedImage image = new BufferedImage(7, 5, BufferedImage.TYPE_INT_ARGB);
+        for(int px = 0; px < image.getWidth(); px++) {
+            for(int py = 0; py < image.getHeight(); py++) {
+                image.setRGB(px, py, random.nextInt());
+            }
+        }
+        return image;
+    }
+
+    @Test
+    public void nearestFilterMatchesImage() {
+        BufferedImage image = image();
+        ImageSampler read = new ImageSampler(image, Channel.GREEN, 0.75);
+        ImageSampler copied = new ImageSampler(image, Channel.GREEN, 0.75, Filter.NEAREST);
+        for(double x = -12; x < 12; x += 0.375) {
+            for(double y = -9; y < 9; y += 0.625) {
+                assertEquals(read.getSample(0, x, y), copied.getSample(0, x, y));
+            }
+        }
+    }
+
+    @Test
+    public void gridMatchesPointwise() {
+        BufferedImage image = image();
+        ImageSampler[] samplers = {
+            new ImageSampler(image, Channel.RED, 0.75),
+            new ImageSampler(image, Channel.RED, 0.75, Filter.NEAREST),
+            new ImageSampler(image, Channel.RED, 0.75, Filter.BILINEAR),
+            new ImageSampler(image, Channel.RED, 0.75, Filter.BICUBIC)
+        };
+        for(ImageSampler sampler : samplers) {
+            assertGridMatchesPointwise(sampler, 0, 0, -11.5, 4.25, 0.5, 1.25, 30, 17);
+            assertGridMatchesPointwise(sampler, 0, 0, -11.5, 3, 4.25, 0.5, 2, 1.25, 12, 3, 9);
+        }
+    }
+
+    @Test
+    public void emptyGrids() {
+        BufferedImage image = image();
+        assertEmptyGridsAllowed(new ImageSampler(image, Channel.BLUE, 1));
+        for(Filter filter : Filter.values()) {
+            assertEmptyGridsAllowed(new ImageSampler(image, Channel.BLUE, 1, filter));
+        }
+    }
+}
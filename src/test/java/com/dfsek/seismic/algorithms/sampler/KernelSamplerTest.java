@@ -0,0 +1,91 @@
+package com.dfsek.seismic.algorithms.sampler;
+
+import com.dfsek.seismic.algorithms.sampler.noise.simplex.OpenSimplex2Sampler;
+import org.junit.jupiter.api.Test;
+
+import java.util.SplittableRandom;
+
+import static com.dfsek.seismic.algorithms.sampler.GridAssertions.assertEmptyGridsAllowed;
+import static com.dfsek.seismic.algorithms.sampler.GridAssertions.assertGridMatchesPointwise;
+import static org.junit.jupiter.api.Assertions.assertDoesNotThrow;
+
+
+public class KernelSamplerTest {
+    private static final long SEED = 2201;
+
+    private static double[][] random(int width, int height) {
+        SplittableRandom random = new SplittableRandom(width * 31L + height);
+        double[][] kernel = new double[width][height];
+        for(double[] row : kernel) {
+            for(int ky = 0; ky < height; ky++) {
+                row[ky] = random.nextDouble(-1, 1) / (width * height);
+            }
+        }
+        return kernel;
+    }
+
+    private static double[][] separable(int width) {
+        double[][] kernel = new double[width][width];
+        for(int kx = 0; kx < width; kx++) {
+            for(int ky = 0; ky < width; ky++) {
+                kernel[kx][ky] = (kx + 1.0) * (width - ky) / (width * width * width);
+            }
+        }
+        return kernel;
+    }
+
+    private static KernelSampler sampler(double[][] kernel, boolean regionMode, double frequency) {
+        OpenSimplex2Sampler noise = new OpenSimplex2Sampler();
+        noise.setFrequency(0.05);
+        KernelSampler sampler = new KernelSampler(kernel, noise);
+        sampler.setFrequency(frequency);
+        sampler.setRegionMode(regionMode);
+        return sampler;
+    }
+
+    @Test
+    public void pointwiseGridMatchesPointwise() {
+        KernelSampler sampler = sampler(random(3, 4), false, 1);
+        assertGridMatchesPointwise(sampler, 0, SEED, -7.5, 12, 1, 2, 9, 7);
+        assertGridMatchesPointwise(sampler, 0, SEED, -7.5, 3, 12, 1, 0.5, 2, 5, 3, 7);
+    }
+
+    @Test
+    public void directRegionMatchesPointwise() {
+        KernelSampler sampler = sampler(random(3, 4), true, 1);
+        assertGridMatchesPointwise(sampler, 0, SEED, -7.5, 12, 1, 1, 16, 13);
+        assertGridMatchesPointwise(sampler, 0, SEED, -7.5, 12, 2, 3, 16, 13);
+        assertGridMatchesPointwise(sampler, 0, SEED, -7.5, 3, 12, 1, 0.5, 1, 12, 3, 10);
+    }
+
+    @Test
+    public void separableRegionMatchesPointwise() {
+        KernelSampler sampler = sampler(separable(7), true, 1);
+        assertGridMatchesPointwise(sampler, 1.0e-12, SEED, 100, -40, 1, 1, 24, 20);
+        assertGridMatchesPointwise(sampler, 1.0e-12, SEED, 100, 5, -40, 2, 1, 1, 12, 2, 10);
+    }
+
+    @Test
+    public void fourierRegionMatchesPointwise() {
+        KernelSampler sampler = sampler(random(21, 21), true, 1);
+        assertGridMatchesPointwise(sampler, 1.0e-10, SEED, -300, 250, 1, 1, 40, 33);
+    }
+
+    @Test
+    public void regionFallsBackForFractionalSteps() {
+        KernelSampler sampler = sampler(random(5, 5), true, 0.5);
+        assertGridMatchesPointwise(sampler, 0, SEED, 3, 4, 1, 1, 10, 10);
+        assertGridMatchesPointwise(sampler, 0, SEED, 3, 4, 3, 3, 10, 10);
+    }
+
+    @Test
+    public void emptyGrids() {
+        assertEmptyGridsAllowed(sampler(random(3, 3), false, 1));
+        assertEmptyGridsAllowed(sampler(random(3, 3), true, 1));
+        KernelSampler sampler = sampler(random(3, 3), true, 1);
+        double[] empty = new double[0];
+        // Steps wider than the kernel must not make the region of an empty grid negative.
+        assertDoesNotThrow(() -> sampler.getSampleGrid(SEED, empty, 0, 0, 8, 8, 0, 5));
+        assertDoesNotThrow(() -> sampler.getSampleGrid(SEED, empty, 0, 0, 0, 8, 1, 8, 5, 2, 0));
+    }
+}
@@ -0,0 +1,93 @@
+package com.dfsek.seismic.algorithms.sampler;
+
+import com.dfsek.seismic.algorithms.sampler.ImageSampler.Filter;
+import com.dfsek.seismic.algorithms.sampler.RawHeightmapSampler.EdgeMode;
+import com.dfsek.seismic.algorithms.sampler.RawHeightmapSampler.Format;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import static com.dfsek.seismic.algorithms.sampler.GridAssertions.assertEmptyGridsAllowed;
+import static com.dfsek.seismic.algorithms.sampler.GridAssertions.assertGridMatchesPointwise;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+
+public class RawHeightmapSamplerTest {
+    private static final int WIDTH = 6;
+    private static final int HEIGHT = 5;
+    private static final int HEADER = 3;
+
+    private static int value(int x, int y) {
+        return (x * 37 + y * 11) % 200;
+    }
+
+    /**
+     * Writes the test raster after a short header, row by row or in tiles of {@code tileSize}.
+     */
+    private static Path write(Format format, ByteOrder byteOrder, int tileSize) throws IOException {
+        int tiles = tileSize == 0 ? 0 : (WIDTH + tileSize - 1) / tileSize;
+        int values = tileSize == 0 ? WIDTH * HEIGHT : tiles * ((HEIGHT + tileSize - 1) / tileSize) * tileSize * tileSize;
+        ByteBuffer buffer = ByteBuffer.allocate(HEADER + values * format.getBytes()).order(byteOrder);
+        for(int y = 0; y < HEIGHT; y++) {
+            for(int x = 0; x < WIDTH; x++) {
+                int index = tileSize == 0 ? y * WIDTH + x :
+                            ((y / tileSize) * tiles + x / tileSize) * tileSize * tileSize + (y % tileSize) * tileSize + x % tileSize;
+                int position = HEADER + index * format.getBytes();
+                int value = value(x, y);
+                switch(format) {
+                    case UNSIGNED_8 -> buffer.put(position, (byte) value);
+                    case SIGNED_16, UNSIGNED_16 -> buffer.putShort(position, (short) value);
+                    case SIGNED_32 -> buffer.putInt(position, value);
+                    case FLOAT_32 -> buffer.putFloat(position, value);
+                }
+            }
+        }
+        Path path = Files.createTempFile("heightmap", ".raw");
+        path.toFile().deleteOnExit();
+        Files.write(path, buffer.array());
+        return path;
+    }
+
+    @Test
+    public void readsEveryFormatAndLayout() throws IOException {
+        for(Format format : Format.values()) {
+            for(ByteOrder byteOrder : new ByteOrder[]{ ByteOrder.BIG_ENDIAN, ByteOrder.LITTLE_ENDIAN }) {
+                for(int tileSize : new int[]{ 0, 1, 4, 8 }) {
+                    RawHeightmapSampler sampler = new RawHeightmapSampler(write(format, byteOrder, tileSize), HEADER, WIDTH, HEIGHT, format,
+                        byteOrder, tileSize);
+                    for(int x = 0; x < WIDTH; x++) {
+                        for(int y = 0; y < HEIGHT; y++) {
+                            assertEquals(value(x, y), sampler.getValue(x, y), format + " " + byteOrder + " " + tileSize);
+                        }
+                    }
+                }
+            }
+        }
+    }
+
+    @Test
+    public void gridMatchesPointwise() throws IOException {
+        Path path = write(Format.SIGNED_16, ByteOrder.LITTLE_ENDIAN, 4);
+        for(Filter filter : Filter.values()) {
+            for(EdgeMode edgeMode : EdgeMode.values()) {
+                RawHeightmapSampler sampler = new RawHeightmapSampler(path, HEADER, WIDTH, HEIGHT, Format.SIGNED_16,
+                    ByteOrder.LITTLE_ENDIAN, 4);
+                sampler.setFilter(filter);
+                sampler.setEdgeMode(edgeMode);
+                sampler.setFrequency(0.75);
+                assertGridMatchesPointwise(sampler, 0, 0, -9.5, 4.25, 0.5, 1.25, 30, 13);
+                assertGridMatchesPointwise(sampler, 0, 0, -9.5, 3, 4.25, 0.5, 2, 1.25, 12, 3, 9);
+            }
+        }
+    }
+
+    @Test
+    public void emptyGrids() throws IOException {
+        assertEmptyGridsAllowed(new RawHeightmapSampler(write(Format.UNSIGNED_8, ByteOrder.BIG_ENDIAN, 0), HEADER, WIDTH, HEIGHT,
+            Format.UNSIGNED_8, ByteOrder.BIG_ENDIAN, 0));
+    }
+}
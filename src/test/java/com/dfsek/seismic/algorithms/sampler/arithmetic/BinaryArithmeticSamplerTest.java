@@ -0,0 +1,27 @@
+package com.dfsek.seismic.algorithms.sampler.arithmetic;
+
+import com.dfsek.seismic.algorithms.sampler.noise.simplex.OpenSimplex2Sampler;
+import com.dfsek.seismic.algorithms.sampler.noise.value.ValueSampler;
+import org.junit.jupiter.api.Test;
+
+import static com.dfsek.seismic.algorithms.sampler.GridAssertions.assertGridMatchesPointwise;
+
+
+public class BinaryArithmeticSamplerTest {
+    private static final long SEED = 201;
+
+    @Test
+    public void gridMatchesPointwise() {
+        SubtractionSampler sampler = new SubtractionSampler(new OpenSimplex2Sampler(), new ValueSampler());
+        assertGridMatchesPointwise(sampler, 0, SEED, -12.5, 30, 1.5, 0.5, 20, 30);
+        assertGridMatchesPointwise(sampler, 0, SEED, -12.5, 4, 30, 1.5, 2, 0.5, 6, 5, 20);
+    }
+
+    @Test
+    public void largeGridMatchesPointwise() {
+        // Larger than the buffer kept between fills, followed by a small grid that reuses the kept buffer.
+        SubtractionSampler sampler = new SubtractionSampler(new OpenSimplex2Sampler(), new ValueSampler());
+        assertGridMatchesPointwise(sampler, 0, SEED, -12.5, 30, 0.5, 0.5, 400, 400);
+        assertGridMatchesPointwise(sampler, 0, SEED, 7, -3, 0.25, 1, 16, 16);
+    }
+}
@@ -0,0 +1,74 @@
+package com.dfsek.seismic.algorithms.sampler.noise;
+
+import com.dfsek.seismic.algorithms.sampler.noise.simplex.OpenSimplex2Sampler;
+import com.dfsek.seismic.algorithms.sampler.noise.value.ValueSampler;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+
+public class ImmutableNoiseSamplerTest {
+    private static final long SEED = 601;
+    private static final double FREQUENCY = 0.07;
+    private static final long SALT = 13;
+
+    private static <T extends NoiseFunction> T configure(T noise) {
+        noise.setFrequency(FREQUENCY);
+        noise.setSalt(SALT);
+        return noise;
+    }
+
+    private static ImmutableNoiseSampler immutable(NoiseFunction noise) {
+        return ImmutableNoiseSampler.builder(noise).frequency(FREQUENCY).salt(SALT).build();
+    }
+
+    @Test
+    public void matchesMutableNoise() {
+        for(NoiseFunction noise : List.of(configure(new OpenSimplex2Sampler()), configure(new ValueSampler()),
+            configure(new CellularSampler()))) {
+            ImmutableNoiseSampler sampler = immutable(noise);
+            double[] channels = new double[3];
+            for(int i = 0; i < 64; i++) {
+                double x = i * 5.3 - 100;
+                double y = i * -2.9 + 40;
+                double z = i * 1.3;
+                assertEquals(noise.getSample(SEED, x, y), sampler.getSample(SEED, x, y));
+                assertEquals(noise.getSample(SEED, x, y, z), sampler.getSample(SEED, x, y, z));
+
+                sampler.getSamples(SEED, channels, 0, 3, x, y, z);
+                for(int c = 0; c < 3; c++) {
+                    assertEquals(noise.getSample(SEED + c, x, y, z), channels[c]);
+                }
+            }
+        }
+    }
+
+    @Test
+    public void ignoresLaterChangesToTheNoise() {
+        OpenSimplex2Sampler noise = configure(new OpenSimplex2Sampler());
+        ImmutableNoiseSampler sampler = immutable(noise);
+        double expected = noise.getSample(SEED, 10.5, -3.25);
+        noise.setFrequency(FREQUENCY * 3);
+        noise.setSalt(SALT + 1);
+        assertEquals(expected, sampler.getSample(SEED, 10.5, -3.25));
+    }
+
+    @Test
+    public void forwardsDerivatives() {
+        OpenSimplex2Sampler noise = configure(new OpenSimplex2Sampler());
+        ImmutableNoiseSampler sampler = immutable(noise);
+        assertTrue(sampler.isDifferentiable());
+        assertArrayEquals(noise.getSampleDerivative(SEED, 10.5, -3.25), sampler.getSampleDerivative(SEED, 10.5, -3.25));
+        assertArrayEquals(noise.getSampleDerivative(SEED, 10.5, -3.25, 7), sampler.getSampleDerivative(SEED, 10.5, -3.25, 7));
+
+        ImmutableNoiseSampler value = immutable(new ValueSampler());
+        assertFalse(value.isDifferentiable());
+        assertThrows(UnsupportedOperationException.class, () -> value.getSampleDerivative(SEED, 10.5, -3.25));
+    }
+}
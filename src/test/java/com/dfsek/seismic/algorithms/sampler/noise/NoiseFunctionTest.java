@@ -0,0 +1,55 @@
+package com.dfsek.seismic.algorithms.sampler.noise;
+
+import com.dfsek.seismic.algorithms.sampler.noise.simplex.OpenSimplex2SSampler;
+import com.dfsek.seismic.algorithms.sampler.noise.simplex.OpenSimplex2Sampler;
+import com.dfsek.seismic.algorithms.sampler.noise.simplex.SimplexSampler;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static com.dfsek.seismic.algorithms.sampler.GridAssertions.assertGridMatchesPointwise;
+
+
+public class NoiseFunctionTest {
+    private static final long SEED = 1301;
+
+    private static <T extends NoiseFunction> T configure(T noise) {
+        noise.setFrequency(0.07);
+        noise.setSalt(17);
+        return noise;
+    }
+
+    private static void assertGridsMatchPointwise(NoiseFunction noise) {
+        assertGridMatchesPointwise(noise, 0, SEED, -20.5, 7.25, 1.5, 0.75, 9, 21);
+        assertGridMatchesPointwise(noise, 0, SEED, -20.5, -3, 7.25, 1.5, 0.5, 0.75, 5, 4, 21);
+    }
+
+    @Test
+    public void gridMatchesPointwise() {
+        for(NoiseFunction noise : List.of(configure(new SimplexSampler()), configure(new OpenSimplex2Sampler()),
+            configure(new OpenSimplex2SSampler()), configure(new CellularSampler()))) {
+            assertGridsMatchPointwise(noise);
+        }
+    }
+
+    @Test
+    public void overriddenNoiseGridMatchesPointwise() {
+        assertGridsMatchPointwise(configure(new OpenSimplex2Sampler() {
+            @Override
+            public double getNoiseRaw(long seed, double x, double y) {
+                return Math.abs(super.getNoiseRaw(seed, x, y));
+            }
+
+            @Override
+            public double getNoiseRaw(long seed, double x, double y, double z) {
+                return Math.abs(super.getNoiseRaw(seed, x, y, z));
+            }
+        }));
+        assertGridsMatchPointwise(configure(new OpenSimplex2SSampler() {
+            @Override
+            public double getNoiseRaw(long seed, double x, double y) {
+                return -super.getNoiseRaw(seed, x, y);
+            }
+        }));
+    }
+}
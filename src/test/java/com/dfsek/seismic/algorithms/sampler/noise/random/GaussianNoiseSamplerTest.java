@@ -0,0 +1,115 @@
+package com.dfsek.seismic.algorithms.sampler.noise.random;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+
+public class GaussianNoiseSamplerTest {
+    private static final long SEED = 2403;
+    private static final int SIZE = 200;
+    private static final int SAMPLES = SIZE * SIZE;
+
+    private static double[] sample(boolean fastMode) {
+        GaussianNoiseSampler sampler = new GaussianNoiseSampler();
+        sampler.setFastMode(fastMode);
+        double[] samples = new double[SAMPLES];
+        for(int ix = 0; ix < SIZE; ix++) {
+            for(int iy = 0; iy < SIZE; iy++) {
+                samples[ix * SIZE + iy] = sampler.getSample(SEED, ix, iy);
+            }
+        }
+        return samples;
+    }
+
+    private static double moment(double[] samples, double mean, int order) {
+        double sum = 0;
+        for(double sample : samples) {
+            sum += Math.pow(sample - mean, order);
+        }
+        return sum / samples.length;
+    }
+
+    @Test
+    public void fastModeMatchesExactDistribution() {
+        double[] fast = sample(true);
+        double[] exact = sample(false);
+        Arrays.sort(fast);
+        Arrays.sort(exact);
+
+        // Two-sample Kolmogorov-Smirnov statistic, against its critical value at a significance level of 0.001.
+        double statistic = 0;
+        int i = 0;
+        int j = 0;
+        while(i < SAMPLES && j < SAMPLES) {
+            double value = Math.min(fast[i], exact[j]);
+            while(i < SAMPLES && fast[i] <= value) {
+                i++;
+            }
+            while(j < SAMPLES && exact[j] <= value) {
+                j++;
+            }
+            statistic = Math.max(statistic, Math.abs((double) (i - j) / SAMPLES));
+        }
+        double critical = 1.95 * Math.sqrt(2.0 / SAMPLES);
+        assertTrue(statistic < critical, "KS statistic " + statistic + " exceeds " + critical);
+    }
+
+    @Test
+    public void fastModeMatchesExactMoments() {
+        double[] fast = sample(true);
+        double[] exact = sample(false);
+
+        double fastMean = Arrays.stream(fast).average().orElseThrow();
+        double exactMean = Arrays.stream(exact).average().orElseThrow();
+        double fastVariance = moment(fast, fastMean, 2);
+        double exactVariance = moment(exact, exactMean, 2);
+        double fastKurtosis = moment(fast, fastMean, 4) / (fastVariance * fastVariance);
+        double exactKurtosis = moment(exact, exactMean, 4) / (exactVariance * exactVariance);
+
+        // Tolerances are five standard errors of the difference between two independent normal samples.
+        assertEquals(exactMean, fastMean, 5 * Math.sqrt(2.0 / SAMPLES), "mean");
+        assertEquals(exactVariance, fastVariance, 5 * Math.sqrt(4.0 / SAMPLES), "variance");
+        assertEquals(exactKurtosis, fastKurtosis, 5 * Math.sqrt(48.0 / SAMPLES), "kurtosis");
+
+        assertEquals(0, fastMean, 5 / Math.sqrt(SAMPLES), "mean");
+        assertEquals(1, fastVariance, 5 * Math.sqrt(2.0 / SAMPLES), "variance");
+        assertEquals(3, fastKurtosis, 5 * Math.sqrt(24.0 / SAMPLES), "kurtosis");
+    }
+
+    @Test
+    public void fastModeGridMatchesPointwise() {
+        GaussianNoiseSampler sampler = new GaussianNoiseSampler();
+        sampler.setFastMode(true);
+        sampler.setFrequency(0.37);
+        sampler.setSalt(5);
+
+        double[] grid = new double[6 * 5 * 4];
+        double[] pointwise = new double[grid.length];
+        sampler.getSampleGrid(SEED, grid, -3.5, 12, 7.25, 0.75, 1.5, 2, 6, 5, 4);
+        int index = 0;
+        for(int ix = 0; ix < 6; ix++) {
+            for(int iy = 0; iy < 5; iy++) {
+                for(int iz = 0; iz < 4; iz++) {
+                    pointwise[index++] = sampler.getSample(SEED, -3.5 + ix * 0.75, 12 + iy * 1.5, 7.25 + iz * 2);
+                }
+            }
+        }
+        assertArrayEquals(pointwise, grid);
+
+        grid = new double[6 * 5];
+        pointwise = new double[grid.length];
+        sampler.getSampleGrid(SEED, grid, -3.5, 12, 0.75, 1.5, 6, 5);
+        index = 0;
+        for(int ix = 0; ix < 6; ix++) {
+            for(int iy = 0; iy < 5; iy++) {
+                pointwise[index++] = sampler.getSample(SEED, -3.5 + ix * 0.75, 12 + iy * 1.5);
+            }
+        }
+        assertArrayEquals(pointwise, grid);
+    }
+}
@@ -0,0 +1,41 @@
+package com.dfsek.seismic.algorithms.sampler.noise.simplex;
+
+import org.junit.jupiter.api.Test;
+
+import static com.dfsek.seismic.algorithms.sampler.GridAssertions.assertGridMatchesPointwise;
+
+
+public class PerlinSamplerTest {
+    private static final long SEED = 901;
+
+    private static void assertGridsMatchPointwise(PerlinSampler sampler) {
+        // Small steps keep several points in each cell, and negative coordinates cross the lattice origin.
+        assertGridMatchesPointwise(sampler, 0, SEED, -20.5, 7.25, 1, 0.75, 12, 40);
+        assertGridMatchesPointwise(sampler, 0, SEED, -20.5, -3, 7.25, 1, 0.5, 0.75, 6, 5, 40);
+    }
+
+    @Test
+    public void gridMatchesPointwise() {
+        PerlinSampler sampler = new PerlinSampler();
+        sampler.setFrequency(0.1);
+        sampler.setSalt(3);
+        assertGridsMatchPointwise(sampler);
+    }
+
+    @Test
+    public void overriddenNoiseGridMatchesPointwise() {
+        PerlinSampler sampler = new PerlinSampler() {
+            @Override
+            public double getNoiseRaw(long seed, double x, double y) {
+                return Math.abs(super.getNoiseRaw(seed, x, y));
+            }
+
+            @Override
+            public double getNoiseRaw(long seed, double x, double y, double z) {
+                return Math.abs(super.getNoiseRaw(seed, x, y, z));
+            }
+        };
+        sampler.setFrequency(0.1);
+        assertGridsMatchPointwise(sampler);
+    }
+}
@@ -0,0 +1,102 @@
+package com.dfsek.seismic.type;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.SplittableRandom;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+
+public class CubicSplineTest {
+    private static List<CubicSpline.Point> points(SplittableRandom random, int count, double min, double max) {
+        List<CubicSpline.Point> points = new ArrayList<>();
+        for(int i = 0; i < count; i++) {
+            double from = random.nextDouble(min, max);
+            if(i > 0 && random.nextInt(8) == 0) {
+                // Splines may contain several points at the same input.
+                from = points.get(random.nextInt(i)).from();
+            }
+            points.add(new CubicSpline.Point(from, random.nextDouble(-1, 1), random.nextDouble(-2, 2)));
+        }
+        return points;
+    }
+
+    private static double[] column(List<CubicSpline.Point> points, int column) {
+        return points.stream().mapToDouble(point -> switch(column) {
+            case 0 -> point.from();
+            case 1 -> point.to();
+            default -> point.gradient();
+        }).toArray();
+    }
+
+    private static double[] inputs(SplittableRandom random, List<CubicSpline.Point> points, double min, double max) {
+        double margin = (max - min) * 0.1;
+        double[] inputs = new double[2000 + points.size() * 3 + 2];
+        for(int i = 0; i < 2000; i++) {
+            inputs[i] = random.nextDouble(min - margin, max + margin);
+        }
+        // The bucket index must select the same segment on either side of every point.
+        for(int i = 0; i < points.size(); i++) {
+            double from = points.get(i).from();
+            inputs[2000 + i * 3] = from;
+            inputs[2001 + i * 3] = Math.nextDown(from);
+            inputs[2002 + i * 3] = Math.nextUp(from);
+        }
+        inputs[inputs.length - 2] = Double.NEGATIVE_INFINITY;
+        inputs[inputs.length - 1] = Double.POSITIVE_INFINITY;
+        return inputs;
+    }
+
+    @Test
+    public void applyMatchesCalculate() {
+        SplittableRandom random = new SplittableRandom(2101);
+        double[][] ranges = { { -1, 1 }, { 0, 1.0e-6 }, { -3.0e6, 5.0e6 }, { 1.0e9, 1.0e9 + 1 } };
+        for(int count : new int[]{ 1, 2, 3, 5, 12, 30, 100 }) {
+            for(double[] range : ranges) {
+                List<CubicSpline.Point> points = points(random, count, range[0], range[1]);
+                CubicSpline spline = new CubicSpline(points);
+                double[] fromValues = column(points, 0);
+                double[] toValues = column(points, 1);
+                double[] gradients = column(points, 2);
+                for(double input : inputs(random, points, range[0], range[1])) {
+                    assertEquals(CubicSpline.calculate(input, fromValues, toValues, gradients), spline.apply(input),
+                        () -> count + " points in " + range[0] + ".." + range[1] + " at " + input);
+                }
+            }
+        }
+    }
+
+    @Test
+    public void bulkApplyMatchesApply() {
+        SplittableRandom random = new SplittableRandom(2102);
+        List<CubicSpline.Point> points = points(random, 15, -1, 1);
+        CubicSpline spline = new CubicSpline(points);
+        double[] inputs = inputs(random, points, -1, 1);
+
+        double[] expected = new double[inputs.length];
+        for(int i = 0; i < inputs.length; i++) {
+            expected[i] = spline.apply(inputs[i]);
+        }
+        double[] out = new double[inputs.length];
+        spline.apply(inputs, out);
+        assertArrayEquals(expected, out);
+
+        spline.apply(inputs, inputs);
+        assertArrayEquals(expected, inputs);
+    }
+
+    @Test
+    public void keepsExistingOutput() {
+        // Values of the spline before it was precomputed, which existing terrain depends on.
+        CubicSpline spline = new CubicSpline(new ArrayList<>(List.of(new CubicSpline.Point(-1, 2, 0.5), new CubicSpline.Point(0, 5, -1),
+            new CubicSpline.Point(1, 3, 2))));
+        double[] inputs = { -2, -1, -0.5, 0, 0.25, 1, 2 };
+        double[] expected = { 1.5, 10, 5.125, 15, 13.984375, 3, 5 };
+        for(int i = 0; i < inputs.length; i++) {
+            assertEquals(expected[i], spline.apply(inputs[i]));
+        }
+    }
+}